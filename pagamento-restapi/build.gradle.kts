@@ -2,6 +2,7 @@ plugins {
 	java
 	id("org.springframework.boot") version "3.5.4"
 	id("io.spring.dependency-management") version "1.1.7"
+	id("me.champeau.jmh") version "0.7.2"
 }
 
 group = "br.com.fadesp.desafiotecnico.backend"
@@ -24,14 +25,24 @@ dependencies {
 	implementation("com.fasterxml.jackson.dataformat:jackson-dataformat-yaml")
 	implementation("org.springframework.boot:spring-boot-starter-data-mongodb")
 	implementation("org.springframework.kafka:spring-kafka")
+	implementation("org.springframework.boot:spring-boot-starter-webflux")
+	implementation("org.springframework.boot:spring-boot-starter-data-mongodb-reactive")
+	implementation("io.projectreactor.kafka:reactor-kafka:1.3.23")
 
 	implementation("org.springframework.boot:spring-boot-starter-validation")
+	implementation("org.springframework.boot:spring-boot-starter-actuator")
+	runtimeOnly("io.micrometer:micrometer-registry-prometheus")
+	implementation("com.github.ben-manes.caffeine:caffeine")
 
 	compileOnly("org.projectlombok:lombok")
 	annotationProcessor("org.projectlombok:lombok")
 
 	testImplementation("org.springframework.boot:spring-boot-starter-test")
 	testImplementation("org.springframework.kafka:spring-kafka-test")
+	testImplementation("io.projectreactor:reactor-test")
+	testImplementation("org.springframework.boot:spring-boot-testcontainers")
+	testImplementation("org.testcontainers:junit-jupiter")
+	testImplementation("org.testcontainers:mongodb")
 	testImplementation("org.mockito:mockito-core")
 	testRuntimeOnly("org.junit.platform:junit-platform-launcher")
 }
@@ -40,6 +51,61 @@ tasks.withType<Test> {
 	useJUnitPlatform()
 }
 
+tasks.test {
+	useJUnitPlatform {
+		excludeTags("carga")
+	}
+}
+
+tasks.withType<Test>().matching { it.name.startsWith("testeCarga") }.configureEach {
+	group = "verification"
+	testClassesDirs = sourceSets["test"].output.classesDirs
+	classpath = sourceSets["test"].runtimeClasspath
+	useJUnitPlatform {
+		includeTags("carga")
+	}
+	outputs.upToDateWhen { false }
+	testLogging.showStandardStreams = true
+	System.getProperties()
+		.filterKeys { chave -> listOf("carga.", "app.", "spring.").any { chave.toString().startsWith(it) } }
+		.forEach { (chave, valor) -> systemProperty(chave.toString(), valor) }
+}
+
+tasks.register<Test>("testeCarga") {
+	description = "Executa o teste de carga de ponta a ponta com Kafka embarcado."
+}
+
+// Mesma carga com threads de plataforma e virtuais, com e sem o cache de status; um relatório por variante
+val variantesComparacao = listOf(false, true).flatMap { virtuais -> listOf(true, false).map { cache -> virtuais to cache } }
+val tarefasComparacao = variantesComparacao.map { (virtuais, cache) ->
+	val nome = (if (virtuais) "virtual" else "plataforma") + (if (cache) "-com-cache" else "-sem-cache")
+	tasks.register<Test>("testeCarga-$nome") {
+		description = "Executa o teste de carga da comparação na variante $nome."
+		systemProperty("spring.threads.virtual.enabled", virtuais)
+		systemProperty("app.cache.pagamentos.habilitado", cache)
+		systemProperty("carga.clientes", System.getProperty("carga.clientes", "1000"))
+		systemProperty("carga.mix", System.getProperty("carga.mix", "criar=20,listar=40,status=40"))
+		systemProperty("carga.latencia-repositorio-us", System.getProperty("carga.latencia-repositorio-us", "2000"))
+		systemProperty("carga.relatorio", layout.buildDirectory.file("reports/carga/comparacao/$nome.json").get().asFile.path)
+	}
+}
+tarefasComparacao.zipWithNext { anterior, proxima -> proxima.configure { mustRunAfter(anterior) } }
+
+tasks.register("comparacaoCarga") {
+	description = "Compara vazão e latência com threads de plataforma e virtuais, com e sem o cache de status."
+	group = "verification"
+	dependsOn(tarefasComparacao)
+}
+
+jmh {
+	fork.set(1)
+	warmupIterations.set(3)
+	iterations.set(5)
+	resultFormat.set("JSON")
+	resultsFile.set(layout.buildDirectory.file("reports/jmh/results.json"))
+	includes.set(providers.gradleProperty("jmhIncludes").map { listOf(it) }.orElse(emptyList()))
+}
+
 tasks.bootBuildImage {
 	imageName.set("pagamento-restapi-image")
 }
\ No newline at end of file
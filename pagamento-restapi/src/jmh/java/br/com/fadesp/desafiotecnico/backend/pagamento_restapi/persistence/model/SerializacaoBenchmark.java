@@ -0,0 +1,84 @@
+package br.com.fadesp.desafiotecnico.backend.pagamento_restapi.persistence.model;
+
+import br.com.fadesp.desafiotecnico.backend.pagamento_restapi.persistence.model.entity.Pagamento;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.kafka.support.JacksonUtils;
+import org.springframework.kafka.support.serializer.JsonDeserializer;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class SerializacaoBenchmark {
+
+    private static final String TOPICO = "pagamento-status";
+
+    private ObjectMapper objectMapper;
+    private JsonSerializer<PagamentoStatusAtualizacao> serializer;
+    private JsonDeserializer<PagamentoStatusAtualizacao> deserializer;
+
+    private Pagamento pagamento;
+    private byte[] pagamentoJson;
+    private PagamentoStatusAtualizacao atualizacao;
+    private byte[] atualizacaoJson;
+
+    @Setup
+    public void setUp() throws IOException {
+        objectMapper = JacksonUtils.enhancedObjectMapper();
+
+        // Mesma configuração do application.yml para o produtor e o consumidor Kafka
+        serializer = new JsonSerializer<>();
+        serializer.configure(Map.of(JsonSerializer.ADD_TYPE_INFO_HEADERS, false), false);
+        deserializer = new JsonDeserializer<>();
+        deserializer.configure(Map.of(
+                JsonDeserializer.VALUE_DEFAULT_TYPE, PagamentoStatusAtualizacao.class.getName(),
+                JsonDeserializer.TRUSTED_PACKAGES, PagamentoStatusAtualizacao.class.getPackageName()), false);
+
+        pagamento = new Pagamento();
+        pagamento.setId("689a072281ee3387cdf579b3");
+        pagamento.setIdPagamento(123L);
+        pagamento.setCpfCnpj("12345678909");
+        pagamento.setMetodoPagamento(MetodoPagamento.CARTAO_CREDITO);
+        pagamento.setNumeroCartao("4111111111111111");
+        pagamento.setValor(new BigDecimal("150.75"));
+        pagamento.setStatus(StatusPagamento.PENDENTE_PROCESSAMENTO);
+        pagamentoJson = objectMapper.writeValueAsBytes(pagamento);
+
+        atualizacao = new PagamentoStatusAtualizacao();
+        atualizacao.setIdPagamento(123L);
+        atualizacao.setNovoStatus(StatusPagamento.PROCESSADO_SUCESSO);
+        atualizacaoJson = serializer.serialize(TOPICO, atualizacao);
+    }
+
+    @TearDown
+    public void tearDown() {
+        serializer.close();
+        deserializer.close();
+    }
+
+    @Benchmark
+    public byte[] serializarPagamento() throws IOException {
+        return objectMapper.writeValueAsBytes(pagamento);
+    }
+
+    @Benchmark
+    public Pagamento desserializarPagamento() throws IOException {
+        return objectMapper.readValue(pagamentoJson, Pagamento.class);
+    }
+
+    @Benchmark
+    public byte[] serializarAtualizacaoKafka() {
+        return serializer.serialize(TOPICO, atualizacao);
+    }
+
+    @Benchmark
+    public PagamentoStatusAtualizacao desserializarAtualizacaoKafka() {
+        return deserializer.deserialize(TOPICO, atualizacaoJson);
+    }
+}
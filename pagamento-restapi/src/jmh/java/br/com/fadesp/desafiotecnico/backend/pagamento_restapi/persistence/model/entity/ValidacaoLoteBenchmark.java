@@ -0,0 +1,151 @@
+package br.com.fadesp.desafiotecnico.backend.pagamento_restapi.persistence.model.entity;
+
+import br.com.fadesp.desafiotecnico.backend.pagamento_restapi.persistence.model.MetodoPagamento;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import jakarta.validation.ValidatorFactory;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Size;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// REGEX reproduz as restrições por @Pattern/@Size usadas antes dos validadores
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ValidacaoLoteBenchmark {
+
+    private static final int TAMANHO_BLOCO = 1000;
+
+    @Param({"REGEX", "VALIDADORES"})
+    public String restricoes;
+
+    private ValidatorFactory validatorFactory;
+    private Validator validator;
+    private List<Object> bloco;
+
+    @Setup
+    public void setUp() {
+        validatorFactory = Validation.buildDefaultValidatorFactory();
+        validator = validatorFactory.getValidator();
+
+        bloco = new ArrayList<>(TAMANHO_BLOCO);
+        for (int i = 0; i < TAMANHO_BLOCO; i++) {
+            Pagamento pagamento = novoPagamento(i);
+            bloco.add("REGEX".equals(restricoes) ? new PagamentoComRegex(pagamento) : pagamento);
+        }
+        if (validarBloco() != 0) {
+            throw new IllegalStateException("O bloco do benchmark deve conter apenas pagamentos válidos.");
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        validatorFactory.close();
+    }
+
+    @Benchmark
+    public int validarBloco() {
+        int violacoes = 0;
+        for (Object item : bloco) {
+            violacoes += validator.validate(item).size();
+        }
+        return violacoes;
+    }
+
+    private static Pagamento novoPagamento(int i) {
+        Pagamento pagamento = new Pagamento();
+        pagamento.setIdPagamento(1_000_000L + i);
+        pagamento.setCpfCnpj(i % 4 == 0 ? comDigitosCnpj(String.format("%08d0001", 10_000_000 + i)) : comDigitosCpf(String.format("%09d", 100_000_000 + i)));
+        MetodoPagamento metodo = MetodoPagamento.values()[i % MetodoPagamento.values().length];
+        pagamento.setMetodoPagamento(metodo);
+        if (metodo.isCartao()) {
+            pagamento.setNumeroCartao(comDigitoLuhn(String.format("411111%09d", i)));
+        }
+        pagamento.setValor(new BigDecimal("150.75"));
+        return pagamento;
+    }
+
+    private static String comDigitosCpf(String base) {
+        String comPrimeiro = base + digitoModulo11(base, 10);
+        return comPrimeiro + digitoModulo11(comPrimeiro, 11);
+    }
+
+    private static String comDigitosCnpj(String base) {
+        int[] pesos = {6, 5, 4, 3, 2, 9, 8, 7, 6, 5, 4, 3, 2};
+        String resultado = base;
+        for (int verificador = 0; verificador < 2; verificador++) {
+            int soma = 0;
+            for (int i = 0; i < resultado.length(); i++) {
+                soma += (resultado.charAt(i) - '0') * pesos[i + 1 - verificador];
+            }
+            int resto = soma % 11;
+            resultado += resto < 2 ? 0 : 11 - resto;
+        }
+        return resultado;
+    }
+
+    private static int digitoModulo11(String base, int pesoInicial) {
+        int soma = 0;
+        for (int i = 0; i < base.length(); i++) {
+            soma += (base.charAt(i) - '0') * (pesoInicial - i);
+        }
+        int resto = soma % 11;
+        return resto < 2 ? 0 : 11 - resto;
+    }
+
+    private static String comDigitoLuhn(String base) {
+        int soma = 0;
+        for (int i = base.length() - 1, posicao = 0; i >= 0; i--, posicao++) {
+            int digito = base.charAt(i) - '0';
+            if (posicao % 2 == 0) {
+                digito *= 2;
+                if (digito > 9) {
+                    digito -= 9;
+                }
+            }
+            soma += digito;
+        }
+        return base + (10 - soma % 10) % 10;
+    }
+
+    // Mesmos campos e restrições que Pagamento tinha antes dos validadores de CPF/CNPJ e de cartão.
+    public static class PagamentoComRegex {
+
+        @NotNull(message = "O ID do pagamento é obrigatório")
+        @Min(value = 1, message = "O ID do pagamento deve ser um número positivo")
+        private final Long idPagamento;
+
+        @NotBlank(message = "O CPF/CNPJ é obrigatório")
+        @Size(min = 11, max = 14, message = "O CPF/CNPJ deve ter 11 ou 14 dígitos")
+        @Pattern(regexp = "^\\d{11}$|^\\d{14}$", message = "O CPF/CNPJ deve conter apenas números e ter 11 ou 14 dígitos")
+        private final String cpfCnpj;
+
+        @NotNull(message = "O método de pagamento é obrigatório")
+        private final MetodoPagamento metodoPagamento;
+
+        @Size(min = 16, max = 16, message = "O número do cartão deve ter 16 dígitos")
+        @Pattern(regexp = "^\\d*$", message = "O número do cartão deve conter apenas números")
+        private final String numeroCartao;
+
+        @NotNull(message = "O valor é obrigatório")
+        @DecimalMin(value = "0.01", message = "O valor deve ser maior que zero")
+        private final BigDecimal valor;
+
+        PagamentoComRegex(Pagamento pagamento) {
+            this.idPagamento = pagamento.getIdPagamento();
+            this.cpfCnpj = pagamento.getCpfCnpj();
+            this.metodoPagamento = pagamento.getMetodoPagamento();
+            this.numeroCartao = pagamento.getNumeroCartao();
+            this.valor = pagamento.getValor();
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package br.com.fadesp.desafiotecnico.backend.pagamento_restapi.persistence.model.entity;
+
+import br.com.fadesp.desafiotecnico.backend.pagamento_restapi.persistence.model.MetodoPagamento;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import jakarta.validation.ValidatorFactory;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ValidacaoPagamentoBenchmark {
+
+    private ValidatorFactory validatorFactory;
+    private Validator validator;
+
+    private Pagamento pagamentoValido;
+    private Pagamento pagamentoInvalido;
+
+    @Setup
+    public void setUp() {
+        validatorFactory = Validation.buildDefaultValidatorFactory();
+        validator = validatorFactory.getValidator();
+
+        pagamentoValido = new Pagamento();
+        pagamentoValido.setIdPagamento(123L);
+        pagamentoValido.setCpfCnpj("12345678000195");
+        pagamentoValido.setMetodoPagamento(MetodoPagamento.CARTAO_CREDITO);
+        pagamentoValido.setNumeroCartao("4111111111111111");
+        pagamentoValido.setValor(new BigDecimal("150.75"));
+
+        pagamentoInvalido = new Pagamento();
+        pagamentoInvalido.setIdPagamento(0L);
+        pagamentoInvalido.setCpfCnpj("123.456.789-09");
+        pagamentoInvalido.setMetodoPagamento(MetodoPagamento.CARTAO_CREDITO);
+        pagamentoInvalido.setNumeroCartao("4111-1111-1111");
+        pagamentoInvalido.setValor(BigDecimal.ZERO);
+    }
+
+    @TearDown
+    public void tearDown() {
+        validatorFactory.close();
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<Pagamento>> validarPagamentoValido() {
+        return validator.validate(pagamentoValido);
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<Pagamento>> validarPagamentoInvalido() {
+        return validator.validate(pagamentoInvalido);
+    }
+}
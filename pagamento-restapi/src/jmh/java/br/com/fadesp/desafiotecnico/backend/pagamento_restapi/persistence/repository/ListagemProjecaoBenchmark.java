@@ -0,0 +1,101 @@
+package br.com.fadesp.desafiotecnico.backend.pagamento_restapi.persistence.repository;
+
+import br.com.fadesp.desafiotecnico.backend.pagamento_restapi.persistence.model.MetodoPagamento;
+import br.com.fadesp.desafiotecnico.backend.pagamento_restapi.persistence.model.PagamentoResumido;
+import br.com.fadesp.desafiotecnico.backend.pagamento_restapi.persistence.model.PaginatedResponse;
+import br.com.fadesp.desafiotecnico.backend.pagamento_restapi.persistence.model.StatusPagamento;
+import br.com.fadesp.desafiotecnico.backend.pagamento_restapi.persistence.model.VisaoPagamento;
+import br.com.fadesp.desafiotecnico.backend.pagamento_restapi.persistence.model.entity.Pagamento;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.bson.Document;
+import org.bson.RawBsonDocument;
+import org.bson.codecs.DocumentCodec;
+import org.bson.types.ObjectId;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.kafka.support.JacksonUtils;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ListagemProjecaoBenchmark {
+
+    private static final int TAMANHO_PAGINA = 50;
+
+    @Param({"COMPLETA", "RESUMIDA"})
+    public VisaoPagamento visao;
+
+    private MappingMongoConverter converter;
+    private DocumentCodec codec;
+    private ObjectMapper objectMapper;
+    private Class<?> tipo;
+    private List<RawBsonDocument> documentos;
+    private PaginatedResponse<?> pagina;
+
+    @Setup
+    public void setUp() throws IOException {
+        converter = new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, new MongoMappingContext());
+        converter.afterPropertiesSet();
+        codec = new DocumentCodec();
+        objectMapper = JacksonUtils.enhancedObjectMapper();
+        tipo = visao == VisaoPagamento.RESUMIDA ? PagamentoResumido.class : Pagamento.class;
+
+        // Documentos como o MongoDB os devolve: inteiros ou apenas com _id e os campos da projeção resumida
+        documentos = new ArrayList<>(TAMANHO_PAGINA);
+        long bytesBson = 0;
+        for (int i = 0; i < TAMANHO_PAGINA; i++) {
+            Document gravado = new Document();
+            converter.write(novoPagamento(i), gravado);
+            Document devolvido = visao == VisaoPagamento.RESUMIDA ? projetar(gravado) : gravado;
+            RawBsonDocument bruto = new RawBsonDocument(devolvido, codec);
+            documentos.add(bruto);
+            bytesBson += bruto.getByteBuffer().remaining();
+        }
+
+        pagina = new PaginatedResponse<>(lerPagina(), null, null);
+        System.out.printf("%nvisao=%s bytesBsonPorPagina=%d bytesJsonPorPagina=%d%n",
+                visao, bytesBson, objectMapper.writeValueAsBytes(pagina).length);
+    }
+
+    @Benchmark
+    public List<Object> lerPagina() {
+        List<Object> itens = new ArrayList<>(documentos.size());
+        for (RawBsonDocument documento : documentos) {
+            itens.add(converter.read(tipo, documento.decode(codec)));
+        }
+        return itens;
+    }
+
+    @Benchmark
+    public byte[] serializarPagina() throws IOException {
+        return objectMapper.writeValueAsBytes(pagina);
+    }
+
+    private static Document projetar(Document gravado) {
+        Document projetado = new Document("_id", gravado.get("_id"));
+        for (String campo : PagamentoResumido.CAMPOS) {
+            projetado.put(campo, gravado.get(campo));
+        }
+        return projetado;
+    }
+
+    private static Pagamento novoPagamento(int i) {
+        Pagamento pagamento = new Pagamento();
+        pagamento.setId(new ObjectId().toHexString());
+        pagamento.setIdPagamento(1_000_000L + i);
+        pagamento.setCpfCnpj(String.format("%011d", 12345600000L + i));
+        pagamento.setMetodoPagamento(MetodoPagamento.CARTAO_CREDITO);
+        pagamento.setNumeroCartao("4111111111111111");
+        pagamento.setValor(new BigDecimal("150.75"));
+        pagamento.setStatus(StatusPagamento.values()[i % 3]);
+        return pagamento;
+    }
+}
@@ -0,0 +1,68 @@
+package br.com.fadesp.desafiotecnico.backend.pagamento_restapi.persistence.repository;
+
+import br.com.fadesp.desafiotecnico.backend.pagamento_restapi.persistence.model.StatusPagamento;
+import br.com.fadesp.desafiotecnico.backend.pagamento_restapi.persistence.model.entity.Pagamento;
+import org.bson.Document;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.convert.QueryMapper;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentEntity;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class PagamentoRepositoryImplBenchmark {
+
+    @Param({"sem-filtros", "id", "cpf-prefixo", "cpf-texto", "todos"})
+    private String filtro;
+
+    private QueryMapper queryMapper;
+    private MongoPersistentEntity<?> entidade;
+
+    private Long idPagamento;
+    private String cpfCnpj;
+    private StatusPagamento status;
+
+    @Setup
+    public void setUp() {
+        MongoMappingContext mappingContext = new MongoMappingContext();
+        MappingMongoConverter converter = new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, mappingContext);
+        converter.afterPropertiesSet();
+        queryMapper = new QueryMapper(converter);
+        entidade = mappingContext.getRequiredPersistentEntity(Pagamento.class);
+
+        switch (filtro) {
+            case "id" -> idPagamento = 123L;
+            case "cpf-prefixo" -> cpfCnpj = "1234567";
+            case "cpf-texto" -> cpfCnpj = "123.456";
+            case "todos" -> {
+                idPagamento = 123L;
+                cpfCnpj = "1234567";
+                status = StatusPagamento.PENDENTE_PROCESSAMENTO;
+            }
+            default -> {
+            }
+        }
+    }
+
+    @Benchmark
+    public Query montarQuery() {
+        return PagamentoRepositoryImpl.montarQuery(idPagamento, cpfCnpj, status);
+    }
+
+    @Benchmark
+    public Query montarQueryPaginada() {
+        return PagamentoRepositoryImpl.montarQueryPaginada(idPagamento, cpfCnpj, status, "689a072281ee3387cdf579b3", 51);
+    }
+
+    @Benchmark
+    public Document montarEMapearQuery() {
+        Query query = PagamentoRepositoryImpl.montarQueryPaginada(idPagamento, cpfCnpj, status, "689a072281ee3387cdf579b3", 51);
+        return queryMapper.getMappedObject(query.getQueryObject(), entidade);
+    }
+}
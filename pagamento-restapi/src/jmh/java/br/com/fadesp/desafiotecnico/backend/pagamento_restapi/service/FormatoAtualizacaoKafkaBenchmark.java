@@ -0,0 +1,61 @@
+package br.com.fadesp.desafiotecnico.backend.pagamento_restapi.service;
+
+import br.com.fadesp.desafiotecnico.backend.pagamento_restapi.persistence.model.PagamentoStatusAtualizacao;
+import br.com.fadesp.desafiotecnico.backend.pagamento_restapi.persistence.model.StatusPagamento;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.kafka.support.serializer.JsonDeserializer;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class FormatoAtualizacaoKafkaBenchmark {
+
+    private static final String TOPICO = "pagamento-status";
+
+    @Param({PagamentoStatusAtualizacaoSerializer.FORMATO_JSON, PagamentoStatusAtualizacaoSerializer.FORMATO_BINARIO})
+    public String formato;
+
+    private PagamentoStatusAtualizacaoSerializer serializer;
+    private PagamentoStatusAtualizacaoDeserializer deserializer;
+    private PagamentoStatusAtualizacao atualizacao;
+    private byte[] registro;
+
+    @Setup
+    public void setUp() {
+        // Mesma configuração do application.yml para o produtor e o consumidor Kafka
+        serializer = new PagamentoStatusAtualizacaoSerializer();
+        serializer.configure(Map.of(
+                PagamentoStatusAtualizacaoSerializer.FORMATO, formato,
+                JsonSerializer.ADD_TYPE_INFO_HEADERS, false), false);
+        deserializer = new PagamentoStatusAtualizacaoDeserializer();
+        deserializer.configure(Map.of(
+                JsonDeserializer.VALUE_DEFAULT_TYPE, PagamentoStatusAtualizacao.class.getName(),
+                JsonDeserializer.TRUSTED_PACKAGES, PagamentoStatusAtualizacao.class.getPackageName()), false);
+
+        atualizacao = new PagamentoStatusAtualizacao();
+        atualizacao.setIdPagamento(1234567890123L);
+        atualizacao.setNovoStatus(StatusPagamento.PROCESSADO_SUCESSO);
+        registro = serializer.serialize(TOPICO, atualizacao);
+        System.out.printf("%nformato=%s bytesPorRegistro=%d%n", formato, registro.length);
+    }
+
+    @TearDown
+    public void tearDown() {
+        serializer.close();
+        deserializer.close();
+    }
+
+    @Benchmark
+    public byte[] serializar() {
+        return serializer.serialize(TOPICO, atualizacao);
+    }
+
+    @Benchmark
+    public PagamentoStatusAtualizacao desserializar() {
+        return deserializer.deserialize(TOPICO, registro);
+    }
+}
@@ -0,0 +1,33 @@
+package br.com.fadesp.desafiotecnico.backend.pagamento_restapi.service;
+
+import br.com.fadesp.desafiotecnico.backend.pagamento_restapi.persistence.model.StatusPagamento;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class PagamentoConsumerBenchmark {
+
+    private static final StatusPagamento[] STATUS = StatusPagamento.values();
+
+    @Benchmark
+    @OperationsPerInvocation(9)
+    public void podeAtualizarStatus(Blackhole blackhole) {
+        for (StatusPagamento statusAtual : STATUS) {
+            for (StatusPagamento novoStatus : STATUS) {
+                blackhole.consume(PagamentoConsumer.podeAtualizarStatus(statusAtual, novoStatus));
+            }
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(3)
+    public void origensPermitidas(Blackhole blackhole) {
+        for (StatusPagamento novoStatus : STATUS) {
+            blackhole.consume(PagamentoConsumer.origensPermitidas(novoStatus));
+        }
+    }
+}
@@ -2,8 +2,10 @@ package br.com.fadesp.desafiotecnico.backend.pagamento_restapi;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
 public class PagamentoRestapiApplication {
 
 	public static void main(String[] args) {
@@ -1,11 +1,17 @@
 package br.com.fadesp.desafiotecnico.backend.pagamento_restapi.config;
 
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.web.cors.CorsConfiguration;
+import org.springframework.web.cors.reactive.CorsWebFilter;
+import org.springframework.web.cors.reactive.UrlBasedCorsConfigurationSource;
 import org.springframework.web.servlet.config.annotation.CorsRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 import org.springframework.beans.factory.annotation.Value;
 
+import java.util.List;
+
 @Configuration
 public class CorsConfig {
 
@@ -13,6 +19,7 @@ public class CorsConfig {
     private String allowedOrigins;
 
     @Bean
+    @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
     public WebMvcConfigurer corsConfigurer() {
         return new WebMvcConfigurer() {
             @Override
@@ -25,4 +32,18 @@ public class CorsConfig {
             }
         };
     }
-}
\ No newline at end of file
+
+    @Bean
+    @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+    public CorsWebFilter corsWebFilter() {
+        CorsConfiguration configuracao = new CorsConfiguration();
+        configuracao.setAllowedOrigins(List.of(allowedOrigins));
+        configuracao.setAllowedMethods(List.of("GET", "POST", "PUT", "DELETE"));
+        configuracao.addAllowedHeader("*");
+        configuracao.setAllowCredentials(true);
+
+        UrlBasedCorsConfigurationSource origem = new UrlBasedCorsConfigurationSource();
+        origem.registerCorsConfiguration("/**", configuracao);
+        return new CorsWebFilter(origem);
+    }
+}
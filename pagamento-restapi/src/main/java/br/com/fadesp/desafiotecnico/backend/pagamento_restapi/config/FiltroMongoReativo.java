@@ -0,0 +1,35 @@
+package br.com.fadesp.desafiotecnico.backend.pagamento_restapi.config;
+
+import org.springframework.boot.autoconfigure.AutoConfigurationImportFilter;
+import org.springframework.boot.autoconfigure.AutoConfigurationMetadata;
+import org.springframework.context.EnvironmentAware;
+import org.springframework.core.env.Environment;
+
+import java.util.Set;
+
+// Cliente, template e repositórios reativos do Mongo só sobem com spring.main.web-application-type=reactive;
+// no modo servlet não abrem um segundo pool de conexões que ninguém usa
+public class FiltroMongoReativo implements AutoConfigurationImportFilter, EnvironmentAware {
+
+    private static final Set<String> AUTO_CONFIGURACOES_REATIVAS = Set.of(
+            "org.springframework.boot.autoconfigure.mongo.MongoReactiveAutoConfiguration",
+            "org.springframework.boot.autoconfigure.data.mongo.MongoReactiveDataAutoConfiguration",
+            "org.springframework.boot.autoconfigure.data.mongo.MongoReactiveRepositoriesAutoConfiguration");
+
+    private Environment environment;
+
+    @Override
+    public void setEnvironment(Environment environment) {
+        this.environment = environment;
+    }
+
+    @Override
+    public boolean[] match(String[] autoConfigurationClasses, AutoConfigurationMetadata autoConfigurationMetadata) {
+        boolean reativo = "reactive".equalsIgnoreCase(environment.getProperty("spring.main.web-application-type"));
+        boolean[] resultado = new boolean[autoConfigurationClasses.length];
+        for (int i = 0; i < autoConfigurationClasses.length; i++) {
+            resultado[i] = reativo || !AUTO_CONFIGURACOES_REATIVAS.contains(autoConfigurationClasses[i]);
+        }
+        return resultado;
+    }
+}
@@ -0,0 +1,38 @@
+package br.com.fadesp.desafiotecnico.backend.pagamento_restapi.config;
+
+import br.com.fadesp.desafiotecnico.backend.pagamento_restapi.service.PagamentoDltService;
+import jakarta.annotation.PreDestroy;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.kafka.KafkaProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.listener.DeadLetterPublishingRecoverer;
+import org.springframework.kafka.retrytopic.DeadLetterPublishingRecovererFactory;
+import org.springframework.kafka.retrytopic.RetryTopicConfigurationSupport;
+
+import java.util.function.Consumer;
+
+// Mensagens ilegíveis chegam ao DLT com os bytes originais; o template principal só serializa PagamentoStatusAtualizacao
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class KafkaRetentativaConfig extends RetryTopicConfigurationSupport {
+
+    private final KafkaTemplate<String, byte[]> kafkaTemplateBytes;
+
+    public KafkaRetentativaConfig(KafkaProperties kafkaProperties) {
+        this.kafkaTemplateBytes = PagamentoDltService.templateBytes(kafkaProperties);
+    }
+
+    @Override
+    protected Consumer<DeadLetterPublishingRecovererFactory> configureDeadLetterPublishingContainerFactory() {
+        return fabrica -> fabrica.setDeadLetterPublisherCreator((resolverTemplate, resolverDestino) ->
+                new DeadLetterPublishingRecoverer(
+                        registro -> registro.value() instanceof byte[] ? kafkaTemplateBytes : resolverTemplate.apply(registro),
+                        resolverDestino));
+    }
+
+    @PreDestroy
+    public void fechar() {
+        kafkaTemplateBytes.getProducerFactory().reset();
+    }
+}
@@ -0,0 +1,37 @@
+package br.com.fadesp.desafiotecnico.backend.pagamento_restapi.config;
+
+import br.com.fadesp.desafiotecnico.backend.pagamento_restapi.service.PagamentoConsumer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.config.TopicBuilder;
+import org.springframework.kafka.core.KafkaAdmin;
+
+@Configuration
+public class KafkaTopicConfig {
+
+    @Value("${app.kafka.topic-status}")
+    private String topicoStatus;
+
+    @Value("${app.kafka.topicos.particoes:6}")
+    private int particoes;
+
+    @Value("${app.kafka.topicos.replicas:1}")
+    private short replicas;
+
+    // O KafkaAdmin cria os tópicos ausentes e aumenta as partições dos existentes, mas nunca as reduz.
+    @Bean
+    public KafkaAdmin.NewTopics topicosPagamento() {
+        return new KafkaAdmin.NewTopics(TopicBuilder.name(topicoStatus).partitions(particoes).replicas(replicas).build());
+    }
+
+    // No modo servlet, o @RetryableTopic cria os tópicos de retentativa e o DLT; o consumidor reativo usa um tópico de retentativa só.
+    @Bean
+    @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+    public KafkaAdmin.NewTopics topicosFalhaReativo() {
+        return new KafkaAdmin.NewTopics(
+                TopicBuilder.name(topicoStatus + PagamentoConsumer.SUFIXO_RETENTATIVA).partitions(particoes).replicas(replicas).build(),
+                TopicBuilder.name(topicoStatus + PagamentoConsumer.SUFIXO_DLT).partitions(particoes).replicas(replicas).build());
+    }
+}
@@ -0,0 +1,16 @@
+package br.com.fadesp.desafiotecnico.backend.pagamento_restapi.config;
+
+import br.com.fadesp.desafiotecnico.backend.pagamento_restapi.service.MonitorSobrecarga;
+import org.springframework.boot.autoconfigure.mongo.MongoClientSettingsBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class MongoConfig {
+
+    // Vale para o cliente síncrono e para o reativo; as métricas de pool do Spring Boot continuam registradas.
+    @Bean
+    public MongoClientSettingsBuilderCustomizer esperaPoolMongo(MonitorSobrecarga monitorSobrecarga) {
+        return builder -> builder.applyToConnectionPoolSettings(pool -> pool.addConnectionPoolListener(monitorSobrecarga));
+    }
+}
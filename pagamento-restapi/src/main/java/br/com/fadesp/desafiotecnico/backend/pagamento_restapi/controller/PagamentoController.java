@@ -1,71 +1,304 @@
 package br.com.fadesp.desafiotecnico.backend.pagamento_restapi.controller;
 
+import br.com.fadesp.desafiotecnico.backend.pagamento_restapi.persistence.model.EventoPagamento;
 import br.com.fadesp.desafiotecnico.backend.pagamento_restapi.persistence.model.PagamentoStatusAtualizacao;
+import br.com.fadesp.desafiotecnico.backend.pagamento_restapi.persistence.model.PaginatedResponse;
+import br.com.fadesp.desafiotecnico.backend.pagamento_restapi.persistence.model.RegistroDlt;
+import br.com.fadesp.desafiotecnico.backend.pagamento_restapi.persistence.model.ResultadoLote;
+import br.com.fadesp.desafiotecnico.backend.pagamento_restapi.persistence.model.ResultadoReprocessamentoDlt;
+import br.com.fadesp.desafiotecnico.backend.pagamento_restapi.persistence.model.ResumoPagamentos;
 import br.com.fadesp.desafiotecnico.backend.pagamento_restapi.persistence.model.StatusPagamento;
+import br.com.fadesp.desafiotecnico.backend.pagamento_restapi.persistence.model.VisaoPagamento;
 import br.com.fadesp.desafiotecnico.backend.pagamento_restapi.persistence.model.entity.Pagamento;
+import br.com.fadesp.desafiotecnico.backend.pagamento_restapi.service.EnvioAtualizacao;
+import br.com.fadesp.desafiotecnico.backend.pagamento_restapi.service.LimitadorAtualizacaoStatus;
+import br.com.fadesp.desafiotecnico.backend.pagamento_restapi.service.PagamentoDltService;
+import br.com.fadesp.desafiotecnico.backend.pagamento_restapi.service.PagamentoEventos;
+import br.com.fadesp.desafiotecnico.backend.pagamento_restapi.service.PagamentoLoteService;
+import br.com.fadesp.desafiotecnico.backend.pagamento_restapi.service.PagamentoResumoService;
 import br.com.fadesp.desafiotecnico.backend.pagamento_restapi.service.PagamentoService;
+import br.com.fadesp.desafiotecnico.backend.pagamento_restapi.service.RejeicaoLimite;
+import br.com.fadesp.desafiotecnico.backend.pagamento_restapi.service.VersaoPagamentos;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import reactor.core.publisher.Flux;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.Stream;
 
 @RestController
 @RequestMapping("/pagamentos")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 @Tag(name = "Pagamentos", description = "Endpoints para gerenciamento de pagamentos")
 public class PagamentoController {
 
+    private static final int INTERVALO_FLUSH_EXPORTACAO = 500;
+    private static final String HEADER_ID_MENSAGEM = "X-Id-Mensagem";
+    private static final String HEADER_CHAVE_IDEMPOTENCIA = "Idempotency-Key";
+    private static final String HEADER_ENCAMINHADO_PARA = "X-Forwarded-For";
+
     private final PagamentoService pagamentoService;
+    private final PagamentoLoteService pagamentoLoteService;
+    private final PagamentoResumoService pagamentoResumoService;
+    private final PagamentoEventos pagamentoEventos;
+    private final LimitadorAtualizacaoStatus limitadorAtualizacaoStatus;
+    private final PagamentoDltService pagamentoDltService;
+    private final ObjectMapper objectMapper;
+
+    @Value("${app.kafka.producer.tempo-maximo-confirmacao:5s}")
+    private Duration tempoMaximoConfirmacao;
 
-    public PagamentoController(PagamentoService pagamentoService) {
+    public PagamentoController(PagamentoService pagamentoService, PagamentoLoteService pagamentoLoteService,
+                               PagamentoResumoService pagamentoResumoService, PagamentoEventos pagamentoEventos,
+                               LimitadorAtualizacaoStatus limitadorAtualizacaoStatus, PagamentoDltService pagamentoDltService,
+                               ObjectMapper objectMapper) {
         this.pagamentoService = pagamentoService;
+        this.pagamentoLoteService = pagamentoLoteService;
+        this.pagamentoResumoService = pagamentoResumoService;
+        this.pagamentoEventos = pagamentoEventos;
+        this.limitadorAtualizacaoStatus = limitadorAtualizacaoStatus;
+        this.pagamentoDltService = pagamentoDltService;
+        this.objectMapper = objectMapper;
     }
 
 
     @PostMapping
-    @Operation(summary = "Criar um novo pagamento", description = "Registra um novo pagamento no sistema. O status inicial é definido automaticamente para 'PENDENTE_PROCESSAMENTO'. Caso a método de pagamento não seja cartão, o valor de 'numeroCartao' deve ser null")
+    @Operation(summary = "Criar um novo pagamento", description = "Registra um novo pagamento no sistema. O status inicial é definido automaticamente para 'PENDENTE_PROCESSAMENTO'. O CPF/CNPJ e o número do cartão são validados pelos dígitos verificadores; o número do cartão é obrigatório para pagamentos com cartão e deve ser null nos demais")
     @ApiResponse(responseCode = "201", description = "Pagamento criado com sucesso.",
             content = @Content(mediaType = "application/json",
                     schema = @Schema(implementation = Pagamento.class)))
     @ApiResponse(responseCode = "400", description = "Dados da requisição inválidos.")
+    @ApiResponse(responseCode = "409", description = "Já existe um pagamento com o mesmo idPagamento.")
     public ResponseEntity<Pagamento> criarPagamento(@RequestBody @Valid Pagamento pagamento) {
-        Pagamento novoPagamento = pagamentoService.criarPagamento(pagamento);
-        return new ResponseEntity<>(novoPagamento, HttpStatus.CREATED);
+        try {
+            Pagamento novoPagamento = pagamentoService.criarPagamento(pagamento);
+            return new ResponseEntity<>(novoPagamento, HttpStatus.CREATED);
+        } catch (DuplicateKeyException e) {
+            return new ResponseEntity<>(HttpStatus.CONFLICT);
+        }
+    }
+
+
+    @PostMapping(value = "/lote", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    @Operation(summary = "Criar pagamentos em lote", description = "Registra vários pagamentos enviados como um array JSON ou como NDJSON (um pagamento por linha). Cada item é validado com as mesmas regras do cadastro unitário; os itens válidos são inseridos em blocos e o resultado lista as falhas por índice. O corpo é lido de forma incremental.")
+    @io.swagger.v3.oas.annotations.parameters.RequestBody(content = @Content(mediaType = "application/json",
+            array = @ArraySchema(schema = @Schema(implementation = Pagamento.class))))
+    @ApiResponse(responseCode = "200", description = "Lote processado. Consulte 'falhas' para os itens não inseridos.",
+            content = @Content(mediaType = "application/json",
+                    schema = @Schema(implementation = ResultadoLote.class)))
+    public ResponseEntity<ResultadoLote> criarPagamentosEmLote(@Parameter(hidden = true) InputStream corpo) throws IOException {
+        ResultadoLote resultado = pagamentoLoteService.criarPagamentosEmLote(corpo);
+        return new ResponseEntity<>(resultado, HttpStatus.OK);
     }
 
 
     @GetMapping("/lista")
-    @Operation(summary = "Listar pagamentos", description = "Busca pagamentos com base em filtros opcionais. Se nenhum filtro for fornecido, todos os pagamentos ativos serão retornados.")
-    @ApiResponse(responseCode = "200", description = "Lista de pagamentos obtida com sucesso.",
+    @Operation(summary = "Listar pagamentos", description = "Busca pagamentos com base em filtros opcionais, paginados por cursor. Se nenhum filtro for fornecido, todos os pagamentos ativos serão retornados. Para obter a próxima página, repita a chamada informando o 'nextCursor' da resposta anterior no parâmetro 'cursor'. Com 'visao=RESUMIDA', cada item traz apenas id, idPagamento, cpfCnpj, metodoPagamento, valor e status, lidos do MongoDB com projeção. Com 'incluirArquivados=true', inclui os pagamentos movidos para o arquivo.")
+    @ApiResponse(responseCode = "200", description = "Página de pagamentos obtida com sucesso.",
             content = @Content(mediaType = "application/json",
+                    schema = @Schema(implementation = PaginatedResponse.class)))
+    @ApiResponse(responseCode = "304", description = "Nenhum pagamento foi alterado desde a resposta identificada por 'If-None-Match'.")
+    @ApiResponse(responseCode = "400", description = "Cursor de paginação inválido.")
+    public ResponseEntity<PaginatedResponse<?>> listarPagamentos(
+            @Parameter(description = "ID do pagamento para busca.", example = "1") @RequestParam(required = false) Long idPagamento,
+            @Parameter(description = "CPF ou CNPJ do pagador.", example = "12345678901") @RequestParam(required = false) String cpfCnpj,
+            @Parameter(description = "Status do pagamento para busca.", example = "PENDENTE_PROCESSAMENTO") @RequestParam(required = false) StatusPagamento status,
+            @Parameter(description = "Cursor opaco retornado em 'nextCursor' pela página anterior.") @RequestParam(required = false) String cursor,
+            @Parameter(description = "Quantidade máxima de pagamentos na página.", example = "50") @RequestParam(required = false) Integer limite,
+            @Parameter(description = "Se verdadeiro, preenche 'totalCount' com uma contagem limitada dos pagamentos que atendem aos filtros.") @RequestParam(defaultValue = "false") boolean incluirTotal,
+            @Parameter(description = "COMPLETA devolve o documento inteiro; RESUMIDA devolve só os campos da tela de listagem, sem o número do cartão.") @RequestParam(defaultValue = "COMPLETA") VisaoPagamento visao,
+            @Parameter(description = "Se verdadeiro, também busca os pagamentos finalizados movidos para o arquivo.") @RequestParam(defaultValue = "false") boolean incluirArquivados,
+            @Parameter(description = "ETag de uma resposta anterior; se nada mudou desde então, a resposta é 304 sem corpo.") @RequestHeader(name = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        String etag = pagamentoService.etagListagem(idPagamento, cpfCnpj, status, cursor, limite, incluirTotal, visao, incluirArquivados);
+        if (VersaoPagamentos.corresponde(ifNoneMatch, etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(CacheControl.noCache()).build();
+        }
+        try {
+            PaginatedResponse<?> pagina = visao == VisaoPagamento.RESUMIDA
+                    ? pagamentoService.listarPagamentosResumidos(idPagamento, cpfCnpj, status, cursor, limite, incluirTotal, incluirArquivados)
+                    : pagamentoService.listarPagamentos(idPagamento, cpfCnpj, status, cursor, limite, incluirTotal, incluirArquivados);
+            ResponseEntity.BodyBuilder resposta = ResponseEntity.ok();
+            if (etag != null) {
+                resposta.eTag(etag).cacheControl(CacheControl.noCache());
+            }
+            return resposta.<PaginatedResponse<?>>body(pagina);
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+    }
+
+
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Exportar pagamentos", description = "Exporta os pagamentos ativos que atendem aos filtros opcionais em formato NDJSON (um pagamento JSON por linha). Os pagamentos são escritos na resposta à medida que são lidos do banco, sem paginação. Com 'incluirArquivados=true', os pagamentos arquivados vêm depois dos demais.")
+    @ApiResponse(responseCode = "200", description = "Exportação iniciada com sucesso.",
+            content = @Content(mediaType = MediaType.APPLICATION_NDJSON_VALUE,
                     schema = @Schema(implementation = Pagamento.class)))
-    public ResponseEntity<List<Pagamento>> listarPagamentos(
+    public ResponseEntity<StreamingResponseBody> exportarPagamentos(
             @Parameter(description = "ID do pagamento para busca.", example = "1") @RequestParam(required = false) Long idPagamento,
             @Parameter(description = "CPF ou CNPJ do pagador.", example = "12345678901") @RequestParam(required = false) String cpfCnpj,
-            @Parameter(description = "Status do pagamento para busca.", example = "PENDENTE_PROCESSAMENTO") @RequestParam(required = false) StatusPagamento status) {
-        List<Pagamento> pagamentos = pagamentoService.listarPagamentos(idPagamento, cpfCnpj, status);
-        return new ResponseEntity<>(pagamentos, HttpStatus.OK);
+            @Parameter(description = "Status do pagamento para busca.", example = "PENDENTE_PROCESSAMENTO") @RequestParam(required = false) StatusPagamento status,
+            @Parameter(description = "Se verdadeiro, também exporta os pagamentos finalizados movidos para o arquivo.") @RequestParam(defaultValue = "false") boolean incluirArquivados) {
+        StreamingResponseBody corpo = saida -> {
+            ObjectWriter escritor = objectMapper.writerFor(Pagamento.class);
+            long escritos = 0;
+            try (Stream<Pagamento> pagamentos = pagamentoService.exportarPagamentos(idPagamento, cpfCnpj, status, incluirArquivados)) {
+                Iterator<Pagamento> iterador = pagamentos.iterator();
+                while (iterador.hasNext()) {
+                    saida.write(escritor.writeValueAsBytes(iterador.next()));
+                    saida.write('\n');
+                    if (++escritos == 1 || escritos % INTERVALO_FLUSH_EXPORTACAO == 0) {
+                        saida.flush();
+                    }
+                }
+            }
+            saida.flush();
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(corpo);
+    }
+
+
+    // O Spring MVC assina o Flux e escreve os eventos de forma assíncrona; conexões ociosas não ocupam threads.
+    @GetMapping(value = "/eventos", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Acompanhar eventos de pagamentos", description = "Abre um stream Server-Sent Events com as criações, inativações e transições de status aplicadas por esta instância, com os mesmos filtros da listagem. Um cliente que não acompanha o ritmo perde os eventos mais antigos ou é desconectado, conforme 'app.eventos.politica'; ao reconectar, deve reconsultar a listagem.")
+    @ApiResponse(responseCode = "200", description = "Stream de eventos aberto.",
+            content = @Content(mediaType = MediaType.TEXT_EVENT_STREAM_VALUE,
+                    schema = @Schema(implementation = EventoPagamento.class)))
+    public Flux<ServerSentEvent<EventoPagamento>> acompanharEventos(
+            @Parameter(description = "ID do pagamento a acompanhar.", example = "1") @RequestParam(required = false) Long idPagamento,
+            @Parameter(description = "CPF ou CNPJ do pagador (prefixo).", example = "12345678901") @RequestParam(required = false) String cpfCnpj) {
+        return pagamentoEventos.assinar(idPagamento, cpfCnpj);
+    }
+
+
+    @GetMapping("/resumo")
+    @Operation(summary = "Resumo dos pagamentos", description = "Retorna a quantidade e o valor somado dos pagamentos ativos por status e por método de pagamento. Os totais são mantidos incrementalmente e gravados a cada 'app.resumo.intervalo-descarga', portanto a consulta não depende do tamanho da coleção.")
+    @ApiResponse(responseCode = "200", description = "Resumo obtido com sucesso.",
+            content = @Content(mediaType = "application/json",
+                    schema = @Schema(implementation = ResumoPagamentos.class)))
+    public ResponseEntity<ResumoPagamentos> obterResumo() {
+        return new ResponseEntity<>(pagamentoResumoService.obterResumo(), HttpStatus.OK);
+    }
+
+
+    @PostMapping("/resumo/reconstrucao")
+    @Operation(summary = "Reconstruir o resumo dos pagamentos", description = "Recalcula o resumo a partir de uma agregação sobre todos os pagamentos ativos e substitui os totais gravados. Operação de reparo: percorre a coleção inteira.")
+    @ApiResponse(responseCode = "200", description = "Resumo reconstruído com sucesso.",
+            content = @Content(mediaType = "application/json",
+                    schema = @Schema(implementation = ResumoPagamentos.class)))
+    public ResponseEntity<ResumoPagamentos> reconstruirResumo() {
+        return new ResponseEntity<>(pagamentoResumoService.reconstruir(), HttpStatus.OK);
+    }
+
+
+    @GetMapping("/dlt")
+    @Operation(summary = "Inspecionar o DLT de atualizações de status", description = "Lista, sem removê-las, as próximas mensagens do tópico de mensagens mortas ainda não reprocessadas: atualizações de status que esgotaram as retentativas ou que não puderam ser lidas. Mensagens em JSON vêm em 'valor'; no formato binário ou corrompidas, em 'valorBase64'.")
+    @ApiResponse(responseCode = "200", description = "Mensagens pendentes no DLT, na ordem de cada partição.",
+            content = @Content(mediaType = "application/json",
+                    array = @ArraySchema(schema = @Schema(implementation = RegistroDlt.class))))
+    @ApiResponse(responseCode = "400", description = "Limite inválido.")
+    public ResponseEntity<List<RegistroDlt>> inspecionarDlt(
+            @Parameter(description = "Quantidade máxima de mensagens, limitada a 'app.kafka.dlt.limite-maximo'.", example = "50") @RequestParam(defaultValue = "50") int limite) {
+        try {
+            return new ResponseEntity<>(pagamentoDltService.inspecionar(limite), HttpStatus.OK);
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+    }
+
+
+    @PostMapping("/dlt/reprocessamento")
+    @Operation(summary = "Reprocessar o DLT de atualizações de status", description = "Republica no tópico de atualizações de status as próximas mensagens do DLT, com todas as tentativas de novo, e só então as marca como reprocessadas. Repita a chamada enquanto 'totalPendente' for maior que zero. Mensagens já aplicadas são descartadas pela deduplicação do consumidor.")
+    @ApiResponse(responseCode = "200", description = "Bloco reprocessado.",
+            content = @Content(mediaType = "application/json",
+                    schema = @Schema(implementation = ResultadoReprocessamentoDlt.class)))
+    @ApiResponse(responseCode = "400", description = "Limite inválido.")
+    @ApiResponse(responseCode = "503", description = "O Kafka não confirmou a republicação; nenhuma mensagem foi marcada como reprocessada.")
+    public ResponseEntity<ResultadoReprocessamentoDlt> reprocessarDlt(
+            @Parameter(description = "Quantidade máxima de mensagens do bloco, limitada a 'app.kafka.dlt.limite-maximo'.", example = "100") @RequestParam(defaultValue = "100") int limite) {
+        try {
+            return new ResponseEntity<>(pagamentoDltService.reprocessar(limite), HttpStatus.OK);
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        } catch (IllegalStateException e) {
+            return new ResponseEntity<>(HttpStatus.SERVICE_UNAVAILABLE);
+        }
     }
 
 
     @PutMapping("/status")
-    @Operation(summary = "Atualizar status de um pagamento", description = "Processa a atualização de status de um pagamento. A atualização só é possível se o pagamento não estiver com o status 'PROCESSADO_SUCESSO'. A operação é assíncrona, enviando uma mensagem para o Kafka.")
-    @ApiResponse(responseCode = "200", description = "Mensagem de atualização de status enviada com sucesso para o Kafka.")
+    @Operation(summary = "Atualizar status de um pagamento", description = "Processa a atualização de status de um pagamento. A atualização só é possível se o pagamento não estiver com o status 'PROCESSADO_SUCESSO'. A operação é assíncrona, enviando uma mensagem para o Kafka; o cabeçalho 'X-Id-Mensagem' identifica a mensagem nos logs. Reenvios com o mesmo cabeçalho 'Idempotency-Key' geram o mesmo 'X-Id-Mensagem' e são descartados pelo consumidor.")
+    @ApiResponse(responseCode = "202", description = "Mensagem de atualização de status aceita para envio ao Kafka (ou ainda não confirmada dentro do tempo de espera).")
+    @ApiResponse(responseCode = "200", description = "Mensagem de atualização de status confirmada pelo Kafka (somente com 'aguardarConfirmacao=true').")
     @ApiResponse(responseCode = "400", description = "Não foi possível atualizar o status: quebra da regra de negócio (pagamento já processado ou não encontrado).")
-    @ApiResponse(responseCode = "404", description = "Pagamento com o ID fornecido não encontrado.")
-    public ResponseEntity<String> atualizarStatus(@RequestBody @Valid PagamentoStatusAtualizacao atualizacao) {
-        if (pagamentoService.processarAtualizacaoStatus(atualizacao)){
-			return new ResponseEntity<>("Mensagem de atualização de status enviada para o Kafka.", HttpStatus.OK);
-		} else {
+    @ApiResponse(responseCode = "429", description = "Limite de atualizações do cliente ou da instância excedido, ou Kafka/MongoDB sobrecarregados. O cabeçalho 'Retry-After' indica em quantos segundos tentar de novo.")
+    @ApiResponse(responseCode = "503", description = "O Kafka recusou a mensagem (somente com 'aguardarConfirmacao=true').")
+    public ResponseEntity<String> atualizarStatus(
+            @RequestBody @Valid PagamentoStatusAtualizacao atualizacao,
+            @Parameter(description = "Se verdadeiro, aguarda a confirmação do Kafka por até 'app.kafka.producer.tempo-maximo-confirmacao'.") @RequestParam(defaultValue = "false") boolean aguardarConfirmacao,
+            @Parameter(description = "Chave escolhida pelo cliente para identificar a atualização entre reenvios.") @RequestHeader(name = HEADER_CHAVE_IDEMPOTENCIA, required = false) String chaveIdempotencia,
+            HttpServletRequest requisicao) {
+        Optional<RejeicaoLimite> rejeicao = limitadorAtualizacaoStatus.verificar(limitadorAtualizacaoStatus.identificarCliente(
+                requisicao.getRemoteAddr(), requisicao.getHeader(HEADER_ENCAMINHADO_PARA)));
+        if (rejeicao.isPresent()) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(rejeicao.get().retryAfterSegundos()))
+                    .body("Limite de atualizações de status excedido; tente novamente mais tarde.");
+        }
+
+        Optional<EnvioAtualizacao> envio = pagamentoService.processarAtualizacaoStatus(atualizacao, chaveIdempotencia);
+        if (envio.isEmpty()) {
 			return new ResponseEntity<>("Não foi possível atualizar o status: quebra da regra de negócio.", HttpStatus.BAD_REQUEST);
 		}
+
+        String idMensagem = envio.get().idMensagem();
+        if (!aguardarConfirmacao) {
+            return ResponseEntity.accepted().header(HEADER_ID_MENSAGEM, idMensagem)
+                    .body("Mensagem de atualização de status aceita para envio ao Kafka.");
+        }
+
+        try {
+            envio.get().confirmacao().get(tempoMaximoConfirmacao.toMillis(), TimeUnit.MILLISECONDS);
+            return ResponseEntity.ok().header(HEADER_ID_MENSAGEM, idMensagem)
+                    .body("Mensagem de atualização de status confirmada pelo Kafka.");
+        } catch (TimeoutException e) {
+            return ResponseEntity.accepted().header(HEADER_ID_MENSAGEM, idMensagem)
+                    .body("Mensagem de atualização de status aceita, ainda sem confirmação do Kafka.");
+        } catch (ExecutionException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header(HEADER_ID_MENSAGEM, idMensagem)
+                    .body("Não foi possível enviar a mensagem de atualização de status para o Kafka.");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header(HEADER_ID_MENSAGEM, idMensagem)
+                    .body("Não foi possível enviar a mensagem de atualização de status para o Kafka.");
+        }
     }
 
 
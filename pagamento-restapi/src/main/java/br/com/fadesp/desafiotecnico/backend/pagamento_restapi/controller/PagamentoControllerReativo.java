@@ -0,0 +1,203 @@
+package br.com.fadesp.desafiotecnico.backend.pagamento_restapi.controller;
+
+import br.com.fadesp.desafiotecnico.backend.pagamento_restapi.persistence.model.EventoPagamento;
+import br.com.fadesp.desafiotecnico.backend.pagamento_restapi.persistence.model.PagamentoStatusAtualizacao;
+import br.com.fadesp.desafiotecnico.backend.pagamento_restapi.persistence.model.PaginatedResponse;
+import br.com.fadesp.desafiotecnico.backend.pagamento_restapi.persistence.model.ResultadoLote;
+import br.com.fadesp.desafiotecnico.backend.pagamento_restapi.persistence.model.ResumoPagamentos;
+import br.com.fadesp.desafiotecnico.backend.pagamento_restapi.persistence.model.StatusPagamento;
+import br.com.fadesp.desafiotecnico.backend.pagamento_restapi.persistence.model.VisaoPagamento;
+import br.com.fadesp.desafiotecnico.backend.pagamento_restapi.persistence.model.entity.Pagamento;
+import br.com.fadesp.desafiotecnico.backend.pagamento_restapi.service.LimitadorAtualizacaoStatus;
+import br.com.fadesp.desafiotecnico.backend.pagamento_restapi.service.PagamentoEventos;
+import br.com.fadesp.desafiotecnico.backend.pagamento_restapi.service.PagamentoLoteServiceReativo;
+import br.com.fadesp.desafiotecnico.backend.pagamento_restapi.service.PagamentoResumoService;
+import br.com.fadesp.desafiotecnico.backend.pagamento_restapi.service.PagamentoServiceReativo;
+import br.com.fadesp.desafiotecnico.backend.pagamento_restapi.service.RejeicaoLimite;
+import br.com.fadesp.desafiotecnico.backend.pagamento_restapi.service.VersaoPagamentos;
+import com.fasterxml.jackson.databind.JsonNode;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.TimeoutException;
+
+@RestController
+@RequestMapping("/pagamentos")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@Tag(name = "Pagamentos", description = "Endpoints para gerenciamento de pagamentos (modo reativo)")
+public class PagamentoControllerReativo {
+
+    private static final String HEADER_ID_MENSAGEM = "X-Id-Mensagem";
+    private static final String HEADER_CHAVE_IDEMPOTENCIA = "Idempotency-Key";
+    private static final String HEADER_ENCAMINHADO_PARA = "X-Forwarded-For";
+
+    private final PagamentoServiceReativo pagamentoService;
+    private final PagamentoLoteServiceReativo pagamentoLoteService;
+    private final PagamentoResumoService pagamentoResumoService;
+    private final PagamentoEventos pagamentoEventos;
+    private final LimitadorAtualizacaoStatus limitadorAtualizacaoStatus;
+
+    @Value("${app.kafka.producer.tempo-maximo-confirmacao:5s}")
+    private Duration tempoMaximoConfirmacao;
+
+    public PagamentoControllerReativo(PagamentoServiceReativo pagamentoService, PagamentoLoteServiceReativo pagamentoLoteService,
+                                      PagamentoResumoService pagamentoResumoService, PagamentoEventos pagamentoEventos,
+                                      LimitadorAtualizacaoStatus limitadorAtualizacaoStatus) {
+        this.pagamentoService = pagamentoService;
+        this.pagamentoLoteService = pagamentoLoteService;
+        this.pagamentoResumoService = pagamentoResumoService;
+        this.pagamentoEventos = pagamentoEventos;
+        this.limitadorAtualizacaoStatus = limitadorAtualizacaoStatus;
+    }
+
+
+    @PostMapping
+    @Operation(summary = "Criar um novo pagamento")
+    public Mono<ResponseEntity<Pagamento>> criarPagamento(@RequestBody @Valid Pagamento pagamento) {
+        return pagamentoService.criarPagamento(pagamento)
+                .map(novoPagamento -> new ResponseEntity<>(novoPagamento, HttpStatus.CREATED))
+                .onErrorResume(DuplicateKeyException.class, e -> Mono.just(new ResponseEntity<>(HttpStatus.CONFLICT)));
+    }
+
+
+    @PostMapping(value = "/lote", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    @Operation(summary = "Criar pagamentos em lote")
+    public Mono<ResponseEntity<ResultadoLote>> criarPagamentosEmLote(@RequestBody Flux<JsonNode> itens) {
+        return pagamentoLoteService.criarPagamentosEmLote(itens)
+                .map(resultado -> new ResponseEntity<>(resultado, HttpStatus.OK));
+    }
+
+
+    @GetMapping("/lista")
+    @Operation(summary = "Listar pagamentos")
+    public Mono<ResponseEntity<PaginatedResponse<?>>> listarPagamentos(
+            @RequestParam(required = false) Long idPagamento,
+            @RequestParam(required = false) String cpfCnpj,
+            @RequestParam(required = false) StatusPagamento status,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limite,
+            @RequestParam(defaultValue = "false") boolean incluirTotal,
+            @RequestParam(defaultValue = "COMPLETA") VisaoPagamento visao,
+            @RequestParam(defaultValue = "false") boolean incluirArquivados,
+            @RequestHeader(name = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        String etag = pagamentoService.etagListagem(idPagamento, cpfCnpj, status, cursor, limite, incluirTotal, visao, incluirArquivados);
+        if (VersaoPagamentos.corresponde(ifNoneMatch, etag)) {
+            return Mono.just(ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(CacheControl.noCache()).build());
+        }
+        Mono<? extends PaginatedResponse<?>> pagina = visao == VisaoPagamento.RESUMIDA
+                ? pagamentoService.listarPagamentosResumidos(idPagamento, cpfCnpj, status, cursor, limite, incluirTotal, incluirArquivados)
+                : pagamentoService.listarPagamentos(idPagamento, cpfCnpj, status, cursor, limite, incluirTotal, incluirArquivados);
+        return pagina
+                .map(resposta -> {
+                    ResponseEntity.BodyBuilder ok = ResponseEntity.ok();
+                    if (etag != null) {
+                        ok.eTag(etag).cacheControl(CacheControl.noCache());
+                    }
+                    return ok.<PaginatedResponse<?>>body(resposta);
+                })
+                .onErrorResume(IllegalArgumentException.class, e -> Mono.just(new ResponseEntity<>(HttpStatus.BAD_REQUEST)));
+    }
+
+
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Exportar pagamentos")
+    public Flux<Pagamento> exportarPagamentos(
+            @RequestParam(required = false) Long idPagamento,
+            @RequestParam(required = false) String cpfCnpj,
+            @RequestParam(required = false) StatusPagamento status,
+            @RequestParam(defaultValue = "false") boolean incluirArquivados) {
+        return pagamentoService.exportarPagamentos(idPagamento, cpfCnpj, status, incluirArquivados);
+    }
+
+
+    @GetMapping(value = "/eventos", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Acompanhar eventos de pagamentos")
+    public Flux<ServerSentEvent<EventoPagamento>> acompanharEventos(
+            @RequestParam(required = false) Long idPagamento,
+            @RequestParam(required = false) String cpfCnpj) {
+        return pagamentoEventos.assinar(idPagamento, cpfCnpj);
+    }
+
+
+    // O resumo é gravado pelo MongoTemplate bloqueante, compartilhado com o modo servlet.
+    @GetMapping("/resumo")
+    @Operation(summary = "Resumo dos pagamentos")
+    public Mono<ResponseEntity<ResumoPagamentos>> obterResumo() {
+        return Mono.fromCallable(pagamentoResumoService::obterResumo)
+                .subscribeOn(Schedulers.boundedElastic())
+                .map(resumo -> new ResponseEntity<>(resumo, HttpStatus.OK));
+    }
+
+
+    @PostMapping("/resumo/reconstrucao")
+    @Operation(summary = "Reconstruir o resumo dos pagamentos")
+    public Mono<ResponseEntity<ResumoPagamentos>> reconstruirResumo() {
+        return Mono.fromCallable(pagamentoResumoService::reconstruir)
+                .subscribeOn(Schedulers.boundedElastic())
+                .map(resumo -> new ResponseEntity<>(resumo, HttpStatus.OK));
+    }
+
+
+    @PutMapping("/status")
+    @Operation(summary = "Atualizar status de um pagamento")
+    public Mono<ResponseEntity<String>> atualizarStatus(
+            @RequestBody @Valid PagamentoStatusAtualizacao atualizacao,
+            @RequestParam(defaultValue = "false") boolean aguardarConfirmacao,
+            @RequestHeader(name = HEADER_CHAVE_IDEMPOTENCIA, required = false) String chaveIdempotencia,
+            ServerHttpRequest requisicao) {
+        InetSocketAddress origem = requisicao.getRemoteAddress();
+        Optional<RejeicaoLimite> rejeicao = limitadorAtualizacaoStatus.verificar(limitadorAtualizacaoStatus.identificarCliente(
+                origem != null ? origem.getHostString() : "", requisicao.getHeaders().getFirst(HEADER_ENCAMINHADO_PARA)));
+        if (rejeicao.isPresent()) {
+            return Mono.just(ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(rejeicao.get().retryAfterSegundos()))
+                    .body("Limite de atualizações de status excedido; tente novamente mais tarde."));
+        }
+
+        return pagamentoService.processarAtualizacaoStatus(atualizacao, chaveIdempotencia)
+                .flatMap(envio -> {
+                    if (!aguardarConfirmacao) {
+                        return Mono.just(ResponseEntity.accepted().header(HEADER_ID_MENSAGEM, envio.idMensagem())
+                                .body("Mensagem de atualização de status aceita para envio ao Kafka."));
+                    }
+                    return Mono.fromFuture(envio.confirmacao(), true)
+                            .timeout(tempoMaximoConfirmacao)
+                            .map(confirmacao -> ResponseEntity.ok().header(HEADER_ID_MENSAGEM, envio.idMensagem())
+                                    .body("Mensagem de atualização de status confirmada pelo Kafka."))
+                            .onErrorResume(TimeoutException.class, e -> Mono.just(ResponseEntity.accepted().header(HEADER_ID_MENSAGEM, envio.idMensagem())
+                                    .body("Mensagem de atualização de status aceita, ainda sem confirmação do Kafka.")))
+                            .onErrorResume(e -> Mono.just(ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                                    .header(HEADER_ID_MENSAGEM, envio.idMensagem())
+                                    .body("Não foi possível enviar a mensagem de atualização de status para o Kafka.")));
+                })
+                .defaultIfEmpty(new ResponseEntity<>("Não foi possível atualizar o status: quebra da regra de negócio.", HttpStatus.BAD_REQUEST));
+    }
+
+
+    @DeleteMapping("/{id}")
+    @Operation(summary = "Inativar um pagamento")
+    public Mono<ResponseEntity<String>> inativarPagamento(@PathVariable String id) {
+        return pagamentoService.inativarPagamento(id)
+                .map(inativado -> inativado
+                        ? new ResponseEntity<>("Pagamento inativado com sucesso.", HttpStatus.OK)
+                        : new ResponseEntity<>("Não foi possível inativar o pagamento.", HttpStatus.BAD_REQUEST));
+    }
+}
@@ -0,0 +1,27 @@
+package br.com.fadesp.desafiotecnico.backend.pagamento_restapi.persistence.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class EventoPagamento {
+
+    private TipoEventoPagamento tipo;
+
+    private Long idPagamento;
+
+    private String cpfCnpj;
+
+    private StatusPagamento statusAnterior;
+
+    private StatusPagamento status;
+
+    private Instant instante;
+
+}
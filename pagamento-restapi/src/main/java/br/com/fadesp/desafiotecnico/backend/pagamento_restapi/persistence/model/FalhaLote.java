@@ -0,0 +1,21 @@
+package br.com.fadesp.desafiotecnico.backend.pagamento_restapi.persistence.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class FalhaLote {
+
+    private int indice;
+
+    private Long idPagamento;
+
+    private List<String> mensagens;
+
+}
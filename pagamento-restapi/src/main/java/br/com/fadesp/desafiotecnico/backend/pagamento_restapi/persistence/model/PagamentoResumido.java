@@ -0,0 +1,10 @@
+package br.com.fadesp.desafiotecnico.backend.pagamento_restapi.persistence.model;
+
+import java.math.BigDecimal;
+
+// O número do cartão não é lido do MongoDB nem enviado ao cliente
+public record PagamentoResumido(String id, Long idPagamento, String cpfCnpj, MetodoPagamento metodoPagamento,
+                                BigDecimal valor, StatusPagamento status) {
+
+    public static final String[] CAMPOS = {"idPagamento", "cpfCnpj", "metodoPagamento", "valor", "status"};
+}
@@ -0,0 +1,21 @@
+package br.com.fadesp.desafiotecnico.backend.pagamento_restapi.persistence.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class PaginatedResponse<T> {
+
+    private List<T> data;
+
+    private Long totalCount;
+
+    private String nextCursor;
+
+}
@@ -0,0 +1,33 @@
+package br.com.fadesp.desafiotecnico.backend.pagamento_restapi.persistence.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class RegistroDlt {
+
+    private int particao;
+
+    private long offset;
+
+    private Instant dataHora;
+
+    private String chave;
+
+    private String idMensagem;
+
+    private String valor;
+
+    private String valorBase64;
+
+    private String excecao;
+
+    private String mensagemExcecao;
+
+}
@@ -0,0 +1,22 @@
+package br.com.fadesp.desafiotecnico.backend.pagamento_restapi.persistence.model;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+
+@Data
+@NoArgsConstructor
+public class ResultadoLote {
+
+    private int totalRecebido;
+
+    private int totalInserido;
+
+    private boolean interrompido;
+
+    private List<FalhaLote> falhas = new ArrayList<>();
+
+}
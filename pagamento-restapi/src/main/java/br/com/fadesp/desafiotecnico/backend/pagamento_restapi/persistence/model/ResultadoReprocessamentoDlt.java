@@ -0,0 +1,17 @@
+package br.com.fadesp.desafiotecnico.backend.pagamento_restapi.persistence.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ResultadoReprocessamentoDlt {
+
+    private int totalReprocessado;
+
+    private long totalPendente;
+
+}
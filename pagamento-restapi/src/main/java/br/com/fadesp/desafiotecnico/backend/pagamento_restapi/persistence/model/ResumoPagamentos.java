@@ -0,0 +1,25 @@
+package br.com.fadesp.desafiotecnico.backend.pagamento_restapi.persistence.model;
+
+import br.com.fadesp.desafiotecnico.backend.pagamento_restapi.persistence.model.entity.ResumoPagamento;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ResumoPagamentos {
+
+    private List<ResumoPagamento> itens;
+
+    private Map<StatusPagamento, TotalResumo> porStatus;
+
+    private Map<MetodoPagamento, TotalResumo> porMetodo;
+
+    private TotalResumo total;
+
+}
@@ -0,0 +1,7 @@
+package br.com.fadesp.desafiotecnico.backend.pagamento_restapi.persistence.model;
+
+public enum TipoEventoPagamento {
+    CRIADO,
+    STATUS_ATUALIZADO,
+    INATIVADO
+}
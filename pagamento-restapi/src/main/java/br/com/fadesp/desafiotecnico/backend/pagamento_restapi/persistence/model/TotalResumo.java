@@ -0,0 +1,19 @@
+package br.com.fadesp.desafiotecnico.backend.pagamento_restapi.persistence.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class TotalResumo {
+
+    private long quantidade;
+
+    private BigDecimal valorTotal = BigDecimal.ZERO;
+
+}
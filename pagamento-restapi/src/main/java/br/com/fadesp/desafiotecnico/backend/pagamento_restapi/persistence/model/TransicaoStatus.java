@@ -0,0 +1,19 @@
+package br.com.fadesp.desafiotecnico.backend.pagamento_restapi.persistence.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class TransicaoStatus {
+
+    private Long idPagamento;
+
+    private StatusPagamento statusAnterior;
+
+    private StatusPagamento novoStatus;
+
+}
@@ -0,0 +1,6 @@
+package br.com.fadesp.desafiotecnico.backend.pagamento_restapi.persistence.model;
+
+public enum VisaoPagamento {
+    COMPLETA,
+    RESUMIDA
+}
@@ -2,12 +2,18 @@ package br.com.fadesp.desafiotecnico.backend.pagamento_restapi.persistence.model
 
 import br.com.fadesp.desafiotecnico.backend.pagamento_restapi.persistence.model.MetodoPagamento;
 import br.com.fadesp.desafiotecnico.backend.pagamento_restapi.persistence.model.StatusPagamento;
+import br.com.fadesp.desafiotecnico.backend.pagamento_restapi.persistence.model.validacao.CartaoConformeMetodo;
+import br.com.fadesp.desafiotecnico.backend.pagamento_restapi.persistence.model.validacao.CpfCnpj;
+import br.com.fadesp.desafiotecnico.backend.pagamento_restapi.persistence.model.validacao.NumeroCartao;
 import io.swagger.v3.oas.annotations.media.Schema;
 import jakarta.validation.constraints.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import java.math.BigDecimal;
@@ -17,6 +23,13 @@ import java.math.BigDecimal;
 @AllArgsConstructor
 @NoArgsConstructor
 @Document(collection = "pagamentos")
+@CartaoConformeMetodo
+@CompoundIndexes({
+        @CompoundIndex(name = "ativo_id", def = "{'ativo': 1, '_id': 1}"),
+        @CompoundIndex(name = "ativo_idPagamento", def = "{'ativo': 1, 'idPagamento': 1}"),
+        @CompoundIndex(name = "ativo_status_id", def = "{'ativo': 1, 'status': 1, '_id': 1}"),
+        @CompoundIndex(name = "ativo_cpfCnpj", def = "{'ativo': 1, 'cpfCnpj': 1}")
+})
 public class Pagamento {
 
     @Id
@@ -25,18 +38,17 @@ public class Pagamento {
 
     @NotNull(message = "O ID do pagamento é obrigatório")
     @Min(value = 1, message = "O ID do pagamento deve ser um número positivo")
+    @Indexed(name = "idPagamento_unico", unique = true)
     private Long idPagamento;
 
     @NotBlank(message = "O CPF/CNPJ é obrigatório")
-    @Size(min = 11, max = 14, message = "O CPF/CNPJ deve ter 11 ou 14 dígitos")
-    @Pattern(regexp = "^\\d{11}$|^\\d{14}$", message = "O CPF/CNPJ deve conter apenas números e ter 11 ou 14 dígitos")
+    @CpfCnpj
     private String cpfCnpj;
 
     @NotNull(message = "O método de pagamento é obrigatório")
     private MetodoPagamento metodoPagamento;
 
-    @Size(min = 16, max = 16, message = "O número do cartão deve ter 16 dígitos")
-    @Pattern(regexp = "^\\d*$", message = "O número do cartão deve conter apenas números")
+    @NumeroCartao
     private String numeroCartao; 
 
     @NotNull(message = "O valor é obrigatório")
@@ -0,0 +1,37 @@
+package br.com.fadesp.desafiotecnico.backend.pagamento_restapi.persistence.model.entity;
+
+import br.com.fadesp.desafiotecnico.backend.pagamento_restapi.persistence.model.MetodoPagamento;
+import br.com.fadesp.desafiotecnico.backend.pagamento_restapi.persistence.model.StatusPagamento;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.Field;
+import org.springframework.data.mongodb.core.mapping.FieldType;
+
+import java.math.BigDecimal;
+
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Document(collection = "pagamentos_resumo")
+public class ResumoPagamento {
+
+    @Id
+    private String id;
+
+    private StatusPagamento status;
+
+    private MetodoPagamento metodoPagamento;
+
+    private long quantidade;
+
+    @Field(targetType = FieldType.DECIMAL128)
+    private BigDecimal valorTotal;
+
+    public static String chave(StatusPagamento status, MetodoPagamento metodoPagamento) {
+        return status.name() + ":" + metodoPagamento.name();
+    }
+}
@@ -0,0 +1,24 @@
+package br.com.fadesp.desafiotecnico.backend.pagamento_restapi.persistence.model.validacao;
+
+import jakarta.validation.Constraint;
+import jakarta.validation.Payload;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+// A violação é reportada no campo numeroCartao
+@Documented
+@Constraint(validatedBy = CartaoConformeMetodoValidador.class)
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface CartaoConformeMetodo {
+
+    String message() default "O número do cartão é obrigatório para pagamentos com cartão e deve ser nulo nos demais métodos";
+
+    Class<?>[] groups() default {};
+
+    Class<? extends Payload>[] payload() default {};
+}
@@ -0,0 +1,24 @@
+package br.com.fadesp.desafiotecnico.backend.pagamento_restapi.persistence.model.validacao;
+
+import br.com.fadesp.desafiotecnico.backend.pagamento_restapi.persistence.model.entity.Pagamento;
+import jakarta.validation.ConstraintValidator;
+import jakarta.validation.ConstraintValidatorContext;
+
+public class CartaoConformeMetodoValidador implements ConstraintValidator<CartaoConformeMetodo, Pagamento> {
+
+    @Override
+    public boolean isValid(Pagamento pagamento, ConstraintValidatorContext context) {
+        // Sem método de pagamento, o @NotNull do campo já reporta o erro
+        if (pagamento == null || pagamento.getMetodoPagamento() == null) {
+            return true;
+        }
+        if (pagamento.getMetodoPagamento().isCartao() == (pagamento.getNumeroCartao() != null)) {
+            return true;
+        }
+        context.disableDefaultConstraintViolation();
+        context.buildConstraintViolationWithTemplate(context.getDefaultConstraintMessageTemplate())
+                .addPropertyNode("numeroCartao")
+                .addConstraintViolation();
+        return false;
+    }
+}
@@ -0,0 +1,24 @@
+package br.com.fadesp.desafiotecnico.backend.pagamento_restapi.persistence.model.validacao;
+
+import jakarta.validation.Constraint;
+import jakarta.validation.Payload;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+// Aceita nulo; combine com @NotBlank quando o campo for obrigatório
+@Documented
+@Constraint(validatedBy = CpfCnpjValidador.class)
+@Target({ElementType.FIELD, ElementType.PARAMETER})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface CpfCnpj {
+
+    String message() default "O CPF/CNPJ deve conter apenas números, ter 11 ou 14 dígitos e dígitos verificadores válidos";
+
+    Class<?>[] groups() default {};
+
+    Class<? extends Payload>[] payload() default {};
+}
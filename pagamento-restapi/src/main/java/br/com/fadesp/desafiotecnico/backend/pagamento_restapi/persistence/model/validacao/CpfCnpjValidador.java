@@ -0,0 +1,76 @@
+package br.com.fadesp.desafiotecnico.backend.pagamento_restapi.persistence.model.validacao;
+
+import jakarta.validation.ConstraintValidator;
+import jakarta.validation.ConstraintValidatorContext;
+
+// Percorre os caracteres uma vez, sem expressões regulares nem alocações, e calcula os dígitos verificadores (módulo 11).
+public class CpfCnpjValidador implements ConstraintValidator<CpfCnpj, CharSequence> {
+
+    private static final int[] PESOS_CNPJ = {6, 5, 4, 3, 2, 9, 8, 7, 6, 5, 4, 3, 2};
+
+    @Override
+    public boolean isValid(CharSequence valor, ConstraintValidatorContext context) {
+        return valor == null || valido(valor);
+    }
+
+    public static boolean valido(CharSequence valor) {
+        return switch (valor.length()) {
+            case 11 -> cpfValido(valor);
+            case 14 -> cnpjValido(valor);
+            default -> false;
+        };
+    }
+
+    static boolean cpfValido(CharSequence cpf) {
+        int soma1 = 0;
+        int soma2 = 0;
+        for (int i = 0; i < 9; i++) {
+            int digito = digito(cpf, i);
+            if (digito < 0) {
+                return false;
+            }
+            soma1 += digito * (10 - i);
+            soma2 += digito * (11 - i);
+        }
+        int verificador1 = digitoVerificador(soma1);
+        int verificador2 = digitoVerificador(soma2 + verificador1 * 2);
+        return digito(cpf, 9) == verificador1 && digito(cpf, 10) == verificador2 && !repetido(cpf);
+    }
+
+    static boolean cnpjValido(CharSequence cnpj) {
+        int soma1 = 0;
+        int soma2 = 0;
+        for (int i = 0; i < 12; i++) {
+            int digito = digito(cnpj, i);
+            if (digito < 0) {
+                return false;
+            }
+            soma1 += digito * PESOS_CNPJ[i + 1];
+            soma2 += digito * PESOS_CNPJ[i];
+        }
+        int verificador1 = digitoVerificador(soma1);
+        int verificador2 = digitoVerificador(soma2 + verificador1 * PESOS_CNPJ[12]);
+        return digito(cnpj, 12) == verificador1 && digito(cnpj, 13) == verificador2 && !repetido(cnpj);
+    }
+
+    private static int digito(CharSequence valor, int indice) {
+        char c = valor.charAt(indice);
+        return c >= '0' && c <= '9' ? c - '0' : -1;
+    }
+
+    private static int digitoVerificador(int soma) {
+        int resto = soma % 11;
+        return resto < 2 ? 0 : 11 - resto;
+    }
+
+    // Sequências de um só dígito (00000000000, 11111111111...) passam no cálculo, mas não são documentos válidos.
+    private static boolean repetido(CharSequence valor) {
+        char primeiro = valor.charAt(0);
+        for (int i = 1; i < valor.length(); i++) {
+            if (valor.charAt(i) != primeiro) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,24 @@
+package br.com.fadesp.desafiotecnico.backend.pagamento_restapi.persistence.model.validacao;
+
+import jakarta.validation.Constraint;
+import jakarta.validation.Payload;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+// Aceita nulo; a obrigatoriedade depende do método de pagamento (CartaoConformeMetodo)
+@Documented
+@Constraint(validatedBy = NumeroCartaoValidador.class)
+@Target({ElementType.FIELD, ElementType.PARAMETER})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface NumeroCartao {
+
+    String message() default "O número do cartão deve conter apenas números, ter 16 dígitos e dígito verificador válido";
+
+    Class<?>[] groups() default {};
+
+    Class<? extends Payload>[] payload() default {};
+}
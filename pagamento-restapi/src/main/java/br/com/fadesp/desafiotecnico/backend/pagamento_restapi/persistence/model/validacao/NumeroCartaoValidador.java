@@ -0,0 +1,39 @@
+package br.com.fadesp.desafiotecnico.backend.pagamento_restapi.persistence.model.validacao;
+
+import jakarta.validation.ConstraintValidator;
+import jakarta.validation.ConstraintValidatorContext;
+
+public class NumeroCartaoValidador implements ConstraintValidator<NumeroCartao, CharSequence> {
+
+    private static final int DIGITOS = 16;
+
+    @Override
+    public boolean isValid(CharSequence valor, ConstraintValidatorContext context) {
+        return valor == null || valido(valor);
+    }
+
+    // Luhn: da direita para a esquerda, dobra um dígito sim e outro não, subtraindo 9 quando o dobro passa de 9.
+    public static boolean valido(CharSequence numero) {
+        if (numero.length() != DIGITOS) {
+            return false;
+        }
+        int soma = 0;
+        boolean dobrar = false;
+        for (int i = DIGITOS - 1; i >= 0; i--) {
+            char c = numero.charAt(i);
+            if (c < '0' || c > '9') {
+                return false;
+            }
+            int digito = c - '0';
+            if (dobrar) {
+                digito *= 2;
+                if (digito > 9) {
+                    digito -= 9;
+                }
+            }
+            soma += digito;
+            dobrar = !dobrar;
+        }
+        return soma % 10 == 0;
+    }
+}
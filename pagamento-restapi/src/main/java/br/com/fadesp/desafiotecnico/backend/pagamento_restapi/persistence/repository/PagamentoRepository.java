@@ -5,6 +5,7 @@ import br.com.fadesp.desafiotecnico.backend.pagamento_restapi.persistence.model.
 import org.springframework.data.mongodb.repository.MongoRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -13,5 +14,5 @@ public interface PagamentoRepository extends MongoRepository<Pagamento, String>,
 
     Optional<Pagamento> findByIdPagamentoAndAtivoIsTrue(Long idPagamento);
 
-    List<Pagamento> findByAtivoIsTrue();
+    List<Pagamento> findByIdPagamentoInAndAtivoIsTrue(Collection<Long> idsPagamento);
 }
@@ -1,11 +1,50 @@
 package br.com.fadesp.desafiotecnico.backend.pagamento_restapi.persistence.repository;
 
+import br.com.fadesp.desafiotecnico.backend.pagamento_restapi.persistence.model.PagamentoResumido;
 import br.com.fadesp.desafiotecnico.backend.pagamento_restapi.persistence.model.StatusPagamento;
+import br.com.fadesp.desafiotecnico.backend.pagamento_restapi.persistence.model.TransicaoStatus;
 import br.com.fadesp.desafiotecnico.backend.pagamento_restapi.persistence.model.entity.Pagamento;
 
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 
 public interface PagamentoRepositoryCustom {
-    List<Pagamento> findWithFilters(Long idPagamento, String cpfCnpj, StatusPagamento status);
+    List<Pagamento> findWithFilters(Long idPagamento, String cpfCnpj, StatusPagamento status, String aposId, int limite);
+
+    List<PagamentoResumido> findResumidosWithFilters(Long idPagamento, String cpfCnpj, StatusPagamento status, String aposId, int limite);
+
+    long countWithFilters(Long idPagamento, String cpfCnpj, StatusPagamento status, long limiteContagem);
+
+    Stream<Pagamento> streamWithFilters(Long idPagamento, String cpfCnpj, StatusPagamento status, int tamanhoLoteCursor);
+
+    List<Pagamento> findArquivadosWithFilters(Long idPagamento, String cpfCnpj, StatusPagamento status, String aposId, int limite);
+
+    List<PagamentoResumido> findResumidosArquivadosWithFilters(Long idPagamento, String cpfCnpj, StatusPagamento status, String aposId, int limite);
+
+    long countArquivadosWithFilters(Long idPagamento, String cpfCnpj, StatusPagamento status, long limiteContagem);
+
+    Stream<Pagamento> streamArquivadosWithFilters(Long idPagamento, String cpfCnpj, StatusPagamento status, int tamanhoLoteCursor);
+
+    int arquivarFinalizados(Instant criadosAntesDe, int tamanhoLote);
+
+    void criarIndicesArquivo();
+
+    long estimarQuantidade();
+
+    long estimarQuantidadeArquivada();
+
+    int atualizarStatusEmLote(List<TransicaoStatus> transicoes);
+
+    Optional<Pagamento> atualizarStatusSePermitido(Long idPagamento, Collection<StatusPagamento> statusPermitidos, StatusPagamento novoStatus);
+
+    Optional<Long> buscarIdPagamento(String id);
+
+    Optional<Pagamento> inativarSePendente(String id);
+
+    Map<Integer, String> inserirEmLote(List<Pagamento> pagamentos);
 }
@@ -1,15 +1,38 @@
 package br.com.fadesp.desafiotecnico.backend.pagamento_restapi.persistence.repository;
 
+import br.com.fadesp.desafiotecnico.backend.pagamento_restapi.persistence.model.PagamentoResumido;
 import br.com.fadesp.desafiotecnico.backend.pagamento_restapi.persistence.model.StatusPagamento;
+import br.com.fadesp.desafiotecnico.backend.pagamento_restapi.persistence.model.TransicaoStatus;
 import br.com.fadesp.desafiotecnico.backend.pagamento_restapi.persistence.model.entity.Pagamento;
+import com.mongodb.bulk.BulkWriteError;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.FindAndReplaceOptions;
 import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.index.IndexResolver;
 import org.springframework.data.mongodb.core.query.Criteria;
 import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 
+import java.time.Instant;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
 public class PagamentoRepositoryImpl implements PagamentoRepositoryCustom {
 
+    public static final String COLECAO_ARQUIVO = "pagamentos_arquivados";
+
     private final MongoTemplate mongoTemplate;
 
     public PagamentoRepositoryImpl(MongoTemplate mongoTemplate) {
@@ -17,7 +40,188 @@ public class PagamentoRepositoryImpl implements PagamentoRepositoryCustom {
     }
 
     @Override
-    public List<Pagamento> findWithFilters(Long idPagamento, String cpfCnpj, StatusPagamento status) {
+    public List<Pagamento> findWithFilters(Long idPagamento, String cpfCnpj, StatusPagamento status, String aposId, int limite) {
+        return mongoTemplate.find(montarQueryPaginada(idPagamento, cpfCnpj, status, aposId, limite), Pagamento.class);
+    }
+
+    @Override
+    public List<PagamentoResumido> findResumidosWithFilters(Long idPagamento, String cpfCnpj, StatusPagamento status, String aposId, int limite) {
+        return mongoTemplate.find(montarQueryResumida(idPagamento, cpfCnpj, status, aposId, limite),
+                PagamentoResumido.class, mongoTemplate.getCollectionName(Pagamento.class));
+    }
+
+    @Override
+    public long countWithFilters(Long idPagamento, String cpfCnpj, StatusPagamento status, long limiteContagem) {
+        Query query = montarQuery(idPagamento, cpfCnpj, status);
+        query.limit((int) Math.min(limiteContagem, Integer.MAX_VALUE));
+        return mongoTemplate.count(query, Pagamento.class);
+    }
+
+    @Override
+    public Stream<Pagamento> streamWithFilters(Long idPagamento, String cpfCnpj, StatusPagamento status, int tamanhoLoteCursor) {
+        Query query = montarQuery(idPagamento, cpfCnpj, status);
+        query.cursorBatchSize(tamanhoLoteCursor);
+        return mongoTemplate.stream(query, Pagamento.class);
+    }
+
+    @Override
+    public List<Pagamento> findArquivadosWithFilters(Long idPagamento, String cpfCnpj, StatusPagamento status, String aposId, int limite) {
+        return mongoTemplate.find(montarQueryPaginada(idPagamento, cpfCnpj, status, aposId, limite), Pagamento.class, COLECAO_ARQUIVO);
+    }
+
+    @Override
+    public List<PagamentoResumido> findResumidosArquivadosWithFilters(Long idPagamento, String cpfCnpj, StatusPagamento status, String aposId, int limite) {
+        return mongoTemplate.find(montarQueryResumida(idPagamento, cpfCnpj, status, aposId, limite), PagamentoResumido.class, COLECAO_ARQUIVO);
+    }
+
+    @Override
+    public long countArquivadosWithFilters(Long idPagamento, String cpfCnpj, StatusPagamento status, long limiteContagem) {
+        Query query = montarQuery(idPagamento, cpfCnpj, status);
+        query.limit((int) Math.min(limiteContagem, Integer.MAX_VALUE));
+        return mongoTemplate.count(query, Pagamento.class, COLECAO_ARQUIVO);
+    }
+
+    @Override
+    public Stream<Pagamento> streamArquivadosWithFilters(Long idPagamento, String cpfCnpj, StatusPagamento status, int tamanhoLoteCursor) {
+        Query query = montarQuery(idPagamento, cpfCnpj, status);
+        query.cursorBatchSize(tamanhoLoteCursor);
+        return mongoTemplate.stream(query, Pagamento.class, COLECAO_ARQUIVO);
+    }
+
+    // Copia antes de remover; se a remoção falhar, a próxima execução substitui a cópia e remove de novo
+    @Override
+    public int arquivarFinalizados(Instant criadosAntesDe, int tamanhoLote) {
+        List<Document> documentos = mongoTemplate.find(montarQueryArquivamento(criadosAntesDe, tamanhoLote),
+                Document.class, mongoTemplate.getCollectionName(Pagamento.class));
+        if (documentos.isEmpty()) {
+            return 0;
+        }
+
+        List<Object> ids = new ArrayList<>(documentos.size());
+        BulkOperations copia = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, COLECAO_ARQUIVO);
+        for (Document documento : documentos) {
+            ids.add(documento.get("_id"));
+            copia.replaceOne(new Query(Criteria.where("_id").is(documento.get("_id"))), documento, FindAndReplaceOptions.options().upsert());
+        }
+        copia.execute();
+
+        Query remocao = new Query(Criteria.where("_id").in(ids).orOperator(criteriasFinalizado()));
+        return (int) mongoTemplate.remove(remocao, Pagamento.class).getDeletedCount();
+    }
+
+    @Override
+    public void criarIndicesArquivo() {
+        IndexOperations indices = mongoTemplate.indexOps(COLECAO_ARQUIVO);
+        IndexResolver.create(mongoTemplate.getConverter().getMappingContext())
+                .resolveIndexFor(Pagamento.class)
+                .forEach(indices::ensureIndex);
+    }
+
+    @Override
+    public long estimarQuantidade() {
+        return mongoTemplate.estimatedCount(Pagamento.class);
+    }
+
+    @Override
+    public long estimarQuantidadeArquivada() {
+        return mongoTemplate.estimatedCount(COLECAO_ARQUIVO);
+    }
+
+    @Override
+    public int atualizarStatusEmLote(List<TransicaoStatus> transicoes) {
+        BulkOperations operacoes = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Pagamento.class);
+
+        for (TransicaoStatus transicao : transicoes) {
+            Query query = new Query(Criteria.where("idPagamento").is(transicao.getIdPagamento())
+                    .and("ativo").is(true)
+                    .and("status").is(transicao.getStatusAnterior()));
+            operacoes.updateOne(query, new Update().set("status", transicao.getNovoStatus()));
+        }
+
+        // Conta as transições cuja condição ainda valia, inclusive as que gravam o mesmo status lido
+        return operacoes.execute().getMatchedCount();
+    }
+
+    @Override
+    public Optional<Pagamento> atualizarStatusSePermitido(Long idPagamento, Collection<StatusPagamento> statusPermitidos, StatusPagamento novoStatus) {
+        Query query = montarQueryTransicao(idPagamento, statusPermitidos);
+        Pagamento anterior = mongoTemplate.findAndModify(query, new Update().set("status", novoStatus),
+                FindAndModifyOptions.options().returnNew(false), Pagamento.class);
+        return Optional.ofNullable(anterior);
+    }
+
+    // Só o idPagamento, que não muda, para escolher a faixa do sequenciador antes da escrita
+    @Override
+    public Optional<Long> buscarIdPagamento(String id) {
+        Query query = new Query(Criteria.where("id").is(id).and("ativo").is(true));
+        query.fields().include("idPagamento");
+        return Optional.ofNullable(mongoTemplate.findOne(query, Pagamento.class)).map(Pagamento::getIdPagamento);
+    }
+
+    @Override
+    public Optional<Pagamento> inativarSePendente(String id) {
+        Query query = new Query(Criteria.where("id").is(id)
+                .and("status").is(StatusPagamento.PENDENTE_PROCESSAMENTO)
+                .and("ativo").is(true));
+        query.fields().include("idPagamento", "cpfCnpj", "metodoPagamento", "valor", "status", "ativo");
+        Pagamento inativado = mongoTemplate.findAndModify(query, new Update().set("ativo", false),
+                FindAndModifyOptions.options().returnNew(true), Pagamento.class);
+        return Optional.ofNullable(inativado);
+    }
+
+    @Override
+    public Map<Integer, String> inserirEmLote(List<Pagamento> pagamentos) {
+        try {
+            mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Pagamento.class).insert(pagamentos).execute();
+            return Map.of();
+        } catch (BulkOperationException e) {
+            Map<Integer, String> erros = new HashMap<>();
+            for (BulkWriteError erro : e.getErrors()) {
+                erros.put(erro.getIndex(), erro.getMessage());
+            }
+            return erros;
+        }
+    }
+
+    static Query montarQueryTransicao(Long idPagamento, Collection<StatusPagamento> statusPermitidos) {
+        Query query = new Query(Criteria.where("idPagamento").is(idPagamento)
+                .and("ativo").is(true)
+                .and("status").in(statusPermitidos));
+        query.fields().include("idPagamento", "cpfCnpj", "metodoPagamento", "valor", "status");
+        return query;
+    }
+
+    static Query montarQueryArquivamento(Instant criadosAntesDe, int tamanhoLote) {
+        Query query = new Query(Criteria.where("_id").lt(ObjectId.getSmallestWithDate(Date.from(criadosAntesDe)))
+                .orOperator(criteriasFinalizado()));
+        return query.with(Sort.by(Sort.Direction.ASC, "_id")).limit(tamanhoLote);
+    }
+
+    // Pagamentos inativados ou processados com sucesso não mudam mais.
+    private static Criteria[] criteriasFinalizado() {
+        return new Criteria[]{
+                Criteria.where("ativo").is(false),
+                Criteria.where("status").is(StatusPagamento.PROCESSADO_SUCESSO)
+        };
+    }
+
+    static Query montarQueryPaginada(Long idPagamento, String cpfCnpj, StatusPagamento status, String aposId, int limite) {
+        Query query = montarQuery(idPagamento, cpfCnpj, status);
+
+        if (aposId != null) {
+            query.addCriteria(Criteria.where("_id").gt(new ObjectId(aposId)));
+        }
+
+        return query.with(Sort.by(Sort.Direction.ASC, "_id")).limit(limite);
+    }
+
+    static Query montarQueryResumida(Long idPagamento, String cpfCnpj, StatusPagamento status, String aposId, int limite) {
+        Query query = montarQueryPaginada(idPagamento, cpfCnpj, status, aposId, limite);
+        query.fields().include(PagamentoResumido.CAMPOS);
+        return query;
+    }
+
+    static Query montarQuery(Long idPagamento, String cpfCnpj, StatusPagamento status) {
         Query query = new Query();
         query.addCriteria(Criteria.where("ativo").is(true));
 
@@ -30,7 +234,7 @@ public class PagamentoRepositoryImpl implements PagamentoRepositoryCustom {
         }
 
         if (cpfCnpj != null && !cpfCnpj.isEmpty()) {
-            orCriterias.add(Criteria.where("cpfCnpj").regex(cpfCnpj, "i"));
+            orCriterias.add(criteriaPrefixoCpfCnpj(cpfCnpj));
             hasOrCriteria = true;
         }
 
@@ -43,6 +247,25 @@ public class PagamentoRepositoryImpl implements PagamentoRepositoryCustom {
             query.addCriteria(Criteria.where("status").is(status));
         }
 
-        return mongoTemplate.find(query, Pagamento.class);
+        return query;
+    }
+
+    private static Criteria criteriaPrefixoCpfCnpj(String cpfCnpj) {
+        if (apenasDigitos(cpfCnpj)) {
+            char ultimo = cpfCnpj.charAt(cpfCnpj.length() - 1);
+            String limiteSuperior = cpfCnpj.substring(0, cpfCnpj.length() - 1) + (char) (ultimo + 1);
+            return Criteria.where("cpfCnpj").gte(cpfCnpj).lt(limiteSuperior);
+        }
+        return Criteria.where("cpfCnpj").regex("^" + Pattern.quote(cpfCnpj));
+    }
+
+    private static boolean apenasDigitos(String valor) {
+        for (int i = 0; i < valor.length(); i++) {
+            char c = valor.charAt(i);
+            if (c < '0' || c > '9') {
+                return false;
+            }
+        }
+        return true;
     }
 }
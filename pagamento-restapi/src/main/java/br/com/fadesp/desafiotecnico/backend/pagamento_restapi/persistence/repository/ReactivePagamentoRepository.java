@@ -0,0 +1,18 @@
+package br.com.fadesp.desafiotecnico.backend.pagamento_restapi.persistence.repository;
+
+
+import br.com.fadesp.desafiotecnico.backend.pagamento_restapi.persistence.model.entity.Pagamento;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Collection;
+
+@Repository
+public interface ReactivePagamentoRepository extends ReactiveMongoRepository<Pagamento, String>, ReactivePagamentoRepositoryCustom {
+
+    Mono<Pagamento> findByIdPagamentoAndAtivoIsTrue(Long idPagamento);
+
+    Flux<Pagamento> findByIdPagamentoInAndAtivoIsTrue(Collection<Long> idsPagamento);
+}
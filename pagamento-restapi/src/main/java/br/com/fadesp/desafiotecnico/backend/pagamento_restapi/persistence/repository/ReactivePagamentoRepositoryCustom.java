@@ -0,0 +1,36 @@
+package br.com.fadesp.desafiotecnico.backend.pagamento_restapi.persistence.repository;
+
+import br.com.fadesp.desafiotecnico.backend.pagamento_restapi.persistence.model.PagamentoResumido;
+import br.com.fadesp.desafiotecnico.backend.pagamento_restapi.persistence.model.StatusPagamento;
+import br.com.fadesp.desafiotecnico.backend.pagamento_restapi.persistence.model.entity.Pagamento;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+
+public interface ReactivePagamentoRepositoryCustom {
+    Flux<Pagamento> findWithFilters(Long idPagamento, String cpfCnpj, StatusPagamento status, String aposId, int limite);
+
+    Flux<PagamentoResumido> findResumidosWithFilters(Long idPagamento, String cpfCnpj, StatusPagamento status, String aposId, int limite);
+
+    Mono<Long> countWithFilters(Long idPagamento, String cpfCnpj, StatusPagamento status, long limiteContagem);
+
+    Flux<Pagamento> streamWithFilters(Long idPagamento, String cpfCnpj, StatusPagamento status, int tamanhoLoteCursor);
+
+    Flux<Pagamento> findArquivadosWithFilters(Long idPagamento, String cpfCnpj, StatusPagamento status, String aposId, int limite);
+
+    Flux<PagamentoResumido> findResumidosArquivadosWithFilters(Long idPagamento, String cpfCnpj, StatusPagamento status, String aposId, int limite);
+
+    Mono<Long> countArquivadosWithFilters(Long idPagamento, String cpfCnpj, StatusPagamento status, long limiteContagem);
+
+    Flux<Pagamento> streamArquivadosWithFilters(Long idPagamento, String cpfCnpj, StatusPagamento status, int tamanhoLoteCursor);
+
+    Mono<Pagamento> atualizarStatusSePermitido(Long idPagamento, Collection<StatusPagamento> statusPermitidos, StatusPagamento novoStatus);
+
+    Mono<Pagamento> inativarSePendente(String id);
+
+    Mono<Map<Integer, String>> inserirEmLote(List<Pagamento> pagamentos);
+}
@@ -0,0 +1,132 @@
+package br.com.fadesp.desafiotecnico.backend.pagamento_restapi.persistence.repository;
+
+import br.com.fadesp.desafiotecnico.backend.pagamento_restapi.persistence.model.PagamentoResumido;
+import br.com.fadesp.desafiotecnico.backend.pagamento_restapi.persistence.model.StatusPagamento;
+import br.com.fadesp.desafiotecnico.backend.pagamento_restapi.persistence.model.entity.Pagamento;
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.bulk.BulkWriteError;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public class ReactivePagamentoRepositoryImpl implements ReactivePagamentoRepositoryCustom {
+
+    private final ReactiveMongoTemplate reactiveMongoTemplate;
+
+    public ReactivePagamentoRepositoryImpl(ReactiveMongoTemplate reactiveMongoTemplate) {
+        this.reactiveMongoTemplate = reactiveMongoTemplate;
+    }
+
+    @Override
+    public Flux<Pagamento> findWithFilters(Long idPagamento, String cpfCnpj, StatusPagamento status, String aposId, int limite) {
+        return reactiveMongoTemplate.find(PagamentoRepositoryImpl.montarQueryPaginada(idPagamento, cpfCnpj, status, aposId, limite), Pagamento.class);
+    }
+
+    @Override
+    public Flux<PagamentoResumido> findResumidosWithFilters(Long idPagamento, String cpfCnpj, StatusPagamento status, String aposId, int limite) {
+        return reactiveMongoTemplate.find(PagamentoRepositoryImpl.montarQueryResumida(idPagamento, cpfCnpj, status, aposId, limite),
+                PagamentoResumido.class, reactiveMongoTemplate.getCollectionName(Pagamento.class));
+    }
+
+    @Override
+    public Mono<Long> countWithFilters(Long idPagamento, String cpfCnpj, StatusPagamento status, long limiteContagem) {
+        Query query = PagamentoRepositoryImpl.montarQuery(idPagamento, cpfCnpj, status);
+        query.limit((int) Math.min(limiteContagem, Integer.MAX_VALUE));
+        return reactiveMongoTemplate.count(query, Pagamento.class);
+    }
+
+    @Override
+    public Flux<Pagamento> streamWithFilters(Long idPagamento, String cpfCnpj, StatusPagamento status, int tamanhoLoteCursor) {
+        Query query = PagamentoRepositoryImpl.montarQuery(idPagamento, cpfCnpj, status);
+        query.cursorBatchSize(tamanhoLoteCursor);
+        return reactiveMongoTemplate.find(query, Pagamento.class);
+    }
+
+    @Override
+    public Flux<Pagamento> findArquivadosWithFilters(Long idPagamento, String cpfCnpj, StatusPagamento status, String aposId, int limite) {
+        return reactiveMongoTemplate.find(PagamentoRepositoryImpl.montarQueryPaginada(idPagamento, cpfCnpj, status, aposId, limite),
+                Pagamento.class, PagamentoRepositoryImpl.COLECAO_ARQUIVO);
+    }
+
+    @Override
+    public Flux<PagamentoResumido> findResumidosArquivadosWithFilters(Long idPagamento, String cpfCnpj, StatusPagamento status, String aposId, int limite) {
+        return reactiveMongoTemplate.find(PagamentoRepositoryImpl.montarQueryResumida(idPagamento, cpfCnpj, status, aposId, limite),
+                PagamentoResumido.class, PagamentoRepositoryImpl.COLECAO_ARQUIVO);
+    }
+
+    @Override
+    public Mono<Long> countArquivadosWithFilters(Long idPagamento, String cpfCnpj, StatusPagamento status, long limiteContagem) {
+        Query query = PagamentoRepositoryImpl.montarQuery(idPagamento, cpfCnpj, status);
+        query.limit((int) Math.min(limiteContagem, Integer.MAX_VALUE));
+        return reactiveMongoTemplate.count(query, Pagamento.class, PagamentoRepositoryImpl.COLECAO_ARQUIVO);
+    }
+
+    @Override
+    public Flux<Pagamento> streamArquivadosWithFilters(Long idPagamento, String cpfCnpj, StatusPagamento status, int tamanhoLoteCursor) {
+        Query query = PagamentoRepositoryImpl.montarQuery(idPagamento, cpfCnpj, status);
+        query.cursorBatchSize(tamanhoLoteCursor);
+        return reactiveMongoTemplate.find(query, Pagamento.class, PagamentoRepositoryImpl.COLECAO_ARQUIVO);
+    }
+
+    @Override
+    public Mono<Pagamento> atualizarStatusSePermitido(Long idPagamento, Collection<StatusPagamento> statusPermitidos, StatusPagamento novoStatus) {
+        Query query = PagamentoRepositoryImpl.montarQueryTransicao(idPagamento, statusPermitidos);
+        return reactiveMongoTemplate.findAndModify(query, new Update().set("status", novoStatus),
+                FindAndModifyOptions.options().returnNew(false), Pagamento.class);
+    }
+
+    @Override
+    public Mono<Pagamento> inativarSePendente(String id) {
+        Query query = new Query(Criteria.where("id").is(id)
+                .and("status").is(StatusPagamento.PENDENTE_PROCESSAMENTO)
+                .and("ativo").is(true));
+        query.fields().include("idPagamento", "cpfCnpj", "metodoPagamento", "valor", "status", "ativo");
+        return reactiveMongoTemplate.findAndModify(query, new Update().set("ativo", false),
+                FindAndModifyOptions.options().returnNew(true), Pagamento.class);
+    }
+
+    @Override
+    public Mono<Map<Integer, String>> inserirEmLote(List<Pagamento> pagamentos) {
+        return reactiveMongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Pagamento.class)
+                .insert(pagamentos)
+                .execute()
+                .<Map<Integer, String>>map(resultado -> Map.of())
+                .onErrorResume(ReactivePagamentoRepositoryImpl::temErrosDeEscrita,
+                        e -> Mono.just(mapearErros(errosDeEscrita(e))));
+    }
+
+    private static boolean temErrosDeEscrita(Throwable erro) {
+        return errosDeEscrita(erro) != null;
+    }
+
+    private static List<BulkWriteError> errosDeEscrita(Throwable erro) {
+        for (Throwable atual = erro; atual != null; atual = atual.getCause()) {
+            if (atual instanceof BulkOperationException bulk) {
+                return bulk.getErrors();
+            }
+            if (atual instanceof MongoBulkWriteException bulk) {
+                return bulk.getWriteErrors();
+            }
+        }
+        return null;
+    }
+
+    private static Map<Integer, String> mapearErros(List<BulkWriteError> erros) {
+        Map<Integer, String> mapeados = new HashMap<>();
+        for (BulkWriteError erro : erros) {
+            mapeados.put(erro.getIndex(), erro.getMessage());
+        }
+        return mapeados;
+    }
+}
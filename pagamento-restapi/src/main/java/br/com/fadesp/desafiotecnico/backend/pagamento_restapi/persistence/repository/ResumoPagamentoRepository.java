@@ -0,0 +1,10 @@
+package br.com.fadesp.desafiotecnico.backend.pagamento_restapi.persistence.repository;
+
+
+import br.com.fadesp.desafiotecnico.backend.pagamento_restapi.persistence.model.entity.ResumoPagamento;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface ResumoPagamentoRepository extends MongoRepository<ResumoPagamento, String>, ResumoPagamentoRepositoryCustom {
+}
@@ -0,0 +1,14 @@
+package br.com.fadesp.desafiotecnico.backend.pagamento_restapi.persistence.repository;
+
+import br.com.fadesp.desafiotecnico.backend.pagamento_restapi.persistence.model.entity.ResumoPagamento;
+
+import java.util.List;
+
+
+public interface ResumoPagamentoRepositoryCustom {
+    void incrementar(List<ResumoPagamento> variacoes);
+
+    List<ResumoPagamento> agregarPagamentosAtivos();
+
+    void substituirTodos(List<ResumoPagamento> resumos);
+}
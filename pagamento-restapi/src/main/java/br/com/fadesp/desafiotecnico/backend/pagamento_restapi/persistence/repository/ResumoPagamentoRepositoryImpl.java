@@ -0,0 +1,87 @@
+package br.com.fadesp.desafiotecnico.backend.pagamento_restapi.persistence.repository;
+
+import br.com.fadesp.desafiotecnico.backend.pagamento_restapi.persistence.model.MetodoPagamento;
+import br.com.fadesp.desafiotecnico.backend.pagamento_restapi.persistence.model.StatusPagamento;
+import br.com.fadesp.desafiotecnico.backend.pagamento_restapi.persistence.model.entity.Pagamento;
+import br.com.fadesp.desafiotecnico.backend.pagamento_restapi.persistence.model.entity.ResumoPagamento;
+import org.bson.Document;
+import org.bson.types.Decimal128;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndReplaceOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.ConvertOperators;
+import org.springframework.data.mongodb.core.aggregation.UnionWithOperation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+public class ResumoPagamentoRepositoryImpl implements ResumoPagamentoRepositoryCustom {
+
+    private final MongoTemplate mongoTemplate;
+
+    public ResumoPagamentoRepositoryImpl(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @Override
+    public void incrementar(List<ResumoPagamento> variacoes) {
+        if (variacoes.isEmpty()) {
+            return;
+        }
+
+        BulkOperations operacoes = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, ResumoPagamento.class);
+        for (ResumoPagamento variacao : variacoes) {
+            Update update = new Update()
+                    .inc("quantidade", variacao.getQuantidade())
+                    .inc("valorTotal", new Decimal128(variacao.getValorTotal()))
+                    .setOnInsert("status", variacao.getStatus())
+                    .setOnInsert("metodoPagamento", variacao.getMetodoPagamento());
+            operacoes.upsert(new Query(Criteria.where("id").is(variacao.getId())), update);
+        }
+        operacoes.execute();
+    }
+
+    @Override
+    public List<ResumoPagamento> agregarPagamentosAtivos() {
+        // $toDecimal soma com precisão exata o valor gravado como texto ou Decimal128; os arquivados continuam no resumo
+        Aggregation agregacao = Aggregation.newAggregation(
+                Aggregation.match(Criteria.where("ativo").is(true)),
+                UnionWithOperation.unionWith(PagamentoRepositoryImpl.COLECAO_ARQUIVO)
+                        .pipeline(Aggregation.match(Criteria.where("ativo").is(true))),
+                Aggregation.group("status", "metodoPagamento")
+                        .count().as("quantidade")
+                        .sum(ConvertOperators.valueOf("valor").convertToDecimal()).as("valorTotal"));
+
+        List<ResumoPagamento> resumos = new ArrayList<>();
+        for (Document grupo : mongoTemplate.aggregate(agregacao, Pagamento.class, Document.class)) {
+            Document chave = grupo.get("_id", Document.class);
+            if (chave.getString("status") == null || chave.getString("metodoPagamento") == null) {
+                continue;
+            }
+            StatusPagamento status = StatusPagamento.valueOf(chave.getString("status"));
+            MetodoPagamento metodoPagamento = MetodoPagamento.valueOf(chave.getString("metodoPagamento"));
+            Decimal128 valorTotal = grupo.get("valorTotal", Decimal128.class);
+            resumos.add(new ResumoPagamento(ResumoPagamento.chave(status, metodoPagamento), status, metodoPagamento,
+                    ((Number) grupo.get("quantidade")).longValue(),
+                    valorTotal == null ? BigDecimal.ZERO : valorTotal.bigDecimalValue()));
+        }
+        return resumos;
+    }
+
+    @Override
+    public void substituirTodos(List<ResumoPagamento> resumos) {
+        List<String> ids = new ArrayList<>(resumos.size());
+        BulkOperations operacoes = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, ResumoPagamento.class);
+        for (ResumoPagamento resumo : resumos) {
+            ids.add(resumo.getId());
+            operacoes.replaceOne(new Query(Criteria.where("id").is(resumo.getId())), resumo, FindAndReplaceOptions.options().upsert());
+        }
+        operacoes.remove(new Query(Criteria.where("id").nin(ids)));
+        operacoes.execute();
+    }
+}
@@ -0,0 +1,44 @@
+package br.com.fadesp.desafiotecnico.backend.pagamento_restapi.service;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+// GCRA: guarda o instante (nanoTime) em que o balde volta a ficar cheio; cada aquisição é um único CAS
+final class BaldeTokens {
+
+    private final long intervalo;
+    private final long tolerancia;
+    private final AtomicLong cheioEm;
+
+    BaldeTokens(double tokensPorSegundo, int capacidade, long agora) {
+        if (tokensPorSegundo <= 0 || capacidade < 1) {
+            throw new IllegalArgumentException("A taxa e a capacidade do balde de tokens devem ser positivas.");
+        }
+        this.intervalo = Math.max(1L, Math.round(1_000_000_000 / tokensPorSegundo));
+        this.tolerancia = intervalo * capacidade;
+        this.cheioEm = new AtomicLong(agora);
+    }
+
+    // Devolve 0 ao consumir um token, ou os nanossegundos até o próximo token, sem consumir nada
+    long adquirir(long agora) {
+        while (true) {
+            long atual = cheioEm.get();
+            long novo = (atual - agora < 0 ? agora : atual) + intervalo;
+            long excesso = novo - agora - tolerancia;
+            if (excesso > 0) {
+                return excesso;
+            }
+            if (cheioEm.compareAndSet(atual, novo)) {
+                return 0;
+            }
+        }
+    }
+
+    double tokensDisponiveis(long agora) {
+        return (tolerancia - Math.max(0L, cheioEm.get() - agora)) / (double) intervalo;
+    }
+
+    // Tempo para um balde vazio encher de novo; depois disso, descartá-lo equivale a recriá-lo cheio.
+    long tempoParaEncher() {
+        return tolerancia;
+    }
+}
@@ -0,0 +1,9 @@
+package br.com.fadesp.desafiotecnico.backend.pagamento_restapi.service;
+
+import br.com.fadesp.desafiotecnico.backend.pagamento_restapi.persistence.model.PagamentoStatusAtualizacao;
+import org.springframework.kafka.support.SendResult;
+
+import java.util.concurrent.CompletableFuture;
+
+public record EnvioAtualizacao(String idMensagem, CompletableFuture<SendResult<String, PagamentoStatusAtualizacao>> confirmacao) {
+}
@@ -0,0 +1,184 @@
+package br.com.fadesp.desafiotecnico.backend.pagamento_restapi.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+
+// Segmentos com endereçamento aberto e fila circular alocados uma vez só: consultar ou registrar não cria objetos
+@Component
+public class JanelaDeduplicacao {
+
+    private static final long VAZIO = 0L;
+
+    private final boolean habilitada;
+    private final Segmento[] segmentos;
+    private final int mascaraSegmentos;
+    private final Counter duplicadas;
+
+    public JanelaDeduplicacao(@Value("${app.kafka.consumer.deduplicacao.habilitada:true}") boolean habilitada,
+                              @Value("${app.kafka.consumer.deduplicacao.capacidade:100000}") int capacidade,
+                              @Value("${app.kafka.consumer.deduplicacao.segmentos:16}") int quantidadeSegmentos,
+                              MeterRegistry meterRegistry) {
+        if (capacidade < 1 || quantidadeSegmentos < 1) {
+            throw new IllegalArgumentException("A capacidade e o número de segmentos da janela de deduplicação devem ser positivos.");
+        }
+        this.habilitada = habilitada;
+        int totalSegmentos = Integer.highestOneBit(quantidadeSegmentos - 1) << 1;
+        totalSegmentos = Math.max(1, Math.min(totalSegmentos, Integer.highestOneBit(capacidade)));
+        this.segmentos = new Segmento[habilitada ? totalSegmentos : 0];
+        this.mascaraSegmentos = totalSegmentos - 1;
+        int capacidadeSegmento = (capacidade + totalSegmentos - 1) / totalSegmentos;
+        for (int i = 0; i < segmentos.length; i++) {
+            segmentos[i] = new Segmento(capacidadeSegmento);
+        }
+
+        this.duplicadas = Counter.builder("pagamentos.kafka.mensagens.duplicadas")
+                .description("Mensagens de atualização de status descartadas por já terem sido processadas")
+                .register(meterRegistry);
+        Gauge.builder("pagamentos.kafka.deduplicacao.memoria", this, JanelaDeduplicacao::bytesAlocados)
+                .description("Memória alocada pela janela de deduplicação de mensagens")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        Gauge.builder("pagamentos.kafka.deduplicacao.entradas", this, JanelaDeduplicacao::entradas)
+                .description("Identificadores de mensagens mantidos na janela de deduplicação")
+                .register(meterRegistry);
+    }
+
+    public boolean jaProcessada(String idMensagem) {
+        if (!habilitada || idMensagem == null) {
+            return false;
+        }
+        long impressao = impressaoDigital(idMensagem);
+        if (segmento(impressao).contem(impressao)) {
+            duplicadas.increment();
+            return true;
+        }
+        return false;
+    }
+
+    // Só depois que o resultado estiver gravado, para que uma falha permita a reentrega
+    public void registrar(String idMensagem) {
+        if (!habilitada || idMensagem == null) {
+            return;
+        }
+        long impressao = impressaoDigital(idMensagem);
+        segmento(impressao).adicionar(impressao);
+    }
+
+    static String lerIdMensagem(Object valor) {
+        if (valor instanceof byte[] bytes) {
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+        return valor instanceof String texto ? texto : null;
+    }
+
+    long bytesAlocados() {
+        long total = 0;
+        for (Segmento segmento : segmentos) {
+            total += (long) (segmento.tabela.length + segmento.fila.length) * Long.BYTES;
+        }
+        return total;
+    }
+
+    long entradas() {
+        long total = 0;
+        for (Segmento segmento : segmentos) {
+            total += segmento.tamanho();
+        }
+        return total;
+    }
+
+    private Segmento segmento(long impressao) {
+        return segmentos[(int) (impressao >>> 40) & mascaraSegmentos];
+    }
+
+    // FNV-1a seguido da finalização do MurmurHash3: espalha bem identificadores parecidos, como UUIDs.
+    static long impressaoDigital(String idMensagem) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < idMensagem.length(); i++) {
+            hash ^= idMensagem.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash == VAZIO ? 1L : hash;
+    }
+
+    private static final class Segmento {
+
+        private final long[] tabela;
+        private final long[] fila;
+        private final int mascara;
+        private int inicio;
+        private int tamanho;
+
+        Segmento(int capacidade) {
+            this.fila = new long[capacidade];
+            this.tabela = new long[Integer.highestOneBit(Math.max(2, capacidade) * 2 - 1) << 1];
+            this.mascara = tabela.length - 1;
+        }
+
+        synchronized boolean contem(long impressao) {
+            return tabela[posicao(impressao)] == impressao;
+        }
+
+        synchronized void adicionar(long impressao) {
+            int posicao = posicao(impressao);
+            if (tabela[posicao] == impressao) {
+                return;
+            }
+            if (tamanho == fila.length) {
+                remover(fila[inicio]);
+                inicio = (inicio + 1) % fila.length;
+                tamanho--;
+                posicao = posicao(impressao);
+            }
+            tabela[posicao] = impressao;
+            fila[(inicio + tamanho) % fila.length] = impressao;
+            tamanho++;
+        }
+
+        synchronized int tamanho() {
+            return tamanho;
+        }
+
+        // Sondagem linear: devolve a posição da impressão ou a primeira posição vazia da sequência.
+        private int posicao(long impressao) {
+            int i = (int) impressao & mascara;
+            while (tabela[i] != VAZIO && tabela[i] != impressao) {
+                i = (i + 1) & mascara;
+            }
+            return i;
+        }
+
+        // Remoção com deslocamento para trás, que mantém as sequências de sondagem sem marcadores de remoção.
+        private void remover(long impressao) {
+            int vaga = posicao(impressao);
+            if (tabela[vaga] == VAZIO) {
+                return;
+            }
+            int atual = vaga;
+            while (true) {
+                atual = (atual + 1) & mascara;
+                long ocupante = tabela[atual];
+                if (ocupante == VAZIO) {
+                    break;
+                }
+                int origem = (int) ocupante & mascara;
+                boolean podeMover = vaga <= atual ? (origem <= vaga || origem > atual) : (origem <= vaga && origem > atual);
+                if (podeMover) {
+                    tabela[vaga] = ocupante;
+                    vaga = atual;
+                }
+            }
+            tabela[vaga] = VAZIO;
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package br.com.fadesp.desafiotecnico.backend.pagamento_restapi.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+@Component
+public class LimitadorAtualizacaoStatus {
+
+    public static final String MOTIVO_CLIENTE = "cliente";
+    public static final String MOTIVO_GLOBAL = "global";
+    public static final String MOTIVO_SOBRECARGA = "sobrecarga";
+
+    private final boolean habilitado;
+    private final double taxaCliente;
+    private final int rajadaCliente;
+    private final Duration esperaSobrecarga;
+    private final Set<String> proxiesConfiaveis;
+    private final BaldeTokens global;
+    private final Cache<String, BaldeTokens> clientes;
+    private final MonitorSobrecarga monitorSobrecarga;
+    private final Counter rejeitadasCliente;
+    private final Counter rejeitadasGlobal;
+    private final Counter rejeitadasSobrecarga;
+
+    public LimitadorAtualizacaoStatus(@Value("${app.limite.status.habilitado:true}") boolean habilitado,
+                                      @Value("${app.limite.status.taxa-global:2000}") double taxaGlobal,
+                                      @Value("${app.limite.status.rajada-global:4000}") int rajadaGlobal,
+                                      @Value("${app.limite.status.taxa-cliente:50}") double taxaCliente,
+                                      @Value("${app.limite.status.rajada-cliente:100}") int rajadaCliente,
+                                      @Value("${app.limite.status.maximo-clientes:10000}") long maximoClientes,
+                                      @Value("${app.limite.status.espera-sobrecarga:1s}") Duration esperaSobrecarga,
+                                      @Value("${app.limite.status.proxies-confiaveis:}") List<String> proxiesConfiaveis,
+                                      MonitorSobrecarga monitorSobrecarga,
+                                      MeterRegistry meterRegistry) {
+        this.habilitado = habilitado;
+        this.taxaCliente = taxaCliente;
+        this.rajadaCliente = rajadaCliente;
+        this.esperaSobrecarga = esperaSobrecarga;
+        this.proxiesConfiaveis = proxiesConfiaveis.stream().map(String::trim).filter(proxy -> !proxy.isEmpty())
+                .collect(Collectors.toUnmodifiableSet());
+        this.global = new BaldeTokens(taxaGlobal, rajadaGlobal, System.nanoTime());
+        long tempoParaEncher = new BaldeTokens(taxaCliente, rajadaCliente, 0).tempoParaEncher();
+        this.clientes = Caffeine.newBuilder()
+                .maximumSize(maximoClientes)
+                .expireAfterAccess(Duration.ofNanos(tempoParaEncher))
+                .build();
+        this.monitorSobrecarga = monitorSobrecarga;
+
+        this.rejeitadasCliente = contador(meterRegistry, MOTIVO_CLIENTE);
+        this.rejeitadasGlobal = contador(meterRegistry, MOTIVO_GLOBAL);
+        this.rejeitadasSobrecarga = contador(meterRegistry, MOTIVO_SOBRECARGA);
+        Gauge.builder("pagamentos.limite.tokens", global, balde -> balde.tokensDisponiveis(System.nanoTime()))
+                .description("Tokens disponíveis no balde global de atualizações de status")
+                .register(meterRegistry);
+        Gauge.builder("pagamentos.limite.clientes", clientes, Cache::estimatedSize)
+                .description("Clientes com balde de tokens de atualizações de status em memória")
+                .register(meterRegistry);
+    }
+
+    // O balde do cliente vem antes do global, para que um cliente acima do próprio limite não consuma os tokens dos demais
+    public Optional<RejeicaoLimite> verificar(String cliente) {
+        if (!habilitado) {
+            return Optional.empty();
+        }
+        if (monitorSobrecarga.sobrecarregado()) {
+            rejeitadasSobrecarga.increment();
+            return Optional.of(new RejeicaoLimite(MOTIVO_SOBRECARGA, esperaSobrecarga));
+        }
+
+        long agora = System.nanoTime();
+        long espera = baldeDoCliente(cliente, agora).adquirir(agora);
+        if (espera > 0) {
+            rejeitadasCliente.increment();
+            return Optional.of(new RejeicaoLimite(MOTIVO_CLIENTE, Duration.ofNanos(espera)));
+        }
+        espera = global.adquirir(agora);
+        if (espera > 0) {
+            rejeitadasGlobal.increment();
+            return Optional.of(new RejeicaoLimite(MOTIVO_GLOBAL, Duration.ofNanos(espera)));
+        }
+        return Optional.empty();
+    }
+
+    // Da direita para a esquerda: o que vem antes do primeiro endereço não confiável pode ter sido enviado pelo cliente
+    public String identificarCliente(String enderecoRemoto, String encaminhadoPara) {
+        String cliente = enderecoRemoto;
+        if (encaminhadoPara == null || !proxiesConfiaveis.contains(enderecoRemoto)) {
+            return cliente;
+        }
+        String[] saltos = encaminhadoPara.split(",");
+        for (int i = saltos.length - 1; i >= 0; i--) {
+            String salto = saltos[i].trim();
+            if (salto.isEmpty()) {
+                break;
+            }
+            cliente = salto;
+            if (!proxiesConfiaveis.contains(salto)) {
+                break;
+            }
+        }
+        return cliente;
+    }
+
+    // Cria o balde fora do cache, como no PagamentoCache, para não executar código sob o lock do mapa.
+    private BaldeTokens baldeDoCliente(String cliente, long agora) {
+        BaldeTokens balde = clientes.getIfPresent(cliente);
+        if (balde != null) {
+            return balde;
+        }
+        BaldeTokens novo = new BaldeTokens(taxaCliente, rajadaCliente, agora);
+        BaldeTokens existente = clientes.asMap().putIfAbsent(cliente, novo);
+        return existente != null ? existente : novo;
+    }
+
+    private static Counter contador(MeterRegistry meterRegistry, String motivo) {
+        return Counter.builder("pagamentos.limite.rejeicoes")
+                .description("Atualizações de status recusadas com 429, por motivo")
+                .tag("motivo", motivo)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,123 @@
+package br.com.fadesp.desafiotecnico.backend.pagamento_restapi.service;
+
+import br.com.fadesp.desafiotecnico.backend.pagamento_restapi.persistence.model.PagamentoStatusAtualizacao;
+import com.mongodb.event.ConnectionCheckOutFailedEvent;
+import com.mongodb.event.ConnectionCheckedOutEvent;
+import com.mongodb.event.ConnectionPoolListener;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.common.Metric;
+import org.apache.kafka.common.MetricName;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// A requisição só lê o resultado da última amostra
+@Slf4j
+@Component
+public class MonitorSobrecarga implements ConnectionPoolListener {
+
+    private final KafkaTemplate<String, PagamentoStatusAtualizacao> kafkaTemplate;
+    private final PagamentoProducer pagamentoProducer;
+    private final double usoMaximoBufferProdutor;
+    private final int enviosPendentesMaximo;
+    private final long esperaMaximaPoolMongo;
+    private final AtomicLong maiorEsperaPool = new AtomicLong();
+    private volatile double usoBufferProdutor;
+    private volatile long esperaPoolMongo;
+    private volatile boolean sobrecarregado;
+
+    public MonitorSobrecarga(KafkaTemplate<String, PagamentoStatusAtualizacao> kafkaTemplate, PagamentoProducer pagamentoProducer,
+                             @Value("${app.limite.status.descarte.uso-maximo-buffer-produtor:0.8}") double usoMaximoBufferProdutor,
+                             @Value("${app.limite.status.descarte.envios-pendentes-maximo:5000}") int enviosPendentesMaximo,
+                             @Value("${app.limite.status.descarte.espera-maxima-pool-mongo:100ms}") Duration esperaMaximaPoolMongo,
+                             MeterRegistry meterRegistry) {
+        this.kafkaTemplate = kafkaTemplate;
+        this.pagamentoProducer = pagamentoProducer;
+        this.usoMaximoBufferProdutor = usoMaximoBufferProdutor;
+        this.enviosPendentesMaximo = enviosPendentesMaximo;
+        this.esperaMaximaPoolMongo = esperaMaximaPoolMongo.toNanos();
+
+        Gauge.builder("pagamentos.limite.sobrecarga", this, monitor -> monitor.sobrecarregado ? 1 : 0)
+                .description("1 enquanto as atualizações de status são recusadas por sobrecarga do Kafka ou do MongoDB")
+                .register(meterRegistry);
+        Gauge.builder("pagamentos.limite.sinal", this, monitor -> monitor.usoBufferProdutor)
+                .description("Sinais de sobrecarga da última amostra")
+                .tag("sinal", "uso-buffer-produtor")
+                .register(meterRegistry);
+        Gauge.builder("pagamentos.limite.sinal", pagamentoProducer, PagamentoProducer::enviosPendentes)
+                .description("Sinais de sobrecarga da última amostra")
+                .tag("sinal", "envios-pendentes")
+                .register(meterRegistry);
+        Gauge.builder("pagamentos.limite.sinal", this, monitor -> monitor.esperaPoolMongo / 1e9)
+                .description("Sinais de sobrecarga da última amostra")
+                .tag("sinal", "espera-pool-mongo")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+    }
+
+    public boolean sobrecarregado() {
+        return sobrecarregado;
+    }
+
+    @Scheduled(fixedDelayString = "${app.limite.status.descarte.intervalo-amostragem:250ms}")
+    public void amostrar() {
+        usoBufferProdutor = lerUsoBufferProdutor();
+        esperaPoolMongo = maiorEsperaPool.getAndSet(0);
+        int enviosPendentes = pagamentoProducer.enviosPendentes();
+
+        boolean anterior = sobrecarregado;
+        sobrecarregado = usoBufferProdutor > usoMaximoBufferProdutor
+                || enviosPendentes > enviosPendentesMaximo
+                || esperaPoolMongo > esperaMaximaPoolMongo;
+        if (sobrecarregado != anterior) {
+            log.warn("Descarte de atualizações de status {}: buffer do produtor {}%, {} envios pendentes, espera no pool do MongoDB {} ms.",
+                    sobrecarregado ? "ativado" : "desativado", Math.round(usoBufferProdutor * 100), enviosPendentes,
+                    TimeUnit.NANOSECONDS.toMillis(esperaPoolMongo));
+        }
+    }
+
+    @Override
+    public void connectionCheckedOut(ConnectionCheckedOutEvent event) {
+        registrarEspera(event.getElapsedTime(TimeUnit.NANOSECONDS));
+    }
+
+    // Um checkout que falhou por tempo esgotado esperou pelo menos tanto quanto os que conseguiram conexão.
+    @Override
+    public void connectionCheckOutFailed(ConnectionCheckOutFailedEvent event) {
+        registrarEspera(event.getElapsedTime(TimeUnit.NANOSECONDS));
+    }
+
+    private void registrarEspera(long nanos) {
+        maiorEsperaPool.accumulateAndGet(nanos, Math::max);
+    }
+
+    // Soma os produtores do template: buffer-total-bytes é o buffer.memory e buffer-available-bytes, a parte livre.
+    double lerUsoBufferProdutor() {
+        double total = 0;
+        double disponivel = 0;
+        try {
+            for (Map.Entry<MetricName, ? extends Metric> metrica : kafkaTemplate.metrics().entrySet()) {
+                if (!"producer-metrics".equals(metrica.getKey().group())) {
+                    continue;
+                }
+                if ("buffer-total-bytes".equals(metrica.getKey().name()) && metrica.getValue().metricValue() instanceof Number valor) {
+                    total += valor.doubleValue();
+                } else if ("buffer-available-bytes".equals(metrica.getKey().name()) && metrica.getValue().metricValue() instanceof Number valor) {
+                    disponivel += valor.doubleValue();
+                }
+            }
+        } catch (RuntimeException e) {
+            log.debug("Falha ao ler as métricas do produtor Kafka.", e);
+            return 0;
+        }
+        return total > 0 ? 1 - disponivel / total : 0;
+    }
+}
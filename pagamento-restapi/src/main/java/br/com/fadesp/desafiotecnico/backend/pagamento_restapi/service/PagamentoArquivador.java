@@ -0,0 +1,138 @@
+package br.com.fadesp.desafiotecnico.backend.pagamento_restapi.service;
+
+import br.com.fadesp.desafiotecnico.backend.pagamento_restapi.persistence.repository.PagamentoRepository;
+import br.com.fadesp.desafiotecnico.backend.pagamento_restapi.persistence.repository.PagamentoRepositoryImpl;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Slf4j
+@Service
+public class PagamentoArquivador {
+
+    private final PagamentoRepository pagamentoRepository;
+    private final VersaoPagamentos versaoPagamentos;
+    private final boolean habilitado;
+    private final Duration idadeMinima;
+    private final int tamanhoLote;
+    private final int lotesPorExecucao;
+    private final Duration pausaEntreLotes;
+    private final Counter arquivados;
+    private final AtomicLong documentosPrincipais = new AtomicLong();
+    private final AtomicLong documentosArquivados = new AtomicLong();
+    private final AtomicBoolean emExecucao = new AtomicBoolean();
+    // As pausas entre lotes bloqueiam esta thread, e não o agendador compartilhado com o resumo e a sobrecarga
+    private final ExecutorService execucao = Executors.newSingleThreadExecutor(Thread.ofPlatform().name("arquivador-pagamentos").daemon().factory());
+    private volatile boolean indicesCriados;
+
+    public PagamentoArquivador(PagamentoRepository pagamentoRepository, VersaoPagamentos versaoPagamentos,
+                               @Value("${app.arquivamento.habilitado:true}") boolean habilitado,
+                               @Value("${app.arquivamento.idade-minima:30d}") Duration idadeMinima,
+                               @Value("${app.arquivamento.tamanho-lote:500}") int tamanhoLote,
+                               @Value("${app.arquivamento.lotes-por-execucao:20}") int lotesPorExecucao,
+                               @Value("${app.arquivamento.pausa-entre-lotes:200ms}") Duration pausaEntreLotes,
+                               MeterRegistry meterRegistry) {
+        if (tamanhoLote < 1 || lotesPorExecucao < 1) {
+            throw new IllegalArgumentException("O tamanho do lote e a quantidade de lotes do arquivamento devem ser positivos.");
+        }
+        this.pagamentoRepository = pagamentoRepository;
+        this.versaoPagamentos = versaoPagamentos;
+        this.habilitado = habilitado;
+        this.idadeMinima = idadeMinima;
+        this.tamanhoLote = tamanhoLote;
+        this.lotesPorExecucao = lotesPorExecucao;
+        this.pausaEntreLotes = pausaEntreLotes;
+
+        this.arquivados = Counter.builder("pagamentos.arquivamento.documentos")
+                .description("Pagamentos finalizados movidos para a coleção de arquivo")
+                .register(meterRegistry);
+        Gauge.builder("pagamentos.colecao.documentos", documentosPrincipais, AtomicLong::get)
+                .description("Quantidade estimada de documentos por coleção de pagamentos")
+                .tag("colecao", "pagamentos")
+                .register(meterRegistry);
+        Gauge.builder("pagamentos.colecao.documentos", documentosArquivados, AtomicLong::get)
+                .description("Quantidade estimada de documentos por coleção de pagamentos")
+                .tag("colecao", PagamentoRepositoryImpl.COLECAO_ARQUIVO)
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${app.arquivamento.intervalo:5m}", initialDelayString = "${app.arquivamento.atraso-inicial:1m}")
+    public void agendar() {
+        if (!habilitado || !emExecucao.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            execucao.execute(() -> {
+                try {
+                    arquivar();
+                } finally {
+                    emExecucao.set(false);
+                }
+            });
+        } catch (RuntimeException e) {
+            emExecucao.set(false);
+            throw e;
+        }
+    }
+
+    @PreDestroy
+    public void fechar() {
+        execucao.shutdownNow();
+    }
+
+    void arquivar() {
+        if (!habilitado) {
+            return;
+        }
+        Instant criadosAntesDe = Instant.now().minus(idadeMinima);
+        int total = 0;
+        try {
+            if (!indicesCriados) {
+                pagamentoRepository.criarIndicesArquivo();
+                indicesCriados = true;
+            }
+            for (int lote = 0; lote < lotesPorExecucao; lote++) {
+                long inicio = System.nanoTime();
+                int movidos = pagamentoRepository.arquivarFinalizados(criadosAntesDe, tamanhoLote);
+                total += movidos;
+                if (movidos < tamanhoLote) {
+                    break;
+                }
+                Thread.sleep(Math.max(pausaEntreLotes.toMillis(), Duration.ofNanos(System.nanoTime() - inicio).toMillis()));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException e) {
+            log.warn("Falha ao arquivar pagamentos finalizados; o arquivamento continua na próxima execução.", e);
+        }
+
+        if (total > 0) {
+            arquivados.increment(total);
+            versaoPagamentos.incrementar();
+            log.info("{} pagamentos finalizados criados antes de {} movidos para o arquivo.", total, criadosAntesDe);
+        }
+    }
+
+    // A contagem estimada vem dos metadados da coleção e não percorre documentos.
+    @Scheduled(fixedDelayString = "${app.arquivamento.intervalo-medicao:1m}")
+    public void medirColecoes() {
+        try {
+            documentosPrincipais.set(pagamentoRepository.estimarQuantidade());
+            documentosArquivados.set(pagamentoRepository.estimarQuantidadeArquivada());
+        } catch (RuntimeException e) {
+            log.debug("Falha ao medir as coleções de pagamentos.", e);
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package br.com.fadesp.desafiotecnico.backend.pagamento_restapi.service;
+
+import br.com.fadesp.desafiotecnico.backend.pagamento_restapi.persistence.model.StatusPagamento;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.function.Function;
+
+@Component
+public class PagamentoCache {
+
+    public static final EstadoPagamento NAO_ENCONTRADO = new EstadoPagamento(null, false);
+
+    private final boolean habilitado;
+    private final Cache<Long, EstadoPagamento> cache;
+
+    public PagamentoCache(@Value("${app.cache.pagamentos.habilitado:true}") boolean habilitado,
+                          @Value("${app.cache.pagamentos.tamanho-maximo:100000}") long tamanhoMaximo,
+                          @Value("${app.cache.pagamentos.ttl:5m}") Duration ttl,
+                          @Value("${app.cache.pagamentos.ttl-negativo:5s}") Duration ttlNegativo,
+                          MeterRegistry meterRegistry) {
+        this.habilitado = habilitado;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(tamanhoMaximo)
+                .expireAfter(new ExpiracaoPorTipo(ttl.toNanos(), ttlNegativo.toNanos()))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "pagamentos");
+    }
+
+    public EstadoPagamento obter(Long idPagamento, Function<Long, EstadoPagamento> carregador) {
+        EstadoPagamento estado = consultar(idPagamento);
+        if (estado != null) {
+            return estado;
+        }
+        // Carrega fora do cache: o carregador do cache.get roda sob o lock do mapa e prende a thread portadora
+        return publicar(idPagamento, carregador.apply(idPagamento));
+    }
+
+    // Desabilitado, nada é guardado e toda consulta vai ao MongoDB
+    public EstadoPagamento consultar(Long idPagamento) {
+        return habilitado ? cache.getIfPresent(idPagamento) : null;
+    }
+
+    public EstadoPagamento publicar(Long idPagamento, EstadoPagamento carregado) {
+        if (!habilitado) {
+            return carregado;
+        }
+        EstadoPagamento existente = cache.asMap().putIfAbsent(idPagamento, carregado);
+        return existente != null ? existente : carregado;
+    }
+
+    public void registrar(Long idPagamento, StatusPagamento status, boolean ativo) {
+        if (!habilitado) {
+            return;
+        }
+        cache.put(idPagamento, new EstadoPagamento(status, ativo));
+    }
+
+    public void invalidar(Long idPagamento) {
+        cache.invalidate(idPagamento);
+    }
+
+    public record EstadoPagamento(StatusPagamento status, boolean ativo) {
+
+        public boolean encontrado() {
+            return status != null;
+        }
+    }
+
+    private static final class ExpiracaoPorTipo implements Expiry<Long, EstadoPagamento> {
+
+        private final long ttlNanos;
+        private final long ttlNegativoNanos;
+
+        private ExpiracaoPorTipo(long ttlNanos, long ttlNegativoNanos) {
+            this.ttlNanos = ttlNanos;
+            this.ttlNegativoNanos = ttlNegativoNanos;
+        }
+
+        @Override
+        public long expireAfterCreate(Long idPagamento, EstadoPagamento estado, long instanteAtual) {
+            return estado.encontrado() ? ttlNanos : ttlNegativoNanos;
+        }
+
+        @Override
+        public long expireAfterUpdate(Long idPagamento, EstadoPagamento estado, long instanteAtual, long duracaoAtual) {
+            return expireAfterCreate(idPagamento, estado, instanteAtual);
+        }
+
+        @Override
+        public long expireAfterRead(Long idPagamento, EstadoPagamento estado, long instanteAtual, long duracaoAtual) {
+            return duracaoAtual;
+        }
+    }
+}
@@ -2,49 +2,346 @@ package br.com.fadesp.desafiotecnico.backend.pagamento_restapi.service;
 
 import br.com.fadesp.desafiotecnico.backend.pagamento_restapi.persistence.model.PagamentoStatusAtualizacao;
 import br.com.fadesp.desafiotecnico.backend.pagamento_restapi.persistence.model.StatusPagamento;
+import br.com.fadesp.desafiotecnico.backend.pagamento_restapi.persistence.model.TransicaoStatus;
 import br.com.fadesp.desafiotecnico.backend.pagamento_restapi.persistence.model.entity.Pagamento;
 import br.com.fadesp.desafiotecnico.backend.pagamento_restapi.persistence.repository.PagamentoRepository;
+import io.micrometer.core.instrument.Timer;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.kafka.annotation.DltHandler;
 import org.springframework.kafka.annotation.EnableKafka;
 import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.annotation.RetryableTopic;
+import org.springframework.kafka.retrytopic.DltStrategy;
+import org.springframework.kafka.retrytopic.TopicSuffixingStrategy;
+import org.springframework.kafka.support.KafkaHeaders;
+import org.springframework.messaging.handler.annotation.Header;
+import org.springframework.retry.annotation.Backoff;
 import org.springframework.stereotype.Service;
 
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 @Service
 @Slf4j
 @EnableKafka
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 public class PagamentoConsumer {
 
+    public static final String SUFIXO_RETENTATIVA = "-retentativa";
+    public static final String SUFIXO_DLT = "-dlt";
+
+    private static final Map<StatusPagamento, Set<StatusPagamento>> ORIGENS_PERMITIDAS = new EnumMap<>(StatusPagamento.class);
+
+    static {
+        for (StatusPagamento novoStatus : StatusPagamento.values()) {
+            Set<StatusPagamento> origens = EnumSet.noneOf(StatusPagamento.class);
+            for (StatusPagamento statusAtual : StatusPagamento.values()) {
+                if (podeAtualizarStatus(statusAtual, novoStatus)) {
+                    origens.add(statusAtual);
+                }
+            }
+            ORIGENS_PERMITIDAS.put(novoStatus, Collections.unmodifiableSet(origens));
+        }
+    }
+
     private final PagamentoRepository pagamentoRepository;
+    private final PagamentoCache pagamentoCache;
+    private final PagamentoMetricas pagamentoMetricas;
+    private final PagamentoResumoService pagamentoResumoService;
+    private final JanelaDeduplicacao janelaDeduplicacao;
+    private final VersaoPagamentos versaoPagamentos;
+    private final PagamentoEventos pagamentoEventos;
+    private final SequenciadorPagamentos sequenciadorPagamentos;
 
-    public PagamentoConsumer(PagamentoRepository pagamentoRepository) {
+    public PagamentoConsumer(PagamentoRepository pagamentoRepository, PagamentoCache pagamentoCache, PagamentoMetricas pagamentoMetricas,
+                             PagamentoResumoService pagamentoResumoService, JanelaDeduplicacao janelaDeduplicacao,
+                             VersaoPagamentos versaoPagamentos, PagamentoEventos pagamentoEventos,
+                             SequenciadorPagamentos sequenciadorPagamentos) {
         this.pagamentoRepository = pagamentoRepository;
+        this.pagamentoCache = pagamentoCache;
+        this.pagamentoMetricas = pagamentoMetricas;
+        this.pagamentoResumoService = pagamentoResumoService;
+        this.janelaDeduplicacao = janelaDeduplicacao;
+        this.versaoPagamentos = versaoPagamentos;
+        this.pagamentoEventos = pagamentoEventos;
+        this.sequenciadorPagamentos = sequenciadorPagamentos;
     }
 
-    @KafkaListener(topics = "${app.kafka.topic-response}", groupId = "${spring.kafka.consumer.group-id}")
-    public void consumirMensagem(PagamentoStatusAtualizacao atualizacao) {
-        log.info("Mensagem recebida do Kafka: {}", atualizacao);
+    // Mensagens ilegíveis chegam como DeserializationException, que é fatal e vai direto ao DLT
+    @RetryableTopic(attempts = "${app.kafka.consumer.retentativas.tentativas:4}",
+            backoff = @Backoff(delayExpression = "${app.kafka.consumer.retentativas.atraso-inicial-ms:1000}",
+                    multiplierExpression = "${app.kafka.consumer.retentativas.multiplicador:2}",
+                    maxDelayExpression = "${app.kafka.consumer.retentativas.atraso-maximo-ms:30000}"),
+            retryTopicSuffix = SUFIXO_RETENTATIVA, dltTopicSuffix = SUFIXO_DLT,
+            topicSuffixingStrategy = TopicSuffixingStrategy.SUFFIX_WITH_INDEX_VALUE,
+            numPartitions = "${app.kafka.topicos.particoes:6}", replicationFactor = "${app.kafka.topicos.replicas:1}",
+            dltStrategy = DltStrategy.FAIL_ON_ERROR)
+    @KafkaListener(id = "pagamentoStatusListener",
+            topics = "${app.kafka.topic-status}", groupId = "${spring.kafka.consumer.group-id}",
+            concurrency = "${app.kafka.consumer.concorrencia:3}",
+            autoStartup = "#{!${app.kafka.consumer.lote.habilitado:false}}")
+    public void consumirMensagem(PagamentoStatusAtualizacao atualizacao,
+                                 @Header(name = PagamentoProducer.HEADER_ENVIADO_EM, required = false) Object enviadoEm,
+                                 @Header(name = PagamentoProducer.HEADER_ID_MENSAGEM, required = false) Object cabecalhoIdMensagem) {
+        String idMensagem = JanelaDeduplicacao.lerIdMensagem(cabecalhoIdMensagem);
+        if (janelaDeduplicacao.jaProcessada(idMensagem)) {
+            log.debug("Mensagem {} já processada; descartando: {}", idMensagem, atualizacao);
+            return;
+        }
+        Timer.Sample amostra = pagamentoMetricas.iniciarConsumo();
+        log.debug("Mensagem recebida do Kafka: {}", atualizacao);
 
-        Optional<Pagamento> pagamentoOptional = pagamentoRepository.findByIdPagamentoAndAtivoIsTrue(atualizacao.getIdPagamento());
+        sequenciadorPagamentos.executar(atualizacao.getIdPagamento(), () -> aplicarAtualizacao(atualizacao, enviadoEm));
+        janelaDeduplicacao.registrar(idMensagem);
+        pagamentoMetricas.registrarConsumo(amostra, false);
+    }
 
-        if (pagamentoOptional.isPresent()) {
-            Pagamento pagamento = pagamentoOptional.get();
+    // Uma mensagem ilegível falha de novo na leitura do DLT e não chega aqui; o registro fica para o PagamentoDltService
+    @DltHandler
+    public void registrarFalhaDefinitiva(ConsumerRecord<String, PagamentoStatusAtualizacao> registro) {
+        pagamentoMetricas.registrarMensagemNoDlt();
+        var excecao = registro.headers().lastHeader(KafkaHeaders.DLT_EXCEPTION_MESSAGE);
+        log.error("Atualização de status {} enviada ao DLT após esgotar as retentativas (partição {}, offset {}): {}",
+                registro.value(), registro.partition(), registro.offset(),
+                excecao == null ? null : new String(excecao.value(), StandardCharsets.UTF_8));
+    }
 
-            if (podeAtualizarStatus(pagamento.getStatus(), atualizacao.getNovoStatus())) {
-                pagamento.setStatus(atualizacao.getNovoStatus());
-                pagamentoRepository.save(pagamento);
-                log.info("Status do pagamento {} atualizado com sucesso para {}", pagamento.getIdPagamento(), atualizacao.getNovoStatus());
+    // Executado pelo sequenciador: não se intercala com a inativação nem com outra atualização do mesmo pagamento
+    private void aplicarAtualizacao(PagamentoStatusAtualizacao atualizacao, Object enviadoEm) {
+        Optional<Pagamento> anterior = pagamentoRepository.atualizarStatusSePermitido(
+                atualizacao.getIdPagamento(), origensPermitidas(atualizacao.getNovoStatus()), atualizacao.getNovoStatus());
+
+        if (anterior.isPresent()) {
+            pagamentoCache.registrar(atualizacao.getIdPagamento(), atualizacao.getNovoStatus(), true);
+            pagamentoResumoService.registrarTransicao(anterior.get(), atualizacao.getNovoStatus());
+            versaoPagamentos.incrementar();
+            pagamentoEventos.publicarTransicao(anterior.get(), atualizacao.getNovoStatus());
+            pagamentoMetricas.registrarConvergencia(enviadoEm);
+            log.debug("Status do pagamento {} atualizado com sucesso para {}", atualizacao.getIdPagamento(), atualizacao.getNovoStatus());
+        } else {
+            pagamentoCache.invalidar(atualizacao.getIdPagamento());
+            StatusPagamento statusAtual = pagamentoRepository.findByIdPagamentoAndAtivoIsTrue(atualizacao.getIdPagamento())
+                    .map(Pagamento::getStatus)
+                    .orElse(null);
+            pagamentoMetricas.registrarTransicaoRejeitada(statusAtual, atualizacao.getNovoStatus());
+            log.warn("Não foi possível atualizar o status do pagamento {} para {}. Pagamento não encontrado ou regra de negócio violada.",
+                    atualizacao.getIdPagamento(), atualizacao.getNovoStatus());
+        }
+    }
+
+    @KafkaListener(id = "pagamentoStatusLoteListener", batch = "true",
+            topics = "${app.kafka.topic-status}", groupId = "${spring.kafka.consumer.group-id}",
+            concurrency = "${app.kafka.consumer.concorrencia:3}",
+            autoStartup = "${app.kafka.consumer.lote.habilitado:false}",
+            properties = {
+                    "max.poll.records=${app.kafka.consumer.lote.tamanho-maximo:500}",
+                    "fetch.max.wait.ms=${app.kafka.consumer.lote.espera-maxima-ms:100}",
+                    "fetch.min.bytes=${app.kafka.consumer.lote.bytes-minimos:16384}"
+            })
+    public void consumirLote(List<PagamentoStatusAtualizacao> atualizacoes,
+                             @Header(name = KafkaHeaders.BATCH_CONVERTED_HEADERS, required = false) List<Map<String, Object>> cabecalhos) {
+        Timer.Sample amostra = pagamentoMetricas.iniciarConsumo();
+        log.debug("Lote com {} mensagens recebido do Kafka.", atualizacoes.size());
+        if (!todasLegiveis(atualizacoes)) {
+            List<PagamentoStatusAtualizacao> legiveis = new ArrayList<>(atualizacoes.size());
+            List<Map<String, Object>> cabecalhosLegiveis = cabecalhos == null ? null : new ArrayList<>(atualizacoes.size());
+            descartarIlegiveis(atualizacoes, cabecalhos, legiveis, cabecalhosLegiveis);
+            atualizacoes = legiveis;
+            cabecalhos = cabecalhosLegiveis;
+        }
+
+        // Mensagens não duplicadas agrupadas por pagamento, na ordem do lote
+        Map<Long, List<AtualizacaoLote>> porPagamento = new LinkedHashMap<>();
+        Set<String> idsNoLote = new HashSet<>();
+        for (int i = 0; i < atualizacoes.size(); i++) {
+            Map<String, Object> cabecalho = cabecalhos != null && i < cabecalhos.size() ? cabecalhos.get(i) : Map.of();
+            String idMensagem = JanelaDeduplicacao.lerIdMensagem(cabecalho.get(PagamentoProducer.HEADER_ID_MENSAGEM));
+            if (idMensagem != null && (!idsNoLote.add(idMensagem) || janelaDeduplicacao.jaProcessada(idMensagem))) {
+                log.debug("Mensagem {} já processada; descartando: {}", idMensagem, atualizacoes.get(i));
+                continue;
+            }
+            PagamentoStatusAtualizacao atualizacao = atualizacoes.get(i);
+            porPagamento.computeIfAbsent(atualizacao.getIdPagamento(), id -> new ArrayList<>())
+                    .add(new AtualizacaoLote(atualizacao, idMensagem, cabecalho.get(PagamentoProducer.HEADER_ENVIADO_EM)));
+        }
+        if (porPagamento.isEmpty()) {
+            pagamentoMetricas.registrarConsumo(amostra, true);
+            return;
+        }
+
+        Map<Long, Pagamento> originais = new HashMap<>();
+        for (Pagamento pagamento : pagamentoRepository.findByIdPagamentoInAndAtivoIsTrue(porPagamento.keySet())) {
+            originais.put(pagamento.getIdPagamento(), pagamento);
+        }
+
+        // Grava-se só o status final, mas o pagamento entra na escrita se alguma transição foi aceita, mesmo que volte ao status lido
+        Map<Integer, List<TransicaoStatus>> porFaixa = new LinkedHashMap<>();
+        porPagamento.forEach((idPagamento, mensagens) -> {
+            Pagamento original = originais.get(idPagamento);
+            StatusPagamento statusFinal = original == null ? null : statusFinal(original.getStatus(), mensagens);
+            if (statusFinal == null) {
+                aplicarEfeitos(original, mensagens);
+                registrarMensagens(mensagens);
             } else {
-                log.warn("Não foi possível atualizar o status do pagamento {} de {} para {}. Regra de negócio violada.",
-                        pagamento.getIdPagamento(), pagamento.getStatus(), atualizacao.getNovoStatus());
+                porFaixa.computeIfAbsent(sequenciadorPagamentos.faixa(idPagamento), faixa -> new ArrayList<>())
+                        .add(new TransicaoStatus(idPagamento, original.getStatus(), statusFinal));
+            }
+        });
+
+        if (!porFaixa.isEmpty()) {
+            // Uma escrita em massa por faixa do sequenciador, com os efeitos dentro dela, como no consumidor unitário
+            int atualizados = 0;
+            for (List<TransicaoStatus> grupo : porFaixa.values()) {
+                atualizados += sequenciadorPagamentos.executar(grupo.get(0).getIdPagamento(),
+                        () -> aplicarTransicoes(grupo, originais, porPagamento));
+            }
+            if (atualizados > 0) {
+                versaoPagamentos.incrementar();
+            }
+            log.debug("Lote aplicado: {} pagamentos com status atualizado.", atualizados);
+        }
+        pagamentoMetricas.registrarConsumo(amostra, true);
+    }
+
+    // O lote não usa tópicos de retentativa: a mensagem ilegível chega sem valor (null ou KafkaNull) e é descartada aqui
+    private static boolean todasLegiveis(List<?> itens) {
+        for (Object item : itens) {
+            if (!(item instanceof PagamentoStatusAtualizacao)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void descartarIlegiveis(List<?> itens, List<Map<String, Object>> cabecalhos,
+                                    List<PagamentoStatusAtualizacao> legiveis, List<Map<String, Object>> cabecalhosLegiveis) {
+        for (int i = 0; i < itens.size(); i++) {
+            Map<String, Object> cabecalho = cabecalhos != null && i < cabecalhos.size() ? cabecalhos.get(i) : null;
+            if (itens.get(i) instanceof PagamentoStatusAtualizacao atualizacao) {
+                legiveis.add(atualizacao);
+                if (cabecalhosLegiveis != null && cabecalho != null) {
+                    cabecalhosLegiveis.add(cabecalho);
+                }
+            } else {
+                pagamentoMetricas.registrarMensagemIlegivel("lote");
+                log.warn("Mensagem ilegível na posição {} de um lote com {} mensagens; descartando.", i, itens.size());
             }
+        }
+    }
+
+    private int aplicarTransicoes(List<TransicaoStatus> transicoes, Map<Long, Pagamento> originais,
+                                  Map<Long, List<AtualizacaoLote>> porPagamento) {
+        int atualizados = pagamentoRepository.atualizarStatusEmLote(transicoes);
+        Set<Long> confirmados = new HashSet<>();
+        if (atualizados == transicoes.size()) {
+            transicoes.forEach(transicao -> confirmados.add(transicao.getIdPagamento()));
         } else {
-            log.warn("Pagamento com idPagamento {} não encontrado para atualização.", atualizacao.getIdPagamento());
+            log.warn("{} de {} transições do lote não foram aplicadas: o status foi alterado concorrentemente.",
+                    transicoes.size() - atualizados, transicoes.size());
+            confirmados.addAll(transicoesConfirmadas(transicoes));
+        }
+
+        for (TransicaoStatus transicao : transicoes) {
+            List<AtualizacaoLote> mensagens = porPagamento.get(transicao.getIdPagamento());
+            if (confirmados.contains(transicao.getIdPagamento())) {
+                pagamentoCache.registrar(transicao.getIdPagamento(), transicao.getNovoStatus(), true);
+                aplicarEfeitos(originais.get(transicao.getIdPagamento()), mensagens);
+            } else {
+                // O encadeamento partiu de um status que já mudou; cada mensagem é reaplicada como no consumidor unitário
+                mensagens.forEach(mensagem -> aplicarAtualizacao(mensagem.atualizacao(), mensagem.enviadoEm()));
+            }
+            registrarMensagens(mensagens);
         }
+        return atualizados;
     }
 
-    private boolean podeAtualizarStatus(StatusPagamento statusAtual, StatusPagamento novoStatus) {
+    // A escrita em massa só informa quantas foram aplicadas; relê os pagamentos para saber quais
+    private Set<Long> transicoesConfirmadas(List<TransicaoStatus> transicoes) {
+        Map<Long, StatusPagamento> novosStatus = new HashMap<>();
+        transicoes.forEach(transicao -> novosStatus.put(transicao.getIdPagamento(), transicao.getNovoStatus()));
+
+        Set<Long> confirmados = new HashSet<>();
+        for (Pagamento atual : pagamentoRepository.findByIdPagamentoInAndAtivoIsTrue(novosStatus.keySet())) {
+            if (atual.getStatus() == novosStatus.get(atual.getIdPagamento())) {
+                confirmados.add(atual.getIdPagamento());
+            }
+        }
+        return confirmados;
+    }
+
+    // null quando nenhuma mensagem do pagamento é aceita pelas regras de transição
+    private static StatusPagamento statusFinal(StatusPagamento statusLido, List<AtualizacaoLote> mensagens) {
+        StatusPagamento statusAtual = statusLido;
+        boolean aceita = false;
+        for (AtualizacaoLote mensagem : mensagens) {
+            if (podeAtualizarStatus(statusAtual, mensagem.atualizacao().getNovoStatus())) {
+                statusAtual = mensagem.atualizacao().getNovoStatus();
+                aceita = true;
+            }
+        }
+        return aceita ? statusAtual : null;
+    }
+
+    // Cada transição encadeada gera seu evento e sua variação no resumo, como se as mensagens fossem consumidas uma a uma
+    private void aplicarEfeitos(Pagamento original, List<AtualizacaoLote> mensagens) {
+        if (original == null) {
+            mensagens.forEach(mensagem -> {
+                pagamentoMetricas.registrarTransicaoRejeitada(null, mensagem.atualizacao().getNovoStatus());
+                log.warn("Pagamento com idPagamento {} não encontrado para atualização.", mensagem.atualizacao().getIdPagamento());
+            });
+            return;
+        }
+        Pagamento anterior = original;
+        for (AtualizacaoLote mensagem : mensagens) {
+            StatusPagamento novoStatus = mensagem.atualizacao().getNovoStatus();
+            if (podeAtualizarStatus(anterior.getStatus(), novoStatus)) {
+                pagamentoResumoService.registrarTransicao(anterior, novoStatus);
+                pagamentoEventos.publicarTransicao(anterior, novoStatus);
+                pagamentoMetricas.registrarConvergencia(mensagem.enviadoEm());
+                anterior = comStatus(anterior, novoStatus);
+            } else {
+                pagamentoMetricas.registrarTransicaoRejeitada(anterior.getStatus(), novoStatus);
+                log.warn("Não foi possível atualizar o status do pagamento {} de {} para {}. Regra de negócio violada.",
+                        anterior.getIdPagamento(), anterior.getStatus(), novoStatus);
+            }
+        }
+    }
+
+    // Só entram na janela as mensagens já aplicadas ou rejeitadas em definitivo
+    private void registrarMensagens(List<AtualizacaoLote> mensagens) {
+        mensagens.forEach(mensagem -> janelaDeduplicacao.registrar(mensagem.idMensagem()));
+    }
+
+    private static Pagamento comStatus(Pagamento origem, StatusPagamento status) {
+        Pagamento copia = new Pagamento();
+        copia.setId(origem.getId());
+        copia.setIdPagamento(origem.getIdPagamento());
+        copia.setCpfCnpj(origem.getCpfCnpj());
+        copia.setMetodoPagamento(origem.getMetodoPagamento());
+        copia.setNumeroCartao(origem.getNumeroCartao());
+        copia.setValor(origem.getValor());
+        copia.setStatus(status);
+        copia.setAtivo(origem.isAtivo());
+        return copia;
+    }
+
+    static Set<StatusPagamento> origensPermitidas(StatusPagamento novoStatus) {
+        return ORIGENS_PERMITIDAS.get(novoStatus);
+    }
+
+    static boolean podeAtualizarStatus(StatusPagamento statusAtual, StatusPagamento novoStatus) {
 
         if (statusAtual.equals(StatusPagamento.PROCESSADO_SUCESSO)) {
             return false;
@@ -57,4 +354,7 @@ public class PagamentoConsumer {
         }
         return false;
     }
+
+    private record AtualizacaoLote(PagamentoStatusAtualizacao atualizacao, String idMensagem, Object enviadoEm) {
+    }
 }
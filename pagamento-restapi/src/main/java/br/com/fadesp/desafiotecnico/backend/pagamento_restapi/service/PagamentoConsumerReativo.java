@@ -0,0 +1,235 @@
+package br.com.fadesp.desafiotecnico.backend.pagamento_restapi.service;
+
+import br.com.fadesp.desafiotecnico.backend.pagamento_restapi.persistence.model.PagamentoStatusAtualizacao;
+import br.com.fadesp.desafiotecnico.backend.pagamento_restapi.persistence.model.entity.Pagamento;
+import br.com.fadesp.desafiotecnico.backend.pagamento_restapi.persistence.repository.ReactivePagamentoRepository;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.kafka.KafkaProperties;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.retrytopic.RetryTopicHeaders;
+import org.springframework.kafka.support.KafkaHeaders;
+import org.springframework.stereotype.Service;
+import reactor.core.Disposable;
+import reactor.core.Disposables;
+import reactor.core.publisher.Mono;
+import reactor.kafka.receiver.KafkaReceiver;
+import reactor.kafka.receiver.ReceiverOptions;
+import reactor.kafka.receiver.ReceiverRecord;
+import reactor.util.retry.Retry;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Function;
+
+@Service
+@Slf4j
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class PagamentoConsumerReativo {
+
+    private final ReactivePagamentoRepository pagamentoRepository;
+    private final PagamentoCache pagamentoCache;
+    private final PagamentoMetricas pagamentoMetricas;
+    private final PagamentoResumoService pagamentoResumoService;
+    private final JanelaDeduplicacao janelaDeduplicacao;
+    private final VersaoPagamentos versaoPagamentos;
+    private final PagamentoEventos pagamentoEventos;
+    private final KafkaProperties kafkaProperties;
+    private final KafkaTemplate<String, PagamentoStatusAtualizacao> kafkaTemplate;
+
+    @Value("${app.kafka.topic-status}")
+    private String topico;
+
+    @Value("${app.kafka.consumer.retentativas.tentativas:4}")
+    private int tentativas;
+
+    @Value("${app.kafka.consumer.retentativas.atraso-inicial-ms:1000}")
+    private long atrasoInicialMs;
+
+    @Value("${app.kafka.consumer.retentativas.multiplicador:2}")
+    private double multiplicador;
+
+    @Value("${app.kafka.consumer.retentativas.atraso-maximo-ms:30000}")
+    private long atrasoMaximoMs;
+
+    @Value("${app.kafka.consumer.reativo.prefetch:256}")
+    private int prefetch;
+
+    @Value("${app.kafka.consumer.reativo.intervalo-commit:1s}")
+    private Duration intervaloCommit;
+
+    private Disposable assinatura;
+
+    public PagamentoConsumerReativo(ReactivePagamentoRepository pagamentoRepository, PagamentoCache pagamentoCache,
+                                    PagamentoMetricas pagamentoMetricas, PagamentoResumoService pagamentoResumoService,
+                                    JanelaDeduplicacao janelaDeduplicacao, VersaoPagamentos versaoPagamentos,
+                                    PagamentoEventos pagamentoEventos, KafkaProperties kafkaProperties,
+                                    KafkaTemplate<String, PagamentoStatusAtualizacao> kafkaTemplate) {
+        this.pagamentoRepository = pagamentoRepository;
+        this.pagamentoCache = pagamentoCache;
+        this.pagamentoMetricas = pagamentoMetricas;
+        this.pagamentoResumoService = pagamentoResumoService;
+        this.janelaDeduplicacao = janelaDeduplicacao;
+        this.versaoPagamentos = versaoPagamentos;
+        this.pagamentoEventos = pagamentoEventos;
+        this.kafkaProperties = kafkaProperties;
+        this.kafkaTemplate = kafkaTemplate;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void iniciar() {
+        assinatura = Disposables.composite(
+                consumir(topico, this::processar),
+                consumir(topico + PagamentoConsumer.SUFIXO_RETENTATIVA, this::processar));
+    }
+
+    @PreDestroy
+    public void parar() {
+        if (assinatura != null) {
+            assinatura.dispose();
+        }
+    }
+
+    // Um grupo sequencial por partição preserva a ordem por idPagamento; partições diferentes avançam em paralelo
+    private Disposable consumir(String topicoOrigem, Function<ReceiverRecord<String, PagamentoStatusAtualizacao>, Mono<Boolean>> processamento) {
+        ReceiverOptions<String, PagamentoStatusAtualizacao> opcoes =
+                ReceiverOptions.<String, PagamentoStatusAtualizacao>create(kafkaProperties.buildConsumerProperties(null))
+                        .subscription(List.of(topicoOrigem))
+                        .commitInterval(intervaloCommit);
+
+        return KafkaReceiver.create(opcoes).receive()
+                .groupBy(registro -> registro.receiverOffset().topicPartition(), prefetch)
+                .flatMap(particao -> particao.concatMap(processamento), Integer.MAX_VALUE)
+                .retryWhen(Retry.backoff(Long.MAX_VALUE, Duration.ofSeconds(1)).maxBackoff(Duration.ofSeconds(30))
+                        .doBeforeRetry(sinal -> log.error("Consumidor reativo de {} interrompido; reconectando.", topicoOrigem, sinal.failure())))
+                .subscribe();
+    }
+
+    Mono<Boolean> processar(ReceiverRecord<String, PagamentoStatusAtualizacao> registro) {
+        // Com o ErrorHandlingDeserializer, uma mensagem ilegível chega sem valor em vez de derrubar o receiver
+        if (registro.value() == null) {
+            pagamentoMetricas.registrarMensagemIlegivel("reativo");
+            log.warn("Mensagem ilegível descartada (partição {}, offset {}).", registro.partition(), registro.offset());
+            registro.receiverOffset().acknowledge();
+            return Mono.just(false);
+        }
+        Header cabecalhoIdMensagem = registro.headers().lastHeader(PagamentoProducer.HEADER_ID_MENSAGEM);
+        String idMensagem = cabecalhoIdMensagem == null ? null : JanelaDeduplicacao.lerIdMensagem(cabecalhoIdMensagem.value());
+        if (janelaDeduplicacao.jaProcessada(idMensagem)) {
+            log.debug("Mensagem {} já processada; descartando: {}", idMensagem, registro.value());
+            registro.receiverOffset().acknowledge();
+            return Mono.just(false);
+        }
+
+        Header enviadoEm = registro.headers().lastHeader(PagamentoProducer.HEADER_ENVIADO_EM);
+        int tentativa = lerTentativa(registro.headers());
+        // Uma falha não prende a partição: a mensagem segue para o tópico de retentativa ou, na última tentativa, para o DLT.
+        // O offset só é confirmado depois da aplicação ou da publicação; se ela falhar, o receiver reinicia e relê a mensagem
+        return aguardarRetentativa(registro.headers())
+                .then(aplicar(registro.value(), enviadoEm == null ? null : enviadoEm.value()))
+                .doOnSuccess(aplicada -> janelaDeduplicacao.registrar(idMensagem))
+                .onErrorResume(e -> encaminharFalha(registro, tentativa, e).thenReturn(false))
+                .doOnSuccess(resultado -> registro.receiverOffset().acknowledge());
+    }
+
+    // Cabeçalhos com os nomes usados pelo @RetryableTopic, que o reprocessamento do DLT já remove
+    private Mono<Void> encaminharFalha(ReceiverRecord<String, PagamentoStatusAtualizacao> registro, int tentativa, Throwable falha) {
+        if (tentativa >= tentativas) {
+            return enviarAoDlt(registro, falha);
+        }
+        long atrasoMs = Math.min((long) (atrasoInicialMs * Math.pow(multiplicador, tentativa - 1)), atrasoMaximoMs);
+        ProducerRecord<String, PagamentoStatusAtualizacao> envio = new ProducerRecord<>(topico + PagamentoConsumer.SUFIXO_RETENTATIVA,
+                null, registro.key(), registro.value(), copiarCabecalhos(registro.headers()));
+        envio.headers().remove(RetryTopicHeaders.DEFAULT_HEADER_ATTEMPTS);
+        envio.headers().remove(RetryTopicHeaders.DEFAULT_HEADER_BACKOFF_TIMESTAMP);
+        envio.headers().add(RetryTopicHeaders.DEFAULT_HEADER_ATTEMPTS, ByteBuffer.allocate(Integer.BYTES).putInt(tentativa + 1).array());
+        envio.headers().add(RetryTopicHeaders.DEFAULT_HEADER_BACKOFF_TIMESTAMP,
+                ByteBuffer.allocate(Long.BYTES).putLong(System.currentTimeMillis() + atrasoMs).array());
+        return Mono.fromFuture(() -> kafkaTemplate.send(envio))
+                .doOnSuccess(resultado -> log.warn("Falha ao aplicar a atualização de status {} (tentativa {} de {}); nova tentativa em {} ms.",
+                        registro.value(), tentativa, tentativas, atrasoMs, falha))
+                .then();
+    }
+
+    // Mesmos cabeçalhos do DeadLetterPublishingRecoverer do modo servlet, para que o registro seja lido da mesma forma
+    private Mono<Void> enviarAoDlt(ReceiverRecord<String, PagamentoStatusAtualizacao> registro, Throwable falha) {
+        ProducerRecord<String, PagamentoStatusAtualizacao> envio = new ProducerRecord<>(topico + PagamentoConsumer.SUFIXO_DLT,
+                null, registro.key(), registro.value(), copiarCabecalhos(registro.headers()));
+        envio.headers().add(KafkaHeaders.DLT_ORIGINAL_TOPIC, registro.topic().getBytes(StandardCharsets.UTF_8));
+        envio.headers().add(KafkaHeaders.DLT_ORIGINAL_PARTITION, ByteBuffer.allocate(Integer.BYTES).putInt(registro.partition()).array());
+        envio.headers().add(KafkaHeaders.DLT_ORIGINAL_OFFSET, ByteBuffer.allocate(Long.BYTES).putLong(registro.offset()).array());
+        envio.headers().add(KafkaHeaders.DLT_EXCEPTION_FQCN, falha.getClass().getName().getBytes(StandardCharsets.UTF_8));
+        if (falha.getMessage() != null) {
+            envio.headers().add(KafkaHeaders.DLT_EXCEPTION_MESSAGE, falha.getMessage().getBytes(StandardCharsets.UTF_8));
+        }
+        return Mono.fromFuture(() -> kafkaTemplate.send(envio))
+                .doOnSuccess(resultado -> {
+                    pagamentoMetricas.registrarMensagemNoDlt();
+                    log.error("Atualização de status {} enviada ao DLT após esgotar as retentativas (partição {}, offset {}).",
+                            registro.value(), registro.partition(), registro.offset(), falha);
+                })
+                .then();
+    }
+
+    // Só o tópico de retentativa espera, e só até o horário gravado na mensagem; o tópico principal nunca aguarda
+    private static Mono<Void> aguardarRetentativa(Headers cabecalhos) {
+        Header reprocessarEm = cabecalhos.lastHeader(RetryTopicHeaders.DEFAULT_HEADER_BACKOFF_TIMESTAMP);
+        long esperaMs = reprocessarEm == null ? 0 : ByteBuffer.wrap(reprocessarEm.value()).getLong() - System.currentTimeMillis();
+        return esperaMs > 0 ? Mono.delay(Duration.ofMillis(esperaMs)).then() : Mono.empty();
+    }
+
+    private static int lerTentativa(Headers cabecalhos) {
+        Header tentativa = cabecalhos.lastHeader(RetryTopicHeaders.DEFAULT_HEADER_ATTEMPTS);
+        return tentativa == null ? 1 : ByteBuffer.wrap(tentativa.value()).getInt();
+    }
+
+    // O produtor torna somente leitura os cabeçalhos que envia; a cópia preserva os do registro consumido
+    private static Headers copiarCabecalhos(Headers cabecalhos) {
+        return new RecordHeaders(cabecalhos.toArray());
+    }
+
+    // Fora do SequenciadorPagamentos, que bloqueia quem chama: a ordem por pagamento vem do concatMap da partição
+    Mono<Boolean> aplicar(PagamentoStatusAtualizacao atualizacao, Object enviadoEm) {
+        return Mono.defer(() -> {
+            Timer.Sample amostra = pagamentoMetricas.iniciarConsumo();
+            Long idPagamento = atualizacao.getIdPagamento();
+
+            return pagamentoRepository.atualizarStatusSePermitido(idPagamento,
+                            PagamentoConsumer.origensPermitidas(atualizacao.getNovoStatus()), atualizacao.getNovoStatus())
+                    .map(anterior -> {
+                        pagamentoCache.registrar(idPagamento, atualizacao.getNovoStatus(), true);
+                        pagamentoResumoService.registrarTransicao(anterior, atualizacao.getNovoStatus());
+                        versaoPagamentos.incrementar();
+                        pagamentoEventos.publicarTransicao(anterior, atualizacao.getNovoStatus());
+                        pagamentoMetricas.registrarConvergencia(enviadoEm);
+                        return true;
+                    })
+                    .switchIfEmpty(Mono.defer(() -> {
+                        pagamentoCache.invalidar(idPagamento);
+                        return pagamentoRepository.findByIdPagamentoAndAtivoIsTrue(idPagamento)
+                                .map(Pagamento::getStatus)
+                                .map(Optional::of)
+                                .defaultIfEmpty(Optional.empty())
+                                .map(statusAtual -> {
+                                    pagamentoMetricas.registrarTransicaoRejeitada(statusAtual.orElse(null), atualizacao.getNovoStatus());
+                                    log.warn("Não foi possível atualizar o status do pagamento {} para {}. Pagamento não encontrado ou regra de negócio violada.",
+                                            idPagamento, atualizacao.getNovoStatus());
+                                    return false;
+                                });
+                    }))
+                    .doFinally(sinal -> pagamentoMetricas.registrarConsumo(amostra, false));
+        });
+    }
+}
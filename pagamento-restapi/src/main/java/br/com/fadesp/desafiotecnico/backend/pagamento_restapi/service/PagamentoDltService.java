@@ -0,0 +1,252 @@
+package br.com.fadesp.desafiotecnico.backend.pagamento_restapi.service;
+
+import br.com.fadesp.desafiotecnico.backend.pagamento_restapi.persistence.model.RegistroDlt;
+import br.com.fadesp.desafiotecnico.backend.pagamento_restapi.persistence.model.ResultadoReprocessamentoDlt;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.PartitionInfo;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.serialization.ByteArrayDeserializer;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.kafka.KafkaProperties;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.KafkaHeaders;
+import org.springframework.kafka.support.serializer.SerializationUtils;
+import org.springframework.stereotype.Service;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+// A inspeção não avança o grupo; o reprocessamento só confirma os offsets depois que o Kafka confirma todos os envios
+@Service
+@Slf4j
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class PagamentoDltService {
+
+    private static final Duration INTERVALO_LEITURA = Duration.ofMillis(200);
+    private static final List<String> PREFIXOS_REMOVIDOS_NO_REPROCESSAMENTO =
+            List.of(KafkaHeaders.PREFIX, "retry_topic-", SerializationUtils.DESERIALIZER_EXCEPTION_HEADER_PREFIX);
+
+    private final ConsumerFactory<String, byte[]> consumerFactory;
+    private final KafkaTemplate<String, byte[]> kafkaTemplate;
+    private final String topicoPrincipal;
+    private final String topicoDlt;
+    private final String grupoReprocessamento;
+    private final int limiteMaximo;
+    private final Duration tempoMaximoLeitura;
+    private final Duration tempoMaximoConfirmacao;
+
+    // Template próprio, com ByteArraySerializer: o reprocessamento republica os bytes lidos do DLT sem desserializá-los
+    @Autowired
+    public PagamentoDltService(ConsumerFactory<String, byte[]> consumerFactory, KafkaProperties kafkaProperties,
+                               @Value("${app.kafka.topic-status}") String topicoPrincipal,
+                               @Value("${app.kafka.dlt.grupo-reprocessamento:pagamento-api-dlt-reprocessamento}") String grupoReprocessamento,
+                               @Value("${app.kafka.dlt.limite-maximo:500}") int limiteMaximo,
+                               @Value("${app.kafka.dlt.tempo-maximo-leitura:5s}") Duration tempoMaximoLeitura,
+                               @Value("${app.kafka.producer.tempo-maximo-confirmacao:5s}") Duration tempoMaximoConfirmacao) {
+        this(consumerFactory, templateBytes(kafkaProperties), topicoPrincipal, grupoReprocessamento, limiteMaximo,
+                tempoMaximoLeitura, tempoMaximoConfirmacao);
+    }
+
+    PagamentoDltService(ConsumerFactory<String, byte[]> consumerFactory, KafkaTemplate<String, byte[]> kafkaTemplate,
+                        String topicoPrincipal, String grupoReprocessamento, int limiteMaximo,
+                        Duration tempoMaximoLeitura, Duration tempoMaximoConfirmacao) {
+        this.consumerFactory = consumerFactory;
+        this.kafkaTemplate = kafkaTemplate;
+        this.topicoPrincipal = topicoPrincipal;
+        this.topicoDlt = topicoPrincipal + PagamentoConsumer.SUFIXO_DLT;
+        this.grupoReprocessamento = grupoReprocessamento;
+        this.limiteMaximo = limiteMaximo;
+        this.tempoMaximoLeitura = tempoMaximoLeitura;
+        this.tempoMaximoConfirmacao = tempoMaximoConfirmacao;
+    }
+
+    public static KafkaTemplate<String, byte[]> templateBytes(KafkaProperties kafkaProperties) {
+        return new KafkaTemplate<>(new DefaultKafkaProducerFactory<>(kafkaProperties.buildProducerProperties(null),
+                new StringSerializer(), new ByteArraySerializer()));
+    }
+
+    @PreDestroy
+    public void fechar() {
+        kafkaTemplate.getProducerFactory().reset();
+    }
+
+    public synchronized List<RegistroDlt> inspecionar(int limite) {
+        try (Consumer<String, byte[]> consumer = criarConsumidor(limite)) {
+            return ler(consumer, limite).registros().stream().map(PagamentoDltService::paraRegistroDlt).toList();
+        }
+    }
+
+    public synchronized ResultadoReprocessamentoDlt reprocessar(int limite) {
+        try (Consumer<String, byte[]> consumer = criarConsumidor(limite)) {
+            Leitura leitura = ler(consumer, limite);
+            List<CompletableFuture<?>> envios = new ArrayList<>(leitura.registros().size());
+            Map<TopicPartition, OffsetAndMetadata> proximos = new HashMap<>();
+            for (ConsumerRecord<String, byte[]> registro : leitura.registros()) {
+                envios.add(kafkaTemplate.send(paraTopicoPrincipal(registro)));
+                proximos.put(new TopicPartition(registro.topic(), registro.partition()), new OffsetAndMetadata(registro.offset() + 1));
+            }
+            aguardarConfirmacoes(envios);
+            if (!proximos.isEmpty()) {
+                consumer.commitSync(proximos);
+            }
+
+            long pendentes = 0;
+            for (Map.Entry<TopicPartition, Long> fim : leitura.fim().entrySet()) {
+                OffsetAndMetadata proximo = proximos.get(fim.getKey());
+                long inicio = proximo != null ? proximo.offset() : leitura.inicio().getOrDefault(fim.getKey(), fim.getValue());
+                pendentes += Math.max(0, fim.getValue() - inicio);
+            }
+            log.info("{} mensagens do DLT '{}' republicadas em '{}'; {} ainda pendentes.",
+                    leitura.registros().size(), topicoDlt, topicoPrincipal, pendentes);
+            return new ResultadoReprocessamentoDlt(leitura.registros().size(), pendentes);
+        }
+    }
+
+    private Consumer<String, byte[]> criarConsumidor(int limite) {
+        if (limite < 1) {
+            throw new IllegalArgumentException("O limite deve ser positivo.");
+        }
+        Properties propriedades = new Properties();
+        propriedades.setProperty(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class.getName());
+        propriedades.setProperty(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, ByteArrayDeserializer.class.getName());
+        propriedades.setProperty(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, "false");
+        propriedades.setProperty(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
+        propriedades.setProperty(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, String.valueOf(Math.min(limite, limiteMaximo)));
+        return consumerFactory.createConsumer(grupoReprocessamento, null, null, propriedades);
+    }
+
+    // Partições atribuídas manualmente: o grupo só guarda os offsets confirmados, sem rebalanceamento
+    private Leitura ler(Consumer<String, byte[]> consumer, int limite) {
+        int quantidade = Math.min(limite, limiteMaximo);
+        List<PartitionInfo> informacoes = consumer.partitionsFor(topicoDlt);
+        if (informacoes == null || informacoes.isEmpty()) {
+            return new Leitura(List.of(), Map.of(), Map.of());
+        }
+        List<TopicPartition> particoes = informacoes.stream()
+                .map(informacao -> new TopicPartition(informacao.topic(), informacao.partition()))
+                .toList();
+        consumer.assign(particoes);
+        Map<TopicPartition, Long> fim = consumer.endOffsets(particoes);
+        Map<TopicPartition, Long> inicio = new HashMap<>();
+        particoes.forEach(particao -> inicio.put(particao, consumer.position(particao)));
+
+        List<ConsumerRecord<String, byte[]>> registros = new ArrayList<>(quantidade);
+        long prazo = System.nanoTime() + tempoMaximoLeitura.toNanos();
+        while (registros.size() < quantidade && !alcancouFim(consumer, particoes, fim) && System.nanoTime() < prazo) {
+            for (ConsumerRecord<String, byte[]> registro : consumer.poll(INTERVALO_LEITURA)) {
+                if (registros.size() < quantidade) {
+                    registros.add(registro);
+                }
+            }
+        }
+        return new Leitura(registros, inicio, fim);
+    }
+
+    private static boolean alcancouFim(Consumer<String, byte[]> consumer, List<TopicPartition> particoes, Map<TopicPartition, Long> fim) {
+        for (TopicPartition particao : particoes) {
+            if (consumer.position(particao) < fim.getOrDefault(particao, 0L)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Sem partição explícita: a chave (idPagamento) leva a mensagem à mesma partição das demais atualizações do pagamento.
+    private ProducerRecord<String, byte[]> paraTopicoPrincipal(ConsumerRecord<String, byte[]> registro) {
+        ProducerRecord<String, byte[]> republicado = new ProducerRecord<>(topicoPrincipal, registro.key(), registro.value());
+        for (Header cabecalho : registro.headers()) {
+            if (PREFIXOS_REMOVIDOS_NO_REPROCESSAMENTO.stream().noneMatch(cabecalho.key()::startsWith)) {
+                republicado.headers().add(cabecalho);
+            }
+        }
+        return republicado;
+    }
+
+    private void aguardarConfirmacoes(List<CompletableFuture<?>> envios) {
+        try {
+            CompletableFuture.allOf(envios.toArray(CompletableFuture[]::new))
+                    .get(tempoMaximoConfirmacao.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (ExecutionException | TimeoutException e) {
+            throw new IllegalStateException("Não foi possível republicar as mensagens do DLT; nenhum offset foi confirmado.", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Reprocessamento do DLT interrompido; nenhum offset foi confirmado.", e);
+        }
+    }
+
+    static RegistroDlt paraRegistroDlt(ConsumerRecord<String, byte[]> registro) {
+        RegistroDlt registroDlt = new RegistroDlt();
+        registroDlt.setParticao(registro.partition());
+        registroDlt.setOffset(registro.offset());
+        registroDlt.setDataHora(Instant.ofEpochMilli(registro.timestamp()));
+        registroDlt.setChave(registro.key());
+        registroDlt.setIdMensagem(lerCabecalho(registro.headers(), PagamentoProducer.HEADER_ID_MENSAGEM));
+        // A exceção do listener chega embrulhada em ListenerExecutionFailedException; a causa é mais útil
+        String causa = lerCabecalho(registro.headers(), KafkaHeaders.DLT_EXCEPTION_CAUSE_FQCN);
+        registroDlt.setExcecao(causa != null ? causa : lerCabecalho(registro.headers(), KafkaHeaders.DLT_EXCEPTION_FQCN));
+        registroDlt.setMensagemExcecao(lerCabecalho(registro.headers(), KafkaHeaders.DLT_EXCEPTION_MESSAGE));
+        if (registro.value() != null) {
+            String texto = texto(registro.value());
+            if (texto != null) {
+                registroDlt.setValor(texto);
+            } else {
+                registroDlt.setValorBase64(Base64.getEncoder().encodeToString(registro.value()));
+            }
+        }
+        return registroDlt;
+    }
+
+    // JSON é devolvido como texto; o formato binário (que começa pelo byte de versão) e bytes corrompidos, em Base64.
+    private static String texto(byte[] valor) {
+        String texto;
+        try {
+            texto = StandardCharsets.UTF_8.newDecoder().decode(ByteBuffer.wrap(valor)).toString();
+        } catch (CharacterCodingException e) {
+            return null;
+        }
+        for (int i = 0; i < texto.length(); i++) {
+            char caractere = texto.charAt(i);
+            if (Character.isISOControl(caractere) && !Character.isWhitespace(caractere)) {
+                return null;
+            }
+        }
+        return texto;
+    }
+
+    private static String lerCabecalho(Headers cabecalhos, String nome) {
+        Header cabecalho = cabecalhos.lastHeader(nome);
+        return cabecalho == null || cabecalho.value() == null ? null : new String(cabecalho.value(), StandardCharsets.UTF_8);
+    }
+
+    private record Leitura(List<ConsumerRecord<String, byte[]>> registros, Map<TopicPartition, Long> inicio,
+                           Map<TopicPartition, Long> fim) {
+    }
+}
@@ -0,0 +1,135 @@
+package br.com.fadesp.desafiotecnico.backend.pagamento_restapi.service;
+
+import br.com.fadesp.desafiotecnico.backend.pagamento_restapi.persistence.model.EventoPagamento;
+import br.com.fadesp.desafiotecnico.backend.pagamento_restapi.persistence.model.StatusPagamento;
+import br.com.fadesp.desafiotecnico.backend.pagamento_restapi.persistence.model.TipoEventoPagamento;
+import br.com.fadesp.desafiotecnico.backend.pagamento_restapi.persistence.model.entity.Pagamento;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.stereotype.Component;
+import reactor.core.Exceptions;
+import reactor.core.publisher.BufferOverflowStrategy;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Slf4j
+@Component
+public class PagamentoEventos {
+
+    public static final String POLITICA_DESCARTAR = "descartar";
+    public static final String POLITICA_DESCONECTAR = "desconectar";
+
+    // O sink serializa as emissões sem monitor: quem perde a disputa tenta de novo em seguida, já que a emissão só copia
+    // o evento para os buffers dos assinantes. Sem assinantes, ou com todos eles saturados, o evento é descartado
+    private static final Sinks.EmitFailureHandler REPETIR_SE_CONCORRENTE = (sinal, resultado) -> {
+        if (resultado != Sinks.EmitResult.FAIL_NON_SERIALIZED) {
+            return false;
+        }
+        Thread.onSpinWait();
+        return true;
+    };
+
+    private final Sinks.Many<EventoPagamento> eventos = Sinks.many().multicast().directBestEffort();
+    private final int capacidadeBuffer;
+    private final boolean desconectar;
+    private final Duration intervaloPulsacao;
+    private final AtomicInteger assinantes = new AtomicInteger();
+    private final Counter descartados;
+    private final Counter desconectados;
+
+    public PagamentoEventos(@Value("${app.eventos.capacidade-buffer:256}") int capacidadeBuffer,
+                            @Value("${app.eventos.politica:descartar}") String politica,
+                            @Value("${app.eventos.intervalo-pulsacao:15s}") Duration intervaloPulsacao,
+                            MeterRegistry meterRegistry) {
+        if (capacidadeBuffer < 1) {
+            throw new IllegalArgumentException("A capacidade do buffer de eventos deve ser positiva.");
+        }
+        if (!POLITICA_DESCARTAR.equals(politica) && !POLITICA_DESCONECTAR.equals(politica)) {
+            throw new IllegalArgumentException("Política de eventos desconhecida: " + politica);
+        }
+        this.capacidadeBuffer = capacidadeBuffer;
+        this.desconectar = POLITICA_DESCONECTAR.equals(politica);
+        this.intervaloPulsacao = intervaloPulsacao;
+
+        this.descartados = Counter.builder("pagamentos.eventos.descartados")
+                .description("Eventos de pagamento descartados por assinantes que não acompanharam o stream")
+                .register(meterRegistry);
+        this.desconectados = Counter.builder("pagamentos.eventos.desconectados")
+                .description("Assinantes de eventos desconectados por buffer cheio")
+                .register(meterRegistry);
+        Gauge.builder("pagamentos.eventos.assinantes", assinantes, AtomicInteger::get)
+                .description("Conexões abertas no stream de eventos de pagamento")
+                .register(meterRegistry);
+    }
+
+    public void publicarCriacao(Pagamento pagamento) {
+        publicar(new EventoPagamento(TipoEventoPagamento.CRIADO, pagamento.getIdPagamento(), pagamento.getCpfCnpj(),
+                null, pagamento.getStatus(), Instant.now()));
+    }
+
+    public void publicarInativacao(Pagamento pagamento) {
+        publicar(new EventoPagamento(TipoEventoPagamento.INATIVADO, pagamento.getIdPagamento(), pagamento.getCpfCnpj(),
+                null, pagamento.getStatus(), Instant.now()));
+    }
+
+    public void publicarTransicao(Pagamento anterior, StatusPagamento novoStatus) {
+        publicar(new EventoPagamento(TipoEventoPagamento.STATUS_ATUALIZADO, anterior.getIdPagamento(), anterior.getCpfCnpj(),
+                anterior.getStatus(), novoStatus, Instant.now()));
+    }
+
+    void publicar(EventoPagamento evento) {
+        eventos.emitNext(evento, REPETIR_SE_CONCORRENTE);
+    }
+
+    // Mesmos filtros da listagem; a pulsação mantém a conexão viva em proxies que encerram conexões ociosas
+    public Flux<ServerSentEvent<EventoPagamento>> assinar(Long idPagamento, String cpfCnpj) {
+        return Flux.defer(() -> {
+            Sinks.Empty<Void> encerrado = Sinks.empty();
+
+            Flux<ServerSentEvent<EventoPagamento>> filtrados = eventos.asFlux()
+                    .filter(evento -> atendeFiltros(evento, idPagamento, cpfCnpj))
+                    .onBackpressureBuffer(capacidadeBuffer, descartado -> descartados.increment(),
+                            desconectar ? BufferOverflowStrategy.ERROR : BufferOverflowStrategy.DROP_OLDEST)
+                    .onErrorResume(Exceptions::isOverflow, e -> {
+                        desconectados.increment();
+                        log.debug("Assinante de eventos desconectado: buffer de {} eventos cheio.", capacidadeBuffer);
+                        return Mono.empty();
+                    })
+                    .doFinally(sinal -> encerrado.tryEmitEmpty())
+                    .map(evento -> ServerSentEvent.builder(evento).event(evento.getTipo().name()).build());
+
+            Flux<ServerSentEvent<EventoPagamento>> pulsacao = Flux.interval(intervaloPulsacao)
+                    .onBackpressureDrop()
+                    .takeUntilOther(encerrado.asMono())
+                    .map(tick -> ServerSentEvent.<EventoPagamento>builder().comment("pulsacao").build());
+
+            // Prefetch 1: fora o buffer do assinante, no máximo um evento fica retido no merge.
+            return Flux.merge(1, filtrados, pulsacao);
+        })
+                .doOnSubscribe(assinatura -> assinantes.incrementAndGet())
+                .doFinally(sinal -> assinantes.decrementAndGet());
+    }
+
+    int assinantes() {
+        return assinantes.get();
+    }
+
+    static boolean atendeFiltros(EventoPagamento evento, Long idPagamento, String cpfCnpj) {
+        boolean filtraId = idPagamento != null;
+        boolean filtraCpfCnpj = cpfCnpj != null && !cpfCnpj.isEmpty();
+        if (!filtraId && !filtraCpfCnpj) {
+            return true;
+        }
+        return (filtraId && idPagamento.equals(evento.getIdPagamento()))
+                || (filtraCpfCnpj && evento.getCpfCnpj() != null && evento.getCpfCnpj().startsWith(cpfCnpj));
+    }
+}
@@ -0,0 +1,139 @@
+package br.com.fadesp.desafiotecnico.backend.pagamento_restapi.service;
+
+import br.com.fadesp.desafiotecnico.backend.pagamento_restapi.persistence.model.FalhaLote;
+import br.com.fadesp.desafiotecnico.backend.pagamento_restapi.persistence.model.ResultadoLote;
+import br.com.fadesp.desafiotecnico.backend.pagamento_restapi.persistence.model.StatusPagamento;
+import br.com.fadesp.desafiotecnico.backend.pagamento_restapi.persistence.model.entity.Pagamento;
+import br.com.fadesp.desafiotecnico.backend.pagamento_restapi.persistence.repository.PagamentoRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+@Service
+@Slf4j
+public class PagamentoLoteService {
+
+    private final PagamentoRepository pagamentoRepository;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final PagamentoCache pagamentoCache;
+    private final PagamentoResumoService pagamentoResumoService;
+    private final VersaoPagamentos versaoPagamentos;
+    private final PagamentoEventos pagamentoEventos;
+
+    @Value("${app.lote.tamanho-bloco:1000}")
+    private int tamanhoBloco;
+
+    public PagamentoLoteService(PagamentoRepository pagamentoRepository, ObjectMapper objectMapper, Validator validator,
+                                PagamentoCache pagamentoCache, PagamentoResumoService pagamentoResumoService,
+                                VersaoPagamentos versaoPagamentos, PagamentoEventos pagamentoEventos) {
+        this.pagamentoRepository = pagamentoRepository;
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+        this.pagamentoCache = pagamentoCache;
+        this.pagamentoResumoService = pagamentoResumoService;
+        this.versaoPagamentos = versaoPagamentos;
+        this.pagamentoEventos = pagamentoEventos;
+    }
+
+    public ResultadoLote criarPagamentosEmLote(InputStream corpo) throws IOException {
+        ResultadoLote resultado = new ResultadoLote();
+        List<Pagamento> bloco = new ArrayList<>(tamanhoBloco);
+        List<Integer> indicesBloco = new ArrayList<>(tamanhoBloco);
+        int indice = 0;
+
+        try (MappingIterator<JsonNode> itens = objectMapper.readerFor(JsonNode.class).readValues(corpo)) {
+            while (itens.hasNextValue()) {
+                JsonNode item = itens.nextValue();
+                int indiceItem = indice++;
+
+                Pagamento pagamento = converterEValidar(item, indiceItem, resultado);
+                if (pagamento == null) {
+                    continue;
+                }
+
+                bloco.add(pagamento);
+                indicesBloco.add(indiceItem);
+                if (bloco.size() >= tamanhoBloco) {
+                    inserirBloco(bloco, indicesBloco, resultado);
+                }
+            }
+        } catch (JsonProcessingException e) {
+            log.warn("Corpo do lote malformado após {} itens: {}", indice, e.getOriginalMessage());
+            resultado.setInterrompido(true);
+            resultado.getFalhas().add(new FalhaLote(indice, null,
+                    List.of("JSON malformado; os itens a partir deste índice não foram processados: " + e.getOriginalMessage())));
+        }
+
+        inserirBloco(bloco, indicesBloco, resultado);
+        resultado.setTotalRecebido(indice);
+        log.info("Lote processado: {} recebidos, {} inseridos, {} falhas.",
+                resultado.getTotalRecebido(), resultado.getTotalInserido(), resultado.getFalhas().size());
+        return resultado;
+    }
+
+    Pagamento converterEValidar(JsonNode item, int indice, ResultadoLote resultado) {
+        Pagamento pagamento;
+        try {
+            pagamento = objectMapper.treeToValue(item, Pagamento.class);
+        } catch (JsonProcessingException e) {
+            resultado.getFalhas().add(new FalhaLote(indice, null, List.of("Dados inválidos: " + e.getOriginalMessage())));
+            return null;
+        }
+
+        Set<ConstraintViolation<Pagamento>> violacoes = validator.validate(pagamento);
+        if (!violacoes.isEmpty()) {
+            List<String> mensagens = new ArrayList<>(violacoes.size());
+            for (ConstraintViolation<Pagamento> violacao : violacoes) {
+                mensagens.add(violacao.getMessage());
+            }
+            resultado.getFalhas().add(new FalhaLote(indice, pagamento.getIdPagamento(), mensagens));
+            return null;
+        }
+
+        // A inserção em massa não devolve os ids gerados; o evento e a resposta precisam deles
+        pagamento.setId(new ObjectId().toHexString());
+        pagamento.setAtivo(true);
+        pagamento.setStatus(StatusPagamento.PENDENTE_PROCESSAMENTO);
+        return pagamento;
+    }
+
+    private void inserirBloco(List<Pagamento> bloco, List<Integer> indicesBloco, ResultadoLote resultado) {
+        if (bloco.isEmpty()) {
+            return;
+        }
+
+        Map<Integer, String> erros = pagamentoRepository.inserirEmLote(bloco);
+        erros.forEach((posicao, mensagem) -> resultado.getFalhas().add(
+                new FalhaLote(indicesBloco.get(posicao), bloco.get(posicao).getIdPagamento(), List.of(mensagem))));
+        resultado.setTotalInserido(resultado.getTotalInserido() + bloco.size() - erros.size());
+
+        for (int posicao = 0; posicao < bloco.size(); posicao++) {
+            if (!erros.containsKey(posicao)) {
+                pagamentoCache.registrar(bloco.get(posicao).getIdPagamento(), StatusPagamento.PENDENTE_PROCESSAMENTO, true);
+                pagamentoResumoService.registrarCriacao(bloco.get(posicao));
+                pagamentoEventos.publicarCriacao(bloco.get(posicao));
+            }
+        }
+        if (erros.size() < bloco.size()) {
+            versaoPagamentos.incrementar();
+        }
+
+        bloco.clear();
+        indicesBloco.clear();
+    }
+}
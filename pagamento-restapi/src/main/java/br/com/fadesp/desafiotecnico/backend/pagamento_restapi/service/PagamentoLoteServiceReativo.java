@@ -0,0 +1,99 @@
+package br.com.fadesp.desafiotecnico.backend.pagamento_restapi.service;
+
+import br.com.fadesp.desafiotecnico.backend.pagamento_restapi.persistence.model.FalhaLote;
+import br.com.fadesp.desafiotecnico.backend.pagamento_restapi.persistence.model.ResultadoLote;
+import br.com.fadesp.desafiotecnico.backend.pagamento_restapi.persistence.model.StatusPagamento;
+import br.com.fadesp.desafiotecnico.backend.pagamento_restapi.persistence.model.entity.Pagamento;
+import br.com.fadesp.desafiotecnico.backend.pagamento_restapi.persistence.repository.ReactivePagamentoRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.core.codec.DecodingException;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Service
+@Slf4j
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class PagamentoLoteServiceReativo {
+
+    private final ReactivePagamentoRepository pagamentoRepository;
+    private final PagamentoLoteService pagamentoLoteService;
+    private final PagamentoCache pagamentoCache;
+    private final PagamentoResumoService pagamentoResumoService;
+    private final VersaoPagamentos versaoPagamentos;
+    private final PagamentoEventos pagamentoEventos;
+
+    @Value("${app.lote.tamanho-bloco:1000}")
+    private int tamanhoBloco;
+
+    public PagamentoLoteServiceReativo(ReactivePagamentoRepository pagamentoRepository, PagamentoLoteService pagamentoLoteService,
+                                       PagamentoCache pagamentoCache, PagamentoResumoService pagamentoResumoService,
+                                       VersaoPagamentos versaoPagamentos, PagamentoEventos pagamentoEventos) {
+        this.pagamentoRepository = pagamentoRepository;
+        this.pagamentoLoteService = pagamentoLoteService;
+        this.pagamentoCache = pagamentoCache;
+        this.pagamentoResumoService = pagamentoResumoService;
+        this.versaoPagamentos = versaoPagamentos;
+        this.pagamentoEventos = pagamentoEventos;
+    }
+
+    public Mono<ResultadoLote> criarPagamentosEmLote(Flux<JsonNode> itens) {
+        ResultadoLote resultado = new ResultadoLote();
+        AtomicInteger recebidos = new AtomicInteger();
+
+        return itens
+                .<ItemLote>handle((item, sink) -> {
+                    int indice = recebidos.getAndIncrement();
+                    Pagamento pagamento = pagamentoLoteService.converterEValidar(item, indice, resultado);
+                    if (pagamento != null) {
+                        sink.next(new ItemLote(indice, pagamento));
+                    }
+                })
+                .onErrorResume(DecodingException.class, e -> {
+                    log.warn("Corpo do lote malformado após {} itens: {}", recebidos.get(), e.getMessage());
+                    resultado.setInterrompido(true);
+                    resultado.getFalhas().add(new FalhaLote(recebidos.get(), null,
+                            List.of("JSON malformado; os itens a partir deste índice não foram processados: " + e.getMessage())));
+                    return Flux.empty();
+                })
+                .buffer(tamanhoBloco)
+                .concatMap(bloco -> inserirBloco(bloco, resultado))
+                .then(Mono.fromSupplier(() -> {
+                    resultado.setTotalRecebido(recebidos.get());
+                    log.info("Lote processado: {} recebidos, {} inseridos, {} falhas.",
+                            resultado.getTotalRecebido(), resultado.getTotalInserido(), resultado.getFalhas().size());
+                    return resultado;
+                }));
+    }
+
+    private Mono<Void> inserirBloco(List<ItemLote> bloco, ResultadoLote resultado) {
+        List<Pagamento> pagamentos = bloco.stream().map(ItemLote::pagamento).toList();
+        return pagamentoRepository.inserirEmLote(pagamentos)
+                .doOnNext(erros -> {
+                    erros.forEach((posicao, mensagem) -> resultado.getFalhas().add(
+                            new FalhaLote(bloco.get(posicao).indice(), pagamentos.get(posicao).getIdPagamento(), List.of(mensagem))));
+                    resultado.setTotalInserido(resultado.getTotalInserido() + pagamentos.size() - erros.size());
+
+                    for (int posicao = 0; posicao < pagamentos.size(); posicao++) {
+                        if (!erros.containsKey(posicao)) {
+                            pagamentoCache.registrar(pagamentos.get(posicao).getIdPagamento(), StatusPagamento.PENDENTE_PROCESSAMENTO, true);
+                            pagamentoResumoService.registrarCriacao(pagamentos.get(posicao));
+                            pagamentoEventos.publicarCriacao(pagamentos.get(posicao));
+                        }
+                    }
+                    if (erros.size() < pagamentos.size()) {
+                        versaoPagamentos.incrementar();
+                    }
+                })
+                .then();
+    }
+
+    private record ItemLote(int indice, Pagamento pagamento) {
+    }
+}
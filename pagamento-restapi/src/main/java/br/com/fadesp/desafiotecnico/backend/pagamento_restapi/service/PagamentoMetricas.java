@@ -0,0 +1,112 @@
+package br.com.fadesp.desafiotecnico.backend.pagamento_restapi.service;
+
+import br.com.fadesp.desafiotecnico.backend.pagamento_restapi.persistence.model.StatusPagamento;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+@Component
+public class PagamentoMetricas {
+
+    private static final String NAO_ENCONTRADO = "NAO_ENCONTRADO";
+
+    private final MeterRegistry meterRegistry;
+    private final Timer envioConfirmado;
+    private final Timer envioComFalha;
+    private final Timer consumoUnitario;
+    private final Timer consumoLote;
+    private final Timer convergenciaStatus;
+    private final Counter mensagensNoDlt;
+
+    public PagamentoMetricas(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        this.envioConfirmado = timerEnvio("confirmado");
+        this.envioComFalha = timerEnvio("falha");
+        this.consumoUnitario = timerConsumo("unitario");
+        this.consumoLote = timerConsumo("lote");
+        this.convergenciaStatus = Timer.builder("pagamentos.status.convergencia")
+                .description("Tempo entre o envio da atualização de status ao Kafka e sua aplicação no MongoDB")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.mensagensNoDlt = Counter.builder("pagamentos.kafka.dlt")
+                .description("Atualizações de status que esgotaram as retentativas e foram lidas do tópico de mensagens mortas")
+                .register(meterRegistry);
+    }
+
+    public void registrarEnvio(long inicioNanos, boolean confirmado) {
+        (confirmado ? envioConfirmado : envioComFalha).record(System.nanoTime() - inicioNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public Timer.Sample iniciarConsumo() {
+        return Timer.start(meterRegistry);
+    }
+
+    public void registrarConsumo(Timer.Sample amostra, boolean lote) {
+        if (amostra != null) {
+            amostra.stop(lote ? consumoLote : consumoUnitario);
+        }
+    }
+
+    public void registrarTransicaoRejeitada(StatusPagamento statusAtual, StatusPagamento novoStatus) {
+        Counter.builder("pagamentos.transicoes.rejeitadas")
+                .description("Atualizações de status recusadas pelo consumidor, por status de origem e destino")
+                .tag("de", statusAtual == null ? NAO_ENCONTRADO : statusAtual.name())
+                .tag("para", novoStatus.name())
+                .register(meterRegistry)
+                .increment();
+    }
+
+    public void registrarMensagemIlegivel(String modo) {
+        Counter.builder("pagamentos.kafka.mensagens.ilegiveis")
+                .description("Mensagens descartadas pelo consumidor por não poderem ser desserializadas, por modo de consumo")
+                .tag("modo", modo)
+                .register(meterRegistry)
+                .increment();
+    }
+
+    public void registrarMensagemNoDlt() {
+        mensagensNoDlt.increment();
+    }
+
+    public void registrarConvergencia(Object enviadoEm) {
+        Long enviadoEmMillis = lerInstante(enviadoEm);
+        if (enviadoEmMillis != null) {
+            convergenciaStatus.record(Math.max(0, System.currentTimeMillis() - enviadoEmMillis), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    static Long lerInstante(Object valor) {
+        if (valor instanceof Number numero) {
+            return numero.longValue();
+        }
+        String texto = valor instanceof byte[] bytes ? new String(bytes, StandardCharsets.UTF_8) : valor instanceof String s ? s : null;
+        if (texto == null) {
+            return null;
+        }
+        try {
+            return Long.parseLong(texto.trim());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private Timer timerEnvio(String resultado) {
+        return Timer.builder("pagamentos.kafka.envio")
+                .description("Tempo até a confirmação (ou falha) do envio de uma atualização de status ao Kafka")
+                .tag("resultado", resultado)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    private Timer timerConsumo(String modo) {
+        return Timer.builder("pagamentos.kafka.consumo")
+                .description("Tempo de processamento de mensagens de atualização de status pelo consumidor")
+                .tag("modo", modo)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+}
@@ -2,25 +2,77 @@ package br.com.fadesp.desafiotecnico.backend.pagamento_restapi.service;
 
 import br.com.fadesp.desafiotecnico.backend.pagamento_restapi.persistence.model.PagamentoStatusAtualizacao;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.producer.ProducerRecord;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
 import org.springframework.stereotype.Service;
 
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
 @Service
 @Slf4j
 public class PagamentoProducer {
 
+    public static final String HEADER_ID_MENSAGEM = "x-id-mensagem";
+    public static final String HEADER_ENVIADO_EM = "x-enviado-em";
+
     private final KafkaTemplate<String, PagamentoStatusAtualizacao> kafkaTemplate;
+    private final PagamentoMetricas pagamentoMetricas;
+    private final AtomicInteger enviosPendentes = new AtomicInteger();
 
-    @Value("${app.kafka.topic-request}")
+    @Value("${app.kafka.topic-status}")
     private String topicName;
 
-    public PagamentoProducer(KafkaTemplate<String, PagamentoStatusAtualizacao> kafkaTemplate) {
+    public PagamentoProducer(KafkaTemplate<String, PagamentoStatusAtualizacao> kafkaTemplate, PagamentoMetricas pagamentoMetricas) {
         this.kafkaTemplate = kafkaTemplate;
+        this.pagamentoMetricas = pagamentoMetricas;
+    }
+
+    public EnvioAtualizacao enviarMensagem(PagamentoStatusAtualizacao atualizacao) {
+        return enviarMensagem(atualizacao, null);
+    }
+
+    // Com chave de idempotência, o id da mensagem deriva da chave e do idPagamento e os reenvios são descartados
+    public EnvioAtualizacao enviarMensagem(PagamentoStatusAtualizacao atualizacao, String chaveIdempotencia) {
+        String idMensagem = chaveIdempotencia == null
+                ? UUID.randomUUID().toString()
+                : UUID.nameUUIDFromBytes((atualizacao.getIdPagamento() + ":" + chaveIdempotencia).getBytes(StandardCharsets.UTF_8)).toString();
+        log.debug("Enviando mensagem {} para o tópico '{}': {}", idMensagem, topicName, atualizacao);
+
+        // A chave fixa a partição por idPagamento, preservando a ordem das atualizações de um mesmo pagamento.
+        ProducerRecord<String, PagamentoStatusAtualizacao> registro =
+                new ProducerRecord<>(topicName, String.valueOf(atualizacao.getIdPagamento()), atualizacao);
+        registro.headers().add(HEADER_ID_MENSAGEM, idMensagem.getBytes(StandardCharsets.UTF_8));
+        registro.headers().add(HEADER_ENVIADO_EM, Long.toString(System.currentTimeMillis()).getBytes(StandardCharsets.UTF_8));
+
+        long inicio = System.nanoTime();
+        enviosPendentes.incrementAndGet();
+        CompletableFuture<SendResult<String, PagamentoStatusAtualizacao>> envio;
+        try {
+            envio = kafkaTemplate.send(registro);
+        } catch (RuntimeException e) {
+            enviosPendentes.decrementAndGet();
+            throw e;
+        }
+        var confirmacao = envio.whenComplete((resultado, erro) -> {
+            enviosPendentes.decrementAndGet();
+            pagamentoMetricas.registrarEnvio(inicio, erro == null);
+            if (erro != null) {
+                log.error("Falha ao enviar mensagem {} para o tópico '{}': {}", idMensagem, topicName, atualizacao, erro);
+            } else {
+                log.debug("Mensagem {} confirmada na partição {} offset {}", idMensagem,
+                        resultado.getRecordMetadata().partition(), resultado.getRecordMetadata().offset());
+            }
+        });
+        return new EnvioAtualizacao(idMensagem, confirmacao);
     }
 
-    public void enviarMensagem(PagamentoStatusAtualizacao atualizacao) {
-        log.info("Enviando mensagem para o tópico '{}': {}", topicName, atualizacao);
-        kafkaTemplate.send(topicName, atualizacao);
+    // Envios entregues ao produtor e ainda sem confirmação (ou falha) do Kafka.
+    public int enviosPendentes() {
+        return enviosPendentes.get();
     }
 }
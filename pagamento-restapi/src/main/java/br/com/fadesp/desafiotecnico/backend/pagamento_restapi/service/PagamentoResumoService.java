@@ -0,0 +1,165 @@
+package br.com.fadesp.desafiotecnico.backend.pagamento_restapi.service;
+
+import br.com.fadesp.desafiotecnico.backend.pagamento_restapi.persistence.model.MetodoPagamento;
+import br.com.fadesp.desafiotecnico.backend.pagamento_restapi.persistence.model.ResumoPagamentos;
+import br.com.fadesp.desafiotecnico.backend.pagamento_restapi.persistence.model.StatusPagamento;
+import br.com.fadesp.desafiotecnico.backend.pagamento_restapi.persistence.model.TotalResumo;
+import br.com.fadesp.desafiotecnico.backend.pagamento_restapi.persistence.model.entity.Pagamento;
+import br.com.fadesp.desafiotecnico.backend.pagamento_restapi.persistence.model.entity.ResumoPagamento;
+import br.com.fadesp.desafiotecnico.backend.pagamento_restapi.persistence.repository.ResumoPagamentoRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+@Service
+@Slf4j
+public class PagamentoResumoService {
+
+    private static final StatusPagamento[] STATUS = StatusPagamento.values();
+    private static final MetodoPagamento[] METODOS = MetodoPagamento.values();
+
+    private final ResumoPagamentoRepository resumoRepository;
+    private final Acumulador[] acumuladores = new Acumulador[STATUS.length * METODOS.length];
+
+    public PagamentoResumoService(ResumoPagamentoRepository resumoRepository) {
+        this.resumoRepository = resumoRepository;
+        for (int i = 0; i < acumuladores.length; i++) {
+            acumuladores[i] = new Acumulador();
+        }
+    }
+
+    public void registrarCriacao(Pagamento pagamento) {
+        acumular(StatusPagamento.PENDENTE_PROCESSAMENTO, pagamento.getMetodoPagamento(), 1, pagamento.getValor());
+    }
+
+    public void registrarInativacao(Pagamento pagamento) {
+        acumular(pagamento.getStatus(), pagamento.getMetodoPagamento(), -1, negar(pagamento.getValor()));
+    }
+
+    public void registrarTransicao(Pagamento anterior, StatusPagamento novoStatus) {
+        if (anterior.getStatus() == novoStatus) {
+            return;
+        }
+        acumular(anterior.getStatus(), anterior.getMetodoPagamento(), -1, negar(anterior.getValor()));
+        acumular(novoStatus, anterior.getMetodoPagamento(), 1, anterior.getValor());
+    }
+
+    public ResumoPagamentos obterResumo() {
+        List<ResumoPagamento> itens = new ArrayList<>(resumoRepository.findAll());
+        itens.sort(Comparator.comparing(ResumoPagamento::getStatus).thenComparing(ResumoPagamento::getMetodoPagamento));
+
+        Map<StatusPagamento, TotalResumo> porStatus = new EnumMap<>(StatusPagamento.class);
+        Map<MetodoPagamento, TotalResumo> porMetodo = new EnumMap<>(MetodoPagamento.class);
+        TotalResumo total = new TotalResumo();
+        for (ResumoPagamento item : itens) {
+            somar(porStatus.computeIfAbsent(item.getStatus(), status -> new TotalResumo()), item);
+            somar(porMetodo.computeIfAbsent(item.getMetodoPagamento(), metodo -> new TotalResumo()), item);
+            somar(total, item);
+        }
+        return new ResumoPagamentos(itens, porStatus, porMetodo, total);
+    }
+
+    @Scheduled(fixedDelayString = "${app.resumo.intervalo-descarga:1s}")
+    @PreDestroy
+    public synchronized void descarregar() {
+        List<ResumoPagamento> variacoes = drenarVariacoes();
+        if (variacoes.isEmpty()) {
+            return;
+        }
+
+        try {
+            resumoRepository.incrementar(variacoes);
+        } catch (RuntimeException e) {
+            log.warn("Falha ao gravar {} variações do resumo de pagamentos; serão reenviadas na próxima descarga.", variacoes.size(), e);
+            reacumular(variacoes);
+        }
+    }
+
+    // As variações acumuladas até o fim da agregação já estão contadas nela: são descartadas antes da substituição,
+    // sob o mesmo monitor da descarga, para não serem somadas de novo. As que chegam depois ficam para a próxima descarga
+    public synchronized ResumoPagamentos reconstruir() {
+        List<ResumoPagamento> resumos = resumoRepository.agregarPagamentosAtivos();
+        List<ResumoPagamento> descartadas = drenarVariacoes();
+        try {
+            resumoRepository.substituirTodos(resumos);
+        } catch (RuntimeException e) {
+            reacumular(descartadas);
+            throw e;
+        }
+        log.info("Resumo de pagamentos reconstruído a partir de {} combinações de status e método.", resumos.size());
+        return obterResumo();
+    }
+
+    private List<ResumoPagamento> drenarVariacoes() {
+        List<ResumoPagamento> variacoes = new ArrayList<>();
+        for (int i = 0; i < acumuladores.length; i++) {
+            ResumoPagamento variacao = acumuladores[i].drenar(STATUS[i / METODOS.length], METODOS[i % METODOS.length]);
+            if (variacao != null) {
+                variacoes.add(variacao);
+            }
+        }
+        return variacoes;
+    }
+
+    private void reacumular(List<ResumoPagamento> variacoes) {
+        variacoes.forEach(variacao -> acumular(variacao.getStatus(), variacao.getMetodoPagamento(),
+                variacao.getQuantidade(), variacao.getValorTotal()));
+    }
+
+    private void acumular(StatusPagamento status, MetodoPagamento metodoPagamento, long quantidade, BigDecimal valor) {
+        if (status == null || metodoPagamento == null) {
+            return;
+        }
+        acumuladores[status.ordinal() * METODOS.length + metodoPagamento.ordinal()].somar(quantidade, valor);
+    }
+
+    private static BigDecimal negar(BigDecimal valor) {
+        return valor == null ? null : valor.negate();
+    }
+
+    private static void somar(TotalResumo total, ResumoPagamento item) {
+        total.setQuantidade(total.getQuantidade() + item.getQuantidade());
+        total.setValorTotal(total.getValorTotal().add(item.getValorTotal()));
+    }
+
+    // Valores com mais de duas casas decimais, raros, vão para um resíduo exato fora dos LongAdder
+    private static final class Acumulador {
+
+        private final LongAdder quantidade = new LongAdder();
+        private final LongAdder centavos = new LongAdder();
+        private final AtomicReference<BigDecimal> residuo = new AtomicReference<>(BigDecimal.ZERO);
+
+        void somar(long quantidade, BigDecimal valor) {
+            this.quantidade.add(quantidade);
+            if (valor == null) {
+                return;
+            }
+            try {
+                centavos.add(valor.movePointRight(2).longValueExact());
+            } catch (ArithmeticException e) {
+                residuo.accumulateAndGet(valor, BigDecimal::add);
+            }
+        }
+
+        ResumoPagamento drenar(StatusPagamento status, MetodoPagamento metodoPagamento) {
+            long quantidadeDrenada = quantidade.sumThenReset();
+            long centavosDrenados = centavos.sumThenReset();
+            BigDecimal residuoDrenado = residuo.getAndSet(BigDecimal.ZERO);
+            if (quantidadeDrenada == 0 && centavosDrenados == 0 && residuoDrenado.signum() == 0) {
+                return null;
+            }
+            return new ResumoPagamento(ResumoPagamento.chave(status, metodoPagamento), status, metodoPagamento,
+                    quantidadeDrenada, BigDecimal.valueOf(centavosDrenados, 2).add(residuoDrenado));
+        }
+    }
+}
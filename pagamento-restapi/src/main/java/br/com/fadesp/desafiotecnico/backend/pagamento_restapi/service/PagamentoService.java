@@ -1,68 +1,217 @@
 package br.com.fadesp.desafiotecnico.backend.pagamento_restapi.service;
 
+import br.com.fadesp.desafiotecnico.backend.pagamento_restapi.persistence.model.PagamentoResumido;
 import br.com.fadesp.desafiotecnico.backend.pagamento_restapi.persistence.model.PagamentoStatusAtualizacao;
+import br.com.fadesp.desafiotecnico.backend.pagamento_restapi.persistence.model.PaginatedResponse;
 import br.com.fadesp.desafiotecnico.backend.pagamento_restapi.persistence.model.StatusPagamento;
+import br.com.fadesp.desafiotecnico.backend.pagamento_restapi.persistence.model.VisaoPagamento;
 import br.com.fadesp.desafiotecnico.backend.pagamento_restapi.persistence.model.entity.Pagamento;
 import br.com.fadesp.desafiotecnico.backend.pagamento_restapi.persistence.repository.PagamentoRepository;
+import br.com.fadesp.desafiotecnico.backend.pagamento_restapi.service.PagamentoCache.EstadoPagamento;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.stream.Stream;
 
 @Service
 public class PagamentoService {
 
     private final PagamentoRepository pagamentoRepository;
     private final PagamentoProducer pagamentoProducer;
+    private final PagamentoCache pagamentoCache;
+    private final PagamentoResumoService pagamentoResumoService;
+    private final VersaoPagamentos versaoPagamentos;
+    private final PagamentoEventos pagamentoEventos;
+    private final SequenciadorPagamentos sequenciadorPagamentos;
 
-    public PagamentoService(PagamentoRepository pagamentoRepository, PagamentoProducer pagamentoProducer) {
+    @Value("${app.paginacao.tamanho-padrao:50}")
+    private int tamanhoPaginaPadrao;
+
+    @Value("${app.paginacao.tamanho-maximo:500}")
+    private int tamanhoPaginaMaximo;
+
+    @Value("${app.paginacao.limite-contagem:10000}")
+    private long limiteContagem;
+
+    @Value("${app.exportacao.tamanho-lote-cursor:500}")
+    private int tamanhoLoteCursorExportacao;
+
+    public PagamentoService(PagamentoRepository pagamentoRepository, PagamentoProducer pagamentoProducer, PagamentoCache pagamentoCache,
+                            PagamentoResumoService pagamentoResumoService, VersaoPagamentos versaoPagamentos,
+                            PagamentoEventos pagamentoEventos, SequenciadorPagamentos sequenciadorPagamentos) {
         this.pagamentoRepository = pagamentoRepository;
         this.pagamentoProducer = pagamentoProducer;
+        this.pagamentoCache = pagamentoCache;
+        this.pagamentoResumoService = pagamentoResumoService;
+        this.versaoPagamentos = versaoPagamentos;
+        this.pagamentoEventos = pagamentoEventos;
+        this.sequenciadorPagamentos = sequenciadorPagamentos;
     }
 
     @Transactional
     public Pagamento criarPagamento(Pagamento pagamento) {
         pagamento.setStatus(StatusPagamento.PENDENTE_PROCESSAMENTO);
-        return pagamentoRepository.save(pagamento);
+        Pagamento salvo = pagamentoRepository.save(pagamento);
+        pagamentoCache.registrar(salvo.getIdPagamento(), salvo.getStatus(), salvo.isAtivo());
+        pagamentoResumoService.registrarCriacao(salvo);
+        versaoPagamentos.incrementar();
+        pagamentoEventos.publicarCriacao(salvo);
+        return salvo;
+    }
+
+    public String etagListagem(Long idPagamento, String cpfCnpj, StatusPagamento status, String cursor, Integer limite, boolean incluirTotal,
+                               VisaoPagamento visao, boolean incluirArquivados) {
+        return versaoPagamentos.etag(idPagamento, cpfCnpj, status, cursor, limite, incluirTotal, visao, incluirArquivados);
     }
 
     @Transactional(readOnly = true)
-    public List<Pagamento> listarPagamentos(Long idPagamento, String cpfCnpj, StatusPagamento status) {
+    public PaginatedResponse<Pagamento> listarPagamentos(Long idPagamento, String cpfCnpj, StatusPagamento status,
+                                                         String cursor, Integer limite, boolean incluirTotal, boolean incluirArquivados) {
+        return paginar(idPagamento, cpfCnpj, status, cursor, limite, incluirTotal, incluirArquivados,
+                (aposId, quantidade) -> pagamentoRepository.findWithFilters(idPagamento, cpfCnpj, status, aposId, quantidade),
+                (aposId, quantidade) -> pagamentoRepository.findArquivadosWithFilters(idPagamento, cpfCnpj, status, aposId, quantidade),
+                Pagamento::getId);
+    }
+
+    @Transactional(readOnly = true)
+    public PaginatedResponse<PagamentoResumido> listarPagamentosResumidos(Long idPagamento, String cpfCnpj, StatusPagamento status,
+                                                                          String cursor, Integer limite, boolean incluirTotal,
+                                                                          boolean incluirArquivados) {
+        return paginar(idPagamento, cpfCnpj, status, cursor, limite, incluirTotal, incluirArquivados,
+                (aposId, quantidade) -> pagamentoRepository.findResumidosWithFilters(idPagamento, cpfCnpj, status, aposId, quantidade),
+                (aposId, quantidade) -> pagamentoRepository.findResumidosArquivadosWithFilters(idPagamento, cpfCnpj, status, aposId, quantidade),
+                PagamentoResumido::id);
+    }
 
-        if (idPagamento == null && (cpfCnpj == null || cpfCnpj.isEmpty()) && status == null) {
-            return pagamentoRepository.findByAtivoIsTrue();
+    private <T> PaginatedResponse<T> paginar(Long idPagamento, String cpfCnpj, StatusPagamento status, String cursor, Integer limite,
+                                             boolean incluirTotal, boolean incluirArquivados, BiFunction<String, Integer, List<T>> buscarPagina,
+                                             BiFunction<String, Integer, List<T>> buscarPaginaArquivada, Function<T, String> id) {
+
+        int tamanhoPagina = resolverTamanhoPagina(limite);
+        String aposId = decodificarCursor(cursor);
+        List<T> itens = buscarPagina.apply(aposId, tamanhoPagina + 1);
+        if (incluirArquivados) {
+            itens = mesclarPorId(itens, buscarPaginaArquivada.apply(aposId, tamanhoPagina + 1), id, tamanhoPagina + 1);
+        }
+
+        String proximoCursor = null;
+        if (itens.size() > tamanhoPagina) {
+            itens = new ArrayList<>(itens.subList(0, tamanhoPagina));
+            proximoCursor = codificarCursor(id.apply(itens.get(tamanhoPagina - 1)));
         }
 
-        return pagamentoRepository.findWithFilters(idPagamento, cpfCnpj, status);
+        Long total = null;
+        if (incluirTotal) {
+            total = pagamentoRepository.countWithFilters(idPagamento, cpfCnpj, status, limiteContagem);
+            if (incluirArquivados) {
+                total = Math.min(limiteContagem, total + pagamentoRepository.countArquivadosWithFilters(idPagamento, cpfCnpj, status, limiteContagem));
+            }
+        }
+
+        return new PaginatedResponse<>(itens, total, proximoCursor);
+    }
+
+    public Stream<Pagamento> exportarPagamentos(Long idPagamento, String cpfCnpj, StatusPagamento status, boolean incluirArquivados) {
+        Stream<Pagamento> pagamentos = pagamentoRepository.streamWithFilters(idPagamento, cpfCnpj, status, tamanhoLoteCursorExportacao);
+        if (!incluirArquivados) {
+            return pagamentos;
+        }
+        // Fechar o stream concatenado fecha os dois cursores.
+        return Stream.concat(pagamentos,
+                pagamentoRepository.streamArquivadosWithFilters(idPagamento, cpfCnpj, status, tamanhoLoteCursorExportacao));
     }
 
     @Transactional
     public boolean inativarPagamento(String id) {
-        Optional<Pagamento> optionalPagamento = pagamentoRepository.findById(id);
-        if (optionalPagamento.isPresent()) {
-            Pagamento pagamento = optionalPagamento.get();
-            if (pagamento.getStatus() == StatusPagamento.PENDENTE_PROCESSAMENTO) {
-                pagamento.setAtivo(false);
-                pagamentoRepository.save(pagamento);
-                return true;
-            }
+        Optional<Long> idPagamento = pagamentoRepository.buscarIdPagamento(id);
+        if (idPagamento.isEmpty()) {
+            return false;
         }
-        return false;
+        // Escrita e efeitos sob o sequenciador, como no consumidor: nenhuma transição se intercala entre os dois
+        Optional<Pagamento> inativado = sequenciadorPagamentos.executar(idPagamento.get(), () -> {
+            Optional<Pagamento> resultado = pagamentoRepository.inativarSePendente(id);
+            resultado.ifPresent(pagamento -> {
+                pagamentoCache.registrar(pagamento.getIdPagamento(), pagamento.getStatus(), false);
+                pagamentoResumoService.registrarInativacao(pagamento);
+                versaoPagamentos.incrementar();
+                pagamentoEventos.publicarInativacao(pagamento);
+            });
+            return resultado;
+        });
+        return inativado.isPresent();
     }
 
     @Transactional(readOnly = true)
-    public boolean processarAtualizacaoStatus(PagamentoStatusAtualizacao atualizacao) {
+    public Optional<EnvioAtualizacao> processarAtualizacaoStatus(PagamentoStatusAtualizacao atualizacao, String chaveIdempotencia) {
 		
-		Optional<Pagamento> pagamentoOptional = pagamentoRepository.findByIdPagamentoAndAtivoIsTrue(atualizacao.getIdPagamento());
+		EstadoPagamento estado = pagamentoCache.obter(atualizacao.getIdPagamento(), this::carregarEstado);
 		
-		if (pagamentoOptional.isEmpty() || pagamentoOptional.get().getStatus().equals(StatusPagamento.PROCESSADO_SUCESSO)){
-			return false;
+		if (!estado.encontrado() || !estado.ativo() || estado.status().equals(StatusPagamento.PROCESSADO_SUCESSO)){
+			return Optional.empty();
 		}
         else{
-			pagamentoProducer.enviarMensagem(atualizacao);
-			return true;
+			return Optional.of(pagamentoProducer.enviarMensagem(atualizacao, chaveIdempotencia));
+        }
+    }
+
+    private EstadoPagamento carregarEstado(Long idPagamento) {
+        return pagamentoRepository.findByIdPagamentoAndAtivoIsTrue(idPagamento)
+                .map(pagamento -> new EstadoPagamento(pagamento.getStatus(), true))
+                .orElse(PagamentoCache.NAO_ENCONTRADO);
+    }
+
+    private int resolverTamanhoPagina(Integer limite) {
+        if (limite == null || limite < 1) {
+            return tamanhoPaginaPadrao;
+        }
+        return Math.min(limite, tamanhoPaginaMaximo);
+    }
+
+    // Ids de ObjectId têm tamanho fixo, então a ordem do texto é a do _id; um pagamento nas duas coleções aparece uma vez só
+    static <T> List<T> mesclarPorId(List<T> principais, List<T> arquivados, Function<T, String> id, int limite) {
+        List<T> mesclados = new ArrayList<>(Math.min(limite, principais.size() + arquivados.size()));
+        int i = 0;
+        int j = 0;
+        while (mesclados.size() < limite && (i < principais.size() || j < arquivados.size())) {
+            if (j >= arquivados.size()) {
+                mesclados.add(principais.get(i++));
+                continue;
+            }
+            if (i >= principais.size()) {
+                mesclados.add(arquivados.get(j++));
+                continue;
+            }
+            int comparacao = id.apply(principais.get(i)).compareTo(id.apply(arquivados.get(j)));
+            if (comparacao == 0) {
+                j++;
+            }
+            mesclados.add(comparacao <= 0 ? principais.get(i++) : arquivados.get(j++));
+        }
+        return mesclados;
+    }
+
+    static String codificarCursor(String id) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(id.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    static String decodificarCursor(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        String id = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.US_ASCII);
+        if (!ObjectId.isValid(id)) {
+            throw new IllegalArgumentException("Cursor de paginação inválido.");
         }
+        return id;
     }
 }
 
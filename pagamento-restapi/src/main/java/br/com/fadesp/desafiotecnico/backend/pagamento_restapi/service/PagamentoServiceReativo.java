@@ -0,0 +1,168 @@
+package br.com.fadesp.desafiotecnico.backend.pagamento_restapi.service;
+
+import br.com.fadesp.desafiotecnico.backend.pagamento_restapi.persistence.model.PagamentoResumido;
+import br.com.fadesp.desafiotecnico.backend.pagamento_restapi.persistence.model.PagamentoStatusAtualizacao;
+import br.com.fadesp.desafiotecnico.backend.pagamento_restapi.persistence.model.PaginatedResponse;
+import br.com.fadesp.desafiotecnico.backend.pagamento_restapi.persistence.model.StatusPagamento;
+import br.com.fadesp.desafiotecnico.backend.pagamento_restapi.persistence.model.VisaoPagamento;
+import br.com.fadesp.desafiotecnico.backend.pagamento_restapi.persistence.model.entity.Pagamento;
+import br.com.fadesp.desafiotecnico.backend.pagamento_restapi.persistence.repository.ReactivePagamentoRepository;
+import br.com.fadesp.desafiotecnico.backend.pagamento_restapi.service.PagamentoCache.EstadoPagamento;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+@Service
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class PagamentoServiceReativo {
+
+    private final ReactivePagamentoRepository pagamentoRepository;
+    private final PagamentoProducer pagamentoProducer;
+    private final PagamentoCache pagamentoCache;
+    private final PagamentoResumoService pagamentoResumoService;
+    private final VersaoPagamentos versaoPagamentos;
+    private final PagamentoEventos pagamentoEventos;
+
+    @Value("${app.paginacao.tamanho-padrao:50}")
+    private int tamanhoPaginaPadrao;
+
+    @Value("${app.paginacao.tamanho-maximo:500}")
+    private int tamanhoPaginaMaximo;
+
+    @Value("${app.paginacao.limite-contagem:10000}")
+    private long limiteContagem;
+
+    @Value("${app.exportacao.tamanho-lote-cursor:500}")
+    private int tamanhoLoteCursorExportacao;
+
+    public PagamentoServiceReativo(ReactivePagamentoRepository pagamentoRepository, PagamentoProducer pagamentoProducer, PagamentoCache pagamentoCache,
+                                   PagamentoResumoService pagamentoResumoService, VersaoPagamentos versaoPagamentos,
+                                   PagamentoEventos pagamentoEventos) {
+        this.pagamentoRepository = pagamentoRepository;
+        this.pagamentoProducer = pagamentoProducer;
+        this.pagamentoCache = pagamentoCache;
+        this.pagamentoResumoService = pagamentoResumoService;
+        this.versaoPagamentos = versaoPagamentos;
+        this.pagamentoEventos = pagamentoEventos;
+    }
+
+    public Mono<Pagamento> criarPagamento(Pagamento pagamento) {
+        pagamento.setStatus(StatusPagamento.PENDENTE_PROCESSAMENTO);
+        return pagamentoRepository.save(pagamento)
+                .doOnNext(salvo -> {
+                    pagamentoCache.registrar(salvo.getIdPagamento(), salvo.getStatus(), salvo.isAtivo());
+                    pagamentoResumoService.registrarCriacao(salvo);
+                    versaoPagamentos.incrementar();
+                    pagamentoEventos.publicarCriacao(salvo);
+                });
+    }
+
+    public String etagListagem(Long idPagamento, String cpfCnpj, StatusPagamento status, String cursor, Integer limite, boolean incluirTotal,
+                               VisaoPagamento visao, boolean incluirArquivados) {
+        return versaoPagamentos.etag(idPagamento, cpfCnpj, status, cursor, limite, incluirTotal, visao, incluirArquivados);
+    }
+
+    public Mono<PaginatedResponse<Pagamento>> listarPagamentos(Long idPagamento, String cpfCnpj, StatusPagamento status,
+                                                               String cursor, Integer limite, boolean incluirTotal, boolean incluirArquivados) {
+        return paginar(idPagamento, cpfCnpj, status, cursor, limite, incluirTotal, incluirArquivados,
+                (aposId, quantidade) -> pagamentoRepository.findWithFilters(idPagamento, cpfCnpj, status, aposId, quantidade),
+                (aposId, quantidade) -> pagamentoRepository.findArquivadosWithFilters(idPagamento, cpfCnpj, status, aposId, quantidade),
+                Pagamento::getId);
+    }
+
+    public Mono<PaginatedResponse<PagamentoResumido>> listarPagamentosResumidos(Long idPagamento, String cpfCnpj, StatusPagamento status,
+                                                                                String cursor, Integer limite, boolean incluirTotal,
+                                                                                boolean incluirArquivados) {
+        return paginar(idPagamento, cpfCnpj, status, cursor, limite, incluirTotal, incluirArquivados,
+                (aposId, quantidade) -> pagamentoRepository.findResumidosWithFilters(idPagamento, cpfCnpj, status, aposId, quantidade),
+                (aposId, quantidade) -> pagamentoRepository.findResumidosArquivadosWithFilters(idPagamento, cpfCnpj, status, aposId, quantidade),
+                PagamentoResumido::id);
+    }
+
+    private <T> Mono<PaginatedResponse<T>> paginar(Long idPagamento, String cpfCnpj, StatusPagamento status, String cursor, Integer limite,
+                                                   boolean incluirTotal, boolean incluirArquivados, BiFunction<String, Integer, Flux<T>> buscarPagina,
+                                                   BiFunction<String, Integer, Flux<T>> buscarPaginaArquivada, Function<T, String> id) {
+        return Mono.defer(() -> {
+            int tamanhoPagina = resolverTamanhoPagina(limite);
+            String aposId = PagamentoService.decodificarCursor(cursor);
+
+            Mono<List<T>> pagina = buscarPagina.apply(aposId, tamanhoPagina + 1).collectList();
+            if (incluirArquivados) {
+                pagina = Mono.zip(pagina, buscarPaginaArquivada.apply(aposId, tamanhoPagina + 1).collectList(),
+                        (principais, arquivados) -> PagamentoService.mesclarPorId(principais, arquivados, id, tamanhoPagina + 1));
+            }
+            Mono<Optional<Long>> total = incluirTotal
+                    ? contar(idPagamento, cpfCnpj, status, incluirArquivados).map(Optional::of)
+                    : Mono.just(Optional.empty());
+
+            return Mono.zip(pagina, total).map(resultado -> {
+                List<T> itens = resultado.getT1();
+                String proximoCursor = null;
+                if (itens.size() > tamanhoPagina) {
+                    itens = itens.subList(0, tamanhoPagina);
+                    proximoCursor = PagamentoService.codificarCursor(id.apply(itens.get(tamanhoPagina - 1)));
+                }
+                return new PaginatedResponse<>(itens, resultado.getT2().orElse(null), proximoCursor);
+            });
+        });
+    }
+
+    private Mono<Long> contar(Long idPagamento, String cpfCnpj, StatusPagamento status, boolean incluirArquivados) {
+        Mono<Long> principais = pagamentoRepository.countWithFilters(idPagamento, cpfCnpj, status, limiteContagem);
+        if (!incluirArquivados) {
+            return principais;
+        }
+        return Mono.zip(principais, pagamentoRepository.countArquivadosWithFilters(idPagamento, cpfCnpj, status, limiteContagem),
+                (total, arquivados) -> Math.min(limiteContagem, total + arquivados));
+    }
+
+    public Flux<Pagamento> exportarPagamentos(Long idPagamento, String cpfCnpj, StatusPagamento status, boolean incluirArquivados) {
+        Flux<Pagamento> pagamentos = pagamentoRepository.streamWithFilters(idPagamento, cpfCnpj, status, tamanhoLoteCursorExportacao);
+        if (!incluirArquivados) {
+            return pagamentos;
+        }
+        return pagamentos.concatWith(pagamentoRepository.streamArquivadosWithFilters(idPagamento, cpfCnpj, status, tamanhoLoteCursorExportacao));
+    }
+
+    public Mono<Boolean> inativarPagamento(String id) {
+        return pagamentoRepository.inativarSePendente(id)
+                .doOnNext(pagamento -> {
+                    pagamentoCache.registrar(pagamento.getIdPagamento(), pagamento.getStatus(), false);
+                    pagamentoResumoService.registrarInativacao(pagamento);
+                    versaoPagamentos.incrementar();
+                    pagamentoEventos.publicarInativacao(pagamento);
+                })
+                .hasElement();
+    }
+
+    public Mono<EnvioAtualizacao> processarAtualizacaoStatus(PagamentoStatusAtualizacao atualizacao, String chaveIdempotencia) {
+        return obterEstado(atualizacao.getIdPagamento())
+                .filter(estado -> estado.encontrado() && estado.ativo() && !estado.status().equals(StatusPagamento.PROCESSADO_SUCESSO))
+                .map(estado -> pagamentoProducer.enviarMensagem(atualizacao, chaveIdempotencia));
+    }
+
+    private Mono<EstadoPagamento> obterEstado(Long idPagamento) {
+        EstadoPagamento emCache = pagamentoCache.consultar(idPagamento);
+        if (emCache != null) {
+            return Mono.just(emCache);
+        }
+        return pagamentoRepository.findByIdPagamentoAndAtivoIsTrue(idPagamento)
+                .map(pagamento -> new EstadoPagamento(pagamento.getStatus(), true))
+                .defaultIfEmpty(PagamentoCache.NAO_ENCONTRADO)
+                .map(estado -> pagamentoCache.publicar(idPagamento, estado));
+    }
+
+    private int resolverTamanhoPagina(Integer limite) {
+        if (limite == null || limite < 1) {
+            return tamanhoPaginaPadrao;
+        }
+        return Math.min(limite, tamanhoPaginaMaximo);
+    }
+}
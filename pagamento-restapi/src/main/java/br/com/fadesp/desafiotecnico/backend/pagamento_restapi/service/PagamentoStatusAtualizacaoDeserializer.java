@@ -0,0 +1,60 @@
+package br.com.fadesp.desafiotecnico.backend.pagamento_restapi.service;
+
+import br.com.fadesp.desafiotecnico.backend.pagamento_restapi.persistence.model.PagamentoStatusAtualizacao;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.serialization.Deserializer;
+import org.springframework.kafka.support.serializer.JsonDeserializer;
+
+import java.nio.ByteBuffer;
+import java.util.Map;
+
+// Um documento JSON nunca começa com caractere de controle; o formato binário começa com a versão
+public class PagamentoStatusAtualizacaoDeserializer implements Deserializer<PagamentoStatusAtualizacao> {
+
+    private final JsonDeserializer<PagamentoStatusAtualizacao> json = new JsonDeserializer<>();
+
+    @Override
+    public void configure(Map<String, ?> configs, boolean isKey) {
+        json.configure(configs, isKey);
+    }
+
+    @Override
+    public PagamentoStatusAtualizacao deserialize(String topic, byte[] data) {
+        if (data == null || !binario(data)) {
+            return json.deserialize(topic, data);
+        }
+        return desserializarBinario(data);
+    }
+
+    @Override
+    public PagamentoStatusAtualizacao deserialize(String topic, Headers headers, byte[] data) {
+        if (data == null || !binario(data)) {
+            return json.deserialize(topic, headers, data);
+        }
+        return desserializarBinario(data);
+    }
+
+    @Override
+    public void close() {
+        json.close();
+    }
+
+    private static boolean binario(byte[] data) {
+        return data.length > 0 && data[0] >= 0 && data[0] < ' ' && !Character.isWhitespace(data[0]);
+    }
+
+    static PagamentoStatusAtualizacao desserializarBinario(byte[] data) {
+        if (data[0] != PagamentoStatusAtualizacaoSerializer.VERSAO) {
+            throw new SerializationException("Versão desconhecida do formato binário de atualização de status: " + data[0]);
+        }
+        if (data.length != PagamentoStatusAtualizacaoSerializer.TAMANHO) {
+            throw new SerializationException("Tamanho inválido para a atualização de status em binário: " + data.length + " bytes");
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(data, 1, data.length - 1);
+        PagamentoStatusAtualizacao atualizacao = new PagamentoStatusAtualizacao();
+        atualizacao.setIdPagamento(buffer.getLong());
+        atualizacao.setNovoStatus(PagamentoStatusAtualizacaoSerializer.status(buffer.get()));
+        return atualizacao;
+    }
+}
@@ -0,0 +1,88 @@
+package br.com.fadesp.desafiotecnico.backend.pagamento_restapi.service;
+
+import br.com.fadesp.desafiotecnico.backend.pagamento_restapi.persistence.model.PagamentoStatusAtualizacao;
+import br.com.fadesp.desafiotecnico.backend.pagamento_restapi.persistence.model.StatusPagamento;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.serialization.Serializer;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+
+import java.nio.ByteBuffer;
+import java.util.Map;
+
+public class PagamentoStatusAtualizacaoSerializer implements Serializer<PagamentoStatusAtualizacao> {
+
+    public static final String FORMATO = "pagamento.serializacao.formato";
+    public static final String FORMATO_BINARIO = "binario";
+    public static final String FORMATO_JSON = "json";
+
+    static final byte VERSAO = 1;
+    static final int TAMANHO = 10;
+
+    private final JsonSerializer<PagamentoStatusAtualizacao> json = new JsonSerializer<>();
+    private boolean binario;
+
+    @Override
+    public void configure(Map<String, ?> configs, boolean isKey) {
+        Object configurado = configs.get(FORMATO);
+        String formato = configurado == null ? FORMATO_JSON : configurado.toString().trim();
+        if (!FORMATO_BINARIO.equals(formato) && !FORMATO_JSON.equals(formato)) {
+            throw new IllegalArgumentException("Formato de serialização desconhecido: " + formato);
+        }
+        binario = FORMATO_BINARIO.equals(formato);
+        json.configure(configs, isKey);
+    }
+
+    @Override
+    public byte[] serialize(String topic, PagamentoStatusAtualizacao atualizacao) {
+        if (!binario) {
+            return json.serialize(topic, atualizacao);
+        }
+        return serializarBinario(atualizacao);
+    }
+
+    @Override
+    public byte[] serialize(String topic, Headers headers, PagamentoStatusAtualizacao atualizacao) {
+        if (!binario) {
+            return json.serialize(topic, headers, atualizacao);
+        }
+        return serializarBinario(atualizacao);
+    }
+
+    @Override
+    public void close() {
+        json.close();
+    }
+
+    static byte[] serializarBinario(PagamentoStatusAtualizacao atualizacao) {
+        if (atualizacao == null) {
+            return null;
+        }
+        if (atualizacao.getIdPagamento() == null || atualizacao.getNovoStatus() == null) {
+            throw new SerializationException("idPagamento e novoStatus são obrigatórios na atualização de status: " + atualizacao);
+        }
+        return ByteBuffer.allocate(TAMANHO)
+                .put(VERSAO)
+                .putLong(atualizacao.getIdPagamento())
+                .put(codigo(atualizacao.getNovoStatus()))
+                .array();
+    }
+
+    // Códigos fixos, independentes da ordem das constantes do enum
+    static byte codigo(StatusPagamento status) {
+        return switch (status) {
+            case PENDENTE_PROCESSAMENTO -> 0;
+            case PROCESSADO_SUCESSO -> 1;
+            case PROCESSADO_FALHA -> 2;
+        };
+    }
+
+    static StatusPagamento status(byte codigo) {
+        return switch (codigo) {
+            case 0 -> StatusPagamento.PENDENTE_PROCESSAMENTO;
+            case 1 -> StatusPagamento.PROCESSADO_SUCESSO;
+            case 2 -> StatusPagamento.PROCESSADO_FALHA;
+            default -> throw new SerializationException("Código de status desconhecido: " + codigo);
+        };
+    }
+}
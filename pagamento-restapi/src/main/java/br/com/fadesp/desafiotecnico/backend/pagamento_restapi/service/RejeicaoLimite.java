@@ -0,0 +1,11 @@
+package br.com.fadesp.desafiotecnico.backend.pagamento_restapi.service;
+
+import java.time.Duration;
+
+public record RejeicaoLimite(String motivo, Duration espera) {
+
+    // O cabeçalho Retry-After aceita apenas segundos inteiros
+    public long retryAfterSegundos() {
+        return Math.max(1L, (espera.toMillis() + 999) / 1000);
+    }
+}
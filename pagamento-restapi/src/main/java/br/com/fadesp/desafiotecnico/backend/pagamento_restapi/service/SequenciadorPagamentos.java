@@ -0,0 +1,123 @@
+package br.com.fadesp.desafiotecnico.backend.pagamento_restapi.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+@Component
+public class SequenciadorPagamentos {
+
+    private static final int FAIXAS_POR_NUCLEO = 4;
+
+    private final boolean habilitado;
+    private final ReentrantLock[] faixas;
+    private final int mascara;
+    private final Counter diretas;
+    private final Counter enfileiradas;
+    private final Timer espera;
+
+    public SequenciadorPagamentos(@Value("${app.sequenciador.habilitado:true}") boolean habilitado,
+                                  @Value("${app.sequenciador.faixas:0}") int faixas,
+                                  MeterRegistry meterRegistry) {
+        if (faixas < 0) {
+            throw new IllegalArgumentException("A quantidade de faixas do sequenciador não pode ser negativa.");
+        }
+        int solicitadas = faixas == 0 ? FAIXAS_POR_NUCLEO * Runtime.getRuntime().availableProcessors() : faixas;
+        int quantidade = 1;
+        while (quantidade < solicitadas) {
+            quantidade <<= 1;
+        }
+        this.habilitado = habilitado;
+        this.faixas = new ReentrantLock[quantidade];
+        for (int i = 0; i < quantidade; i++) {
+            this.faixas[i] = new ReentrantLock(true);
+        }
+        this.mascara = quantidade - 1;
+
+        this.diretas = contador(meterRegistry, "direto");
+        this.enfileiradas = contador(meterRegistry, "fila");
+        this.espera = Timer.builder("pagamentos.sequenciador.espera")
+                .description("Tempo de espera pela faixa até a execução, quando outra tarefa do mesmo grupo de pagamentos está em andamento")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        Gauge.builder("pagamentos.sequenciador.pendentes", this, SequenciadorPagamentos::pendentes)
+                .description("Threads aguardando uma faixa do sequenciador de pagamentos")
+                .register(meterRegistry);
+    }
+
+    // A tarefa roda na thread de quem chama, com a faixa travada; a trava justa atende quem espera na ordem de chegada.
+    // Uma tarefa pode chamar o sequenciador de novo: se cair na mesma faixa, roda direto
+    public <T> T executar(Long idPagamento, Supplier<T> tarefa) {
+        if (!habilitado) {
+            return tarefa.get();
+        }
+        ReentrantLock faixa = faixas[indice(idPagamento)];
+        if (faixa.isHeldByCurrentThread()) {
+            return tarefa.get();
+        }
+
+        if (!faixa.hasQueuedThreads() && faixa.tryLock()) {
+            diretas.increment();
+        } else {
+            enfileiradas.increment();
+            long inicio = System.nanoTime();
+            faixa.lock();
+            espera.record(System.nanoTime() - inicio, TimeUnit.NANOSECONDS);
+        }
+        try {
+            return tarefa.get();
+        } finally {
+            faixa.unlock();
+        }
+    }
+
+    public void executar(Long idPagamento, Runnable tarefa) {
+        executar(idPagamento, () -> {
+            tarefa.run();
+            return null;
+        });
+    }
+
+    // Ids da mesma faixa podem ser agrupados numa única tarefa; desabilitado, todos caem na mesma.
+    public int faixa(Long idPagamento) {
+        return habilitado ? indice(idPagamento) : 0;
+    }
+
+    int indice(Long idPagamento) {
+        if (idPagamento == null) {
+            return 0;
+        }
+        int hash = Long.hashCode(idPagamento) * 0x9E3779B9;
+        return (hash ^ (hash >>> 16)) & mascara;
+    }
+
+    int quantidadeFaixas() {
+        return faixas.length;
+    }
+
+    boolean travadaPelaThreadAtual(Long idPagamento) {
+        return faixas[indice(idPagamento)].isHeldByCurrentThread();
+    }
+
+    int pendentes() {
+        int total = 0;
+        for (ReentrantLock faixa : faixas) {
+            total += faixa.getQueueLength();
+        }
+        return total;
+    }
+
+    private static Counter contador(MeterRegistry meterRegistry, String caminho) {
+        return Counter.builder("pagamentos.sequenciador.tarefas")
+                .description("Tarefas do sequenciador de pagamentos, executadas direto ou após esperar pela faixa")
+                .tag("caminho", caminho)
+                .register(meterRegistry);
+    }
+}
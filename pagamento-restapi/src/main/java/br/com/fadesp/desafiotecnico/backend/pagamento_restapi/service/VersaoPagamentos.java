@@ -0,0 +1,70 @@
+package br.com.fadesp.desafiotecnico.backend.pagamento_restapi.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+// A versão recomeça a cada inicialização, por isso o ETag também leva um identificador da instância
+@Component
+public class VersaoPagamentos {
+
+    private final String instancia = Long.toString(UUID.randomUUID().getMostSignificantBits() & Long.MAX_VALUE, 36);
+    private final AtomicLong versao = new AtomicLong();
+
+    // A versão só enxerga as escritas desta instância; com várias instâncias, desligue o ETag.
+    @Value("${app.listagem.etag.habilitado:true}")
+    private boolean habilitado = true;
+
+    public void incrementar() {
+        versao.incrementAndGet();
+    }
+
+    // Calculado antes da consulta: uma escrita concorrente só deixa o ETag mais antigo que a resposta
+    public String etag(Object... filtros) {
+        if (!habilitado) {
+            return null;
+        }
+        return "\"" + instancia + "-" + Long.toString(versao.get(), 36) + "-" + resumirFiltros(filtros) + "\"";
+    }
+
+    // SHA-256 dos filtros, cada um prefixado pelo tamanho para que "ab","c" e "a","bc" não se confundam
+    static String resumirFiltros(Object... filtros) {
+        StringBuilder normalizados = new StringBuilder();
+        for (Object filtro : filtros) {
+            if (filtro == null) {
+                normalizados.append('-');
+            } else {
+                String valor = filtro.toString();
+                normalizados.append(valor.length()).append(':').append(valor);
+            }
+        }
+        try {
+            byte[] resumo = MessageDigest.getInstance("SHA-256").digest(normalizados.toString().getBytes(StandardCharsets.UTF_8));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(resumo);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 indisponível", e);
+        }
+    }
+
+    public static boolean corresponde(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null || etag == null) {
+            return false;
+        }
+        for (String candidato : ifNoneMatch.split(",")) {
+            String valor = candidato.trim();
+            if (valor.startsWith("W/")) {
+                valor = valor.substring(2);
+            }
+            if (valor.equals(etag) || valor.equals("*")) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
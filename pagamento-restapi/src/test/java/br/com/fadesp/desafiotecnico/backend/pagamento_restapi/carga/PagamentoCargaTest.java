@@ -0,0 +1,345 @@
+package br.com.fadesp.desafiotecnico.backend.pagamento_restapi.carga;
+
+import br.com.fadesp.desafiotecnico.backend.pagamento_restapi.persistence.repository.PagamentoRepository;
+import br.com.fadesp.desafiotecnico.backend.pagamento_restapi.persistence.repository.ReactivePagamentoRepository;
+import br.com.fadesp.desafiotecnico.backend.pagamento_restapi.persistence.repository.ResumoPagamentoRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.mockito.stubbing.Answer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.context.annotation.Bean;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.AdditionalAnswers.delegatesTo;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.withSettings;
+
+// Fora do ./gradlew test: execute com ./gradlew testeCarga (parâmetros no README)
+@Tag("carga")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.autoconfigure.exclude="
+                + "org.springframework.boot.autoconfigure.mongo.MongoAutoConfiguration,"
+                + "org.springframework.boot.autoconfigure.data.mongo.MongoDataAutoConfiguration,"
+                + "org.springframework.boot.autoconfigure.data.mongo.MongoRepositoriesAutoConfiguration,"
+                + "org.springframework.boot.autoconfigure.mongo.MongoReactiveAutoConfiguration,"
+                + "org.springframework.boot.autoconfigure.data.mongo.MongoReactiveDataAutoConfiguration,"
+                + "org.springframework.boot.autoconfigure.data.mongo.MongoReactiveRepositoriesAutoConfiguration",
+        "spring.kafka.bootstrap-servers=${spring.embedded.kafka.brokers}",
+        "spring.kafka.producer.bootstrap-servers=${spring.embedded.kafka.brokers}",
+        "spring.kafka.consumer.bootstrap-servers=${spring.embedded.kafka.brokers}",
+        "app.limite.status.habilitado=false",
+        "logging.level.br.com.fadesp=WARN"
+})
+@EmbeddedKafka(partitions = 3, topics = "pagamento-status")
+class PagamentoCargaTest {
+
+    private static final int CLIENTES = Integer.getInteger("carga.clientes", 200);
+    private static final Duration DURACAO = Duration.ofSeconds(Long.getLong("carga.duracao-segundos", 30));
+    private static final String MIX = System.getProperty("carga.mix", "criar=25,listar=40,status=25,inativar=10");
+    private static final String VISAO = System.getProperty("carga.visao", "COMPLETA");
+    private static final Path RELATORIO = Path.of(System.getProperty("carga.relatorio", "build/reports/carga/resultado.json"));
+    private static final Duration LATENCIA_REPOSITORIO = Duration.ofNanos(Long.getLong("carga.latencia-repositorio-us", 0) * 1_000);
+    private static final Duration ESPERA_MAXIMA_CONVERGENCIA = Duration.ofSeconds(60);
+
+    private static final String CRIAR = "criar";
+    private static final String LISTAR = "listar";
+    private static final String STATUS = "status";
+    private static final String INATIVAR = "inativar";
+
+    @TestConfiguration
+    static class ConfiguracaoCarga {
+
+        @Bean
+        PagamentoRepositoryEmMemoria pagamentoRepositoryEmMemoria() {
+            return new PagamentoRepositoryEmMemoria();
+        }
+
+        @Bean
+        PagamentoRepository pagamentoRepository(PagamentoRepositoryEmMemoria emMemoria) {
+            return mock(PagamentoRepository.class, withSettings().stubOnly().defaultAnswer(comLatencia(delegatesTo(emMemoria))));
+        }
+
+        // Simula a ida ao MongoDB, que prende a thread da requisição; sem ela, os modos de thread e o cache não fazem diferença
+        private static Answer<Object> comLatencia(Answer<Object> resposta) {
+            if (LATENCIA_REPOSITORIO.isZero()) {
+                return resposta;
+            }
+            return invocacao -> {
+                Thread.sleep(LATENCIA_REPOSITORIO);
+                return resposta.answer(invocacao);
+            };
+        }
+
+        @Bean
+        ReactivePagamentoRepository reactivePagamentoRepository(PagamentoRepositoryEmMemoria emMemoria) {
+            return mock(ReactivePagamentoRepository.class,
+                    withSettings().stubOnly().defaultAnswer(delegatesTo(new PagamentoRepositoryReativoEmMemoria(emMemoria))));
+        }
+
+        @Bean
+        ResumoPagamentoRepository resumoPagamentoRepository() {
+            return mock(ResumoPagamentoRepository.class, withSettings().stubOnly());
+        }
+    }
+
+    @LocalServerPort
+    private int porta;
+
+    @Autowired
+    private PagamentoRepositoryEmMemoria repositorio;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${spring.main.web-application-type:servlet}")
+    private String modoWeb;
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean threadsVirtuais;
+
+    @Value("${app.cache.pagamentos.habilitado:true}")
+    private boolean cacheHabilitado;
+
+    private final Map<String, ConcurrentLinkedQueue<Long>> latencias = new ConcurrentHashMap<>();
+    private final Map<String, LongAdder> erros = new ConcurrentHashMap<>();
+    private final Map<Long, Long> envioStatus = new ConcurrentHashMap<>();
+
+    private HttpClient http;
+
+    @Test
+    @DisplayName("Deve sustentar a mistura de operações configurada e convergir todas as atualizações de status")
+    void executarCarga() throws Exception {
+        Map<String, Integer> mix = lerMix(MIX);
+        http = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+
+        long inicio = System.nanoTime();
+        long fim = inicio + DURACAO.toNanos();
+        try (ExecutorService clientes = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < CLIENTES; i++) {
+                int indice = i;
+                clientes.submit(() -> executarCliente(indice, mix, fim));
+            }
+        }
+        double segundos = (System.nanoTime() - inicio) / 1e9;
+
+        List<Long> convergencias = aguardarConvergencia();
+        Map<String, Object> relatorio = montarRelatorio(segundos, convergencias);
+        Files.createDirectories(RELATORIO.toAbsolutePath().getParent());
+        objectMapper.writerWithDefaultPrettyPrinter().writeValue(RELATORIO.toFile(), relatorio);
+        System.out.println(objectMapper.writerWithDefaultPrettyPrinter().writeValueAsString(relatorio));
+
+        assertEquals(0L, erros.values().stream().mapToLong(LongAdder::sum).sum(), "Requisições com erro");
+        assertEquals(envioStatus.size(), convergencias.size(), "Atualizações de status não aplicadas");
+    }
+
+    private void executarCliente(int indice, Map<String, Integer> mix, long fim) {
+        Deque<String[]> pendentes = new ArrayDeque<>();
+        long proximoIdPagamento = (indice + 1L) * 10_000_000L;
+        int pesoTotal = mix.values().stream().mapToInt(Integer::intValue).sum();
+
+        while (System.nanoTime() < fim) {
+            String operacao = sortear(mix, pesoTotal);
+            if ((STATUS.equals(operacao) || INATIVAR.equals(operacao)) && pendentes.isEmpty()) {
+                operacao = CRIAR;
+            }
+            try {
+                switch (operacao) {
+                    case CRIAR -> criar(proximoIdPagamento++, pendentes);
+                    case LISTAR -> listar();
+                    case STATUS -> atualizarStatus(pendentes.pollFirst());
+                    case INATIVAR -> inativar(pendentes.pollFirst());
+                    default -> throw new IllegalArgumentException("Operação desconhecida: " + operacao);
+                }
+            } catch (IOException e) {
+                registrarErro(operacao);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private void criar(long idPagamento, Deque<String[]> pendentes) throws IOException, InterruptedException {
+        String corpo = objectMapper.writeValueAsString(Map.of(
+                "idPagamento", idPagamento,
+                "cpfCnpj", cpf(idPagamento),
+                "metodoPagamento", "PIX",
+                "valor", "10.00"));
+        HttpResponse<String> resposta = executar(CRIAR, HttpRequest.newBuilder(uri("/pagamentos"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(corpo)), 201);
+        if (resposta != null) {
+            JsonNode pagamento = objectMapper.readTree(resposta.body());
+            pendentes.addLast(new String[]{pagamento.get("id").asText(), String.valueOf(idPagamento)});
+        }
+    }
+
+    private void listar() throws IOException, InterruptedException {
+        executar(LISTAR, HttpRequest.newBuilder(uri("/pagamentos/lista?limite=50&visao=" + VISAO)).GET(), 200);
+    }
+
+    private void atualizarStatus(String[] pendente) throws IOException, InterruptedException {
+        long idPagamento = Long.parseLong(pendente[1]);
+        String corpo = objectMapper.writeValueAsString(Map.of("idPagamento", idPagamento, "novoStatus", "PROCESSADO_SUCESSO"));
+        long inicio = System.nanoTime();
+        HttpResponse<String> resposta = executar(STATUS, HttpRequest.newBuilder(uri("/pagamentos/status"))
+                .header("Content-Type", "application/json")
+                .PUT(HttpRequest.BodyPublishers.ofString(corpo)), 202);
+        if (resposta != null) {
+            envioStatus.put(idPagamento, inicio);
+        }
+    }
+
+    private void inativar(String[] pendente) throws IOException, InterruptedException {
+        executar(INATIVAR, HttpRequest.newBuilder(uri("/pagamentos/" + pendente[0])).DELETE(), 200);
+    }
+
+    private HttpResponse<String> executar(String operacao, HttpRequest.Builder requisicao, int statusEsperado) throws IOException, InterruptedException {
+        long inicio = System.nanoTime();
+        HttpResponse<String> resposta = http.send(requisicao.build(), HttpResponse.BodyHandlers.ofString());
+        latencias.computeIfAbsent(operacao, chave -> new ConcurrentLinkedQueue<>()).add(System.nanoTime() - inicio);
+        if (resposta.statusCode() != statusEsperado) {
+            registrarErro(operacao);
+            return null;
+        }
+        return resposta;
+    }
+
+    private List<Long> aguardarConvergencia() throws InterruptedException {
+        long limite = System.nanoTime() + ESPERA_MAXIMA_CONVERGENCIA.toNanos();
+        List<Long> convergencias = new ArrayList<>();
+        while (true) {
+            convergencias.clear();
+            envioStatus.forEach((idPagamento, enviadoEm) -> repositorio.instanteAtualizacaoStatus(idPagamento)
+                    .ifPresent(aplicadoEm -> convergencias.add(aplicadoEm - enviadoEm)));
+            if (convergencias.size() == envioStatus.size() || System.nanoTime() > limite) {
+                return convergencias;
+            }
+            Thread.sleep(100);
+        }
+    }
+
+    private Map<String, Object> montarRelatorio(double segundos, List<Long> convergencias) {
+        Map<String, Object> relatorio = new LinkedHashMap<>();
+        relatorio.put("modo", modoWeb);
+        relatorio.put("threadsVirtuais", threadsVirtuais);
+        relatorio.put("cacheHabilitado", cacheHabilitado);
+        relatorio.put("latenciaRepositorioUs", LATENCIA_REPOSITORIO.toNanos() / 1_000);
+        relatorio.put("nucleos", Runtime.getRuntime().availableProcessors());
+        relatorio.put("clientes", CLIENTES);
+        relatorio.put("duracaoSegundos", segundos);
+        relatorio.put("mix", MIX);
+        relatorio.put("visao", VISAO);
+        relatorio.put("pagamentosArmazenados", repositorio.quantidade());
+
+        Map<String, Object> operacoes = new LinkedHashMap<>();
+        latencias.forEach((operacao, amostras) -> {
+            long[] valores = amostras.stream().mapToLong(Long::longValue).toArray();
+            Map<String, Object> resumo = resumirLatencias(valores);
+            resumo.put("requisicoesPorSegundo", valores.length / segundos);
+            resumo.put("erros", erros.getOrDefault(operacao, new LongAdder()).sum());
+            operacoes.put(operacao, resumo);
+        });
+        relatorio.put("operacoes", operacoes);
+
+        Map<String, Object> convergencia = resumirLatencias(convergencias.stream().mapToLong(Long::longValue).toArray());
+        convergencia.put("enviadas", envioStatus.size());
+        relatorio.put("convergenciaStatus", convergencia);
+        return relatorio;
+    }
+
+    private static Map<String, Object> resumirLatencias(long[] nanos) {
+        Arrays.sort(nanos);
+        Map<String, Object> resumo = new LinkedHashMap<>();
+        resumo.put("amostras", nanos.length);
+        resumo.put("p50Ms", percentil(nanos, 0.50));
+        resumo.put("p95Ms", percentil(nanos, 0.95));
+        resumo.put("p99Ms", percentil(nanos, 0.99));
+        resumo.put("maxMs", percentil(nanos, 1.0));
+        return resumo;
+    }
+
+    private static double percentil(long[] ordenados, double percentil) {
+        if (ordenados.length == 0) {
+            return 0;
+        }
+        int indice = (int) Math.ceil(percentil * ordenados.length) - 1;
+        return ordenados[Math.max(indice, 0)] / 1e6;
+    }
+
+    // CPF com dígitos verificadores válidos derivado do idPagamento; a base começa em 1 para nunca ser só zeros
+    private static String cpf(long idPagamento) {
+        String base = String.valueOf(100_000_000L + idPagamento % 800_000_000L);
+        int soma1 = 0;
+        int soma2 = 0;
+        for (int i = 0; i < 9; i++) {
+            soma1 += (base.charAt(i) - '0') * (10 - i);
+            soma2 += (base.charAt(i) - '0') * (11 - i);
+        }
+        int verificador1 = soma1 % 11 < 2 ? 0 : 11 - soma1 % 11;
+        soma2 += verificador1 * 2;
+        int verificador2 = soma2 % 11 < 2 ? 0 : 11 - soma2 % 11;
+        return base + verificador1 + verificador2;
+    }
+
+    private static Map<String, Integer> lerMix(String mix) {
+        Map<String, Integer> pesos = new LinkedHashMap<>();
+        for (String parte : mix.split(",")) {
+            String[] chaveValor = parte.trim().split("=");
+            pesos.put(chaveValor[0].trim(), Integer.parseInt(chaveValor[1].trim()));
+        }
+        return pesos;
+    }
+
+    private static String sortear(Map<String, Integer> mix, int pesoTotal) {
+        int sorteio = ThreadLocalRandom.current().nextInt(pesoTotal);
+        for (Map.Entry<String, Integer> entrada : mix.entrySet()) {
+            sorteio -= entrada.getValue();
+            if (sorteio < 0) {
+                return entrada.getKey();
+            }
+        }
+        throw new IllegalStateException("Mix vazio");
+    }
+
+    private void registrarErro(String operacao) {
+        erros.computeIfAbsent(operacao, chave -> new LongAdder()).increment();
+    }
+
+    private URI uri(String caminho) {
+        return URI.create("http://localhost:" + porta + caminho);
+    }
+}
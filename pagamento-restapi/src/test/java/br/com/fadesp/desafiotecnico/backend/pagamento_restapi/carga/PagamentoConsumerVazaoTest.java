@@ -0,0 +1,327 @@
+package br.com.fadesp.desafiotecnico.backend.pagamento_restapi.carga;
+
+import br.com.fadesp.desafiotecnico.backend.pagamento_restapi.persistence.model.MetodoPagamento;
+import br.com.fadesp.desafiotecnico.backend.pagamento_restapi.persistence.model.PagamentoStatusAtualizacao;
+import br.com.fadesp.desafiotecnico.backend.pagamento_restapi.persistence.model.StatusPagamento;
+import br.com.fadesp.desafiotecnico.backend.pagamento_restapi.persistence.model.TransicaoStatus;
+import br.com.fadesp.desafiotecnico.backend.pagamento_restapi.persistence.model.entity.Pagamento;
+import br.com.fadesp.desafiotecnico.backend.pagamento_restapi.persistence.repository.PagamentoRepository;
+import br.com.fadesp.desafiotecnico.backend.pagamento_restapi.persistence.repository.ResumoPagamentoRepository;
+import br.com.fadesp.desafiotecnico.backend.pagamento_restapi.service.PagamentoProducer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.listener.ConcurrentMessageListenerContainer;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.AdditionalAnswers.delegatesTo;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.withSettings;
+
+// Cada pagamento recebe FALHA → PENDENTE → SUCESSO, que só termina em SUCESSO se a ordem de envio for mantida
+@Tag("carga")
+@SpringBootTest(properties = {
+        "spring.autoconfigure.exclude="
+                + "org.springframework.boot.autoconfigure.mongo.MongoAutoConfiguration,"
+                + "org.springframework.boot.autoconfigure.data.mongo.MongoDataAutoConfiguration,"
+                + "org.springframework.boot.autoconfigure.data.mongo.MongoRepositoriesAutoConfiguration,"
+                + "org.springframework.boot.autoconfigure.mongo.MongoReactiveAutoConfiguration,"
+                + "org.springframework.boot.autoconfigure.data.mongo.MongoReactiveDataAutoConfiguration,"
+                + "org.springframework.boot.autoconfigure.data.mongo.MongoReactiveRepositoriesAutoConfiguration",
+        "spring.kafka.bootstrap-servers=${spring.embedded.kafka.brokers}",
+        "spring.kafka.producer.bootstrap-servers=${spring.embedded.kafka.brokers}",
+        "spring.kafka.consumer.bootstrap-servers=${spring.embedded.kafka.brokers}",
+        "app.kafka.topicos.particoes=${carga.vazao.particoes:8}",
+        "app.arquivamento.habilitado=false",
+        "logging.level.br.com.fadesp=WARN"
+})
+@EmbeddedKafka(topics = "pagamento-status")
+class PagamentoConsumerVazaoTest {
+
+    private static final List<Integer> CONCORRENCIAS = Arrays.stream(System.getProperty("carga.vazao.concorrencias", "1,2,4,8").split(","))
+            .map(String::trim).map(Integer::valueOf).toList();
+    private static final int PAGAMENTOS = Integer.getInteger("carga.vazao.pagamentos", 1000);
+    private static final long LATENCIA_MICROS = Long.getLong("carga.vazao.latencia-us", 1000);
+    private static final Path RELATORIO = Path.of(System.getProperty("carga.vazao.relatorio", "build/reports/carga/vazao-consumidor.json"));
+    private static final Path RELATORIO_LOTE = Path.of(System.getProperty("carga.vazao.relatorio-lote", "build/reports/carga/vazao-lote.json"));
+    private static final int CONCORRENCIA_LOTE = Integer.getInteger("carga.vazao.concorrencia-lote", 4);
+    private static final Duration ESPERA_MAXIMA = Duration.ofMinutes(5);
+    private static final List<StatusPagamento> SEQUENCIA = List.of(
+            StatusPagamento.PROCESSADO_FALHA, StatusPagamento.PENDENTE_PROCESSAMENTO, StatusPagamento.PROCESSADO_SUCESSO);
+
+    @TestConfiguration
+    static class ConfiguracaoVazao {
+
+        @Bean
+        PagamentoRepositoryEmMemoria pagamentoRepositoryEmMemoria() {
+            return new PagamentoRepositoryEmMemoria();
+        }
+
+        @Bean
+        PagamentoRepositoryComLatencia pagamentoRepositoryComLatencia(PagamentoRepositoryEmMemoria emMemoria) {
+            return new PagamentoRepositoryComLatencia(emMemoria, TimeUnit.MICROSECONDS.toNanos(LATENCIA_MICROS));
+        }
+
+        @Bean
+        PagamentoRepository pagamentoRepository(PagamentoRepositoryComLatencia comLatencia) {
+            return mock(PagamentoRepository.class, withSettings().stubOnly().defaultAnswer(delegatesTo(comLatencia)));
+        }
+
+        @Bean
+        ResumoPagamentoRepository resumoPagamentoRepository() {
+            return mock(ResumoPagamentoRepository.class, withSettings().stubOnly());
+        }
+    }
+
+    @Autowired
+    private PagamentoRepositoryEmMemoria repositorio;
+
+    @Autowired
+    private PagamentoRepositoryComLatencia repositorioComLatencia;
+
+    @Autowired
+    private PagamentoProducer pagamentoProducer;
+
+    @Autowired
+    private KafkaListenerEndpointRegistry registroListeners;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${app.kafka.topicos.particoes}")
+    private int particoes;
+
+    @Test
+    @DisplayName("Deve escalar a vazão do consumidor com a concorrência, preservando a ordem por pagamento")
+    void medirVazaoPorConcorrencia() throws Exception {
+        ConcurrentMessageListenerContainer<?, ?> container =
+                (ConcurrentMessageListenerContainer<?, ?>) registroListeners.getListenerContainer("pagamentoStatusListener");
+        List<Map<String, Object>> execucoes = new ArrayList<>();
+        long primeiroId = 1;
+
+        for (int concorrencia : CONCORRENCIAS) {
+            execucoes.add(medir(container, concorrencia, primeiroId));
+            primeiroId += PAGAMENTOS;
+        }
+        container.stop();
+
+        gravarRelatorio(RELATORIO, execucoes);
+
+        for (Map<String, Object> execucao : execucoes) {
+            assertEquals(0L, execucao.get("transicoesRejeitadas"), "Atualizações aplicadas fora de ordem: " + execucao);
+        }
+        Map<String, Object> base = execucoes.get(0);
+        Map<String, Object> maior = execucoes.get(execucoes.size() - 1);
+        int paralelismoEfetivo = Math.min((int) maior.get("concorrencia"), particoes);
+        if ((int) base.get("concorrencia") == 1 && paralelismoEfetivo >= 4 && LATENCIA_MICROS > 0) {
+            assertTrue((long) maior.get("mensagensPorSegundo") > 1.5 * (long) base.get("mensagensPorSegundo"),
+                    "A vazão não escalou com a concorrência: " + execucoes);
+        }
+    }
+
+    @Test
+    @DisplayName("Deve comparar a vazão do listener em lote com a do listener unitário na mesma concorrência")
+    void medirVazaoLoteContraUnitario() throws Exception {
+        ConcurrentMessageListenerContainer<?, ?> unitario =
+                (ConcurrentMessageListenerContainer<?, ?>) registroListeners.getListenerContainer("pagamentoStatusListener");
+        ConcurrentMessageListenerContainer<?, ?> lote =
+                (ConcurrentMessageListenerContainer<?, ?>) registroListeners.getListenerContainer("pagamentoStatusLoteListener");
+        // Faixa de ids própria, para não colidir com o outro teste no mesmo contexto
+        long primeiroId = 1_000_000;
+
+        Map<String, Object> execucaoUnitario = medir(unitario, CONCORRENCIA_LOTE, primeiroId);
+        execucaoUnitario.put("listener", "unitario");
+        unitario.stop();
+        Map<String, Object> execucaoLote = medir(lote, CONCORRENCIA_LOTE, primeiroId + PAGAMENTOS);
+        execucaoLote.put("listener", "lote");
+        lote.stop();
+
+        List<Map<String, Object>> execucoes = List.of(execucaoUnitario, execucaoLote);
+        gravarRelatorio(RELATORIO_LOTE, execucoes);
+
+        for (Map<String, Object> execucao : execucoes) {
+            assertEquals(0L, execucao.get("transicoesRejeitadas"), "Atualizações aplicadas fora de ordem: " + execucao);
+        }
+    }
+
+    // Semeia e publica com o container parado, para que a medição comece com o tópico cheio
+    private Map<String, Object> medir(ConcurrentMessageListenerContainer<?, ?> container, int concorrencia, long primeiroId) throws Exception {
+        container.stop();
+        semear(primeiroId);
+        enviarSequencias(primeiroId);
+
+        double rejeitadasAntes = transicoesRejeitadas();
+        repositorioComLatencia.reiniciarMedicao();
+        container.setConcurrency(concorrencia);
+        container.start();
+
+        long fim = aguardarConclusao(primeiroId);
+        double segundos = (fim - repositorioComLatencia.primeiraChamada()) / 1e9;
+        int mensagens = PAGAMENTOS * SEQUENCIA.size();
+
+        Map<String, Object> execucao = new LinkedHashMap<>();
+        execucao.put("concorrencia", concorrencia);
+        execucao.put("mensagens", mensagens);
+        execucao.put("segundos", Math.round(segundos * 1000) / 1000.0);
+        execucao.put("mensagensPorSegundo", Math.round(mensagens / segundos));
+        execucao.put("chamadasRepositorio", repositorioComLatencia.chamadas());
+        execucao.put("transicoesRejeitadas", (long) (transicoesRejeitadas() - rejeitadasAntes));
+        return execucao;
+    }
+
+    private void gravarRelatorio(Path destino, List<Map<String, Object>> execucoes) throws Exception {
+        Map<String, Object> relatorio = new LinkedHashMap<>();
+        relatorio.put("nucleos", Runtime.getRuntime().availableProcessors());
+        relatorio.put("particoes", particoes);
+        relatorio.put("pagamentosPorExecucao", PAGAMENTOS);
+        relatorio.put("latenciaRepositorioMicros", LATENCIA_MICROS);
+        relatorio.put("execucoes", execucoes);
+        Files.createDirectories(destino.toAbsolutePath().getParent());
+        objectMapper.writerWithDefaultPrettyPrinter().writeValue(destino.toFile(), relatorio);
+        System.out.println(objectMapper.writerWithDefaultPrettyPrinter().writeValueAsString(relatorio));
+    }
+
+    private void semear(long primeiroId) {
+        for (long id = primeiroId; id < primeiroId + PAGAMENTOS; id++) {
+            Pagamento pagamento = new Pagamento();
+            pagamento.setIdPagamento(id);
+            pagamento.setCpfCnpj("12345678901");
+            pagamento.setMetodoPagamento(MetodoPagamento.PIX);
+            pagamento.setValor(BigDecimal.TEN);
+            pagamento.setStatus(StatusPagamento.PENDENTE_PROCESSAMENTO);
+            repositorio.save(pagamento);
+        }
+    }
+
+    private void enviarSequencias(long primeiroId) throws Exception {
+        List<CompletableFuture<?>> confirmacoes = new ArrayList<>();
+        for (StatusPagamento novoStatus : SEQUENCIA) {
+            for (long id = primeiroId; id < primeiroId + PAGAMENTOS; id++) {
+                PagamentoStatusAtualizacao atualizacao = new PagamentoStatusAtualizacao();
+                atualizacao.setIdPagamento(id);
+                atualizacao.setNovoStatus(novoStatus);
+                confirmacoes.add(pagamentoProducer.enviarMensagem(atualizacao).confirmacao());
+            }
+        }
+        CompletableFuture.allOf(confirmacoes.toArray(CompletableFuture[]::new)).get(1, TimeUnit.MINUTES);
+    }
+
+    private long aguardarConclusao(long primeiroId) throws InterruptedException {
+        long limite = System.nanoTime() + ESPERA_MAXIMA.toNanos();
+        long id = primeiroId;
+        while (id < primeiroId + PAGAMENTOS) {
+            Optional<Pagamento> pagamento = repositorio.findByIdPagamentoAndAtivoIsTrue(id);
+            if (pagamento.isPresent() && pagamento.get().getStatus() == StatusPagamento.PROCESSADO_SUCESSO) {
+                id++;
+                continue;
+            }
+            if (System.nanoTime() > limite) {
+                throw new AssertionError("Pagamento " + id + " não chegou a PROCESSADO_SUCESSO: " + pagamento.map(Pagamento::getStatus).orElse(null));
+            }
+            Thread.sleep(5);
+        }
+
+        long ultimaEscrita = 0;
+        for (long atual = primeiroId; atual < primeiroId + PAGAMENTOS; atual++) {
+            ultimaEscrita = Math.max(ultimaEscrita, repositorio.instanteAtualizacaoStatus(atual).orElse(0L));
+        }
+        return ultimaEscrita;
+    }
+
+    private double transicoesRejeitadas() {
+        return meterRegistry.find("pagamentos.transicoes.rejeitadas").counters().stream().mapToDouble(Counter::count).sum();
+    }
+
+    // A latência simulada fica fora da trava do repositório em memória
+    static class PagamentoRepositoryComLatencia {
+
+        private final PagamentoRepositoryEmMemoria emMemoria;
+        private final long latenciaNanos;
+        private final AtomicLong primeiraChamada = new AtomicLong();
+        private final AtomicLong chamadas = new AtomicLong();
+
+        PagamentoRepositoryComLatencia(PagamentoRepositoryEmMemoria emMemoria, long latenciaNanos) {
+            this.emMemoria = emMemoria;
+            this.latenciaNanos = latenciaNanos;
+        }
+
+        public Optional<Pagamento> atualizarStatusSePermitido(Long idPagamento, Collection<StatusPagamento> statusPermitidos, StatusPagamento novoStatus) {
+            aguardarLatencia();
+            return emMemoria.atualizarStatusSePermitido(idPagamento, statusPermitidos, novoStatus);
+        }
+
+        public Optional<Pagamento> findByIdPagamentoAndAtivoIsTrue(Long idPagamento) {
+            aguardarLatencia();
+            return emMemoria.findByIdPagamentoAndAtivoIsTrue(idPagamento);
+        }
+
+        public List<Pagamento> findByIdPagamentoInAndAtivoIsTrue(Collection<Long> idsPagamento) {
+            aguardarLatencia();
+            return emMemoria.findByIdPagamentoInAndAtivoIsTrue(idsPagamento);
+        }
+
+        public int atualizarStatusEmLote(List<TransicaoStatus> transicoes) {
+            aguardarLatencia();
+            return emMemoria.atualizarStatusEmLote(transicoes);
+        }
+
+        public long estimarQuantidade() {
+            return emMemoria.estimarQuantidade();
+        }
+
+        public long estimarQuantidadeArquivada() {
+            return emMemoria.estimarQuantidadeArquivada();
+        }
+
+        void reiniciarMedicao() {
+            primeiraChamada.set(0);
+            chamadas.set(0);
+        }
+
+        long chamadas() {
+            return chamadas.get();
+        }
+
+        long primeiraChamada() {
+            return primeiraChamada.get();
+        }
+
+        private void aguardarLatencia() {
+            primeiraChamada.compareAndSet(0, System.nanoTime());
+            chamadas.incrementAndGet();
+            if (latenciaNanos > 0) {
+                LockSupport.parkNanos(latenciaNanos);
+            }
+        }
+    }
+}
@@ -0,0 +1,240 @@
+package br.com.fadesp.desafiotecnico.backend.pagamento_restapi.carga;
+
+import br.com.fadesp.desafiotecnico.backend.pagamento_restapi.persistence.model.PagamentoResumido;
+import br.com.fadesp.desafiotecnico.backend.pagamento_restapi.persistence.model.StatusPagamento;
+import br.com.fadesp.desafiotecnico.backend.pagamento_restapi.persistence.model.TransicaoStatus;
+import br.com.fadesp.desafiotecnico.backend.pagamento_restapi.persistence.model.entity.Pagamento;
+import org.bson.types.ObjectId;
+import org.springframework.dao.DuplicateKeyException;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.stream.Stream;
+
+// Mesma semântica condicional do PagamentoRepositoryImpl; os documentos guardados nunca são alterados, só substituídos
+class PagamentoRepositoryEmMemoria {
+
+    private final ConcurrentSkipListMap<String, Pagamento> pagamentos = new ConcurrentSkipListMap<>();
+    private final ConcurrentSkipListMap<String, Pagamento> arquivados = new ConcurrentSkipListMap<>();
+    private final ConcurrentHashMap<Long, String> idsPorIdPagamento = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Long, Long> instantesAtualizacaoStatus = new ConcurrentHashMap<>();
+
+    // Assinatura genérica como a de CrudRepository.save, para que a delegação do Mockito encontre o método.
+    @SuppressWarnings("unchecked")
+    public synchronized <S> S save(S entidade) {
+        Pagamento copia = copiar((Pagamento) entidade);
+        if (copia.getId() == null) {
+            copia.setId(new ObjectId().toHexString());
+        }
+        String existente = idsPorIdPagamento.putIfAbsent(copia.getIdPagamento(), copia.getId());
+        if (existente != null && !existente.equals(copia.getId())) {
+            throw new DuplicateKeyException("idPagamento duplicado: " + copia.getIdPagamento());
+        }
+        pagamentos.put(copia.getId(), copia);
+        return (S) copiar(copia);
+    }
+
+    public Optional<Pagamento> findByIdPagamentoAndAtivoIsTrue(Long idPagamento) {
+        return buscarPorIdPagamento(idPagamento).filter(Pagamento::isAtivo).map(PagamentoRepositoryEmMemoria::copiar);
+    }
+
+    public List<Pagamento> findByIdPagamentoInAndAtivoIsTrue(Collection<Long> idsPagamento) {
+        List<Pagamento> encontrados = new ArrayList<>();
+        for (Long idPagamento : idsPagamento) {
+            findByIdPagamentoAndAtivoIsTrue(idPagamento).ifPresent(encontrados::add);
+        }
+        return encontrados;
+    }
+
+    public List<Pagamento> findWithFilters(Long idPagamento, String cpfCnpj, StatusPagamento status, String aposId, int limite) {
+        return buscar(pagamentos, idPagamento, cpfCnpj, status, aposId, limite);
+    }
+
+    public List<PagamentoResumido> findResumidosWithFilters(Long idPagamento, String cpfCnpj, StatusPagamento status, String aposId, int limite) {
+        return resumir(buscar(pagamentos, idPagamento, cpfCnpj, status, aposId, limite));
+    }
+
+    public long countWithFilters(Long idPagamento, String cpfCnpj, StatusPagamento status, long limiteContagem) {
+        return contar(pagamentos, idPagamento, cpfCnpj, status, limiteContagem);
+    }
+
+    public Stream<Pagamento> streamWithFilters(Long idPagamento, String cpfCnpj, StatusPagamento status, int tamanhoLoteCursor) {
+        return percorrer(pagamentos, idPagamento, cpfCnpj, status);
+    }
+
+    public List<Pagamento> findArquivadosWithFilters(Long idPagamento, String cpfCnpj, StatusPagamento status, String aposId, int limite) {
+        return buscar(arquivados, idPagamento, cpfCnpj, status, aposId, limite);
+    }
+
+    public List<PagamentoResumido> findResumidosArquivadosWithFilters(Long idPagamento, String cpfCnpj, StatusPagamento status, String aposId, int limite) {
+        return resumir(buscar(arquivados, idPagamento, cpfCnpj, status, aposId, limite));
+    }
+
+    public long countArquivadosWithFilters(Long idPagamento, String cpfCnpj, StatusPagamento status, long limiteContagem) {
+        return contar(arquivados, idPagamento, cpfCnpj, status, limiteContagem);
+    }
+
+    public Stream<Pagamento> streamArquivadosWithFilters(Long idPagamento, String cpfCnpj, StatusPagamento status, int tamanhoLoteCursor) {
+        return percorrer(arquivados, idPagamento, cpfCnpj, status);
+    }
+
+    public synchronized int arquivarFinalizados(Instant criadosAntesDe, int tamanhoLote) {
+        List<Pagamento> finalizados = pagamentos.values().stream()
+                .filter(pagamento -> new ObjectId(pagamento.getId()).getDate().toInstant().isBefore(criadosAntesDe))
+                .filter(pagamento -> !pagamento.isAtivo() || pagamento.getStatus() == StatusPagamento.PROCESSADO_SUCESSO)
+                .limit(tamanhoLote)
+                .toList();
+        for (Pagamento pagamento : finalizados) {
+            arquivados.put(pagamento.getId(), pagamento);
+            pagamentos.remove(pagamento.getId());
+            idsPorIdPagamento.remove(pagamento.getIdPagamento(), pagamento.getId());
+        }
+        return finalizados.size();
+    }
+
+    public void criarIndicesArquivo() {
+    }
+
+    public long estimarQuantidade() {
+        return pagamentos.size();
+    }
+
+    public long estimarQuantidadeArquivada() {
+        return arquivados.size();
+    }
+
+    public synchronized int atualizarStatusEmLote(List<TransicaoStatus> transicoes) {
+        int atualizados = 0;
+        for (TransicaoStatus transicao : transicoes) {
+            Optional<Pagamento> pagamento = buscarPorIdPagamento(transicao.getIdPagamento())
+                    .filter(Pagamento::isAtivo)
+                    .filter(atual -> atual.getStatus() == transicao.getStatusAnterior());
+            if (pagamento.isPresent()) {
+                gravarStatus(pagamento.get(), transicao.getNovoStatus());
+                atualizados++;
+            }
+        }
+        return atualizados;
+    }
+
+    public synchronized Optional<Pagamento> atualizarStatusSePermitido(Long idPagamento, Collection<StatusPagamento> statusPermitidos, StatusPagamento novoStatus) {
+        Optional<Pagamento> pagamento = buscarPorIdPagamento(idPagamento)
+                .filter(Pagamento::isAtivo)
+                .filter(atual -> statusPermitidos.contains(atual.getStatus()));
+        pagamento.ifPresent(atual -> gravarStatus(atual, novoStatus));
+        return pagamento.map(PagamentoRepositoryEmMemoria::copiar);
+    }
+
+    public Optional<Long> buscarIdPagamento(String id) {
+        return Optional.ofNullable(pagamentos.get(id)).filter(Pagamento::isAtivo).map(Pagamento::getIdPagamento);
+    }
+
+    public synchronized Optional<Pagamento> inativarSePendente(String id) {
+        Pagamento atual = pagamentos.get(id);
+        if (atual == null || !atual.isAtivo() || atual.getStatus() != StatusPagamento.PENDENTE_PROCESSAMENTO) {
+            return Optional.empty();
+        }
+        Pagamento inativado = copiar(atual);
+        inativado.setAtivo(false);
+        pagamentos.put(id, inativado);
+        return Optional.of(copiar(inativado));
+    }
+
+    public synchronized Map<Integer, String> inserirEmLote(List<Pagamento> lote) {
+        Map<Integer, String> erros = new HashMap<>();
+        for (int i = 0; i < lote.size(); i++) {
+            try {
+                Pagamento inserido = save(lote.get(i));
+                lote.get(i).setId(inserido.getId());
+            } catch (DuplicateKeyException e) {
+                erros.put(i, e.getMessage());
+            }
+        }
+        return erros;
+    }
+
+    Optional<Long> instanteAtualizacaoStatus(Long idPagamento) {
+        return Optional.ofNullable(instantesAtualizacaoStatus.get(idPagamento));
+    }
+
+    long quantidade() {
+        return pagamentos.size();
+    }
+
+    private Optional<Pagamento> buscarPorIdPagamento(Long idPagamento) {
+        return Optional.ofNullable(idsPorIdPagamento.get(idPagamento)).map(pagamentos::get);
+    }
+
+    private void gravarStatus(Pagamento atual, StatusPagamento novoStatus) {
+        Pagamento atualizado = copiar(atual);
+        atualizado.setStatus(novoStatus);
+        pagamentos.put(atualizado.getId(), atualizado);
+        instantesAtualizacaoStatus.put(atualizado.getIdPagamento(), System.nanoTime());
+    }
+
+    private static List<Pagamento> buscar(NavigableMap<String, Pagamento> colecao, Long idPagamento, String cpfCnpj,
+                                          StatusPagamento status, String aposId, int limite) {
+        NavigableMap<String, Pagamento> intervalo = aposId == null ? colecao : colecao.tailMap(aposId, false);
+        return intervalo.values().stream()
+                .filter(pagamento -> atendeFiltros(pagamento, idPagamento, cpfCnpj, status))
+                .limit(limite)
+                .map(PagamentoRepositoryEmMemoria::copiar)
+                .toList();
+    }
+
+    private static List<PagamentoResumido> resumir(List<Pagamento> pagamentos) {
+        return pagamentos.stream()
+                .map(pagamento -> new PagamentoResumido(pagamento.getId(), pagamento.getIdPagamento(), pagamento.getCpfCnpj(),
+                        pagamento.getMetodoPagamento(), pagamento.getValor(), pagamento.getStatus()))
+                .toList();
+    }
+
+    private static long contar(NavigableMap<String, Pagamento> colecao, Long idPagamento, String cpfCnpj, StatusPagamento status,
+                               long limiteContagem) {
+        return colecao.values().stream()
+                .filter(pagamento -> atendeFiltros(pagamento, idPagamento, cpfCnpj, status))
+                .limit(limiteContagem)
+                .count();
+    }
+
+    private static Stream<Pagamento> percorrer(NavigableMap<String, Pagamento> colecao, Long idPagamento, String cpfCnpj,
+                                               StatusPagamento status) {
+        return colecao.values().stream()
+                .filter(pagamento -> atendeFiltros(pagamento, idPagamento, cpfCnpj, status))
+                .map(PagamentoRepositoryEmMemoria::copiar);
+    }
+
+    private static boolean atendeFiltros(Pagamento pagamento, Long idPagamento, String cpfCnpj, StatusPagamento status) {
+        if (!pagamento.isAtivo() || (status != null && pagamento.getStatus() != status)) {
+            return false;
+        }
+        boolean filtraId = idPagamento != null;
+        boolean filtraCpfCnpj = cpfCnpj != null && !cpfCnpj.isEmpty();
+        if (!filtraId && !filtraCpfCnpj) {
+            return true;
+        }
+        return (filtraId && idPagamento.equals(pagamento.getIdPagamento()))
+                || (filtraCpfCnpj && pagamento.getCpfCnpj() != null && pagamento.getCpfCnpj().startsWith(cpfCnpj));
+    }
+
+    private static Pagamento copiar(Pagamento origem) {
+        Pagamento copia = new Pagamento();
+        copia.setId(origem.getId());
+        copia.setIdPagamento(origem.getIdPagamento());
+        copia.setCpfCnpj(origem.getCpfCnpj());
+        copia.setMetodoPagamento(origem.getMetodoPagamento());
+        copia.setNumeroCartao(origem.getNumeroCartao());
+        copia.setValor(origem.getValor());
+        copia.setStatus(origem.getStatus());
+        copia.setAtivo(origem.isAtivo());
+        return copia;
+    }
+}
@@ -0,0 +1,77 @@
+package br.com.fadesp.desafiotecnico.backend.pagamento_restapi.carga;
+
+import br.com.fadesp.desafiotecnico.backend.pagamento_restapi.persistence.model.PagamentoResumido;
+import br.com.fadesp.desafiotecnico.backend.pagamento_restapi.persistence.model.StatusPagamento;
+import br.com.fadesp.desafiotecnico.backend.pagamento_restapi.persistence.model.entity.Pagamento;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+// Expõe o PagamentoRepositoryEmMemoria no formato reativo, para comparar os dois modos sobre o mesmo armazenamento
+class PagamentoRepositoryReativoEmMemoria {
+
+    private final PagamentoRepositoryEmMemoria emMemoria;
+
+    PagamentoRepositoryReativoEmMemoria(PagamentoRepositoryEmMemoria emMemoria) {
+        this.emMemoria = emMemoria;
+    }
+
+    public <S> Mono<S> save(S pagamento) {
+        return Mono.fromCallable(() -> emMemoria.save(pagamento));
+    }
+
+    public Mono<Pagamento> findByIdPagamentoAndAtivoIsTrue(Long idPagamento) {
+        return Mono.fromCallable(() -> emMemoria.findByIdPagamentoAndAtivoIsTrue(idPagamento).orElse(null));
+    }
+
+    public Flux<Pagamento> findByIdPagamentoInAndAtivoIsTrue(Collection<Long> idsPagamento) {
+        return Flux.defer(() -> Flux.fromIterable(emMemoria.findByIdPagamentoInAndAtivoIsTrue(idsPagamento)));
+    }
+
+    public Flux<Pagamento> findWithFilters(Long idPagamento, String cpfCnpj, StatusPagamento status, String aposId, int limite) {
+        return Flux.defer(() -> Flux.fromIterable(emMemoria.findWithFilters(idPagamento, cpfCnpj, status, aposId, limite)));
+    }
+
+    public Flux<PagamentoResumido> findResumidosWithFilters(Long idPagamento, String cpfCnpj, StatusPagamento status, String aposId, int limite) {
+        return Flux.defer(() -> Flux.fromIterable(emMemoria.findResumidosWithFilters(idPagamento, cpfCnpj, status, aposId, limite)));
+    }
+
+    public Mono<Long> countWithFilters(Long idPagamento, String cpfCnpj, StatusPagamento status, long limiteContagem) {
+        return Mono.fromCallable(() -> emMemoria.countWithFilters(idPagamento, cpfCnpj, status, limiteContagem));
+    }
+
+    public Flux<Pagamento> streamWithFilters(Long idPagamento, String cpfCnpj, StatusPagamento status, int tamanhoLoteCursor) {
+        return Flux.defer(() -> Flux.fromStream(emMemoria.streamWithFilters(idPagamento, cpfCnpj, status, tamanhoLoteCursor)));
+    }
+
+    public Flux<Pagamento> findArquivadosWithFilters(Long idPagamento, String cpfCnpj, StatusPagamento status, String aposId, int limite) {
+        return Flux.defer(() -> Flux.fromIterable(emMemoria.findArquivadosWithFilters(idPagamento, cpfCnpj, status, aposId, limite)));
+    }
+
+    public Flux<PagamentoResumido> findResumidosArquivadosWithFilters(Long idPagamento, String cpfCnpj, StatusPagamento status, String aposId, int limite) {
+        return Flux.defer(() -> Flux.fromIterable(emMemoria.findResumidosArquivadosWithFilters(idPagamento, cpfCnpj, status, aposId, limite)));
+    }
+
+    public Mono<Long> countArquivadosWithFilters(Long idPagamento, String cpfCnpj, StatusPagamento status, long limiteContagem) {
+        return Mono.fromCallable(() -> emMemoria.countArquivadosWithFilters(idPagamento, cpfCnpj, status, limiteContagem));
+    }
+
+    public Flux<Pagamento> streamArquivadosWithFilters(Long idPagamento, String cpfCnpj, StatusPagamento status, int tamanhoLoteCursor) {
+        return Flux.defer(() -> Flux.fromStream(emMemoria.streamArquivadosWithFilters(idPagamento, cpfCnpj, status, tamanhoLoteCursor)));
+    }
+
+    public Mono<Pagamento> atualizarStatusSePermitido(Long idPagamento, Collection<StatusPagamento> statusPermitidos, StatusPagamento novoStatus) {
+        return Mono.fromCallable(() -> emMemoria.atualizarStatusSePermitido(idPagamento, statusPermitidos, novoStatus).orElse(null));
+    }
+
+    public Mono<Pagamento> inativarSePendente(String id) {
+        return Mono.fromCallable(() -> emMemoria.inativarSePendente(id).orElse(null));
+    }
+
+    public Mono<Map<Integer, String>> inserirEmLote(List<Pagamento> pagamentos) {
+        return Mono.fromCallable(() -> emMemoria.inserirEmLote(pagamentos));
+    }
+}
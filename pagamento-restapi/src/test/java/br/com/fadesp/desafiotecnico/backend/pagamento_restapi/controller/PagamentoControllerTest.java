@@ -0,0 +1,88 @@
+package br.com.fadesp.desafiotecnico.backend.pagamento_restapi.controller;
+
+import br.com.fadesp.desafiotecnico.backend.pagamento_restapi.persistence.model.StatusPagamento;
+import br.com.fadesp.desafiotecnico.backend.pagamento_restapi.persistence.model.entity.Pagamento;
+import br.com.fadesp.desafiotecnico.backend.pagamento_restapi.service.LimitadorAtualizacaoStatus;
+import br.com.fadesp.desafiotecnico.backend.pagamento_restapi.service.PagamentoDltService;
+import br.com.fadesp.desafiotecnico.backend.pagamento_restapi.service.PagamentoEventos;
+import br.com.fadesp.desafiotecnico.backend.pagamento_restapi.service.PagamentoLoteService;
+import br.com.fadesp.desafiotecnico.backend.pagamento_restapi.service.PagamentoResumoService;
+import br.com.fadesp.desafiotecnico.backend.pagamento_restapi.service.PagamentoService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Testes para PagamentoController")
+class PagamentoControllerTest {
+
+    @Mock
+    private PagamentoService pagamentoService;
+
+    @Mock
+    private PagamentoLoteService pagamentoLoteService;
+
+    @Mock
+    private PagamentoResumoService pagamentoResumoService;
+
+    @Mock
+    private PagamentoEventos pagamentoEventos;
+
+    @Mock
+    private LimitadorAtualizacaoStatus limitadorAtualizacaoStatus;
+
+    @Mock
+    private PagamentoDltService pagamentoDltService;
+
+    @Mock
+    private ObjectMapper objectMapper;
+
+    @InjectMocks
+    private PagamentoController pagamentoController;
+
+    private Pagamento pagamento;
+
+    @BeforeEach
+    void setUp() {
+        pagamento = new Pagamento();
+        pagamento.setIdPagamento(1L);
+        pagamento.setCpfCnpj("12345678909");
+        pagamento.setValor(new BigDecimal("100.00"));
+    }
+
+    @Test
+    @DisplayName("Deve responder 201 ao criar um pagamento")
+    void testCriarPagamento_Sucesso() {
+        pagamento.setStatus(StatusPagamento.PENDENTE_PROCESSAMENTO);
+        when(pagamentoService.criarPagamento(pagamento)).thenReturn(pagamento);
+
+        ResponseEntity<Pagamento> resposta = pagamentoController.criarPagamento(pagamento);
+
+        assertEquals(HttpStatus.CREATED, resposta.getStatusCode());
+        assertSame(pagamento, resposta.getBody());
+    }
+
+    @Test
+    @DisplayName("Deve responder 409 quando já existir um pagamento com o mesmo idPagamento")
+    void testCriarPagamento_IdPagamentoDuplicado() {
+        when(pagamentoService.criarPagamento(pagamento)).thenThrow(new DuplicateKeyException("idPagamento duplicado"));
+
+        ResponseEntity<Pagamento> resposta = pagamentoController.criarPagamento(pagamento);
+
+        assertEquals(HttpStatus.CONFLICT, resposta.getStatusCode());
+        assertNull(resposta.getBody());
+    }
+}
@@ -0,0 +1,108 @@
+package br.com.fadesp.desafiotecnico.backend.pagamento_restapi.persistence.model.validacao;
+
+import br.com.fadesp.desafiotecnico.backend.pagamento_restapi.persistence.model.MetodoPagamento;
+import br.com.fadesp.desafiotecnico.backend.pagamento_restapi.persistence.model.entity.Pagamento;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import jakarta.validation.ValidatorFactory;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DisplayName("Testes para a validação de CPF/CNPJ e cartão de Pagamento")
+class ValidacaoPagamentoTest {
+
+    private static ValidatorFactory validatorFactory;
+    private static Validator validator;
+
+    @BeforeAll
+    static void setUp() {
+        validatorFactory = Validation.buildDefaultValidatorFactory();
+        validator = validatorFactory.getValidator();
+    }
+
+    @AfterAll
+    static void tearDown() {
+        validatorFactory.close();
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"12345678909", "52998224725", "00000000191", "12345678000195", "11222333000181"})
+    @DisplayName("Deve aceitar CPFs e CNPJs com dígitos verificadores válidos")
+    void testCpfCnpj_Valido(String cpfCnpj) {
+        assertTrue(CpfCnpjValidador.valido(cpfCnpj));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"12345678901", "52998224724", "12345678000199", "11111111111", "00000000000000",
+            "123.456.789-09", "1234567890", "123456789012", "1234567890912", "1234567890a", ""})
+    @DisplayName("Deve rejeitar CPFs e CNPJs com dígitos verificadores, tamanho ou caracteres inválidos")
+    void testCpfCnpj_Invalido(String cpfCnpj) {
+        assertFalse(CpfCnpjValidador.valido(cpfCnpj));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"4111111111111111", "5555555555554444", "4012888888881881"})
+    @DisplayName("Deve aceitar números de cartão com dígito de Luhn válido")
+    void testNumeroCartao_Valido(String numeroCartao) {
+        assertTrue(NumeroCartaoValidador.valido(numeroCartao));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"4111111111111112", "411111111111111", "41111111111111111", "4111-1111-1111-11", "411111111111111a"})
+    @DisplayName("Deve rejeitar números de cartão com dígito de Luhn, tamanho ou caracteres inválidos")
+    void testNumeroCartao_Invalido(String numeroCartao) {
+        assertFalse(NumeroCartaoValidador.valido(numeroCartao));
+    }
+
+    @Test
+    @DisplayName("Deve validar um pagamento com cartão e outro sem cartão")
+    void testPagamento_Valido() {
+        assertTrue(validator.validate(novoPagamento(MetodoPagamento.CARTAO_DEBITO, "4111111111111111")).isEmpty());
+        assertTrue(validator.validate(novoPagamento(MetodoPagamento.PIX, null)).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Deve exigir o número do cartão apenas nos métodos de cartão, reportando no campo numeroCartao")
+    void testPagamento_CartaoConformeMetodo() {
+        Set<ConstraintViolation<Pagamento>> semCartao = validator.validate(novoPagamento(MetodoPagamento.CARTAO_CREDITO, null));
+        Set<ConstraintViolation<Pagamento>> cartaoNoBoleto = validator.validate(novoPagamento(MetodoPagamento.BOLETO, "4111111111111111"));
+
+        assertEquals(List.of("numeroCartao"), semCartao.stream().map(violacao -> violacao.getPropertyPath().toString()).toList());
+        assertEquals(List.of("numeroCartao"), cartaoNoBoleto.stream().map(violacao -> violacao.getPropertyPath().toString()).toList());
+    }
+
+    @Test
+    @DisplayName("Deve reportar CPF/CNPJ e cartão inválidos nos respectivos campos")
+    void testPagamento_CamposInvalidos() {
+        Pagamento pagamento = novoPagamento(MetodoPagamento.CARTAO_CREDITO, "4111111111111112");
+        pagamento.setCpfCnpj("12345678901");
+
+        Set<ConstraintViolation<Pagamento>> violacoes = validator.validate(pagamento);
+
+        assertEquals(Set.of("cpfCnpj", "numeroCartao"),
+                Set.copyOf(violacoes.stream().map(violacao -> violacao.getPropertyPath().toString()).toList()));
+    }
+
+    private static Pagamento novoPagamento(MetodoPagamento metodoPagamento, String numeroCartao) {
+        Pagamento pagamento = new Pagamento();
+        pagamento.setIdPagamento(1L);
+        pagamento.setCpfCnpj("12345678909");
+        pagamento.setMetodoPagamento(metodoPagamento);
+        pagamento.setNumeroCartao(numeroCartao);
+        pagamento.setValor(new BigDecimal("10.50"));
+        return pagamento;
+    }
+}
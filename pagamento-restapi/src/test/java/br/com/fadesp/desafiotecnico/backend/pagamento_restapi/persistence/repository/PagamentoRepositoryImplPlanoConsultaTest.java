@@ -0,0 +1,100 @@
+package br.com.fadesp.desafiotecnico.backend.pagamento_restapi.persistence.repository;
+
+import br.com.fadesp.desafiotecnico.backend.pagamento_restapi.persistence.model.MetodoPagamento;
+import br.com.fadesp.desafiotecnico.backend.pagamento_restapi.persistence.model.StatusPagamento;
+import br.com.fadesp.desafiotecnico.backend.pagamento_restapi.persistence.model.entity.Pagamento;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.data.mongo.DataMongoTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.convert.QueryMapper;
+import org.springframework.data.mongodb.core.query.Query;
+import org.testcontainers.containers.MongoDBContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.math.BigDecimal;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+
+@DataMongoTest(properties = "spring.data.mongodb.auto-index-creation=true")
+@Testcontainers(disabledWithoutDocker = true)
+@DisplayName("Testes de plano de consulta para PagamentoRepositoryImpl")
+class PagamentoRepositoryImplPlanoConsultaTest {
+
+    @Container
+    @ServiceConnection
+    static MongoDBContainer mongoDBContainer = new MongoDBContainer("mongo:7.0");
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @BeforeEach
+    void setUp() {
+        mongoTemplate.remove(new Query(), Pagamento.class);
+
+        for (long i = 1; i <= 200; i++) {
+            Pagamento pagamento = new Pagamento();
+            pagamento.setIdPagamento(i);
+            pagamento.setCpfCnpj(String.format("%011d", 12345600000L + i));
+            pagamento.setMetodoPagamento(MetodoPagamento.PIX);
+            pagamento.setValor(new BigDecimal("10.00"));
+            pagamento.setStatus(StatusPagamento.values()[(int) (i % 3)]);
+            pagamento.setAtivo(i % 10 != 0);
+            mongoTemplate.insert(pagamento);
+        }
+    }
+
+    static Stream<Arguments> combinacoesDeFiltros() {
+        return Stream.of(
+                Arguments.of(null, null, null, null),
+                Arguments.of(1L, null, null, null),
+                Arguments.of(null, "123456", null, null),
+                Arguments.of(null, "12345600001", null, null),
+                Arguments.of(null, null, StatusPagamento.PENDENTE_PROCESSAMENTO, null),
+                Arguments.of(1L, "123456", null, null),
+                Arguments.of(1L, null, StatusPagamento.PROCESSADO_FALHA, null),
+                Arguments.of(null, "123456", StatusPagamento.PROCESSADO_SUCESSO, null),
+                Arguments.of(1L, "123456", StatusPagamento.PENDENTE_PROCESSAMENTO, null),
+                Arguments.of(null, null, null, "689a072281ee3387cdf579b3"),
+                Arguments.of(null, null, StatusPagamento.PENDENTE_PROCESSAMENTO, "689a072281ee3387cdf579b3")
+        );
+    }
+
+    @ParameterizedTest(name = "idPagamento={0}, cpfCnpj={1}, status={2}, cursor={3}")
+    @MethodSource("combinacoesDeFiltros")
+    @DisplayName("Deve usar índice (IXSCAN) e nunca varredura completa (COLLSCAN)")
+    void testFindWithFilters_UsaIndice(Long idPagamento, String cpfCnpj, StatusPagamento status, String aposId) {
+        Query query = PagamentoRepositoryImpl.montarQueryPaginada(idPagamento, cpfCnpj, status, aposId, 51);
+
+        String planoVencedor = explicar(query).toJson();
+
+        assertTrue(planoVencedor.contains("IXSCAN"), planoVencedor);
+        assertFalse(planoVencedor.contains("COLLSCAN"), planoVencedor);
+    }
+
+    private Document explicar(Query query) {
+        QueryMapper queryMapper = new QueryMapper(mongoTemplate.getConverter());
+        var entidade = mongoTemplate.getConverter().getMappingContext().getPersistentEntity(Pagamento.class);
+
+        Document filtro = queryMapper.getMappedObject(query.getQueryObject(), entidade);
+        Document ordenacao = queryMapper.getMappedSort(query.getSortObject(), entidade);
+
+        Document explicacao = mongoTemplate.getCollection(mongoTemplate.getCollectionName(Pagamento.class))
+                .find(filtro)
+                .sort(ordenacao)
+                .limit(query.getLimit())
+                .explain();
+
+        return explicacao.get("queryPlanner", Document.class).get("winningPlan", Document.class);
+    }
+}
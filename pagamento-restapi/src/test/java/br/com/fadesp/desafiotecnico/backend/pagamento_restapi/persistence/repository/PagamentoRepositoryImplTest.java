@@ -1,7 +1,11 @@
 package br.com.fadesp.desafiotecnico.backend.pagamento_restapi.persistence.repository;
 
+import br.com.fadesp.desafiotecnico.backend.pagamento_restapi.persistence.model.PagamentoResumido;
 import br.com.fadesp.desafiotecnico.backend.pagamento_restapi.persistence.model.StatusPagamento;
 import br.com.fadesp.desafiotecnico.backend.pagamento_restapi.persistence.model.entity.Pagamento;
+import com.mongodb.client.result.DeleteResult;
+import org.bson.Document;
+import org.bson.types.ObjectId;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -9,12 +13,27 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.FindAndReplaceOptions;
 import org.springframework.data.mongodb.core.MongoTemplate;
 import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.Instant;
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.any;
 import static org.mockito.Mockito.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
 
 @ExtendWith(MockitoExtension.class)
@@ -33,7 +52,7 @@ class PagamentoRepositoryImplTest {
         Long idPagamento = 1L;
         StatusPagamento status = StatusPagamento.PENDENTE_PROCESSAMENTO;
 
-        pagamentoRepository.findWithFilters(idPagamento, null, status);
+        pagamentoRepository.findWithFilters(idPagamento, null, status, null, 50);
 
         ArgumentCaptor<Query> queryCaptor = ArgumentCaptor.forClass(Query.class);
         verify(mongoTemplate).find(queryCaptor.capture(), eq(Pagamento.class));
@@ -56,7 +75,7 @@ class PagamentoRepositoryImplTest {
         String cpfCnpj = "12345678901";
         StatusPagamento status = StatusPagamento.PENDENTE_PROCESSAMENTO;
 
-        pagamentoRepository.findWithFilters(null, cpfCnpj, status);
+        pagamentoRepository.findWithFilters(null, cpfCnpj, status, null, 50);
 
         ArgumentCaptor<Query> queryCaptor = ArgumentCaptor.forClass(Query.class);
         verify(mongoTemplate).find(queryCaptor.capture(), eq(Pagamento.class));
@@ -80,7 +99,7 @@ class PagamentoRepositoryImplTest {
         String cpfCnpj = "12345678901";
         StatusPagamento status = StatusPagamento.PENDENTE_PROCESSAMENTO;
 
-        pagamentoRepository.findWithFilters(idPagamento, cpfCnpj, status);
+        pagamentoRepository.findWithFilters(idPagamento, cpfCnpj, status, null, 50);
 
         ArgumentCaptor<Query> queryCaptor = ArgumentCaptor.forClass(Query.class);
         verify(mongoTemplate).find(queryCaptor.capture(), eq(Pagamento.class));
@@ -96,4 +115,176 @@ class PagamentoRepositoryImplTest {
         assertTrue(capturedQuery.getQueryObject().containsKey("status"));
         assertEquals(status, capturedQuery.getQueryObject().get("status"));
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("Deve paginar por cursor ordenando pelo _id e limitando o tamanho da página")
+    void testFindWithFilters_ComCursor() {
+        String aposId = "689a072281ee3387cdf579b3";
+
+        pagamentoRepository.findWithFilters(null, null, null, aposId, 21);
+
+        ArgumentCaptor<Query> queryCaptor = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate).find(queryCaptor.capture(), eq(Pagamento.class));
+
+        Query capturedQuery = queryCaptor.getValue();
+        assertNotNull(capturedQuery);
+
+        assertTrue(capturedQuery.getQueryObject().getBoolean("ativo"));
+        assertFalse(capturedQuery.getQueryObject().containsKey("$or"));
+
+        Document filtroId = (Document) capturedQuery.getQueryObject().get("_id");
+        assertEquals(new ObjectId(aposId), filtroId.get("$gt"));
+
+        assertEquals(Integer.valueOf(1), capturedQuery.getSortObject().getInteger("_id"));
+        assertEquals(21, capturedQuery.getLimit());
+    }
+
+    @Test
+    @DisplayName("Deve abrir um cursor com os mesmos filtros da listagem para exportação")
+    void testStreamWithFilters_ComStatus() {
+        StatusPagamento status = StatusPagamento.PROCESSADO_SUCESSO;
+
+        pagamentoRepository.streamWithFilters(null, null, status, 500);
+
+        ArgumentCaptor<Query> queryCaptor = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate).stream(queryCaptor.capture(), eq(Pagamento.class));
+
+        Query capturedQuery = queryCaptor.getValue();
+        assertTrue(capturedQuery.getQueryObject().getBoolean("ativo"));
+        assertEquals(status, capturedQuery.getQueryObject().get("status"));
+        assertEquals(Integer.valueOf(500), capturedQuery.getMeta().getCursorBatchSize());
+    }
+
+    @Test
+    @DisplayName("Deve buscar CPF/CNPJ numérico por faixa de prefixo ancorada em vez de regex")
+    void testFindWithFilters_CpfCnpjNumerico_UsaFaixaDePrefixo() {
+        pagamentoRepository.findWithFilters(null, "123456", null, null, 50);
+
+        ArgumentCaptor<Query> queryCaptor = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate).find(queryCaptor.capture(), eq(Pagamento.class));
+
+        List<?> orCriterias = (List<?>) queryCaptor.getValue().getQueryObject().get("$or");
+        Document filtroCpfCnpj = (Document) ((Document) orCriterias.get(0)).get("cpfCnpj");
+
+        assertEquals("123456", filtroCpfCnpj.get("$gte"));
+        assertEquals("123457", filtroCpfCnpj.get("$lt"));
+        assertFalse(filtroCpfCnpj.containsKey("$regex"));
+    }
+
+    @Test
+    @DisplayName("Deve atualizar o status atomicamente, condicionado às origens permitidas, devolvendo o estado anterior")
+    void testAtualizarStatusSePermitido_UpdateCondicional() {
+        Pagamento anterior = new Pagamento();
+        anterior.setIdPagamento(1L);
+        anterior.setStatus(StatusPagamento.PENDENTE_PROCESSAMENTO);
+        when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class), eq(Pagamento.class)))
+                .thenReturn(anterior);
+
+        Optional<Pagamento> atualizado = pagamentoRepository.atualizarStatusSePermitido(1L,
+                Set.of(StatusPagamento.PENDENTE_PROCESSAMENTO), StatusPagamento.PROCESSADO_SUCESSO);
+
+        ArgumentCaptor<Query> queryCaptor = ArgumentCaptor.forClass(Query.class);
+        ArgumentCaptor<Update> updateCaptor = ArgumentCaptor.forClass(Update.class);
+        ArgumentCaptor<FindAndModifyOptions> opcoesCaptor = ArgumentCaptor.forClass(FindAndModifyOptions.class);
+        verify(mongoTemplate).findAndModify(queryCaptor.capture(), updateCaptor.capture(), opcoesCaptor.capture(), eq(Pagamento.class));
+
+        assertEquals(Optional.of(anterior), atualizado);
+        assertFalse(opcoesCaptor.getValue().isReturnNew());
+        Document filtro = queryCaptor.getValue().getQueryObject();
+        assertEquals(1L, filtro.get("idPagamento"));
+        assertTrue(filtro.getBoolean("ativo"));
+        assertTrue(((Document) filtro.get("status")).containsKey("$in"));
+        assertTrue(queryCaptor.getValue().getFieldsObject().containsKey("valor"));
+
+        Document alteracoes = (Document) updateCaptor.getValue().getUpdateObject().get("$set");
+        assertEquals(Set.of("status"), alteracoes.keySet());
+    }
+
+    @Test
+    @DisplayName("Deve inativar só pagamentos pendentes e ainda ativos, para que um segundo DELETE não encontre o documento")
+    void testInativarSePendente_ExigeAtivo() {
+        when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class), eq(Pagamento.class)))
+                .thenReturn(null);
+
+        Optional<Pagamento> inativado = pagamentoRepository.inativarSePendente("689a072281ee3387cdf579b3");
+
+        ArgumentCaptor<Query> queryCaptor = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate).findAndModify(queryCaptor.capture(), any(Update.class), any(FindAndModifyOptions.class), eq(Pagamento.class));
+
+        assertTrue(inativado.isEmpty());
+        Document filtro = queryCaptor.getValue().getQueryObject();
+        assertEquals(StatusPagamento.PENDENTE_PROCESSAMENTO, filtro.get("status"));
+        assertTrue(filtro.getBoolean("ativo"));
+    }
+
+    @Test
+    @DisplayName("Deve projetar a listagem resumida nos campos da tela, sem o número do cartão")
+    void testFindResumidosWithFilters_Projecao() {
+        when(mongoTemplate.getCollectionName(Pagamento.class)).thenReturn("pagamentos");
+
+        pagamentoRepository.findResumidosWithFilters(null, "12345678901", null, null, 50);
+
+        ArgumentCaptor<Query> queryCaptor = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate).find(queryCaptor.capture(), eq(PagamentoResumido.class), eq("pagamentos"));
+
+        Document campos = queryCaptor.getValue().getFieldsObject();
+        assertEquals(Set.of(PagamentoResumido.CAMPOS), campos.keySet());
+        assertFalse(campos.containsKey("numeroCartao"));
+        assertTrue(queryCaptor.getValue().getQueryObject().containsKey("$or"));
+        assertEquals(50, queryCaptor.getValue().getLimit());
+    }
+
+    @Test
+    @DisplayName("Deve buscar os pagamentos arquivados na coleção de arquivo, com os mesmos filtros da listagem")
+    void testFindArquivadosWithFilters_ColecaoDeArquivo() {
+        pagamentoRepository.findArquivadosWithFilters(1L, null, null, null, 50);
+
+        ArgumentCaptor<Query> queryCaptor = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate).find(queryCaptor.capture(), eq(Pagamento.class), eq(PagamentoRepositoryImpl.COLECAO_ARQUIVO));
+
+        assertTrue(queryCaptor.getValue().getQueryObject().getBoolean("ativo"));
+        assertEquals(50, queryCaptor.getValue().getLimit());
+    }
+
+    @Test
+    @DisplayName("Deve copiar os finalizados antigos para o arquivo antes de removê-los, repetindo o critério na remoção")
+    void testArquivarFinalizados_CopiaERemove() {
+        Instant criadosAntesDe = Instant.parse("2025-01-01T00:00:00Z");
+        ObjectId id = new ObjectId();
+        BulkOperations copia = mock(BulkOperations.class);
+        when(mongoTemplate.getCollectionName(Pagamento.class)).thenReturn("pagamentos");
+        when(mongoTemplate.find(any(Query.class), eq(Document.class), eq("pagamentos"))).thenReturn(List.of(new Document("_id", id)));
+        when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, PagamentoRepositoryImpl.COLECAO_ARQUIVO)).thenReturn(copia);
+        when(mongoTemplate.remove(any(Query.class), eq(Pagamento.class))).thenReturn(DeleteResult.acknowledged(1));
+
+        assertEquals(1, pagamentoRepository.arquivarFinalizados(criadosAntesDe, 100));
+
+        ArgumentCaptor<Query> buscaCaptor = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate).find(buscaCaptor.capture(), eq(Document.class), eq("pagamentos"));
+        Document busca = buscaCaptor.getValue().getQueryObject();
+        assertEquals(ObjectId.getSmallestWithDate(Date.from(criadosAntesDe)), ((Document) busca.get("_id")).get("$lt"));
+        assertEquals(2, ((List<?>) busca.get("$or")).size());
+        assertEquals(100, buscaCaptor.getValue().getLimit());
+
+        verify(copia, times(1)).replaceOne(any(Query.class), eq(new Document("_id", id)), any(FindAndReplaceOptions.class));
+        verify(copia).execute();
+
+        ArgumentCaptor<Query> remocaoCaptor = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate).remove(remocaoCaptor.capture(), eq(Pagamento.class));
+        Document remocao = remocaoCaptor.getValue().getQueryObject();
+        assertEquals(List.of(id), ((Document) remocao.get("_id")).get("$in"));
+        assertTrue(remocao.containsKey("$or"));
+    }
+
+    @Test
+    @DisplayName("Não deve escrever no arquivo quando não houver pagamentos a arquivar")
+    void testArquivarFinalizados_SemCandidatos() {
+        when(mongoTemplate.getCollectionName(Pagamento.class)).thenReturn("pagamentos");
+        when(mongoTemplate.find(any(Query.class), eq(Document.class), eq("pagamentos"))).thenReturn(List.of());
+
+        assertEquals(0, pagamentoRepository.arquivarFinalizados(Instant.now(), 100));
+
+        verify(mongoTemplate, never()).bulkOps(any(BulkOperations.BulkMode.class), any(String.class));
+        verify(mongoTemplate, never()).remove(any(Query.class), eq(Pagamento.class));
+    }
+}
@@ -0,0 +1,81 @@
+package br.com.fadesp.desafiotecnico.backend.pagamento_restapi.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DisplayName("Testes para JanelaDeduplicacao")
+class JanelaDeduplicacaoTest {
+
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @Test
+    @DisplayName("Deve reconhecer mensagens registradas e contabilizar as duplicatas")
+    void testJaProcessada_MensagemRegistrada() {
+        JanelaDeduplicacao janela = new JanelaDeduplicacao(true, 100, 4, meterRegistry);
+
+        assertFalse(janela.jaProcessada("mensagem-1"));
+        janela.registrar("mensagem-1");
+
+        assertTrue(janela.jaProcessada("mensagem-1"));
+        assertFalse(janela.jaProcessada("mensagem-2"));
+        assertFalse(janela.jaProcessada(null));
+        assertEquals(1.0, meterRegistry.get("pagamentos.kafka.mensagens.duplicadas").counter().count());
+    }
+
+    @Test
+    @DisplayName("Deve descartar as mensagens mais antigas quando a janela enche, mantendo as recentes")
+    void testRegistrar_CapacidadeExcedida_DescartaAsMaisAntigas() {
+        JanelaDeduplicacao janela = new JanelaDeduplicacao(true, 1000, 1, meterRegistry);
+        String[] ids = IntStream.range(0, 5000).mapToObj(i -> UUID.randomUUID().toString()).toArray(String[]::new);
+
+        for (String id : ids) {
+            janela.registrar(id);
+        }
+
+        assertEquals(1000L, janela.entradas());
+        for (int i = 0; i < 4000; i++) {
+            assertFalse(janela.jaProcessada(ids[i]), ids[i]);
+        }
+        for (int i = 4000; i < 5000; i++) {
+            assertTrue(janela.jaProcessada(ids[i]), ids[i]);
+        }
+    }
+
+    @Test
+    @DisplayName("Deve manter a memória constante, independentemente do volume de mensagens")
+    void testBytesAlocados_Constante() {
+        JanelaDeduplicacao janela = new JanelaDeduplicacao(true, 10_000, 8, meterRegistry);
+        double memoriaInicial = meterRegistry.get("pagamentos.kafka.deduplicacao.memoria").gauge().value();
+
+        IntStream.range(0, 50_000).forEach(i -> janela.registrar("mensagem-" + i));
+
+        assertTrue(memoriaInicial > 0);
+        assertEquals(memoriaInicial, meterRegistry.get("pagamentos.kafka.deduplicacao.memoria").gauge().value());
+        assertEquals(10_000.0, meterRegistry.get("pagamentos.kafka.deduplicacao.entradas").gauge().value());
+    }
+
+    @Test
+    @DisplayName("Não deve descartar mensagens quando a deduplicação estiver desabilitada")
+    void testJaProcessada_Desabilitada() {
+        JanelaDeduplicacao janela = new JanelaDeduplicacao(false, 100, 4, meterRegistry);
+
+        janela.registrar("mensagem-1");
+
+        assertFalse(janela.jaProcessada("mensagem-1"));
+        assertEquals(0.0, meterRegistry.get("pagamentos.kafka.deduplicacao.memoria").gauge().value());
+    }
+}
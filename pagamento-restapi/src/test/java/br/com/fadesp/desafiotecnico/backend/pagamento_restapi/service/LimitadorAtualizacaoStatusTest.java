@@ -0,0 +1,163 @@
+package br.com.fadesp.desafiotecnico.backend.pagamento_restapi.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Testes para LimitadorAtualizacaoStatus")
+class LimitadorAtualizacaoStatusTest {
+
+    private static final long SEGUNDO = 1_000_000_000L;
+    private static final String PROXY = "172.28.0.10";
+
+    @Mock
+    private MonitorSobrecarga monitorSobrecarga;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    // Taxas baixas o bastante para que nenhum token seja reposto durante o teste
+    private LimitadorAtualizacaoStatus limitador(boolean habilitado, int rajadaGlobal, int rajadaCliente) {
+        return new LimitadorAtualizacaoStatus(habilitado, 0.001, rajadaGlobal, 0.001, rajadaCliente, 100,
+                Duration.ofSeconds(2), List.of(PROXY), monitorSobrecarga, meterRegistry);
+    }
+
+    @Test
+    @DisplayName("Deve identificar o cliente pelo X-Forwarded-For só quando a conexão vier de um proxy confiável")
+    void testIdentificarCliente_SoConfiaNoProxy() {
+        LimitadorAtualizacaoStatus limitador = limitador(true, 1, 1);
+
+        assertEquals("203.0.113.7", limitador.identificarCliente(PROXY, "203.0.113.7"));
+        assertEquals("203.0.113.7", limitador.identificarCliente(PROXY, "1.2.3.4, 203.0.113.7"));
+        assertEquals("203.0.113.7", limitador.identificarCliente(PROXY, "203.0.113.7, " + PROXY));
+        assertEquals("198.51.100.1", limitador.identificarCliente("198.51.100.1", "1.2.3.4"));
+        assertEquals(PROXY, limitador.identificarCliente(PROXY, null));
+        assertEquals(PROXY, limitador.identificarCliente(PROXY, " "));
+    }
+
+    @Test
+    @DisplayName("Deve liberar a rajada do balde, recusar o excedente com a espera até o próximo token e repor pela taxa")
+    void testBaldeTokens_RajadaETaxa() {
+        BaldeTokens balde = new BaldeTokens(10, 3, 0);
+
+        assertEquals(0, balde.adquirir(0));
+        assertEquals(0, balde.adquirir(0));
+        assertEquals(0, balde.adquirir(0));
+        assertEquals(SEGUNDO / 10, balde.adquirir(0));
+        assertEquals(0.0, balde.tokensDisponiveis(0));
+
+        assertEquals(SEGUNDO / 20, balde.adquirir(SEGUNDO / 20));
+        assertEquals(0, balde.adquirir(SEGUNDO / 10));
+        assertEquals(3.0, balde.tokensDisponiveis(10 * SEGUNDO));
+        assertThrows(IllegalArgumentException.class, () -> new BaldeTokens(0, 1, 0));
+    }
+
+    @Test
+    @DisplayName("Não deve liberar mais tokens que a capacidade sob aquisições concorrentes")
+    void testBaldeTokens_Concorrencia() throws InterruptedException {
+        BaldeTokens balde = new BaldeTokens(1, 1000, 0);
+        AtomicInteger liberadas = new AtomicInteger();
+        CountDownLatch largada = new CountDownLatch(1);
+
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            threads.add(Thread.ofPlatform().start(() -> {
+                try {
+                    largada.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                for (int i = 0; i < 500; i++) {
+                    if (balde.adquirir(0) == 0) {
+                        liberadas.incrementAndGet();
+                    }
+                }
+            }));
+        }
+        largada.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertEquals(1000, liberadas.get());
+    }
+
+    @Test
+    @DisplayName("Deve limitar cada cliente separadamente e contabilizar as recusas por motivo")
+    void testVerificar_LimitePorCliente() {
+        LimitadorAtualizacaoStatus limitador = limitador(true, 100, 2);
+
+        assertTrue(limitador.verificar("a").isEmpty());
+        assertTrue(limitador.verificar("a").isEmpty());
+        Optional<RejeicaoLimite> rejeicao = limitador.verificar("a");
+        assertTrue(limitador.verificar("b").isEmpty());
+
+        assertTrue(rejeicao.isPresent());
+        assertEquals(LimitadorAtualizacaoStatus.MOTIVO_CLIENTE, rejeicao.get().motivo());
+        assertTrue(rejeicao.get().retryAfterSegundos() > 1);
+        assertEquals(1.0, meterRegistry.get("pagamentos.limite.rejeicoes").tag("motivo", "cliente").counter().count());
+        assertEquals(2.0, meterRegistry.get("pagamentos.limite.clientes").gauge().value());
+    }
+
+    @Test
+    @DisplayName("Deve recusar pelo balde global quando os clientes juntos passam do limite da instância")
+    void testVerificar_LimiteGlobal() {
+        LimitadorAtualizacaoStatus limitador = limitador(true, 2, 10);
+
+        assertTrue(limitador.verificar("a").isEmpty());
+        assertTrue(limitador.verificar("b").isEmpty());
+        Optional<RejeicaoLimite> rejeicao = limitador.verificar("c");
+
+        assertEquals(LimitadorAtualizacaoStatus.MOTIVO_GLOBAL, rejeicao.orElseThrow().motivo());
+        assertEquals(0.0, meterRegistry.get("pagamentos.limite.tokens").gauge().value(), 0.001);
+    }
+
+    @Test
+    @DisplayName("Deve recusar por sobrecarga sem consumir tokens, com a espera configurada")
+    void testVerificar_Sobrecarga() {
+        LimitadorAtualizacaoStatus limitador = limitador(true, 1, 1);
+        when(monitorSobrecarga.sobrecarregado()).thenReturn(true, false);
+
+        Optional<RejeicaoLimite> rejeicao = limitador.verificar("a");
+
+        assertEquals(new RejeicaoLimite(LimitadorAtualizacaoStatus.MOTIVO_SOBRECARGA, Duration.ofSeconds(2)), rejeicao.orElseThrow());
+        assertEquals(2, rejeicao.get().retryAfterSegundos());
+        assertTrue(limitador.verificar("a").isEmpty());
+    }
+
+    @Test
+    @DisplayName("Não deve limitar quando desabilitado")
+    void testVerificar_Desabilitado() {
+        LimitadorAtualizacaoStatus limitador = limitador(false, 1, 1);
+
+        for (int i = 0; i < 10; i++) {
+            assertTrue(limitador.verificar("a").isEmpty());
+        }
+        verify(monitorSobrecarga, never()).sobrecarregado();
+    }
+
+    @Test
+    @DisplayName("Deve arredondar o Retry-After para cima, com no mínimo um segundo")
+    void testRetryAfterSegundos() {
+        assertEquals(1, new RejeicaoLimite(LimitadorAtualizacaoStatus.MOTIVO_GLOBAL, Duration.ofMillis(5)).retryAfterSegundos());
+        assertEquals(2, new RejeicaoLimite(LimitadorAtualizacaoStatus.MOTIVO_GLOBAL, Duration.ofMillis(1001)).retryAfterSegundos());
+    }
+}
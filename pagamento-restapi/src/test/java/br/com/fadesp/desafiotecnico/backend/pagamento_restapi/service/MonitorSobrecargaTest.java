@@ -0,0 +1,114 @@
+package br.com.fadesp.desafiotecnico.backend.pagamento_restapi.service;
+
+import br.com.fadesp.desafiotecnico.backend.pagamento_restapi.persistence.model.PagamentoStatusAtualizacao;
+import com.mongodb.event.ConnectionCheckedOutEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.common.Metric;
+import org.apache.kafka.common.MetricName;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.kafka.core.KafkaTemplate;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Testes para MonitorSobrecarga")
+class MonitorSobrecargaTest {
+
+    @Mock
+    private KafkaTemplate<String, PagamentoStatusAtualizacao> kafkaTemplate;
+
+    @Mock
+    private PagamentoProducer pagamentoProducer;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private MonitorSobrecarga monitor;
+
+    @BeforeEach
+    void setUp() {
+        monitor = new MonitorSobrecarga(kafkaTemplate, pagamentoProducer, 0.8, 100, Duration.ofMillis(50), meterRegistry);
+    }
+
+    @Test
+    @DisplayName("Deve ficar sobrecarregado enquanto o buffer do produtor passar do uso máximo")
+    void testAmostrar_BufferDoProdutor() {
+        metricasDoProdutor(1000, 100);
+
+        monitor.amostrar();
+        assertTrue(monitor.sobrecarregado());
+        assertEquals(0.9, meterRegistry.get("pagamentos.limite.sinal").tag("sinal", "uso-buffer-produtor").gauge().value(), 0.0001);
+        assertEquals(1.0, meterRegistry.get("pagamentos.limite.sobrecarga").gauge().value());
+
+        metricasDoProdutor(1000, 900);
+        monitor.amostrar();
+        assertFalse(monitor.sobrecarregado());
+    }
+
+    @Test
+    @DisplayName("Deve ficar sobrecarregado com envios pendentes acima do máximo")
+    void testAmostrar_EnviosPendentes() {
+        when(pagamentoProducer.enviosPendentes()).thenReturn(101);
+
+        monitor.amostrar();
+
+        assertTrue(monitor.sobrecarregado());
+    }
+
+    @Test
+    @DisplayName("Deve considerar a maior espera pelo pool do MongoDB de cada intervalo de amostragem")
+    void testAmostrar_EsperaPoolMongo() {
+        monitor.connectionCheckedOut(checkout(10));
+        monitor.connectionCheckedOut(checkout(80));
+        monitor.connectionCheckedOut(checkout(20));
+
+        monitor.amostrar();
+        assertTrue(monitor.sobrecarregado());
+        assertEquals(0.08, meterRegistry.get("pagamentos.limite.sinal").tag("sinal", "espera-pool-mongo").gauge().value(), 0.0001);
+
+        monitor.amostrar();
+        assertFalse(monitor.sobrecarregado());
+    }
+
+    @Test
+    @DisplayName("Não deve ficar sobrecarregado quando as métricas do produtor não puderem ser lidas")
+    void testAmostrar_FalhaNasMetricas() {
+        when(kafkaTemplate.metrics()).thenThrow(new IllegalStateException("produtor fechado"));
+
+        monitor.amostrar();
+
+        assertFalse(monitor.sobrecarregado());
+    }
+
+    private void metricasDoProdutor(double total, double disponivel) {
+        doReturn(Map.of(
+                new MetricName("buffer-total-bytes", "producer-metrics", "", Map.of()), metrica(total),
+                new MetricName("buffer-available-bytes", "producer-metrics", "", Map.of()), metrica(disponivel),
+                new MetricName("buffer-total-bytes", "producer-node-metrics", "", Map.of()), mock(Metric.class)
+        )).when(kafkaTemplate).metrics();
+    }
+
+    private static Metric metrica(double valor) {
+        Metric metrica = mock(Metric.class);
+        when(metrica.metricValue()).thenReturn(valor);
+        return metrica;
+    }
+
+    private static ConnectionCheckedOutEvent checkout(long esperaMillis) {
+        ConnectionCheckedOutEvent evento = mock(ConnectionCheckedOutEvent.class);
+        when(evento.getElapsedTime(TimeUnit.NANOSECONDS)).thenReturn(TimeUnit.MILLISECONDS.toNanos(esperaMillis));
+        return evento;
+    }
+}
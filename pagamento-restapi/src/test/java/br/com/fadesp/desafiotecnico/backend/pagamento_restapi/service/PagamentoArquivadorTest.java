@@ -0,0 +1,145 @@
+package br.com.fadesp.desafiotecnico.backend.pagamento_restapi.service;
+
+import br.com.fadesp.desafiotecnico.backend.pagamento_restapi.persistence.repository.PagamentoRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.after;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Testes para PagamentoArquivador")
+class PagamentoArquivadorTest {
+
+    @Mock
+    private PagamentoRepository pagamentoRepository;
+
+    private final VersaoPagamentos versaoPagamentos = new VersaoPagamentos();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private PagamentoArquivador arquivador(boolean habilitado, int lotesPorExecucao) {
+        return new PagamentoArquivador(pagamentoRepository, versaoPagamentos, habilitado, Duration.ofDays(30), 2,
+                lotesPorExecucao, Duration.ZERO, meterRegistry);
+    }
+
+    @Test
+    @DisplayName("Deve arquivar lotes até encontrar um lote incompleto, com o corte pela idade mínima")
+    void testArquivar_ParaNoLoteIncompleto() {
+        when(pagamentoRepository.arquivarFinalizados(any(Instant.class), eq(2))).thenReturn(2, 1);
+        String etag = versaoPagamentos.etag();
+        Instant limiteSuperior = Instant.now().minus(Duration.ofDays(30));
+
+        arquivador(true, 5).arquivar();
+
+        verify(pagamentoRepository).criarIndicesArquivo();
+        verify(pagamentoRepository, times(2)).arquivarFinalizados(
+                argThat(corte -> !corte.isBefore(limiteSuperior) && corte.isBefore(limiteSuperior.plusSeconds(60))), eq(2));
+        assertEquals(3.0, meterRegistry.get("pagamentos.arquivamento.documentos").counter().count());
+        assertNotEquals(etag, versaoPagamentos.etag());
+    }
+
+    @Test
+    @DisplayName("Deve respeitar o máximo de lotes por execução e criar os índices do arquivo uma vez só")
+    void testArquivar_LimiteDeLotesPorExecucao() {
+        when(pagamentoRepository.arquivarFinalizados(any(Instant.class), anyInt())).thenReturn(2);
+        PagamentoArquivador arquivador = arquivador(true, 3);
+
+        arquivador.arquivar();
+        arquivador.arquivar();
+
+        verify(pagamentoRepository, times(1)).criarIndicesArquivo();
+        verify(pagamentoRepository, times(6)).arquivarFinalizados(any(Instant.class), anyInt());
+    }
+
+    @Test
+    @DisplayName("Deve arquivar fora da thread do agendador e ignorar disparos enquanto uma execução estiver em andamento")
+    void testAgendar_ExecutaEmThreadPropria() throws InterruptedException {
+        CountDownLatch liberar = new CountDownLatch(1);
+        AtomicReference<String> thread = new AtomicReference<>();
+        when(pagamentoRepository.arquivarFinalizados(any(Instant.class), anyInt())).thenAnswer(invocacao -> {
+            thread.set(Thread.currentThread().getName());
+            liberar.await(5, TimeUnit.SECONDS);
+            return 0;
+        });
+        PagamentoArquivador arquivador = arquivador(true, 3);
+
+        arquivador.agendar();
+        verify(pagamentoRepository, timeout(1000)).arquivarFinalizados(any(Instant.class), anyInt());
+        arquivador.agendar();
+        liberar.countDown();
+
+        verify(pagamentoRepository, after(200).times(1)).arquivarFinalizados(any(Instant.class), anyInt());
+        assertEquals("arquivador-pagamentos", thread.get());
+        arquivador.fechar();
+    }
+
+    @Test
+    @DisplayName("Não deve mudar a versão das listagens quando nada for arquivado")
+    void testArquivar_NadaArquivado_MantemVersao() {
+        when(pagamentoRepository.arquivarFinalizados(any(Instant.class), anyInt())).thenReturn(0);
+        String etag = versaoPagamentos.etag();
+
+        arquivador(true, 3).arquivar();
+
+        assertEquals(etag, versaoPagamentos.etag());
+    }
+
+    @Test
+    @DisplayName("Deve interromper a execução sem propagar falhas do MongoDB")
+    void testArquivar_FalhaNoLote() {
+        when(pagamentoRepository.arquivarFinalizados(any(Instant.class), anyInt())).thenThrow(new IllegalStateException("indisponível"));
+
+        arquivador(true, 3).arquivar();
+
+        verify(pagamentoRepository, times(1)).arquivarFinalizados(any(Instant.class), anyInt());
+    }
+
+    @Test
+    @DisplayName("Não deve arquivar quando desabilitado, mas deve continuar medindo as coleções")
+    void testArquivar_Desabilitado() {
+        PagamentoArquivador arquivador = arquivador(false, 3);
+
+        arquivador.agendar();
+        arquivador.arquivar();
+        verifyNoInteractions(pagamentoRepository);
+
+        when(pagamentoRepository.estimarQuantidade()).thenReturn(120L);
+        when(pagamentoRepository.estimarQuantidadeArquivada()).thenReturn(880L);
+        arquivador.medirColecoes();
+
+        assertEquals(120.0, meterRegistry.get("pagamentos.colecao.documentos").tag("colecao", "pagamentos").gauge().value());
+        assertEquals(880.0, meterRegistry.get("pagamentos.colecao.documentos").tag("colecao", "pagamentos_arquivados").gauge().value());
+        verify(pagamentoRepository, never()).arquivarFinalizados(any(Instant.class), anyInt());
+    }
+
+    @Test
+    @DisplayName("Deve rejeitar lotes sem documentos")
+    void testConfiguracaoInvalida() {
+        assertThrows(IllegalArgumentException.class, () -> new PagamentoArquivador(pagamentoRepository, versaoPagamentos, true,
+                Duration.ofDays(30), 0, 1, Duration.ZERO, meterRegistry));
+        assertTrue(meterRegistry.find("pagamentos.arquivamento.documentos").counters().isEmpty());
+    }
+}
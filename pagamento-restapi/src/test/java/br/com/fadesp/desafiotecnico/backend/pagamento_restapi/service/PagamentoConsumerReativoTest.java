@@ -0,0 +1,219 @@
+package br.com.fadesp.desafiotecnico.backend.pagamento_restapi.service;
+
+import br.com.fadesp.desafiotecnico.backend.pagamento_restapi.persistence.model.PagamentoStatusAtualizacao;
+import br.com.fadesp.desafiotecnico.backend.pagamento_restapi.persistence.model.StatusPagamento;
+import br.com.fadesp.desafiotecnico.backend.pagamento_restapi.persistence.model.entity.Pagamento;
+import br.com.fadesp.desafiotecnico.backend.pagamento_restapi.persistence.repository.ReactivePagamentoRepository;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.retrytopic.RetryTopicHeaders;
+import org.springframework.kafka.support.KafkaHeaders;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.test.util.ReflectionTestUtils;
+import reactor.core.publisher.Mono;
+import reactor.kafka.receiver.ReceiverOffset;
+import reactor.kafka.receiver.ReceiverRecord;
+import reactor.test.StepVerifier;
+
+import java.nio.ByteBuffer;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Testes para PagamentoConsumerReativo")
+class PagamentoConsumerReativoTest {
+
+    @Mock
+    private ReactivePagamentoRepository pagamentoRepository;
+
+    @Mock
+    private PagamentoCache pagamentoCache;
+
+    @Mock
+    private PagamentoMetricas pagamentoMetricas;
+
+    @Mock
+    private PagamentoResumoService pagamentoResumoService;
+
+    @Spy
+    private VersaoPagamentos versaoPagamentos = new VersaoPagamentos();
+
+    @Mock
+    private PagamentoEventos pagamentoEventos;
+
+    @Mock
+    private JanelaDeduplicacao janelaDeduplicacao;
+
+    @Mock
+    private KafkaTemplate<String, PagamentoStatusAtualizacao> kafkaTemplate;
+
+    @InjectMocks
+    private PagamentoConsumerReativo pagamentoConsumer;
+
+    private PagamentoStatusAtualizacao atualizacao;
+
+    @BeforeEach
+    void setUp() {
+        atualizacao = new PagamentoStatusAtualizacao();
+        atualizacao.setIdPagamento(1L);
+        atualizacao.setNovoStatus(StatusPagamento.PROCESSADO_SUCESSO);
+
+        ReflectionTestUtils.setField(pagamentoConsumer, "topico", "pagamento-status");
+        ReflectionTestUtils.setField(pagamentoConsumer, "tentativas", 3);
+        ReflectionTestUtils.setField(pagamentoConsumer, "atrasoInicialMs", 1L);
+        ReflectionTestUtils.setField(pagamentoConsumer, "multiplicador", 2.0);
+        ReflectionTestUtils.setField(pagamentoConsumer, "atrasoMaximoMs", 5L);
+    }
+
+    @Test
+    @DisplayName("Deve aplicar a transição permitida e registrar o novo estado")
+    void testAplicar_TransicaoPermitida_Sucesso() {
+        Pagamento anterior = new Pagamento();
+        anterior.setIdPagamento(1L);
+        anterior.setStatus(StatusPagamento.PENDENTE_PROCESSAMENTO);
+        when(pagamentoRepository.atualizarStatusSePermitido(1L, Set.of(StatusPagamento.PENDENTE_PROCESSAMENTO), StatusPagamento.PROCESSADO_SUCESSO))
+                .thenReturn(Mono.just(anterior));
+
+        StepVerifier.create(pagamentoConsumer.aplicar(atualizacao, null)).expectNext(true).verifyComplete();
+
+        verify(pagamentoCache, times(1)).registrar(1L, StatusPagamento.PROCESSADO_SUCESSO, true);
+        verify(pagamentoResumoService, times(1)).registrarTransicao(anterior, StatusPagamento.PROCESSADO_SUCESSO);
+        verify(pagamentoRepository, never()).findByIdPagamentoAndAtivoIsTrue(any());
+    }
+
+    @Test
+    @DisplayName("Deve contabilizar a transição rejeitada com o status atual do pagamento")
+    void testAplicar_TransicaoRejeitada_RegistraMetrica() {
+        Pagamento pagamento = new Pagamento();
+        pagamento.setIdPagamento(1L);
+        pagamento.setStatus(StatusPagamento.PROCESSADO_SUCESSO);
+        when(pagamentoRepository.atualizarStatusSePermitido(1L, Set.of(StatusPagamento.PENDENTE_PROCESSAMENTO), StatusPagamento.PROCESSADO_SUCESSO))
+                .thenReturn(Mono.empty());
+        when(pagamentoRepository.findByIdPagamentoAndAtivoIsTrue(1L)).thenReturn(Mono.just(pagamento));
+
+        StepVerifier.create(pagamentoConsumer.aplicar(atualizacao, null)).expectNext(false).verifyComplete();
+
+        verify(pagamentoCache, times(1)).invalidar(1L);
+        verify(pagamentoMetricas, times(1)).registrarTransicaoRejeitada(StatusPagamento.PROCESSADO_SUCESSO, StatusPagamento.PROCESSADO_SUCESSO);
+    }
+
+    @Test
+    @DisplayName("Deve descartar e confirmar a mensagem ilegível sem consultar o MongoDB")
+    void testProcessar_MensagemIlegivel() {
+        ReceiverOffset offset = mock(ReceiverOffset.class);
+        ReceiverRecord<String, PagamentoStatusAtualizacao> registro =
+                new ReceiverRecord<>(new ConsumerRecord<>("pagamento-status", 0, 5L, "1", null), offset);
+
+        StepVerifier.create(pagamentoConsumer.processar(registro)).expectNext(false).verifyComplete();
+
+        verify(offset, times(1)).acknowledge();
+        verify(pagamentoMetricas, times(1)).registrarMensagemIlegivel("reativo");
+        verifyNoInteractions(pagamentoRepository);
+    }
+
+    @Test
+    @DisplayName("Deve publicar no tópico de retentativa após uma falha e confirmar a mensagem sem prender a partição")
+    @SuppressWarnings("unchecked")
+    void testProcessar_Falha_EnviaAoTopicoDeRetentativa() {
+        when(pagamentoRepository.atualizarStatusSePermitido(1L, Set.of(StatusPagamento.PENDENTE_PROCESSAMENTO), StatusPagamento.PROCESSADO_SUCESSO))
+                .thenReturn(Mono.error(new DataAccessResourceFailureException("Timed out")));
+        when(kafkaTemplate.send(any(ProducerRecord.class))).thenReturn(CompletableFuture.completedFuture((SendResult<String, PagamentoStatusAtualizacao>) null));
+        ReceiverOffset offset = mock(ReceiverOffset.class);
+        ReceiverRecord<String, PagamentoStatusAtualizacao> registro =
+                new ReceiverRecord<>(new ConsumerRecord<>("pagamento-status", 0, 5L, "1", atualizacao), offset);
+
+        StepVerifier.create(pagamentoConsumer.processar(registro)).expectNext(false).verifyComplete();
+
+        ArgumentCaptor<ProducerRecord<String, PagamentoStatusAtualizacao>> envio = ArgumentCaptor.forClass(ProducerRecord.class);
+        verify(kafkaTemplate, times(1)).send(envio.capture());
+        assertEquals("pagamento-status" + PagamentoConsumer.SUFIXO_RETENTATIVA, envio.getValue().topic());
+        assertEquals("1", envio.getValue().key());
+        assertEquals(2, ByteBuffer.wrap(envio.getValue().headers().lastHeader(RetryTopicHeaders.DEFAULT_HEADER_ATTEMPTS).value()).getInt());
+        assertNotNull(envio.getValue().headers().lastHeader(RetryTopicHeaders.DEFAULT_HEADER_BACKOFF_TIMESTAMP));
+        verify(pagamentoRepository, times(1)).atualizarStatusSePermitido(any(), any(), any());
+        verify(pagamentoMetricas, never()).registrarMensagemNoDlt();
+        verify(janelaDeduplicacao, never()).registrar(any());
+        verify(offset, times(1)).acknowledge();
+    }
+
+    @Test
+    @DisplayName("Deve aplicar a mensagem vinda do tópico de retentativa depois do horário gravado nela")
+    void testProcessar_MensagemDeRetentativa_Aplica() {
+        Pagamento anterior = new Pagamento();
+        anterior.setIdPagamento(1L);
+        anterior.setStatus(StatusPagamento.PENDENTE_PROCESSAMENTO);
+        when(pagamentoRepository.atualizarStatusSePermitido(1L, Set.of(StatusPagamento.PENDENTE_PROCESSAMENTO), StatusPagamento.PROCESSADO_SUCESSO))
+                .thenReturn(Mono.just(anterior));
+        ReceiverOffset offset = mock(ReceiverOffset.class);
+        ReceiverRecord<String, PagamentoStatusAtualizacao> registro = registroDeRetentativa(2, offset);
+
+        StepVerifier.create(pagamentoConsumer.processar(registro)).expectNext(true).verifyComplete();
+
+        verify(pagamentoCache, times(1)).registrar(1L, StatusPagamento.PROCESSADO_SUCESSO, true);
+        verify(offset, times(1)).acknowledge();
+        verifyNoInteractions(kafkaTemplate);
+    }
+
+    @Test
+    @DisplayName("Deve publicar no DLT quando a última tentativa falhar e confirmar a mensagem só depois da publicação")
+    @SuppressWarnings("unchecked")
+    void testProcessar_TentativasEsgotadas_EnviaAoDlt() {
+        when(pagamentoRepository.atualizarStatusSePermitido(1L, Set.of(StatusPagamento.PENDENTE_PROCESSAMENTO), StatusPagamento.PROCESSADO_SUCESSO))
+                .thenReturn(Mono.error(new DataAccessResourceFailureException("Timed out")));
+        when(kafkaTemplate.send(any(ProducerRecord.class))).thenReturn(CompletableFuture.completedFuture((SendResult<String, PagamentoStatusAtualizacao>) null));
+        ReceiverOffset offset = mock(ReceiverOffset.class);
+        ReceiverRecord<String, PagamentoStatusAtualizacao> registro = registroDeRetentativa(3, offset);
+
+        StepVerifier.create(pagamentoConsumer.processar(registro)).expectNext(false).verifyComplete();
+
+        ArgumentCaptor<ProducerRecord<String, PagamentoStatusAtualizacao>> envio = ArgumentCaptor.forClass(ProducerRecord.class);
+        verify(kafkaTemplate, times(1)).send(envio.capture());
+        assertEquals("pagamento-status" + PagamentoConsumer.SUFIXO_DLT, envio.getValue().topic());
+        assertEquals(atualizacao, envio.getValue().value());
+        assertNotNull(envio.getValue().headers().lastHeader(KafkaHeaders.DLT_EXCEPTION_MESSAGE));
+        verify(pagamentoRepository, times(1)).atualizarStatusSePermitido(any(), any(), any());
+        verify(pagamentoMetricas, times(1)).registrarMensagemNoDlt();
+        verify(janelaDeduplicacao, never()).registrar(any());
+        verify(offset, times(1)).acknowledge();
+    }
+
+    @Test
+    @DisplayName("Não deve confirmar a mensagem quando a publicação no DLT falhar")
+    @SuppressWarnings("unchecked")
+    void testProcessar_FalhaNoDlt_NaoConfirma() {
+        when(pagamentoRepository.atualizarStatusSePermitido(1L, Set.of(StatusPagamento.PENDENTE_PROCESSAMENTO), StatusPagamento.PROCESSADO_SUCESSO))
+                .thenReturn(Mono.error(new DataAccessResourceFailureException("Timed out")));
+        when(kafkaTemplate.send(any(ProducerRecord.class))).thenReturn(CompletableFuture.failedFuture(new IllegalStateException("broker indisponível")));
+        ReceiverOffset offset = mock(ReceiverOffset.class);
+        ReceiverRecord<String, PagamentoStatusAtualizacao> registro = registroDeRetentativa(3, offset);
+
+        StepVerifier.create(pagamentoConsumer.processar(registro)).verifyError(IllegalStateException.class);
+
+        verify(offset, never()).acknowledge();
+    }
+
+    private ReceiverRecord<String, PagamentoStatusAtualizacao> registroDeRetentativa(int tentativa, ReceiverOffset offset) {
+        ConsumerRecord<String, PagamentoStatusAtualizacao> registro =
+                new ConsumerRecord<>("pagamento-status" + PagamentoConsumer.SUFIXO_RETENTATIVA, 0, 5L, "1", atualizacao);
+        registro.headers().add(RetryTopicHeaders.DEFAULT_HEADER_ATTEMPTS, ByteBuffer.allocate(Integer.BYTES).putInt(tentativa).array());
+        registro.headers().add(RetryTopicHeaders.DEFAULT_HEADER_BACKOFF_TIMESTAMP,
+                ByteBuffer.allocate(Long.BYTES).putLong(System.currentTimeMillis() - 1).array());
+        return new ReceiverRecord<>(registro, offset);
+    }
+}
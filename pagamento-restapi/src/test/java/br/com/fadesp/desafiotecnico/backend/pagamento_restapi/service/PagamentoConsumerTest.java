@@ -2,8 +2,11 @@ package br.com.fadesp.desafiotecnico.backend.pagamento_restapi.service;
 
 import br.com.fadesp.desafiotecnico.backend.pagamento_restapi.persistence.model.PagamentoStatusAtualizacao;
 import br.com.fadesp.desafiotecnico.backend.pagamento_restapi.persistence.model.StatusPagamento;
+import br.com.fadesp.desafiotecnico.backend.pagamento_restapi.persistence.model.TransicaoStatus;
 import br.com.fadesp.desafiotecnico.backend.pagamento_restapi.persistence.model.entity.Pagamento;
 import br.com.fadesp.desafiotecnico.backend.pagamento_restapi.persistence.repository.PagamentoRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -11,10 +14,19 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.kafka.support.KafkaHeaders;
+import org.springframework.kafka.support.KafkaNull;
 
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Supplier;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.Mockito.*;
@@ -26,6 +38,27 @@ class PagamentoConsumerTest {
     @Mock
     private PagamentoRepository pagamentoRepository;
 
+    @Mock
+    private PagamentoCache pagamentoCache;
+
+    @Mock
+    private PagamentoMetricas pagamentoMetricas;
+
+    @Mock
+    private PagamentoResumoService pagamentoResumoService;
+
+    @Mock
+    private JanelaDeduplicacao janelaDeduplicacao;
+
+    @Spy
+    private VersaoPagamentos versaoPagamentos = new VersaoPagamentos();
+
+    @Mock
+    private PagamentoEventos pagamentoEventos;
+
+    @Spy
+    private SequenciadorPagamentos sequenciadorPagamentos = new SequenciadorPagamentos(true, 4, new SimpleMeterRegistry());
+
     @InjectMocks
     private PagamentoConsumer pagamentoConsumer;
 
@@ -49,62 +82,324 @@ class PagamentoConsumerTest {
     @DisplayName("Deve atualizar o status do pagamento para PROCESSADO_SUCESSO")
     void testConsumirMensagem_AtualizacaoSucesso_Sucesso() {
         atualizacao.setNovoStatus(StatusPagamento.PROCESSADO_SUCESSO);
-        when(pagamentoRepository.findByIdPagamentoAndAtivoIsTrue(1L)).thenReturn(Optional.of(pagamento));
+        when(pagamentoRepository.atualizarStatusSePermitido(1L, Set.of(StatusPagamento.PENDENTE_PROCESSAMENTO), StatusPagamento.PROCESSADO_SUCESSO))
+                .thenReturn(Optional.of(pagamento));
 
-        pagamentoConsumer.consumirMensagem(atualizacao);
+        pagamentoConsumer.consumirMensagem(atualizacao, null, null);
 
-        ArgumentCaptor<Pagamento> pagamentoCaptor = ArgumentCaptor.forClass(Pagamento.class);
-        verify(pagamentoRepository, times(1)).save(pagamentoCaptor.capture());
-        assertEquals(StatusPagamento.PROCESSADO_SUCESSO, pagamentoCaptor.getValue().getStatus());
+        verify(pagamentoRepository, times(1)).atualizarStatusSePermitido(1L, Set.of(StatusPagamento.PENDENTE_PROCESSAMENTO), StatusPagamento.PROCESSADO_SUCESSO);
+        verify(pagamentoRepository, never()).findByIdPagamentoAndAtivoIsTrue(any());
+        verify(pagamentoRepository, never()).save(any(Pagamento.class));
+        verify(pagamentoCache, times(1)).registrar(1L, StatusPagamento.PROCESSADO_SUCESSO, true);
+        verify(pagamentoResumoService, times(1)).registrarTransicao(pagamento, StatusPagamento.PROCESSADO_SUCESSO);
+        verify(pagamentoEventos, times(1)).publicarTransicao(pagamento, StatusPagamento.PROCESSADO_SUCESSO);
     }
 
     @Test
     @DisplayName("Deve atualizar o status do pagamento para PROCESSADO_FALHA")
     void testConsumirMensagem_AtualizacaoFalha_Sucesso() {
         atualizacao.setNovoStatus(StatusPagamento.PROCESSADO_FALHA);
-        when(pagamentoRepository.findByIdPagamentoAndAtivoIsTrue(1L)).thenReturn(Optional.of(pagamento));
+        when(pagamentoRepository.atualizarStatusSePermitido(1L, Set.of(StatusPagamento.PENDENTE_PROCESSAMENTO), StatusPagamento.PROCESSADO_FALHA))
+                .thenReturn(Optional.of(pagamento));
 
-        pagamentoConsumer.consumirMensagem(atualizacao);
+        pagamentoConsumer.consumirMensagem(atualizacao, null, null);
 
-        ArgumentCaptor<Pagamento> pagamentoCaptor = ArgumentCaptor.forClass(Pagamento.class);
-        verify(pagamentoRepository, times(1)).save(pagamentoCaptor.capture());
-        assertEquals(StatusPagamento.PROCESSADO_FALHA, pagamentoCaptor.getValue().getStatus());
+        verify(pagamentoRepository, times(1)).atualizarStatusSePermitido(1L, Set.of(StatusPagamento.PENDENTE_PROCESSAMENTO), StatusPagamento.PROCESSADO_FALHA);
+        verify(pagamentoRepository, never()).save(any(Pagamento.class));
     }
 
     @Test
-    @DisplayName("Não deve atualizar o status se o pagamento não for encontrado")
-    void testConsumirMensagem_PagamentoNaoEncontrado_NaoAtualiza() {
+    @DisplayName("Não deve atualizar o status se o pagamento não for encontrado ou a regra de negócio for violada")
+    void testConsumirMensagem_AtualizacaoNaoAplicada_NaoSalva() {
         atualizacao.setNovoStatus(StatusPagamento.PROCESSADO_SUCESSO);
-        when(pagamentoRepository.findByIdPagamentoAndAtivoIsTrue(1L)).thenReturn(Optional.empty());
+        when(pagamentoRepository.atualizarStatusSePermitido(1L, Set.of(StatusPagamento.PENDENTE_PROCESSAMENTO), StatusPagamento.PROCESSADO_SUCESSO))
+                .thenReturn(Optional.empty());
+        pagamento.setStatus(StatusPagamento.PROCESSADO_SUCESSO);
+        when(pagamentoRepository.findByIdPagamentoAndAtivoIsTrue(1L)).thenReturn(Optional.of(pagamento));
 
-        pagamentoConsumer.consumirMensagem(atualizacao);
+        pagamentoConsumer.consumirMensagem(atualizacao, null, null);
 
         verify(pagamentoRepository, never()).save(any(Pagamento.class));
+        verify(pagamentoCache, times(1)).invalidar(1L);
+        verify(pagamentoMetricas, times(1)).registrarTransicaoRejeitada(StatusPagamento.PROCESSADO_SUCESSO, StatusPagamento.PROCESSADO_SUCESSO);
+        verify(pagamentoMetricas, never()).registrarConvergencia(any());
+        verify(pagamentoResumoService, never()).registrarTransicao(any(), any());
+        verify(pagamentoEventos, never()).publicarTransicao(any(), any());
     }
 
     @Test
-    @DisplayName("Não deve atualizar o status se a regra de negócio for violada (status já PROCESSADO_SUCESSO)")
-    void testConsumirMensagem_ViolacaoRegra_NaoAtualiza() {
-        pagamento.setStatus(StatusPagamento.PROCESSADO_SUCESSO);
-        atualizacao.setNovoStatus(StatusPagamento.PROCESSADO_FALHA);
-        when(pagamentoRepository.findByIdPagamentoAndAtivoIsTrue(1L)).thenReturn(Optional.of(pagamento));
+    @DisplayName("Deve permitir transição de PROCESSADO_FALHA para PENDENTE_PROCESSAMENTO")
+    void testConsumirMensagem_TransicaoDeFalhaParaPendente_Sucesso() {
+        atualizacao.setNovoStatus(StatusPagamento.PENDENTE_PROCESSAMENTO);
+        pagamento.setStatus(StatusPagamento.PROCESSADO_FALHA);
+        when(pagamentoRepository.atualizarStatusSePermitido(1L, Set.of(StatusPagamento.PROCESSADO_FALHA), StatusPagamento.PENDENTE_PROCESSAMENTO))
+                .thenReturn(Optional.of(pagamento));
+
+        pagamentoConsumer.consumirMensagem(atualizacao, null, null);
 
-        pagamentoConsumer.consumirMensagem(atualizacao);
+        verify(pagamentoRepository, times(1)).atualizarStatusSePermitido(1L, Set.of(StatusPagamento.PROCESSADO_FALHA), StatusPagamento.PENDENTE_PROCESSAMENTO);
+    }
+
+    @Test
+    @DisplayName("As origens permitidas devem refletir as regras de transição de status")
+    void testOrigensPermitidas_RefletemRegrasDeNegocio() {
+        assertEquals(Set.of(StatusPagamento.PENDENTE_PROCESSAMENTO), PagamentoConsumer.origensPermitidas(StatusPagamento.PROCESSADO_SUCESSO));
+        assertEquals(Set.of(StatusPagamento.PENDENTE_PROCESSAMENTO), PagamentoConsumer.origensPermitidas(StatusPagamento.PROCESSADO_FALHA));
+        assertEquals(Set.of(StatusPagamento.PROCESSADO_FALHA), PagamentoConsumer.origensPermitidas(StatusPagamento.PENDENTE_PROCESSAMENTO));
+    }
+
+    @Test
+    @DisplayName("Deve aplicar um lote com uma única busca e uma escrita em massa por faixa do sequenciador, encadeando as atualizações do mesmo pagamento")
+    void testConsumirLote_EncadeiaAtualizacoes_UmaLeituraUmaEscritaPorFaixa() {
+        Pagamento outro = new Pagamento();
+        outro.setIdPagamento(2L);
+        outro.setStatus(StatusPagamento.PENDENTE_PROCESSAMENTO);
+
+        List<PagamentoStatusAtualizacao> lote = List.of(
+                novaAtualizacao(1L, StatusPagamento.PROCESSADO_FALHA),
+                novaAtualizacao(2L, StatusPagamento.PROCESSADO_SUCESSO),
+                novaAtualizacao(1L, StatusPagamento.PENDENTE_PROCESSAMENTO),
+                novaAtualizacao(1L, StatusPagamento.PROCESSADO_SUCESSO),
+                novaAtualizacao(2L, StatusPagamento.PROCESSADO_FALHA),
+                novaAtualizacao(99L, StatusPagamento.PROCESSADO_SUCESSO));
 
+        when(pagamentoRepository.findByIdPagamentoInAndAtivoIsTrue(Set.of(1L, 2L, 99L))).thenReturn(List.of(pagamento, outro));
+        when(pagamentoRepository.atualizarStatusEmLote(anyList())).thenReturn(1);
+
+        pagamentoConsumer.consumirLote(lote, null);
+
+        // Com 4 faixas, os pagamentos 1 e 2 caem em faixas diferentes
+        ArgumentCaptor<List<TransicaoStatus>> transicoesCaptor = ArgumentCaptor.forClass(List.class);
+        verify(pagamentoRepository, times(1)).findByIdPagamentoInAndAtivoIsTrue(anyCollection());
+        verify(pagamentoRepository, times(2)).atualizarStatusEmLote(transicoesCaptor.capture());
+        verify(sequenciadorPagamentos, times(2)).executar(anyLong(), any(Supplier.class));
         verify(pagamentoRepository, never()).save(any(Pagamento.class));
+
+        assertEquals(List.of(
+                List.of(new TransicaoStatus(1L, StatusPagamento.PENDENTE_PROCESSAMENTO, StatusPagamento.PROCESSADO_SUCESSO)),
+                List.of(new TransicaoStatus(2L, StatusPagamento.PENDENTE_PROCESSAMENTO, StatusPagamento.PROCESSADO_SUCESSO))
+        ), transicoesCaptor.getAllValues());
+        verify(versaoPagamentos, times(1)).incrementar();
+        verify(pagamentoCache).registrar(1L, StatusPagamento.PROCESSADO_SUCESSO, true);
+        verify(pagamentoCache).registrar(2L, StatusPagamento.PROCESSADO_SUCESSO, true);
+        verify(pagamentoResumoService).registrarTransicao(pagamento, StatusPagamento.PROCESSADO_SUCESSO);
+        verify(pagamentoResumoService).registrarTransicao(outro, StatusPagamento.PROCESSADO_SUCESSO);
+        verify(pagamentoMetricas).registrarTransicaoRejeitada(StatusPagamento.PROCESSADO_SUCESSO, StatusPagamento.PROCESSADO_FALHA);
+        verify(pagamentoMetricas).registrarTransicaoRejeitada(null, StatusPagamento.PROCESSADO_SUCESSO);
     }
 
     @Test
-    @DisplayName("Deve permitir transição de PROCESSADO_FALHA para PENDENTE_PROCESSAMENTO")
-    void testConsumirMensagem_TransicaoDeFalhaParaPendente_Sucesso() {
+    @DisplayName("Deve registrar o tempo de convergência a partir do cabeçalho de envio quando a atualização é aplicada")
+    void testConsumirMensagem_ComCabecalhoDeEnvio_RegistraConvergencia() {
+        byte[] enviadoEm = "1700000000000".getBytes(StandardCharsets.UTF_8);
+        atualizacao.setNovoStatus(StatusPagamento.PROCESSADO_SUCESSO);
+        when(pagamentoRepository.atualizarStatusSePermitido(1L, Set.of(StatusPagamento.PENDENTE_PROCESSAMENTO), StatusPagamento.PROCESSADO_SUCESSO))
+                .thenReturn(Optional.of(pagamento));
+
+        pagamentoConsumer.consumirMensagem(atualizacao, enviadoEm, null);
+
+        verify(pagamentoMetricas, times(1)).registrarConvergencia(enviadoEm);
+        verify(pagamentoMetricas, never()).registrarTransicaoRejeitada(any(), any());
+    }
+
+    @Test
+    @DisplayName("Não deve escrever quando nenhuma transição do lote altera o status")
+    void testConsumirLote_SemTransicoesValidas_NaoEscreve() {
+        pagamento.setStatus(StatusPagamento.PROCESSADO_SUCESSO);
+        when(pagamentoRepository.findByIdPagamentoInAndAtivoIsTrue(Set.of(1L))).thenReturn(List.of(pagamento));
+
+        pagamentoConsumer.consumirLote(List.of(novaAtualizacao(1L, StatusPagamento.PROCESSADO_FALHA)), null);
+
+        verify(pagamentoRepository, never()).atualizarStatusEmLote(anyList());
+    }
+
+    @Test
+    @DisplayName("Deve contabilizar no resumo apenas as transições do lote confirmadas após escrita concorrente")
+    void testConsumirLote_EscritaParcial_ResumoApenasDasConfirmadas() {
+        Pagamento outro = new Pagamento();
+        outro.setIdPagamento(2L);
+        outro.setStatus(StatusPagamento.PENDENTE_PROCESSAMENTO);
+        Pagamento alteradoConcorrentemente = new Pagamento();
+        alteradoConcorrentemente.setIdPagamento(2L);
+        alteradoConcorrentemente.setStatus(StatusPagamento.PROCESSADO_FALHA);
+
+        when(pagamentoRepository.findByIdPagamentoInAndAtivoIsTrue(Set.of(1L, 2L))).thenReturn(List.of(pagamento, outro));
+        when(pagamentoRepository.findByIdPagamentoInAndAtivoIsTrue(Set.of(2L))).thenReturn(List.of(alteradoConcorrentemente));
+        when(pagamentoRepository.atualizarStatusEmLote(anyList())).thenReturn(1, 0);
+
+        pagamentoConsumer.consumirLote(List.of(
+                novaAtualizacao(1L, StatusPagamento.PROCESSADO_SUCESSO),
+                novaAtualizacao(2L, StatusPagamento.PROCESSADO_SUCESSO)), null);
+
+        verify(pagamentoResumoService, times(1)).registrarTransicao(pagamento, StatusPagamento.PROCESSADO_SUCESSO);
+        verify(pagamentoResumoService, never()).registrarTransicao(outro, StatusPagamento.PROCESSADO_SUCESSO);
+        verify(pagamentoEventos, times(1)).publicarTransicao(pagamento, StatusPagamento.PROCESSADO_SUCESSO);
+        verify(pagamentoEventos, never()).publicarTransicao(outro, StatusPagamento.PROCESSADO_SUCESSO);
+        verify(pagamentoCache).registrar(1L, StatusPagamento.PROCESSADO_SUCESSO, true);
+        verify(pagamentoCache, never()).invalidar(1L);
+        verify(pagamentoCache).invalidar(2L);
+    }
+
+    @Test
+    @DisplayName("Deve gerar evento e variação no resumo para cada transição encadeada no lote")
+    void testConsumirLote_TransicoesIntermediarias_EfeitosPorTransicao() {
         pagamento.setStatus(StatusPagamento.PROCESSADO_FALHA);
-        atualizacao.setNovoStatus(StatusPagamento.PENDENTE_PROCESSAMENTO);
-        when(pagamentoRepository.findByIdPagamentoAndAtivoIsTrue(1L)).thenReturn(Optional.of(pagamento));
+        when(pagamentoRepository.findByIdPagamentoInAndAtivoIsTrue(Set.of(1L))).thenReturn(List.of(pagamento));
+        when(pagamentoRepository.atualizarStatusEmLote(anyList())).thenReturn(1);
+
+        pagamentoConsumer.consumirLote(List.of(
+                novaAtualizacao(1L, StatusPagamento.PENDENTE_PROCESSAMENTO),
+                novaAtualizacao(1L, StatusPagamento.PROCESSADO_SUCESSO)), null);
+
+        verify(pagamentoRepository).atualizarStatusEmLote(
+                List.of(new TransicaoStatus(1L, StatusPagamento.PROCESSADO_FALHA, StatusPagamento.PROCESSADO_SUCESSO)));
+        ArgumentCaptor<Pagamento> anteriores = ArgumentCaptor.forClass(Pagamento.class);
+        ArgumentCaptor<StatusPagamento> novos = ArgumentCaptor.forClass(StatusPagamento.class);
+        verify(pagamentoEventos, times(2)).publicarTransicao(anteriores.capture(), novos.capture());
+        assertEquals(List.of(StatusPagamento.PROCESSADO_FALHA, StatusPagamento.PENDENTE_PROCESSAMENTO),
+                anteriores.getAllValues().stream().map(Pagamento::getStatus).toList());
+        assertEquals(List.of(StatusPagamento.PENDENTE_PROCESSAMENTO, StatusPagamento.PROCESSADO_SUCESSO), novos.getAllValues());
+        verify(pagamentoResumoService, times(2)).registrarTransicao(any(Pagamento.class), any(StatusPagamento.class));
+        verify(pagamentoCache).registrar(1L, StatusPagamento.PROCESSADO_SUCESSO, true);
+    }
+
+    @Test
+    @DisplayName("Deve gravar o pagamento cujas transições do lote voltam ao status lido")
+    void testConsumirLote_VoltaAoStatusLido_GravaCondicionado() {
+        when(pagamentoRepository.findByIdPagamentoInAndAtivoIsTrue(Set.of(1L))).thenReturn(List.of(pagamento));
+        when(pagamentoRepository.atualizarStatusEmLote(anyList())).thenReturn(1);
+
+        pagamentoConsumer.consumirLote(List.of(
+                novaAtualizacao(1L, StatusPagamento.PROCESSADO_FALHA),
+                novaAtualizacao(1L, StatusPagamento.PENDENTE_PROCESSAMENTO)), null);
+
+        verify(pagamentoRepository).atualizarStatusEmLote(
+                List.of(new TransicaoStatus(1L, StatusPagamento.PENDENTE_PROCESSAMENTO, StatusPagamento.PENDENTE_PROCESSAMENTO)));
+        verify(pagamentoEventos, times(2)).publicarTransicao(any(Pagamento.class), any(StatusPagamento.class));
+    }
+
+    @Test
+    @DisplayName("Deve reaplicar uma a uma as mensagens cuja escrita em massa não se aplicou antes de registrá-las na janela")
+    void testConsumirLote_EscritaConcorrente_ReaplicaAntesDeRegistrar() {
+        Pagamento alteradoConcorrentemente = new Pagamento();
+        alteradoConcorrentemente.setIdPagamento(1L);
+        alteradoConcorrentemente.setStatus(StatusPagamento.PROCESSADO_FALHA);
+        when(pagamentoRepository.findByIdPagamentoInAndAtivoIsTrue(Set.of(1L)))
+                .thenReturn(List.of(pagamento), List.of(alteradoConcorrentemente));
+        when(pagamentoRepository.atualizarStatusEmLote(anyList())).thenReturn(0);
+        when(pagamentoRepository.atualizarStatusSePermitido(1L, Set.of(StatusPagamento.PENDENTE_PROCESSAMENTO), StatusPagamento.PROCESSADO_SUCESSO))
+                .thenReturn(Optional.empty());
+        when(pagamentoRepository.findByIdPagamentoAndAtivoIsTrue(1L)).thenReturn(Optional.of(alteradoConcorrentemente));
+
+        pagamentoConsumer.consumirLote(List.of(novaAtualizacao(1L, StatusPagamento.PROCESSADO_SUCESSO)),
+                List.of(Map.of(PagamentoProducer.HEADER_ID_MENSAGEM, "mensagem-1".getBytes(StandardCharsets.UTF_8))));
 
-        pagamentoConsumer.consumirMensagem(atualizacao);
+        var ordem = inOrder(pagamentoRepository, janelaDeduplicacao);
+        ordem.verify(pagamentoRepository).atualizarStatusEmLote(anyList());
+        ordem.verify(pagamentoRepository).atualizarStatusSePermitido(any(), any(), any());
+        ordem.verify(janelaDeduplicacao).registrar("mensagem-1");
+        verify(pagamentoMetricas).registrarTransicaoRejeitada(StatusPagamento.PROCESSADO_FALHA, StatusPagamento.PROCESSADO_SUCESSO);
+        verify(pagamentoEventos, never()).publicarTransicao(any(), any());
+        verify(pagamentoCache).invalidar(1L);
+    }
+
+    @Test
+    @DisplayName("Deve descartar a mensagem já processada sem consultar o MongoDB")
+    void testConsumirMensagem_Duplicada_Descarta() {
+        atualizacao.setNovoStatus(StatusPagamento.PROCESSADO_SUCESSO);
+        when(janelaDeduplicacao.jaProcessada("mensagem-1")).thenReturn(true);
+
+        pagamentoConsumer.consumirMensagem(atualizacao, null, "mensagem-1".getBytes(StandardCharsets.UTF_8));
+
+        verifyNoInteractions(pagamentoRepository, pagamentoCache, pagamentoResumoService);
+        verify(janelaDeduplicacao, never()).registrar(any());
+    }
+
+    @Test
+    @DisplayName("Deve registrar o identificador da mensagem somente após processá-la")
+    void testConsumirMensagem_Processada_RegistraIdentificador() {
+        atualizacao.setNovoStatus(StatusPagamento.PROCESSADO_SUCESSO);
+        when(pagamentoRepository.atualizarStatusSePermitido(1L, Set.of(StatusPagamento.PENDENTE_PROCESSAMENTO), StatusPagamento.PROCESSADO_SUCESSO))
+                .thenReturn(Optional.of(pagamento));
+
+        pagamentoConsumer.consumirMensagem(atualizacao, null, "mensagem-1".getBytes(StandardCharsets.UTF_8));
+
+        var ordem = inOrder(pagamentoRepository, janelaDeduplicacao);
+        ordem.verify(pagamentoRepository).atualizarStatusSePermitido(any(), any(), any());
+        ordem.verify(janelaDeduplicacao).registrar("mensagem-1");
+    }
+
+    @Test
+    @DisplayName("Deve ignorar no lote as mensagens já processadas e as repetidas dentro do próprio lote")
+    void testConsumirLote_Duplicadas_Ignora() {
+        when(janelaDeduplicacao.jaProcessada("mensagem-antiga")).thenReturn(true);
+        when(pagamentoRepository.findByIdPagamentoInAndAtivoIsTrue(Set.of(1L))).thenReturn(List.of(pagamento));
+        when(pagamentoRepository.atualizarStatusEmLote(anyList())).thenReturn(1);
+
+        pagamentoConsumer.consumirLote(List.of(
+                        novaAtualizacao(2L, StatusPagamento.PROCESSADO_SUCESSO),
+                        novaAtualizacao(1L, StatusPagamento.PROCESSADO_FALHA),
+                        novaAtualizacao(1L, StatusPagamento.PROCESSADO_FALHA)),
+                List.of(
+                        Map.of(PagamentoProducer.HEADER_ID_MENSAGEM, "mensagem-antiga".getBytes(StandardCharsets.UTF_8)),
+                        Map.of(PagamentoProducer.HEADER_ID_MENSAGEM, "mensagem-nova".getBytes(StandardCharsets.UTF_8)),
+                        Map.of(PagamentoProducer.HEADER_ID_MENSAGEM, "mensagem-nova".getBytes(StandardCharsets.UTF_8))));
+
+        verify(pagamentoRepository).atualizarStatusEmLote(
+                List.of(new TransicaoStatus(1L, StatusPagamento.PENDENTE_PROCESSAMENTO, StatusPagamento.PROCESSADO_FALHA)));
+        verify(pagamentoMetricas, never()).registrarTransicaoRejeitada(any(), any());
+        verify(janelaDeduplicacao, atLeastOnce()).registrar("mensagem-nova");
+    }
+
+    @Test
+    @DisplayName("Não deve consultar o MongoDB quando todas as mensagens do lote já foram processadas")
+    void testConsumirLote_TodasDuplicadas_NaoConsulta() {
+        when(janelaDeduplicacao.jaProcessada("mensagem-1")).thenReturn(true);
+
+        pagamentoConsumer.consumirLote(List.of(novaAtualizacao(1L, StatusPagamento.PROCESSADO_FALHA)),
+                List.of(Map.of(PagamentoProducer.HEADER_ID_MENSAGEM, "mensagem-1".getBytes(StandardCharsets.UTF_8))));
+
+        verifyNoInteractions(pagamentoRepository);
+    }
+
+    @Test
+    @DisplayName("Deve descartar do lote as mensagens ilegíveis mantendo os cabeçalhos alinhados às demais")
+    @SuppressWarnings("unchecked")
+    void testConsumirLote_MensagensIlegiveis_Descarta() {
+        when(pagamentoRepository.findByIdPagamentoInAndAtivoIsTrue(Set.of(1L))).thenReturn(List.of(pagamento));
+        when(pagamentoRepository.atualizarStatusEmLote(anyList())).thenReturn(1);
+        List<Object> lote = Arrays.asList(KafkaNull.INSTANCE, novaAtualizacao(1L, StatusPagamento.PROCESSADO_FALHA), null);
+
+        pagamentoConsumer.consumirLote((List<PagamentoStatusAtualizacao>) (List<?>) lote, List.of(
+                Map.of(PagamentoProducer.HEADER_ID_MENSAGEM, "mensagem-ilegivel".getBytes(StandardCharsets.UTF_8)),
+                Map.of(PagamentoProducer.HEADER_ID_MENSAGEM, "mensagem-1".getBytes(StandardCharsets.UTF_8)),
+                Map.of(PagamentoProducer.HEADER_ID_MENSAGEM, "mensagem-vazia".getBytes(StandardCharsets.UTF_8))));
+
+        verify(pagamentoRepository).atualizarStatusEmLote(
+                List.of(new TransicaoStatus(1L, StatusPagamento.PENDENTE_PROCESSAMENTO, StatusPagamento.PROCESSADO_FALHA)));
+        verify(pagamentoMetricas, times(2)).registrarMensagemIlegivel("lote");
+        verify(janelaDeduplicacao).registrar("mensagem-1");
+        verify(janelaDeduplicacao, never()).registrar("mensagem-ilegivel");
+    }
+
+    @Test
+    @DisplayName("Deve contabilizar a atualização que chega ao DLT após esgotar as retentativas")
+    void testRegistrarFalhaDefinitiva_RegistraMetrica() {
+        atualizacao.setNovoStatus(StatusPagamento.PROCESSADO_SUCESSO);
+        ConsumerRecord<String, PagamentoStatusAtualizacao> registro =
+                new ConsumerRecord<>("pagamento-status" + PagamentoConsumer.SUFIXO_DLT, 0, 0L, "1", atualizacao);
+        registro.headers().add(KafkaHeaders.DLT_EXCEPTION_MESSAGE, "Timeout".getBytes(StandardCharsets.UTF_8));
+
+        pagamentoConsumer.registrarFalhaDefinitiva(registro);
+
+        verify(pagamentoMetricas, times(1)).registrarMensagemNoDlt();
+        verifyNoInteractions(pagamentoRepository, pagamentoCache);
+    }
 
-        ArgumentCaptor<Pagamento> pagamentoCaptor = ArgumentCaptor.forClass(Pagamento.class);
-        verify(pagamentoRepository, times(1)).save(pagamentoCaptor.capture());
-        assertEquals(StatusPagamento.PENDENTE_PROCESSAMENTO, pagamentoCaptor.getValue().getStatus());
+    private static PagamentoStatusAtualizacao novaAtualizacao(Long idPagamento, StatusPagamento novoStatus) {
+        PagamentoStatusAtualizacao novaAtualizacao = new PagamentoStatusAtualizacao();
+        novaAtualizacao.setIdPagamento(idPagamento);
+        novaAtualizacao.setNovoStatus(novoStatus);
+        return novaAtualizacao;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,175 @@
+package br.com.fadesp.desafiotecnico.backend.pagamento_restapi.service;
+
+import br.com.fadesp.desafiotecnico.backend.pagamento_restapi.persistence.model.RegistroDlt;
+import br.com.fadesp.desafiotecnico.backend.pagamento_restapi.persistence.model.ResultadoReprocessamentoDlt;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.MockConsumer;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.clients.consumer.OffsetResetStrategy;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.PartitionInfo;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.header.Header;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.KafkaHeaders;
+import org.springframework.kafka.support.SendResult;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Testes para PagamentoDltService")
+class PagamentoDltServiceTest {
+
+    private static final String TOPICO = "pagamento-status";
+    private static final String TOPICO_DLT = TOPICO + PagamentoConsumer.SUFIXO_DLT;
+    private static final String GRUPO = "pagamento-api-dlt-reprocessamento";
+    private static final TopicPartition PARTICAO_0 = new TopicPartition(TOPICO_DLT, 0);
+    private static final TopicPartition PARTICAO_1 = new TopicPartition(TOPICO_DLT, 1);
+
+    @Mock
+    private ConsumerFactory<String, byte[]> consumerFactory;
+
+    @Mock
+    private KafkaTemplate<String, byte[]> kafkaTemplate;
+
+    private MockConsumer<String, byte[]> consumer;
+    private PagamentoDltService pagamentoDltService;
+
+    @BeforeEach
+    void setUp() {
+        consumer = spy(new MockConsumer<>(OffsetResetStrategy.EARLIEST));
+        consumer.updatePartitions(TOPICO_DLT, List.of(
+                new PartitionInfo(TOPICO_DLT, 0, null, null, null),
+                new PartitionInfo(TOPICO_DLT, 1, null, null, null)));
+        consumer.updateBeginningOffsets(Map.of(PARTICAO_0, 0L, PARTICAO_1, 0L));
+        pagamentoDltService = new PagamentoDltService(consumerFactory, kafkaTemplate, TOPICO, GRUPO, 500,
+                Duration.ofSeconds(2), Duration.ofSeconds(1));
+    }
+
+    @Test
+    @DisplayName("Deve listar as mensagens pendentes do DLT, com JSON em texto e binário em Base64, sem confirmar offsets")
+    void testInspecionar_ListaSemConfirmar() {
+        byte[] binario = {1, 0, 0, 0, 0, 0, 0, 0, 7, 1};
+        registros(
+                registroDlt(0, 0L, "1", "{\"idPagamento\":1,\"novoStatus\":\"PROCESSADO_SUCESSO\"}".getBytes(StandardCharsets.UTF_8)),
+                registroDlt(1, 0L, "7", binario));
+        consumer.updateEndOffsets(Map.of(PARTICAO_0, 1L, PARTICAO_1, 1L));
+        when(consumerFactory.createConsumer(eq(GRUPO), isNull(), isNull(), any(Properties.class))).thenReturn(consumer);
+
+        List<RegistroDlt> registros = pagamentoDltService.inspecionar(10);
+
+        assertEquals(2, registros.size());
+        RegistroDlt json = registros.stream().filter(registro -> registro.getParticao() == 0).findFirst().orElseThrow();
+        assertEquals("{\"idPagamento\":1,\"novoStatus\":\"PROCESSADO_SUCESSO\"}", json.getValor());
+        assertNull(json.getValorBase64());
+        assertEquals("mensagem-1", json.getIdMensagem());
+        assertEquals("org.springframework.dao.DataAccessResourceFailureException", json.getExcecao());
+        assertEquals("Timed out", json.getMensagemExcecao());
+        RegistroDlt emBinario = registros.stream().filter(registro -> registro.getParticao() == 1).findFirst().orElseThrow();
+        assertNull(emBinario.getValor());
+        assertEquals(Base64.getEncoder().encodeToString(binario), emBinario.getValorBase64());
+        verify(consumer, never()).commitSync(anyMap());
+        verifyNoInteractions(kafkaTemplate);
+    }
+
+    @Test
+    @DisplayName("Deve republicar um bloco no tópico principal sem os cabeçalhos de retentativa e de DLT e confirmar só esse bloco")
+    @SuppressWarnings("unchecked")
+    void testReprocessar_RepublicaBlocoEConfirma() {
+        registros(
+                registroDlt(0, 0L, "1", "a".getBytes(StandardCharsets.UTF_8)),
+                registroDlt(0, 1L, "2", "b".getBytes(StandardCharsets.UTF_8)),
+                registroDlt(0, 2L, "3", "c".getBytes(StandardCharsets.UTF_8)));
+        consumer.updateEndOffsets(Map.of(PARTICAO_0, 3L, PARTICAO_1, 0L));
+        when(consumerFactory.createConsumer(eq(GRUPO), isNull(), isNull(), any(Properties.class))).thenReturn(consumer);
+        when(kafkaTemplate.send(any(ProducerRecord.class))).thenReturn(CompletableFuture.completedFuture((SendResult<String, byte[]>) null));
+
+        ResultadoReprocessamentoDlt resultado = pagamentoDltService.reprocessar(2);
+
+        ArgumentCaptor<ProducerRecord<String, byte[]>> envios = ArgumentCaptor.forClass(ProducerRecord.class);
+        verify(kafkaTemplate, times(2)).send(envios.capture());
+        ProducerRecord<String, byte[]> primeiro = envios.getAllValues().get(0);
+        assertEquals(TOPICO, primeiro.topic());
+        assertNull(primeiro.partition());
+        assertEquals("1", primeiro.key());
+        assertEquals(List.of(PagamentoProducer.HEADER_ID_MENSAGEM, PagamentoProducer.HEADER_ENVIADO_EM),
+                Arrays.stream(primeiro.headers().toArray()).map(Header::key).toList());
+        assertEquals("2", envios.getAllValues().get(1).key());
+        verify(consumer, times(1)).commitSync(Map.of(PARTICAO_0, new OffsetAndMetadata(2L)));
+        assertEquals(new ResultadoReprocessamentoDlt(2, 1L), resultado);
+    }
+
+    @Test
+    @DisplayName("Não deve confirmar offsets quando o Kafka recusar a republicação")
+    @SuppressWarnings("unchecked")
+    void testReprocessar_FalhaNoEnvio_NaoConfirma() {
+        registros(registroDlt(0, 0L, "1", "a".getBytes(StandardCharsets.UTF_8)));
+        consumer.updateEndOffsets(Map.of(PARTICAO_0, 1L, PARTICAO_1, 0L));
+        when(consumerFactory.createConsumer(eq(GRUPO), isNull(), isNull(), any(Properties.class))).thenReturn(consumer);
+        when(kafkaTemplate.send(any(ProducerRecord.class))).thenReturn(CompletableFuture.failedFuture(new IllegalStateException("broker indisponível")));
+
+        assertThrows(IllegalStateException.class, () -> pagamentoDltService.reprocessar(10));
+
+        verify(consumer, never()).commitSync(anyMap());
+    }
+
+    @Test
+    @DisplayName("Deve recusar limites não positivos")
+    void testLimiteInvalido() {
+        assertThrows(IllegalArgumentException.class, () -> pagamentoDltService.inspecionar(0));
+        assertThrows(IllegalArgumentException.class, () -> pagamentoDltService.reprocessar(-1));
+        verifyNoInteractions(consumerFactory, kafkaTemplate);
+    }
+
+    // O MockConsumer só aceita registros de partições atribuídas, o que o serviço faz antes do primeiro poll
+    @SafeVarargs
+    private void registros(ConsumerRecord<String, byte[]>... registros) {
+        consumer.schedulePollTask(() -> {
+            for (ConsumerRecord<String, byte[]> registro : registros) {
+                consumer.addRecord(registro);
+            }
+        });
+    }
+
+    private static ConsumerRecord<String, byte[]> registroDlt(int particao, long offset, String chave, byte[] valor) {
+        ConsumerRecord<String, byte[]> registro = new ConsumerRecord<>(TOPICO_DLT, particao, offset, chave, valor);
+        registro.headers().add(PagamentoProducer.HEADER_ID_MENSAGEM, ("mensagem-" + chave).getBytes(StandardCharsets.UTF_8));
+        registro.headers().add(PagamentoProducer.HEADER_ENVIADO_EM, "1700000000000".getBytes(StandardCharsets.UTF_8));
+        registro.headers().add("retry_topic-attempts", new byte[]{0, 0, 0, 4});
+        registro.headers().add(KafkaHeaders.DLT_EXCEPTION_FQCN,
+                "org.springframework.kafka.listener.ListenerExecutionFailedException".getBytes(StandardCharsets.UTF_8));
+        registro.headers().add(KafkaHeaders.DLT_EXCEPTION_CAUSE_FQCN,
+                "org.springframework.dao.DataAccessResourceFailureException".getBytes(StandardCharsets.UTF_8));
+        registro.headers().add(KafkaHeaders.DLT_EXCEPTION_MESSAGE, "Timed out".getBytes(StandardCharsets.UTF_8));
+        return registro;
+    }
+}
@@ -0,0 +1,153 @@
+package br.com.fadesp.desafiotecnico.backend.pagamento_restapi.service;
+
+import br.com.fadesp.desafiotecnico.backend.pagamento_restapi.persistence.model.EventoPagamento;
+import br.com.fadesp.desafiotecnico.backend.pagamento_restapi.persistence.model.StatusPagamento;
+import br.com.fadesp.desafiotecnico.backend.pagamento_restapi.persistence.model.TipoEventoPagamento;
+import br.com.fadesp.desafiotecnico.backend.pagamento_restapi.persistence.model.entity.Pagamento;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.codec.ServerSentEvent;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@DisplayName("Testes para PagamentoEventos")
+class PagamentoEventosTest {
+
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @Test
+    @DisplayName("Deve entregar apenas os eventos que atendem aos filtros, nomeados pelo tipo")
+    void testAssinar_Filtros() {
+        PagamentoEventos eventos = novosEventos(16, PagamentoEventos.POLITICA_DESCARTAR);
+
+        StepVerifier.create(eventos.assinar(1L, "999"))
+                .then(() -> {
+                    eventos.publicarCriacao(novoPagamento(2L, "12345678901", StatusPagamento.PENDENTE_PROCESSAMENTO));
+                    eventos.publicarTransicao(novoPagamento(1L, "12345678901", StatusPagamento.PENDENTE_PROCESSAMENTO), StatusPagamento.PROCESSADO_SUCESSO);
+                    eventos.publicarInativacao(novoPagamento(3L, "99988877766", StatusPagamento.PENDENTE_PROCESSAMENTO));
+                })
+                .assertNext(evento -> {
+                    assertEquals(TipoEventoPagamento.STATUS_ATUALIZADO.name(), evento.event());
+                    assertEquals(1L, evento.data().getIdPagamento());
+                    assertEquals(StatusPagamento.PENDENTE_PROCESSAMENTO, evento.data().getStatusAnterior());
+                    assertEquals(StatusPagamento.PROCESSADO_SUCESSO, evento.data().getStatus());
+                })
+                .assertNext(evento -> assertEquals(TipoEventoPagamento.INATIVADO.name(), evento.event()))
+                .thenCancel()
+                .verify();
+
+        assertEquals(0, eventos.assinantes());
+    }
+
+    @Test
+    @DisplayName("Deve descartar os eventos mais antigos de um assinante lento sem desconectá-lo")
+    void testAssinar_BufferCheio_DescartaMaisAntigos() {
+        PagamentoEventos eventos = novosEventos(2, PagamentoEventos.POLITICA_DESCARTAR);
+
+        StepVerifier.create(eventos.assinar(null, null), 0)
+                .then(() -> {
+                    for (long id = 1; id <= 5; id++) {
+                        eventos.publicarCriacao(novoPagamento(id, "12345678901", StatusPagamento.PENDENTE_PROCESSAMENTO));
+                    }
+                })
+                .thenRequest(3)
+                .assertNext(evento -> assertEquals(1L, idPagamento(evento)))
+                .assertNext(evento -> assertEquals(4L, idPagamento(evento)))
+                .assertNext(evento -> assertEquals(5L, idPagamento(evento)))
+                .thenCancel()
+                .verify();
+
+        assertEquals(2.0, meterRegistry.get("pagamentos.eventos.descartados").counter().count());
+    }
+
+    @Test
+    @DisplayName("Deve encerrar o stream do assinante lento quando a política for desconectar")
+    void testAssinar_BufferCheio_Desconecta() {
+        PagamentoEventos eventos = novosEventos(2, PagamentoEventos.POLITICA_DESCONECTAR);
+
+        StepVerifier.create(eventos.assinar(null, null), 0)
+                .then(() -> {
+                    for (long id = 1; id <= 5; id++) {
+                        eventos.publicarCriacao(novoPagamento(id, "12345678901", StatusPagamento.PENDENTE_PROCESSAMENTO));
+                    }
+                })
+                .thenRequest(Long.MAX_VALUE)
+                .thenConsumeWhile(evento -> true)
+                .expectComplete()
+                .verify(Duration.ofSeconds(5));
+
+        assertEquals(1.0, meterRegistry.get("pagamentos.eventos.desconectados").counter().count());
+        assertEquals(0, eventos.assinantes());
+    }
+
+    @Test
+    @DisplayName("Deve entregar todos os eventos publicados por várias threads ao mesmo tempo")
+    void testPublicar_Concorrente_EntregaTodos() throws Exception {
+        PagamentoEventos eventos = novosEventos(8_000, PagamentoEventos.POLITICA_DESCARTAR);
+        int threads = 8;
+        int porThread = 500;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch largada = new CountDownLatch(1);
+
+        try {
+            StepVerifier.create(eventos.assinar(null, null))
+                    .then(() -> {
+                        for (int t = 0; t < threads; t++) {
+                            long primeiroId = (long) t * porThread;
+                            executor.submit(() -> {
+                                largada.await();
+                                for (long id = primeiroId; id < primeiroId + porThread; id++) {
+                                    eventos.publicarCriacao(novoPagamento(id, "12345678901", StatusPagamento.PENDENTE_PROCESSAMENTO));
+                                }
+                                return null;
+                            });
+                        }
+                        largada.countDown();
+                    })
+                    .expectNextCount((long) threads * porThread)
+                    .thenCancel()
+                    .verify(Duration.ofSeconds(10));
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(0.0, meterRegistry.get("pagamentos.eventos.descartados").counter().count());
+    }
+
+    @Test
+    @DisplayName("Deve recusar capacidade ou política inválidas")
+    void testConstrutor_ConfiguracaoInvalida() {
+        assertThrows(IllegalArgumentException.class, () -> novosEventos(0, PagamentoEventos.POLITICA_DESCARTAR));
+        assertThrows(IllegalArgumentException.class, () -> novosEventos(16, "bloquear"));
+    }
+
+    private PagamentoEventos novosEventos(int capacidade, String politica) {
+        return new PagamentoEventos(capacidade, politica, Duration.ofHours(1), meterRegistry);
+    }
+
+    private static Long idPagamento(ServerSentEvent<EventoPagamento> evento) {
+        return evento.data().getIdPagamento();
+    }
+
+    private static Pagamento novoPagamento(Long idPagamento, String cpfCnpj, StatusPagamento status) {
+        Pagamento pagamento = new Pagamento();
+        pagamento.setIdPagamento(idPagamento);
+        pagamento.setCpfCnpj(cpfCnpj);
+        pagamento.setStatus(status);
+        return pagamento;
+    }
+}
@@ -0,0 +1,130 @@
+package br.com.fadesp.desafiotecnico.backend.pagamento_restapi.service;
+
+import br.com.fadesp.desafiotecnico.backend.pagamento_restapi.persistence.model.ResultadoLote;
+import br.com.fadesp.desafiotecnico.backend.pagamento_restapi.persistence.model.StatusPagamento;
+import br.com.fadesp.desafiotecnico.backend.pagamento_restapi.persistence.model.entity.Pagamento;
+import br.com.fadesp.desafiotecnico.backend.pagamento_restapi.persistence.repository.PagamentoRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.Validation;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Testes para PagamentoLoteService")
+class PagamentoLoteServiceTest {
+
+    private static final String PAGAMENTO_VALIDO = "{\"idPagamento\": %d, \"cpfCnpj\": \"12345678909\", \"metodoPagamento\": \"PIX\", \"valor\": 10.50}";
+
+    @Mock
+    private PagamentoRepository pagamentoRepository;
+
+    @Mock
+    private PagamentoCache pagamentoCache;
+
+    @Mock
+    private PagamentoResumoService pagamentoResumoService;
+
+    @Mock
+    private PagamentoEventos pagamentoEventos;
+
+    private PagamentoLoteService pagamentoLoteService;
+
+    @BeforeEach
+    void setUp() {
+        pagamentoLoteService = new PagamentoLoteService(pagamentoRepository, new ObjectMapper(),
+                Validation.buildDefaultValidatorFactory().getValidator(), pagamentoCache, pagamentoResumoService, new VersaoPagamentos(),
+                pagamentoEventos);
+        ReflectionTestUtils.setField(pagamentoLoteService, "tamanhoBloco", 2);
+    }
+
+    @Test
+    @DisplayName("Deve inserir um array JSON em blocos com status PENDENTE_PROCESSAMENTO")
+    void testCriarPagamentosEmLote_ArrayJson_InsereEmBlocos() throws IOException {
+        // O serviço reaproveita a lista do bloco, então cada chamada é copiada
+        List<List<Pagamento>> blocos = new ArrayList<>();
+        when(pagamentoRepository.inserirEmLote(anyList())).thenAnswer(chamada -> {
+            blocos.add(List.copyOf(chamada.<List<Pagamento>>getArgument(0)));
+            return Map.of();
+        });
+        String corpo = "[" + String.format(PAGAMENTO_VALIDO, 1) + "," + String.format(PAGAMENTO_VALIDO, 2) + ","
+                + String.format(PAGAMENTO_VALIDO, 3) + "]";
+
+        ResultadoLote resultado = pagamentoLoteService.criarPagamentosEmLote(comoStream(corpo));
+
+        assertEquals(3, resultado.getTotalRecebido());
+        assertEquals(3, resultado.getTotalInserido());
+        assertTrue(resultado.getFalhas().isEmpty());
+
+        assertEquals(List.of(2, 1), blocos.stream().map(List::size).toList());
+        assertEquals(StatusPagamento.PENDENTE_PROCESSAMENTO, blocos.get(1).get(0).getStatus());
+    }
+
+    @Test
+    @DisplayName("Deve gerar o id antes da inserção em massa, para que o evento de criação o leve")
+    void testCriarPagamentosEmLote_EventoComId() throws IOException {
+        when(pagamentoRepository.inserirEmLote(anyList())).thenReturn(Map.of());
+
+        pagamentoLoteService.criarPagamentosEmLote(comoStream("[" + String.format(PAGAMENTO_VALIDO, 1) + "," + String.format(PAGAMENTO_VALIDO, 2) + "]"));
+
+        ArgumentCaptor<Pagamento> eventos = ArgumentCaptor.forClass(Pagamento.class);
+        verify(pagamentoEventos, times(2)).publicarCriacao(eventos.capture());
+        List<String> ids = eventos.getAllValues().stream().map(Pagamento::getId).toList();
+        assertTrue(ids.stream().allMatch(ObjectId::isValid));
+        assertNotEquals(ids.get(0), ids.get(1));
+    }
+
+    @Test
+    @DisplayName("Deve aceitar NDJSON e reportar por índice os itens inválidos e os rejeitados pelo banco")
+    void testCriarPagamentosEmLote_Ndjson_ReportaFalhas() throws IOException {
+        when(pagamentoRepository.inserirEmLote(anyList())).thenReturn(Map.of(1, "E11000 duplicate key error"));
+        String corpo = String.format(PAGAMENTO_VALIDO, 1) + "\n"
+                + "{\"idPagamento\": 2, \"cpfCnpj\": \"123\", \"metodoPagamento\": \"PIX\", \"valor\": 10}\n"
+                + "{\"idPagamento\": 3, \"metodoPagamento\": \"INEXISTENTE\", \"valor\": 10}\n"
+                + String.format(PAGAMENTO_VALIDO, 1) + "\n";
+
+        ResultadoLote resultado = pagamentoLoteService.criarPagamentosEmLote(comoStream(corpo));
+
+        assertEquals(4, resultado.getTotalRecebido());
+        assertEquals(1, resultado.getTotalInserido());
+        assertFalse(resultado.isInterrompido());
+        assertEquals(List.of(1, 2, 3), resultado.getFalhas().stream().map(falha -> falha.getIndice()).sorted().toList());
+        verify(pagamentoCache, times(1)).registrar(1L, StatusPagamento.PENDENTE_PROCESSAMENTO, true);
+        verify(pagamentoResumoService, times(1)).registrarCriacao(any(Pagamento.class));
+    }
+
+    @Test
+    @DisplayName("Deve interromper o lote em JSON malformado mantendo os itens já lidos")
+    void testCriarPagamentosEmLote_JsonMalformado_Interrompe() throws IOException {
+        when(pagamentoRepository.inserirEmLote(anyList())).thenReturn(Map.of());
+        String corpo = "[" + String.format(PAGAMENTO_VALIDO, 1) + ", {\"idPagamento\": ";
+
+        ResultadoLote resultado = pagamentoLoteService.criarPagamentosEmLote(comoStream(corpo));
+
+        assertTrue(resultado.isInterrompido());
+        assertEquals(1, resultado.getTotalInserido());
+        assertEquals(1, resultado.getFalhas().size());
+    }
+
+    private static InputStream comoStream(String corpo) {
+        return new ByteArrayInputStream(corpo.getBytes(StandardCharsets.UTF_8));
+    }
+}
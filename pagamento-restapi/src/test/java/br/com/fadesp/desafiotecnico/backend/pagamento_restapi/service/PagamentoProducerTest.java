@@ -0,0 +1,106 @@
+package br.com.fadesp.desafiotecnico.backend.pagamento_restapi.service;
+
+import br.com.fadesp.desafiotecnico.backend.pagamento_restapi.persistence.model.PagamentoStatusAtualizacao;
+import br.com.fadesp.desafiotecnico.backend.pagamento_restapi.persistence.model.StatusPagamento;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.clients.producer.RecordMetadata;
+import org.apache.kafka.common.TopicPartition;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class PagamentoProducerTest {
+
+    @Mock
+    private KafkaTemplate<String, PagamentoStatusAtualizacao> kafkaTemplate;
+
+    private SimpleMeterRegistry meterRegistry;
+    private PagamentoProducer pagamentoProducer;
+    private PagamentoStatusAtualizacao atualizacao;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        pagamentoProducer = new PagamentoProducer(kafkaTemplate, new PagamentoMetricas(meterRegistry));
+        ReflectionTestUtils.setField(pagamentoProducer, "topicName", "pagamento-status");
+
+        atualizacao = new PagamentoStatusAtualizacao();
+        atualizacao.setIdPagamento(1L);
+        atualizacao.setNovoStatus(StatusPagamento.PROCESSADO_SUCESSO);
+    }
+
+    @Test
+    @DisplayName("Deve enviar a mensagem com o idPagamento como chave, o identificador no cabeçalho e contabilizar a confirmação")
+    @SuppressWarnings("unchecked")
+    void testEnviarMensagem_Confirmada() {
+        ArgumentCaptor<ProducerRecord<String, PagamentoStatusAtualizacao>> registroCaptor = ArgumentCaptor.forClass(ProducerRecord.class);
+        CompletableFuture<SendResult<String, PagamentoStatusAtualizacao>> futuro = new CompletableFuture<>();
+        when(kafkaTemplate.send(registroCaptor.capture())).thenReturn(futuro);
+
+        EnvioAtualizacao envio = pagamentoProducer.enviarMensagem(atualizacao);
+        assertEquals(1, pagamentoProducer.enviosPendentes());
+        RecordMetadata metadados = new RecordMetadata(new TopicPartition("pagamento-status", 0), 0L, 0, 0L, 0, 0);
+        futuro.complete(new SendResult<>(registroCaptor.getValue(), metadados));
+        assertEquals(0, pagamentoProducer.enviosPendentes());
+
+        ProducerRecord<String, PagamentoStatusAtualizacao> registro = registroCaptor.getValue();
+        assertEquals("pagamento-status", registro.topic());
+        assertEquals("1", registro.key());
+        assertEquals(envio.idMensagem(), new String(registro.headers().lastHeader(PagamentoProducer.HEADER_ID_MENSAGEM).value(), StandardCharsets.UTF_8));
+        assertNotNull(PagamentoMetricas.lerInstante(registro.headers().lastHeader(PagamentoProducer.HEADER_ENVIADO_EM).value()));
+        assertTrue(envio.confirmacao().isDone());
+        assertEquals(1L, meterRegistry.get("pagamentos.kafka.envio").tag("resultado", "confirmado").timer().count());
+        assertEquals(0L, meterRegistry.get("pagamentos.kafka.envio").tag("resultado", "falha").timer().count());
+    }
+
+    @Test
+    @DisplayName("Deve propagar a falha do envio e contabilizá-la")
+    void testEnviarMensagem_Falha() {
+        CompletableFuture<SendResult<String, PagamentoStatusAtualizacao>> futuro = new CompletableFuture<>();
+        when(kafkaTemplate.send(any(ProducerRecord.class))).thenReturn(futuro);
+
+        EnvioAtualizacao envio = pagamentoProducer.enviarMensagem(atualizacao);
+        futuro.completeExceptionally(new IllegalStateException("broker indisponível"));
+
+        assertTrue(envio.confirmacao().isCompletedExceptionally());
+        assertEquals(1L, meterRegistry.get("pagamentos.kafka.envio").tag("resultado", "falha").timer().count());
+    }
+
+    @Test
+    @DisplayName("Deve derivar o mesmo identificador de mensagem para a mesma chave de idempotência e pagamento")
+    void testEnviarMensagem_ChaveIdempotencia() {
+        when(kafkaTemplate.send(any(ProducerRecord.class))).thenReturn(new CompletableFuture<>());
+        PagamentoStatusAtualizacao outroPagamento = new PagamentoStatusAtualizacao();
+        outroPagamento.setIdPagamento(2L);
+        outroPagamento.setNovoStatus(StatusPagamento.PROCESSADO_SUCESSO);
+
+        String primeiro = pagamentoProducer.enviarMensagem(atualizacao, "chave-1").idMensagem();
+        String reenvio = pagamentoProducer.enviarMensagem(atualizacao, "chave-1").idMensagem();
+        String outraChave = pagamentoProducer.enviarMensagem(atualizacao, "chave-2").idMensagem();
+        String mesmaChaveOutroPagamento = pagamentoProducer.enviarMensagem(outroPagamento, "chave-1").idMensagem();
+
+        assertEquals(primeiro, reenvio);
+        assertNotEquals(primeiro, outraChave);
+        assertNotEquals(primeiro, mesmaChaveOutroPagamento);
+        assertNotEquals(primeiro, pagamentoProducer.enviarMensagem(atualizacao).idMensagem());
+    }
+}
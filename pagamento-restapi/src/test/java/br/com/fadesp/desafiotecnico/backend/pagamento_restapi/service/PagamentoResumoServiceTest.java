@@ -0,0 +1,171 @@
+package br.com.fadesp.desafiotecnico.backend.pagamento_restapi.service;
+
+import br.com.fadesp.desafiotecnico.backend.pagamento_restapi.persistence.model.MetodoPagamento;
+import br.com.fadesp.desafiotecnico.backend.pagamento_restapi.persistence.model.ResumoPagamentos;
+import br.com.fadesp.desafiotecnico.backend.pagamento_restapi.persistence.model.StatusPagamento;
+import br.com.fadesp.desafiotecnico.backend.pagamento_restapi.persistence.model.entity.Pagamento;
+import br.com.fadesp.desafiotecnico.backend.pagamento_restapi.persistence.model.entity.ResumoPagamento;
+import br.com.fadesp.desafiotecnico.backend.pagamento_restapi.persistence.repository.ResumoPagamentoRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Testes para PagamentoResumoService")
+class PagamentoResumoServiceTest {
+
+    @Mock
+    private ResumoPagamentoRepository resumoRepository;
+
+    @InjectMocks
+    private PagamentoResumoService pagamentoResumoService;
+
+    @Test
+    @DisplayName("Deve descarregar as variações acumuladas por status e método, incluindo valores com mais de duas casas")
+    void testDescarregar_AgrupaVariacoes() {
+        Pagamento pix = novoPagamento(MetodoPagamento.PIX, "10.50");
+        Pagamento boleto = novoPagamento(MetodoPagamento.BOLETO, "0.125");
+
+        pagamentoResumoService.registrarCriacao(pix);
+        pagamentoResumoService.registrarCriacao(novoPagamento(MetodoPagamento.PIX, "4.50"));
+        pagamentoResumoService.registrarCriacao(boleto);
+        pagamentoResumoService.registrarTransicao(pix, StatusPagamento.PROCESSADO_SUCESSO);
+        pagamentoResumoService.descarregar();
+
+        Map<String, ResumoPagamento> variacoes = capturarVariacoes();
+        assertEquals(3, variacoes.size());
+        assertVariacao(variacoes.get("PENDENTE_PROCESSAMENTO:PIX"), 1, "4.50");
+        assertVariacao(variacoes.get("PROCESSADO_SUCESSO:PIX"), 1, "10.50");
+        assertVariacao(variacoes.get("PENDENTE_PROCESSAMENTO:BOLETO"), 1, "0.125");
+    }
+
+    @Test
+    @DisplayName("Deve descontar o pagamento inativado e não gravar quando não houver variações")
+    void testDescarregar_InativacaoCompensaCriacao_NaoGrava() {
+        Pagamento pagamento = novoPagamento(MetodoPagamento.CARTAO_CREDITO, "99.90");
+
+        pagamentoResumoService.registrarCriacao(pagamento);
+        pagamentoResumoService.registrarInativacao(pagamento);
+        pagamentoResumoService.descarregar();
+
+        verify(resumoRepository, never()).incrementar(anyList());
+    }
+
+    @Test
+    @DisplayName("Deve manter as variações para a próxima descarga quando a gravação falhar")
+    void testDescarregar_FalhaNaGravacao_Reenvia() {
+        doThrow(new IllegalStateException("indisponível")).doNothing().when(resumoRepository).incrementar(anyList());
+        pagamentoResumoService.registrarCriacao(novoPagamento(MetodoPagamento.PIX, "10.00"));
+
+        pagamentoResumoService.descarregar();
+        pagamentoResumoService.descarregar();
+
+        ArgumentCaptor<List<ResumoPagamento>> captor = ArgumentCaptor.forClass(List.class);
+        verify(resumoRepository, times(2)).incrementar(captor.capture());
+        assertVariacao(captor.getAllValues().get(1).get(0), 1, "10.00");
+    }
+
+    @Test
+    @DisplayName("Deve consolidar os totais por status, por método e geral a partir das combinações gravadas")
+    void testObterResumo_ConsolidaTotais() {
+        when(resumoRepository.findAll()).thenReturn(List.of(
+                novoResumo(StatusPagamento.PROCESSADO_SUCESSO, MetodoPagamento.PIX, 2, "30.00"),
+                novoResumo(StatusPagamento.PENDENTE_PROCESSAMENTO, MetodoPagamento.PIX, 1, "5.00"),
+                novoResumo(StatusPagamento.PENDENTE_PROCESSAMENTO, MetodoPagamento.BOLETO, 3, "12.00")));
+
+        ResumoPagamentos resumo = pagamentoResumoService.obterResumo();
+
+        assertEquals(StatusPagamento.PENDENTE_PROCESSAMENTO, resumo.getItens().get(0).getStatus());
+        assertEquals(4L, resumo.getPorStatus().get(StatusPagamento.PENDENTE_PROCESSAMENTO).getQuantidade());
+        assertEquals(new BigDecimal("35.00"), resumo.getPorMetodo().get(MetodoPagamento.PIX).getValorTotal());
+        assertEquals(6L, resumo.getTotal().getQuantidade());
+        assertEquals(new BigDecimal("47.00"), resumo.getTotal().getValorTotal());
+    }
+
+    @Test
+    @DisplayName("Deve descartar as variações acumuladas até a agregação para não contá-las duas vezes")
+    void testReconstruir_DescartaVariacoesJaAgregadas() {
+        List<ResumoPagamento> agregados = List.of(novoResumo(StatusPagamento.PENDENTE_PROCESSAMENTO, MetodoPagamento.PIX, 2, "20.00"));
+        pagamentoResumoService.registrarCriacao(novoPagamento(MetodoPagamento.PIX, "10.00"));
+        when(resumoRepository.agregarPagamentosAtivos()).thenAnswer(invocacao -> {
+            pagamentoResumoService.registrarCriacao(novoPagamento(MetodoPagamento.PIX, "10.00"));
+            return agregados;
+        });
+
+        pagamentoResumoService.reconstruir();
+        pagamentoResumoService.descarregar();
+
+        verify(resumoRepository, times(1)).substituirTodos(agregados);
+        verify(resumoRepository, never()).incrementar(anyList());
+    }
+
+    @Test
+    @DisplayName("Deve manter as variações chegadas depois da agregação para a próxima descarga")
+    void testReconstruir_VariacaoPosteriorAAgregacao_Descarrega() {
+        List<ResumoPagamento> agregados = List.of(novoResumo(StatusPagamento.PENDENTE_PROCESSAMENTO, MetodoPagamento.PIX, 1, "10.00"));
+        when(resumoRepository.agregarPagamentosAtivos()).thenReturn(agregados);
+        doAnswer(invocacao -> {
+            pagamentoResumoService.registrarCriacao(novoPagamento(MetodoPagamento.BOLETO, "5.00"));
+            return null;
+        }).when(resumoRepository).substituirTodos(agregados);
+
+        pagamentoResumoService.reconstruir();
+        pagamentoResumoService.descarregar();
+
+        Map<String, ResumoPagamento> variacoes = capturarVariacoes();
+        assertEquals(1, variacoes.size());
+        assertVariacao(variacoes.get("PENDENTE_PROCESSAMENTO:BOLETO"), 1, "5.00");
+    }
+
+    @Test
+    @DisplayName("Deve devolver as variações descartadas quando a substituição falhar")
+    void testReconstruir_FalhaNaSubstituicao_MantemVariacoes() {
+        when(resumoRepository.agregarPagamentosAtivos()).thenReturn(List.of());
+        doThrow(new IllegalStateException("indisponível")).when(resumoRepository).substituirTodos(anyList());
+        pagamentoResumoService.registrarCriacao(novoPagamento(MetodoPagamento.PIX, "10.00"));
+
+        assertThrows(IllegalStateException.class, () -> pagamentoResumoService.reconstruir());
+        pagamentoResumoService.descarregar();
+
+        Map<String, ResumoPagamento> variacoes = capturarVariacoes();
+        assertVariacao(variacoes.get("PENDENTE_PROCESSAMENTO:PIX"), 1, "10.00");
+    }
+
+    private Map<String, ResumoPagamento> capturarVariacoes() {
+        ArgumentCaptor<List<ResumoPagamento>> captor = ArgumentCaptor.forClass(List.class);
+        verify(resumoRepository, times(1)).incrementar(captor.capture());
+        return captor.getValue().stream().collect(Collectors.toMap(ResumoPagamento::getId, Function.identity()));
+    }
+
+    private static void assertVariacao(ResumoPagamento variacao, long quantidade, String valorTotal) {
+        assertEquals(quantidade, variacao.getQuantidade());
+        assertEquals(0, new BigDecimal(valorTotal).compareTo(variacao.getValorTotal()), variacao.getValorTotal().toPlainString());
+    }
+
+    private static Pagamento novoPagamento(MetodoPagamento metodoPagamento, String valor) {
+        Pagamento pagamento = new Pagamento();
+        pagamento.setMetodoPagamento(metodoPagamento);
+        pagamento.setValor(new BigDecimal(valor));
+        pagamento.setStatus(StatusPagamento.PENDENTE_PROCESSAMENTO);
+        return pagamento;
+    }
+
+    private static ResumoPagamento novoResumo(StatusPagamento status, MetodoPagamento metodoPagamento, long quantidade, String valorTotal) {
+        return new ResumoPagamento(ResumoPagamento.chave(status, metodoPagamento), status, metodoPagamento, quantidade, new BigDecimal(valorTotal));
+    }
+}
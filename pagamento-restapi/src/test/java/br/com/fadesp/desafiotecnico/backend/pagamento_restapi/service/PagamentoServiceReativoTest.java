@@ -0,0 +1,137 @@
+package br.com.fadesp.desafiotecnico.backend.pagamento_restapi.service;
+
+import br.com.fadesp.desafiotecnico.backend.pagamento_restapi.persistence.model.PagamentoStatusAtualizacao;
+import br.com.fadesp.desafiotecnico.backend.pagamento_restapi.persistence.model.StatusPagamento;
+import br.com.fadesp.desafiotecnico.backend.pagamento_restapi.persistence.model.entity.Pagamento;
+import br.com.fadesp.desafiotecnico.backend.pagamento_restapi.persistence.repository.ReactivePagamentoRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Testes para PagamentoServiceReativo")
+class PagamentoServiceReativoTest {
+
+    @Mock
+    private ReactivePagamentoRepository pagamentoRepository;
+
+    @Mock
+    private PagamentoProducer pagamentoProducer;
+
+    @Mock
+    private PagamentoResumoService pagamentoResumoService;
+
+    @Spy
+    private PagamentoCache pagamentoCache = new PagamentoCache(true, 1000, Duration.ofMinutes(5), Duration.ofSeconds(30), new SimpleMeterRegistry());
+
+    @Spy
+    private VersaoPagamentos versaoPagamentos = new VersaoPagamentos();
+
+    @Mock
+    private PagamentoEventos pagamentoEventos;
+
+    @InjectMocks
+    private PagamentoServiceReativo pagamentoService;
+
+    private Pagamento pagamento;
+
+    @BeforeEach
+    void setUp() {
+        pagamento = new Pagamento();
+        pagamento.setId("689a072281ee3387cdf579b3");
+        pagamento.setIdPagamento(1L);
+        pagamento.setValor(new BigDecimal("100.00"));
+        pagamento.setStatus(StatusPagamento.PENDENTE_PROCESSAMENTO);
+        pagamento.setAtivo(true);
+
+        ReflectionTestUtils.setField(pagamentoService, "tamanhoPaginaPadrao", 50);
+        ReflectionTestUtils.setField(pagamentoService, "tamanhoPaginaMaximo", 500);
+        ReflectionTestUtils.setField(pagamentoService, "limiteContagem", 10000L);
+    }
+
+    @Test
+    @DisplayName("Deve montar a página com cursor e total a partir das consultas reativas")
+    void testListarPagamentos_ComProximaPaginaETotal() {
+        Pagamento segundo = new Pagamento();
+        segundo.setId("689a072281ee3387cdf579b4");
+        when(pagamentoRepository.findWithFilters(null, null, null, null, 2)).thenReturn(Flux.just(pagamento, segundo));
+        when(pagamentoRepository.countWithFilters(null, null, null, 10000L)).thenReturn(Mono.just(2L));
+
+        StepVerifier.create(pagamentoService.listarPagamentos(null, null, null, null, 1, true, false))
+                .assertNext(pagina -> {
+                    assertEquals(1, pagina.getData().size());
+                    assertEquals(Long.valueOf(2L), pagina.getTotalCount());
+                    assertNotNull(pagina.getNextCursor());
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("Deve sinalizar erro para cursor inválido sem consultar o banco")
+    void testListarPagamentos_CursorInvalido_Falha() {
+        StepVerifier.create(pagamentoService.listarPagamentos(null, null, null, "cursor-invalido", null, false, false))
+                .verifyError(IllegalArgumentException.class);
+        verify(pagamentoRepository, never()).findWithFilters(any(), any(), any(), any(), anyInt());
+    }
+
+    @Test
+    @DisplayName("Deve enviar a mensagem e reutilizar o estado em cache na chamada seguinte")
+    void testProcessarAtualizacaoStatus_UsaCache() {
+        PagamentoStatusAtualizacao atualizacao = new PagamentoStatusAtualizacao();
+        atualizacao.setIdPagamento(1L);
+        atualizacao.setNovoStatus(StatusPagamento.PROCESSADO_FALHA);
+        EnvioAtualizacao envio = new EnvioAtualizacao("id-mensagem", new CompletableFuture<>());
+        when(pagamentoRepository.findByIdPagamentoAndAtivoIsTrue(1L)).thenReturn(Mono.just(pagamento));
+        when(pagamentoProducer.enviarMensagem(atualizacao, null)).thenReturn(envio);
+
+        StepVerifier.create(pagamentoService.processarAtualizacaoStatus(atualizacao, null)).expectNext(envio).verifyComplete();
+        StepVerifier.create(pagamentoService.processarAtualizacaoStatus(atualizacao, null)).expectNext(envio).verifyComplete();
+
+        verify(pagamentoRepository, times(1)).findByIdPagamentoAndAtivoIsTrue(1L);
+    }
+
+    @Test
+    @DisplayName("Não deve enviar mensagem quando o pagamento não for encontrado")
+    void testProcessarAtualizacaoStatus_NaoEncontrado_Falha() {
+        PagamentoStatusAtualizacao atualizacao = new PagamentoStatusAtualizacao();
+        atualizacao.setIdPagamento(99L);
+        when(pagamentoRepository.findByIdPagamentoAndAtivoIsTrue(99L)).thenReturn(Mono.empty());
+
+        StepVerifier.create(pagamentoService.processarAtualizacaoStatus(atualizacao, null)).verifyComplete();
+
+        verify(pagamentoProducer, never()).enviarMensagem(any(), any());
+        assertNull(pagamentoCache.consultar(99L).status());
+    }
+
+    @Test
+    @DisplayName("Deve inativar um pagamento pendente e registrar o novo estado no cache")
+    void testInativarPagamento_StatusPendente_Sucesso() {
+        when(pagamentoRepository.inativarSePendente(pagamento.getId())).thenReturn(Mono.just(pagamento));
+
+        StepVerifier.create(pagamentoService.inativarPagamento(pagamento.getId())).expectNext(true).verifyComplete();
+
+        verify(pagamentoCache, times(1)).registrar(1L, StatusPagamento.PENDENTE_PROCESSAMENTO, false);
+        verify(pagamentoResumoService, times(1)).registrarInativacao(pagamento);
+    }
+}
@@ -1,24 +1,36 @@
 package br.com.fadesp.desafiotecnico.backend.pagamento_restapi.service;
 
+import br.com.fadesp.desafiotecnico.backend.pagamento_restapi.persistence.model.PagamentoResumido;
 import br.com.fadesp.desafiotecnico.backend.pagamento_restapi.persistence.model.PagamentoStatusAtualizacao;
+import br.com.fadesp.desafiotecnico.backend.pagamento_restapi.persistence.model.PaginatedResponse;
 import br.com.fadesp.desafiotecnico.backend.pagamento_restapi.persistence.model.StatusPagamento;
+import br.com.fadesp.desafiotecnico.backend.pagamento_restapi.persistence.model.VisaoPagamento;
 import br.com.fadesp.desafiotecnico.backend.pagamento_restapi.persistence.model.entity.Pagamento;
 import br.com.fadesp.desafiotecnico.backend.pagamento_restapi.persistence.repository.PagamentoRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import java.math.BigDecimal;
+import java.time.Duration;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -31,6 +43,21 @@ class PagamentoServiceTest {
     @Mock
     private PagamentoProducer pagamentoProducer;
 
+    @Mock
+    private PagamentoResumoService pagamentoResumoService;
+
+    @Spy
+    private PagamentoCache pagamentoCache = new PagamentoCache(true, 1000, Duration.ofMinutes(5), Duration.ofSeconds(30), new SimpleMeterRegistry());
+
+    @Spy
+    private VersaoPagamentos versaoPagamentos = new VersaoPagamentos();
+
+    @Mock
+    private PagamentoEventos pagamentoEventos;
+
+    @Spy
+    private SequenciadorPagamentos sequenciadorPagamentos = new SequenciadorPagamentos(true, 4, new SimpleMeterRegistry());
+
     @InjectMocks
     private PagamentoService pagamentoService;
 
@@ -44,6 +71,10 @@ class PagamentoServiceTest {
         pagamento.setValor(new BigDecimal("100.00"));
         pagamento.setStatus(StatusPagamento.PENDENTE_PROCESSAMENTO);
         pagamento.setAtivo(true);
+
+        ReflectionTestUtils.setField(pagamentoService, "tamanhoPaginaPadrao", 50);
+        ReflectionTestUtils.setField(pagamentoService, "tamanhoPaginaMaximo", 500);
+        ReflectionTestUtils.setField(pagamentoService, "limiteContagem", 10000L);
     }
 
     @Test
@@ -55,69 +86,182 @@ class PagamentoServiceTest {
 
         assertEquals(StatusPagamento.PENDENTE_PROCESSAMENTO, novoPagamento.getStatus());
         verify(pagamentoRepository, times(1)).save(pagamento);
+        verify(pagamentoCache, times(1)).registrar(1L, StatusPagamento.PENDENTE_PROCESSAMENTO, true);
+        verify(pagamentoResumoService, times(1)).registrarCriacao(pagamento);
+        verify(pagamentoEventos, times(1)).publicarCriacao(pagamento);
     }
 
     @Test
     @DisplayName("Deve listar todos os pagamentos ativos quando nenhum filtro for fornecido")
     void testListarPagamentos_SemFiltros_Sucesso() {
-        when(pagamentoRepository.findByAtivoIsTrue()).thenReturn(Collections.singletonList(pagamento));
+        when(pagamentoRepository.findWithFilters(null, "", null, null, 51)).thenReturn(Collections.singletonList(pagamento));
 
-        List<Pagamento> pagamentos = pagamentoService.listarPagamentos(null, "", null);
+        PaginatedResponse<Pagamento> pagina = pagamentoService.listarPagamentos(null, "", null, null, null, false, false);
 
-        assertFalse(pagamentos.isEmpty());
-        verify(pagamentoRepository, times(1)).findByAtivoIsTrue();
-        verify(pagamentoRepository, never()).findWithFilters(any(), any(), any());
+        assertFalse(pagina.getData().isEmpty());
+        assertNull(pagina.getNextCursor());
+        assertNull(pagina.getTotalCount());
+        verify(pagamentoRepository, never()).countWithFilters(any(), any(), any(), anyLong());
     }
 
     @Test
     @DisplayName("Deve listar pagamentos com filtros")
     void testListarPagamentos_ComFiltros_Sucesso() {
-        when(pagamentoRepository.findWithFilters(1L, "12345678901", StatusPagamento.PENDENTE_PROCESSAMENTO))
+        when(pagamentoRepository.findWithFilters(1L, "12345678901", StatusPagamento.PENDENTE_PROCESSAMENTO, null, 51))
                 .thenReturn(Collections.singletonList(pagamento));
 
-        List<Pagamento> pagamentos = pagamentoService.listarPagamentos(1L, "12345678901", StatusPagamento.PENDENTE_PROCESSAMENTO);
+        PaginatedResponse<Pagamento> pagina = pagamentoService.listarPagamentos(1L, "12345678901", StatusPagamento.PENDENTE_PROCESSAMENTO, null, null, false, false);
+
+        assertFalse(pagina.getData().isEmpty());
+        verify(pagamentoRepository, times(1)).findWithFilters(1L, "12345678901", StatusPagamento.PENDENTE_PROCESSAMENTO, null, 51);
+    }
+
+    @Test
+    @DisplayName("Deve retornar o cursor da próxima página quando houver mais resultados que o limite")
+    void testListarPagamentos_ComProximaPagina_RetornaCursor() {
+        Pagamento segundo = new Pagamento();
+        segundo.setId("689a072281ee3387cdf579b4");
+        when(pagamentoRepository.findWithFilters(null, null, null, null, 2)).thenReturn(List.of(pagamento, segundo));
+
+        PaginatedResponse<Pagamento> pagina = pagamentoService.listarPagamentos(null, null, null, null, 1, false, false);
+
+        assertEquals(1, pagina.getData().size());
+        assertNotNull(pagina.getNextCursor());
+
+        pagamentoService.listarPagamentos(null, null, null, pagina.getNextCursor(), 1, false, false);
+
+        verify(pagamentoRepository, times(1)).findWithFilters(null, null, null, pagamento.getId(), 2);
+    }
+
+    @Test
+    @DisplayName("Deve paginar a listagem resumida pelo id da projeção, sem buscar os documentos completos")
+    void testListarPagamentosResumidos_ComProximaPagina_RetornaCursor() {
+        PagamentoResumido primeiro = new PagamentoResumido(pagamento.getId(), 1L, "12345678901", null, new BigDecimal("100.00"), StatusPagamento.PENDENTE_PROCESSAMENTO);
+        PagamentoResumido segundo = new PagamentoResumido("689a072281ee3387cdf579b4", 2L, "12345678901", null, new BigDecimal("50.00"), StatusPagamento.PENDENTE_PROCESSAMENTO);
+        when(pagamentoRepository.findResumidosWithFilters(null, null, null, null, 2)).thenReturn(List.of(primeiro, segundo));
+
+        PaginatedResponse<PagamentoResumido> pagina = pagamentoService.listarPagamentosResumidos(null, null, null, null, 1, false, false);
+
+        assertEquals(List.of(primeiro), pagina.getData());
+        assertEquals(PagamentoService.codificarCursor(primeiro.id()), pagina.getNextCursor());
+        verify(pagamentoRepository, never()).findWithFilters(any(), any(), any(), any(), anyInt());
+    }
+
+    @Test
+    @DisplayName("Deve limitar o tamanho da página e preencher o total quando solicitado")
+    void testListarPagamentos_LimiteMaximoEContagem() {
+        when(pagamentoRepository.findWithFilters(null, null, null, null, 501)).thenReturn(Collections.singletonList(pagamento));
+        when(pagamentoRepository.countWithFilters(null, null, null, 10000L)).thenReturn(1L);
+
+        PaginatedResponse<Pagamento> pagina = pagamentoService.listarPagamentos(null, null, null, null, 10000, true, false);
+
+        assertEquals(Long.valueOf(1L), pagina.getTotalCount());
+    }
+
+    @Test
+    @DisplayName("Deve intercalar pagamentos ativos e arquivados pelo id, sem repetir os que estão nas duas coleções")
+    void testListarPagamentos_IncluirArquivados_IntercalaPorId() {
+        Pagamento arquivado = new Pagamento();
+        arquivado.setId("689a072281ee3387cdf579b2");
+        Pagamento copiado = new Pagamento();
+        copiado.setId(pagamento.getId());
+        Pagamento posterior = new Pagamento();
+        posterior.setId("689a072281ee3387cdf579b5");
+        when(pagamentoRepository.findWithFilters(null, null, null, null, 3)).thenReturn(List.of(pagamento, posterior));
+        when(pagamentoRepository.findArquivadosWithFilters(null, null, null, null, 3)).thenReturn(List.of(arquivado, copiado));
+        when(pagamentoRepository.countWithFilters(null, null, null, 10000L)).thenReturn(2L);
+        when(pagamentoRepository.countArquivadosWithFilters(null, null, null, 10000L)).thenReturn(2L);
+
+        PaginatedResponse<Pagamento> pagina = pagamentoService.listarPagamentos(null, null, null, null, 2, true, true);
+
+        assertEquals(List.of(arquivado, pagamento), pagina.getData());
+        assertEquals(PagamentoService.codificarCursor(pagamento.getId()), pagina.getNextCursor());
+        assertEquals(Long.valueOf(4L), pagina.getTotalCount());
+    }
+
+    @Test
+    @DisplayName("Deve consultar apenas a coleção principal quando os arquivados não forem solicitados")
+    void testListarPagamentos_SemArquivados_NaoConsultaArquivo() {
+        when(pagamentoRepository.findWithFilters(null, null, null, null, 51)).thenReturn(List.of(pagamento));
+
+        pagamentoService.listarPagamentos(null, null, null, null, null, false, false);
+
+        verify(pagamentoRepository, never()).findArquivadosWithFilters(any(), any(), any(), any(), anyInt());
+    }
 
-        assertFalse(pagamentos.isEmpty());
-        verify(pagamentoRepository, times(1)).findWithFilters(1L, "12345678901", StatusPagamento.PENDENTE_PROCESSAMENTO);
-        verify(pagamentoRepository, never()).findByAtivoIsTrue();
+    @Test
+    @DisplayName("Deve rejeitar cursor inválido")
+    void testListarPagamentos_CursorInvalido_Falha() {
+        assertThrows(IllegalArgumentException.class,
+                () -> pagamentoService.listarPagamentos(null, null, null, "cursor-invalido", null, false, false));
+        verify(pagamentoRepository, never()).findWithFilters(any(), any(), any(), any(), anyInt());
     }
 
     @Test
     @DisplayName("Deve inativar um pagamento com status PENDENTE_PROCESSAMENTO")
     void testInativarPagamento_StatusPendente_Sucesso() {
-        when(pagamentoRepository.findById(pagamento.getId())).thenReturn(Optional.of(pagamento));
+        when(pagamentoRepository.buscarIdPagamento(pagamento.getId())).thenReturn(Optional.of(1L));
+        when(pagamentoRepository.inativarSePendente(pagamento.getId())).thenReturn(Optional.of(pagamento));
 
         boolean resultado = pagamentoService.inativarPagamento(pagamento.getId());
 
         assertTrue(resultado);
-        assertFalse(pagamento.isAtivo());
-        verify(pagamentoRepository, times(1)).findById(pagamento.getId());
-        verify(pagamentoRepository, times(1)).save(pagamento);
+        verify(pagamentoCache, times(1)).registrar(1L, StatusPagamento.PENDENTE_PROCESSAMENTO, false);
+        verify(pagamentoResumoService, times(1)).registrarInativacao(pagamento);
+        verify(versaoPagamentos, times(1)).incrementar();
+        verify(pagamentoEventos, times(1)).publicarInativacao(pagamento);
+        verify(sequenciadorPagamentos, times(1)).executar(eq(1L), any(Supplier.class));
+        verify(pagamentoRepository, times(1)).inativarSePendente(pagamento.getId());
+        verify(pagamentoRepository, never()).findById(any());
+        verify(pagamentoRepository, never()).save(any(Pagamento.class));
     }
 
     @Test
-    @DisplayName("Não deve inativar um pagamento com status diferente de PENDENTE_PROCESSAMENTO")
-    void testInativarPagamento_StatusNaoPendente_Falha() {
-        pagamento.setStatus(StatusPagamento.PROCESSADO_SUCESSO);
-        when(pagamentoRepository.findById(pagamento.getId())).thenReturn(Optional.of(pagamento));
+    @DisplayName("Não deve inativar um pagamento com status diferente de PENDENTE_PROCESSAMENTO ou que não existe")
+    void testInativarPagamento_StatusNaoPendenteOuNaoEncontrado_Falha() {
+        when(pagamentoRepository.buscarIdPagamento("id_nao_existe")).thenReturn(Optional.empty());
+        when(pagamentoRepository.buscarIdPagamento(pagamento.getId())).thenReturn(Optional.of(1L));
+        when(pagamentoRepository.inativarSePendente(pagamento.getId())).thenReturn(Optional.empty());
 
-        boolean resultado = pagamentoService.inativarPagamento(pagamento.getId());
+        assertFalse(pagamentoService.inativarPagamento("id_nao_existe"));
+        assertFalse(pagamentoService.inativarPagamento(pagamento.getId()));
 
-        assertFalse(resultado);
-        verify(pagamentoRepository, times(1)).findById(pagamento.getId());
+        verify(pagamentoRepository, never()).inativarSePendente("id_nao_existe");
         verify(pagamentoRepository, never()).save(any(Pagamento.class));
+        verify(pagamentoResumoService, never()).registrarInativacao(any());
+        verify(versaoPagamentos, never()).incrementar();
+        verify(pagamentoEventos, never()).publicarInativacao(any());
     }
 
     @Test
-    @DisplayName("Não deve inativar um pagamento que não existe")
-    void testInativarPagamento_NaoEncontrado_Falha() {
-        when(pagamentoRepository.findById("id_nao_existe")).thenReturn(Optional.empty());
+    @DisplayName("Não deve repetir os efeitos da inativação quando o mesmo pagamento for inativado duas vezes")
+    void testInativarPagamento_SegundaVez_NaoRepeteEfeitos() {
+        when(pagamentoRepository.buscarIdPagamento(pagamento.getId())).thenReturn(Optional.of(1L));
+        when(pagamentoRepository.inativarSePendente(pagamento.getId())).thenReturn(Optional.of(pagamento), Optional.empty());
 
-        boolean resultado = pagamentoService.inativarPagamento("id_nao_existe");
+        assertTrue(pagamentoService.inativarPagamento(pagamento.getId()));
+        assertFalse(pagamentoService.inativarPagamento(pagamento.getId()));
 
-        assertFalse(resultado);
-        verify(pagamentoRepository, times(1)).findById("id_nao_existe");
-        verify(pagamentoRepository, never()).save(any(Pagamento.class));
+        verify(pagamentoResumoService, times(1)).registrarInativacao(pagamento);
+        verify(versaoPagamentos, times(1)).incrementar();
+        verify(pagamentoEventos, times(1)).publicarInativacao(pagamento);
+    }
+
+    @Test
+    @DisplayName("Deve gravar a inativação dentro do sequenciador, na faixa do idPagamento")
+    void testInativarPagamento_EscritaDentroDoSequenciador() {
+        when(pagamentoRepository.buscarIdPagamento(pagamento.getId())).thenReturn(Optional.of(1L));
+        when(pagamentoRepository.inativarSePendente(pagamento.getId())).thenAnswer(invocacao -> {
+            assertTrue(sequenciadorPagamentos.travadaPelaThreadAtual(1L));
+            return Optional.of(pagamento);
+        });
+
+        assertTrue(pagamentoService.inativarPagamento(pagamento.getId()));
+
+        var ordem = inOrder(pagamentoRepository, sequenciadorPagamentos);
+        ordem.verify(pagamentoRepository).buscarIdPagamento(pagamento.getId());
+        ordem.verify(sequenciadorPagamentos).executar(eq(1L), any(Supplier.class));
+        ordem.verify(pagamentoRepository).inativarSePendente(pagamento.getId());
     }
 
     @Test
@@ -127,12 +271,14 @@ class PagamentoServiceTest {
         atualizacao.setIdPagamento(1L);
         atualizacao.setNovoStatus(StatusPagamento.PROCESSADO_FALHA);
 
+        EnvioAtualizacao envio = new EnvioAtualizacao("id-mensagem", new CompletableFuture<>());
         when(pagamentoRepository.findByIdPagamentoAndAtivoIsTrue(1L)).thenReturn(Optional.of(pagamento));
+        when(pagamentoProducer.enviarMensagem(atualizacao, null)).thenReturn(envio);
 
-        boolean resultado = pagamentoService.processarAtualizacaoStatus(atualizacao);
+        Optional<EnvioAtualizacao> resultado = pagamentoService.processarAtualizacaoStatus(atualizacao, null);
 
-        assertTrue(resultado);
-        verify(pagamentoProducer, times(1)).enviarMensagem(atualizacao);
+        assertEquals(Optional.of(envio), resultado);
+        verify(pagamentoProducer, times(1)).enviarMensagem(atualizacao, null);
     }
 
     @Test
@@ -142,9 +288,67 @@ class PagamentoServiceTest {
         atualizacao.setIdPagamento(99L);
         when(pagamentoRepository.findByIdPagamentoAndAtivoIsTrue(99L)).thenReturn(Optional.empty());
 
-        boolean resultado = pagamentoService.processarAtualizacaoStatus(atualizacao);
+        Optional<EnvioAtualizacao> resultado = pagamentoService.processarAtualizacaoStatus(atualizacao, null);
+
+        assertTrue(resultado.isEmpty());
+        verify(pagamentoProducer, never()).enviarMensagem(any(), any());
+    }
+
+    @Test
+    @DisplayName("Deve consultar o cache antes do banco, inclusive para pagamentos não encontrados")
+    void testProcessarAtualizacaoStatus_UsaCache() {
+        PagamentoStatusAtualizacao atualizacao = new PagamentoStatusAtualizacao();
+        atualizacao.setIdPagamento(1L);
+        atualizacao.setNovoStatus(StatusPagamento.PROCESSADO_FALHA);
+        PagamentoStatusAtualizacao desconhecido = new PagamentoStatusAtualizacao();
+        desconhecido.setIdPagamento(99L);
+        desconhecido.setNovoStatus(StatusPagamento.PROCESSADO_FALHA);
+
+        when(pagamentoRepository.findByIdPagamentoAndAtivoIsTrue(1L)).thenReturn(Optional.of(pagamento));
+        when(pagamentoRepository.findByIdPagamentoAndAtivoIsTrue(99L)).thenReturn(Optional.empty());
+        when(pagamentoProducer.enviarMensagem(atualizacao, null)).thenReturn(new EnvioAtualizacao("id-mensagem", new CompletableFuture<>()));
+
+        assertTrue(pagamentoService.processarAtualizacaoStatus(atualizacao, null).isPresent());
+        assertTrue(pagamentoService.processarAtualizacaoStatus(atualizacao, null).isPresent());
+        assertTrue(pagamentoService.processarAtualizacaoStatus(desconhecido, null).isEmpty());
+        assertTrue(pagamentoService.processarAtualizacaoStatus(desconhecido, null).isEmpty());
+
+        verify(pagamentoRepository, times(1)).findByIdPagamentoAndAtivoIsTrue(1L);
+        verify(pagamentoRepository, times(1)).findByIdPagamentoAndAtivoIsTrue(99L);
+        verify(pagamentoProducer, times(2)).enviarMensagem(atualizacao, null);
+    }
+
+    @Test
+    @DisplayName("Não deve enviar mensagem para pagamento inativado, mesmo que estivesse em cache")
+    void testProcessarAtualizacaoStatus_PagamentoInativadoEmCache_Falha() {
+        PagamentoStatusAtualizacao atualizacao = new PagamentoStatusAtualizacao();
+        atualizacao.setIdPagamento(1L);
+        atualizacao.setNovoStatus(StatusPagamento.PROCESSADO_FALHA);
+        pagamentoCache.registrar(1L, StatusPagamento.PENDENTE_PROCESSAMENTO, true);
+        when(pagamentoRepository.buscarIdPagamento(pagamento.getId())).thenReturn(Optional.of(1L));
+        when(pagamentoRepository.inativarSePendente(pagamento.getId())).thenReturn(Optional.of(pagamento));
+
+        pagamentoService.inativarPagamento(pagamento.getId());
+
+        assertTrue(pagamentoService.processarAtualizacaoStatus(atualizacao, null).isEmpty());
+        verify(pagamentoRepository, never()).findByIdPagamentoAndAtivoIsTrue(any());
+        verify(pagamentoProducer, never()).enviarMensagem(any(), any());
+    }
+
+    @Test
+    @DisplayName("O ETag da listagem deve mudar após uma escrita e variar com os filtros")
+    void testEtagListagem_MudaAposEscrita() {
+        when(pagamentoRepository.save(any(Pagamento.class))).thenReturn(pagamento);
+        String antes = pagamentoService.etagListagem(null, null, StatusPagamento.PENDENTE_PROCESSAMENTO, null, 50, false, VisaoPagamento.COMPLETA, false);
+
+        assertEquals(antes, pagamentoService.etagListagem(null, null, StatusPagamento.PENDENTE_PROCESSAMENTO, null, 50, false, VisaoPagamento.COMPLETA, false));
+        assertNotEquals(antes, pagamentoService.etagListagem(null, null, StatusPagamento.PROCESSADO_SUCESSO, null, 50, false, VisaoPagamento.COMPLETA, false));
+        assertNotEquals(antes, pagamentoService.etagListagem(null, null, StatusPagamento.PENDENTE_PROCESSAMENTO, null, 50, false, VisaoPagamento.RESUMIDA, false));
+        assertNotEquals(antes, pagamentoService.etagListagem(null, null, StatusPagamento.PENDENTE_PROCESSAMENTO, null, 50, false, VisaoPagamento.COMPLETA, true));
+
+        pagamentoService.criarPagamento(pagamento);
 
-        assertFalse(resultado);
-        verify(pagamentoProducer, never()).enviarMensagem(any());
+        assertNotEquals(antes, pagamentoService.etagListagem(null, null, StatusPagamento.PENDENTE_PROCESSAMENTO, null, 50, false, VisaoPagamento.COMPLETA, false));
+        verify(pagamentoRepository, never()).findWithFilters(any(), any(), any(), any(), anyInt());
     }
-}
\ No newline at end of file
+}
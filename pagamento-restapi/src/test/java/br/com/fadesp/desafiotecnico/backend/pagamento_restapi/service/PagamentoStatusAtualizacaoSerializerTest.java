@@ -0,0 +1,97 @@
+package br.com.fadesp.desafiotecnico.backend.pagamento_restapi.service;
+
+import br.com.fadesp.desafiotecnico.backend.pagamento_restapi.persistence.model.PagamentoStatusAtualizacao;
+import br.com.fadesp.desafiotecnico.backend.pagamento_restapi.persistence.model.StatusPagamento;
+import org.apache.kafka.common.errors.SerializationException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.springframework.kafka.support.serializer.JsonDeserializer;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DisplayName("Testes para o formato da atualização de status no Kafka")
+class PagamentoStatusAtualizacaoSerializerTest {
+
+    private static final String TOPICO = "pagamento-status";
+
+    private PagamentoStatusAtualizacaoDeserializer deserializer;
+
+    @BeforeEach
+    void setUp() {
+        deserializer = new PagamentoStatusAtualizacaoDeserializer();
+        deserializer.configure(Map.of(
+                JsonDeserializer.VALUE_DEFAULT_TYPE, PagamentoStatusAtualizacao.class.getName(),
+                JsonDeserializer.TRUSTED_PACKAGES, PagamentoStatusAtualizacao.class.getPackageName()), false);
+    }
+
+    @AfterEach
+    void tearDown() {
+        deserializer.close();
+    }
+
+    @ParameterizedTest
+    @EnumSource(StatusPagamento.class)
+    @DisplayName("Deve gravar o formato binário com 10 bytes e lê-lo de volta")
+    void testFormatoBinario_IdaEVolta(StatusPagamento status) {
+        PagamentoStatusAtualizacao atualizacao = novaAtualizacao(Long.MAX_VALUE, status);
+
+        byte[] registro = novoSerializer(PagamentoStatusAtualizacaoSerializer.FORMATO_BINARIO).serialize(TOPICO, atualizacao);
+
+        assertEquals(10, registro.length);
+        assertEquals(1, registro[0]);
+        assertEquals(atualizacao, deserializer.deserialize(TOPICO, registro));
+    }
+
+    @Test
+    @DisplayName("Deve gravar JSON por padrão e o desserializador deve continuar lendo JSON")
+    void testFormatoJson_PadraoELidoPeloMesmoDesserializador() {
+        PagamentoStatusAtualizacao atualizacao = novaAtualizacao(1L, StatusPagamento.PROCESSADO_FALHA);
+
+        byte[] registro = novoSerializer(null).serialize(TOPICO, atualizacao);
+
+        assertTrue(new String(registro, StandardCharsets.UTF_8).startsWith("{"));
+        assertEquals(atualizacao, deserializer.deserialize(TOPICO, registro));
+        assertEquals(atualizacao, deserializer.deserialize(TOPICO,
+                " {\"idPagamento\":1,\"novoStatus\":\"PROCESSADO_FALHA\"}".getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Test
+    @DisplayName("Deve recusar versões e tamanhos desconhecidos do formato binário")
+    void testFormatoBinario_VersaoOuTamanhoDesconhecido() {
+        assertThrows(SerializationException.class, () -> deserializer.deserialize(TOPICO, new byte[]{2, 0, 0, 0, 0, 0, 0, 0, 1, 1}));
+        assertThrows(SerializationException.class, () -> deserializer.deserialize(TOPICO, new byte[]{1, 0, 0, 0, 0, 0, 0, 0, 1}));
+        assertThrows(SerializationException.class, () -> deserializer.deserialize(TOPICO, new byte[]{1, 0, 0, 0, 0, 0, 0, 0, 1, 9}));
+    }
+
+    @Test
+    @DisplayName("Deve recusar formatos de serialização desconhecidos")
+    void testConfigurar_FormatoDesconhecido() {
+        assertThrows(IllegalArgumentException.class, () -> novoSerializer("avro"));
+    }
+
+    private static PagamentoStatusAtualizacaoSerializer novoSerializer(String formato) {
+        PagamentoStatusAtualizacaoSerializer serializer = new PagamentoStatusAtualizacaoSerializer();
+        Map<String, Object> configuracao = formato == null
+                ? Map.of(JsonSerializer.ADD_TYPE_INFO_HEADERS, false)
+                : Map.of(JsonSerializer.ADD_TYPE_INFO_HEADERS, false, PagamentoStatusAtualizacaoSerializer.FORMATO, formato);
+        serializer.configure(configuracao, false);
+        return serializer;
+    }
+
+    private static PagamentoStatusAtualizacao novaAtualizacao(Long idPagamento, StatusPagamento status) {
+        PagamentoStatusAtualizacao atualizacao = new PagamentoStatusAtualizacao();
+        atualizacao.setIdPagamento(idPagamento);
+        atualizacao.setNovoStatus(status);
+        return atualizacao;
+    }
+}
@@ -0,0 +1,229 @@
+package br.com.fadesp.desafiotecnico.backend.pagamento_restapi.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DisplayName("Testes para SequenciadorPagamentos")
+@Timeout(30)
+class SequenciadorPagamentosTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    @DisplayName("Não deve perder atualizações nem executar em paralelo tarefas do mesmo pagamento sob concorrência")
+    void testExecutar_Estresse() throws InterruptedException {
+        SequenciadorPagamentos sequenciador = new SequenciadorPagamentos(true, 4, meterRegistry);
+        int pagamentos = 16;
+        int threads = 8;
+        int operacoesPorThread = 5_000;
+        long[] valores = new long[pagamentos];
+        AtomicInteger[] emExecucao = new AtomicInteger[pagamentos];
+        for (int i = 0; i < pagamentos; i++) {
+            emExecucao[i] = new AtomicInteger();
+        }
+        AtomicInteger violacoes = new AtomicInteger();
+        CountDownLatch largada = new CountDownLatch(1);
+
+        List<Thread> trabalhadores = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            trabalhadores.add(Thread.ofPlatform().start(() -> {
+                aguardar(largada);
+                for (int op = 0; op < operacoesPorThread; op++) {
+                    int indice = ThreadLocalRandom.current().nextInt(pagamentos);
+                    sequenciador.executar((long) indice, () -> {
+                        if (emExecucao[indice].incrementAndGet() != 1) {
+                            violacoes.incrementAndGet();
+                        }
+                        // Leitura e escrita separadas: sem exclusão, incrementos concorrentes se perdem
+                        long atual = valores[indice];
+                        Thread.onSpinWait();
+                        valores[indice] = atual + 1;
+                        emExecucao[indice].decrementAndGet();
+                    });
+                }
+            }));
+        }
+        largada.countDown();
+        for (Thread trabalhador : trabalhadores) {
+            trabalhador.join();
+        }
+
+        long total = 0;
+        for (long valor : valores) {
+            total += valor;
+        }
+        assertEquals(0, violacoes.get());
+        assertEquals((long) threads * operacoesPorThread, total);
+        assertEquals(0, sequenciador.pendentes());
+        double diretas = meterRegistry.get("pagamentos.sequenciador.tarefas").tag("caminho", "direto").counter().count();
+        double enfileiradas = meterRegistry.get("pagamentos.sequenciador.tarefas").tag("caminho", "fila").counter().count();
+        assertEquals(total, (long) (diretas + enfileiradas));
+        assertEquals((long) enfileiradas, meterRegistry.get("pagamentos.sequenciador.espera").timer().count());
+    }
+
+    @Test
+    @DisplayName("Deve executar em paralelo pagamentos de faixas diferentes")
+    void testExecutar_FaixasDiferentesEmParalelo() throws InterruptedException {
+        SequenciadorPagamentos sequenciador = new SequenciadorPagamentos(true, 4, meterRegistry);
+        long primeiro = 1L;
+        long segundo = 2L;
+        while (sequenciador.indice(segundo) == sequenciador.indice(primeiro)) {
+            segundo++;
+        }
+        CountDownLatch liberado = new CountDownLatch(1);
+        List<Boolean> resultado = Collections.synchronizedList(new ArrayList<>());
+
+        Thread bloqueada = Thread.ofPlatform().start(() ->
+                resultado.add(sequenciador.executar(primeiro, () -> aguardar(liberado))));
+        sequenciador.executar(segundo, liberado::countDown);
+        bloqueada.join();
+
+        assertEquals(List.of(true), resultado);
+    }
+
+    @Test
+    @DisplayName("Deve executar na ordem de chegada as tarefas que esperam pelo mesmo pagamento")
+    void testExecutar_OrdemDeChegada() throws InterruptedException {
+        SequenciadorPagamentos sequenciador = new SequenciadorPagamentos(true, 4, meterRegistry);
+        CountDownLatch emAndamento = new CountDownLatch(1);
+        CountDownLatch liberado = new CountDownLatch(1);
+        List<Integer> ordem = Collections.synchronizedList(new ArrayList<>());
+
+        List<Thread> threads = new ArrayList<>();
+        threads.add(Thread.ofPlatform().start(() -> sequenciador.executar(7L, () -> {
+            emAndamento.countDown();
+            aguardar(liberado);
+        })));
+        assertTrue(emAndamento.await(5, TimeUnit.SECONDS));
+
+        for (int i = 1; i <= 5; i++) {
+            int posicao = i;
+            threads.add(Thread.ofPlatform().start(() -> sequenciador.executar(7L, () -> ordem.add(posicao))));
+            while (sequenciador.pendentes() < posicao) {
+                Thread.onSpinWait();
+            }
+        }
+        liberado.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertEquals(List.of(1, 2, 3, 4, 5), ordem);
+        assertEquals(5.0, meterRegistry.get("pagamentos.sequenciador.tarefas").tag("caminho", "fila").counter().count());
+    }
+
+    @Test
+    @DisplayName("Deve executar na thread de quem chamou a tarefa que esperou pela faixa")
+    void testExecutar_EsperaNaThreadDeQuemChamou() throws InterruptedException {
+        SequenciadorPagamentos sequenciador = new SequenciadorPagamentos(true, 4, meterRegistry);
+        CountDownLatch emAndamento = new CountDownLatch(1);
+        CountDownLatch liberado = new CountDownLatch(1);
+        List<Thread> executoras = Collections.synchronizedList(new ArrayList<>());
+
+        Thread ocupante = Thread.ofPlatform().start(() -> sequenciador.executar(5L, () -> {
+            emAndamento.countDown();
+            aguardar(liberado);
+        }));
+        assertTrue(emAndamento.await(5, TimeUnit.SECONDS));
+        Thread chamadora = Thread.ofPlatform().start(() -> sequenciador.executar(5L, () -> {
+            executoras.add(Thread.currentThread());
+        }));
+        while (sequenciador.pendentes() < 1) {
+            Thread.onSpinWait();
+        }
+        liberado.countDown();
+        ocupante.join();
+        chamadora.join();
+
+        assertEquals(List.of(chamadora), executoras);
+        assertEquals(1.0, meterRegistry.get("pagamentos.sequenciador.tarefas").tag("caminho", "fila").counter().count());
+    }
+
+    @Test
+    @DisplayName("Deve repassar a exceção da tarefa e liberar a faixa")
+    void testExecutar_ExcecaoLiberaFaixa() throws InterruptedException {
+        SequenciadorPagamentos sequenciador = new SequenciadorPagamentos(true, 4, meterRegistry);
+        CountDownLatch emAndamento = new CountDownLatch(1);
+        CountDownLatch liberado = new CountDownLatch(1);
+
+        assertThrows(IllegalStateException.class, () -> sequenciador.executar(3L, () -> {
+            throw new IllegalStateException("falha");
+        }));
+
+        Thread bloqueada = Thread.ofPlatform().start(() -> sequenciador.executar(3L, () -> {
+            emAndamento.countDown();
+            aguardar(liberado);
+        }));
+        assertTrue(emAndamento.await(5, TimeUnit.SECONDS));
+        Thread.ofPlatform().start(() -> {
+            while (sequenciador.pendentes() < 1) {
+                Thread.onSpinWait();
+            }
+            liberado.countDown();
+        });
+        // A tarefa que esperou pela faixa falha e a exceção chega a quem chamou
+        assertThrows(IllegalArgumentException.class, () -> sequenciador.executar(3L, () -> {
+            throw new IllegalArgumentException("falha na fila");
+        }));
+        bloqueada.join();
+
+        assertEquals(42, sequenciador.executar(3L, () -> 42));
+    }
+
+    @Test
+    @DisplayName("Deve executar direto a chamada aninhada na mesma faixa, sem travar")
+    void testExecutar_ChamadaAninhada() {
+        SequenciadorPagamentos sequenciador = new SequenciadorPagamentos(true, 1, meterRegistry);
+
+        String resultado = sequenciador.executar(1L, () -> sequenciador.executar(2L, () -> "interno"));
+
+        assertEquals("interno", resultado);
+        assertEquals(1.0, meterRegistry.get("pagamentos.sequenciador.tarefas").tag("caminho", "direto").counter().count());
+    }
+
+    @Test
+    @DisplayName("Deve executar direto, sem métricas e numa faixa só, quando desabilitado")
+    void testExecutar_Desabilitado() {
+        SequenciadorPagamentos sequenciador = new SequenciadorPagamentos(false, 4, meterRegistry);
+
+        assertEquals("ok", sequenciador.executar(1L, () -> "ok"));
+        assertEquals(0, sequenciador.faixa(99L));
+        assertEquals(0.0, meterRegistry.get("pagamentos.sequenciador.tarefas").tag("caminho", "direto").counter().count());
+    }
+
+    @Test
+    @DisplayName("Deve arredondar a quantidade de faixas para potência de 2 e rejeitar valores negativos")
+    void testConfiguracaoFaixas() {
+        assertEquals(8, new SequenciadorPagamentos(true, 5, meterRegistry).quantidadeFaixas());
+        assertEquals(1, new SequenciadorPagamentos(true, 1, new SimpleMeterRegistry()).quantidadeFaixas());
+        int padrao = new SequenciadorPagamentos(true, 0, new SimpleMeterRegistry()).quantidadeFaixas();
+        assertTrue(padrao >= 4 * Runtime.getRuntime().availableProcessors());
+        assertEquals(0, padrao & (padrao - 1));
+        assertNotEquals(0, padrao);
+        assertThrows(IllegalArgumentException.class, () -> new SequenciadorPagamentos(true, -1, new SimpleMeterRegistry()));
+    }
+
+    private static boolean aguardar(CountDownLatch latch) {
+        try {
+            return latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package br.com.fadesp.desafiotecnico.backend.pagamento_restapi.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DisplayName("Testes para VersaoPagamentos")
+class VersaoPagamentosTest {
+
+    @Test
+    @DisplayName("Deve gerar ETags distintos por instância e por versão")
+    void testEtag_InstanciaEVersao() {
+        VersaoPagamentos versao = new VersaoPagamentos();
+        String etag = versao.etag(1L, null);
+
+        assertEquals(etag, versao.etag(1L, null));
+        assertNotEquals(etag, new VersaoPagamentos().etag(1L, null));
+
+        versao.incrementar();
+
+        assertNotEquals(etag, versao.etag(1L, null));
+    }
+
+    @Test
+    @DisplayName("Deve gerar ETags distintos para filtros que colidem no hashCode ou que só diferem na divisão entre eles")
+    void testEtag_FiltrosDistintos() {
+        VersaoPagamentos versao = new VersaoPagamentos();
+
+        assertEquals("Aa".hashCode(), "BB".hashCode());
+        assertNotEquals(versao.etag("Aa", null), versao.etag("BB", null));
+        assertNotEquals(versao.etag("ab", "c"), versao.etag("a", "bc"));
+        assertNotEquals(versao.etag("1", null), versao.etag(null, "1"));
+        assertEquals(versao.etag(1L, "123", null), versao.etag(1L, "123", null));
+    }
+
+    @Test
+    @DisplayName("Não deve gerar ETag nem responder 304, nem ao curinga, quando desabilitado")
+    void testEtag_Desabilitado() {
+        VersaoPagamentos versao = new VersaoPagamentos();
+        ReflectionTestUtils.setField(versao, "habilitado", false);
+
+        assertNull(versao.etag(1L, null));
+        assertFalse(VersaoPagamentos.corresponde("*", versao.etag(1L, null)));
+    }
+
+    @Test
+    @DisplayName("Deve reconhecer o ETag em listas, na forma fraca e no curinga")
+    void testCorresponde() {
+        String etag = new VersaoPagamentos().etag("filtro");
+
+        assertTrue(VersaoPagamentos.corresponde(etag, etag));
+        assertTrue(VersaoPagamentos.corresponde("\"outro\", W/" + etag, etag));
+        assertTrue(VersaoPagamentos.corresponde("*", etag));
+        assertFalse(VersaoPagamentos.corresponde("\"outro\"", etag));
+        assertFalse(VersaoPagamentos.corresponde(null, etag));
+    }
+}
@@ -1,10 +1,10 @@
 import { ComponentFixture, TestBed, fakeAsync, tick } from '@angular/core/testing';
 import { PagamentoListaComponent } from './pagamento-lista.component';
-import { PagamentoService } from '../../services/pagamento.service';
+import { PagamentoService, PaginatedResponse } from '../../services/pagamento.service';
 import { ToastService } from '../../services/toast.service';
 import { ReactiveFormsModule } from '@angular/forms';
 import { of, Subject, throwError } from 'rxjs';
-import { Pagamento } from '../../models/pagamento.model';
+import { PagamentoResumido } from '../../models/pagamento.model';
 import { PagamentoStatus } from '../../models/pagamento-status.enum';
 import { DecimalPipe } from '@angular/common';
 import { MetodoPagamento } from '../../models/pagamento-metodo.enum';
@@ -19,15 +19,14 @@ describe('PagamentoListaComponent', () => {
   let pagamentoService: jasmine.SpyObj<PagamentoService>;
   let toastService: jasmine.SpyObj<ToastService>;
 
-  const mockPagamentos: Pagamento[] = [
+  const mockPagamentos: PagamentoResumido[] = [
     {
       id: '1',
       idPagamento: 123456,
       cpfCnpj: '12345678909',
       metodoPagamento: MetodoPagamento.PIX,
       valor: 100.50,
-      status: PagamentoStatus.PENDENTE_PROCESSAMENTO,
-      ativo: true
+      status: PagamentoStatus.PENDENTE_PROCESSAMENTO
     },
     {
       id: '2',
@@ -35,11 +34,14 @@ describe('PagamentoListaComponent', () => {
       cpfCnpj: '98765432100',
       metodoPagamento: MetodoPagamento.CARTAO_CREDITO,
       valor: 200.75,
-      status: PagamentoStatus.PROCESSADO_SUCESSO,
-      ativo: true
+      status: PagamentoStatus.PROCESSADO_SUCESSO
     }
   ];
 
+  function pagina(data: PagamentoResumido[], nextCursor: string | null = null, totalCount: number | null = null): PaginatedResponse {
+    return { data, totalCount, nextCursor };
+  }
+
   beforeEach(async () => {
     const pagamentoServiceSpy = jasmine.createSpyObj('PagamentoService', [
       'getPagamentos', 
@@ -49,7 +51,7 @@ describe('PagamentoListaComponent', () => {
     
     const toastServiceSpy = jasmine.createSpyObj('ToastService', ['show']);
 
-    pagamentoServiceSpy.getPagamentos.and.returnValue(of(mockPagamentos));
+    pagamentoServiceSpy.getPagamentos.and.returnValue(of(pagina(mockPagamentos, null, 2)));
 
     await TestBed.configureTestingModule({
       imports: [
@@ -85,7 +87,7 @@ describe('PagamentoListaComponent', () => {
   });
 
   it('deve carregar pagamentos na inicialização', fakeAsync(() => {
-    pagamentoService.getPagamentos.and.returnValue(of(mockPagamentos));
+    pagamentoService.getPagamentos.and.returnValue(of(pagina(mockPagamentos, null, 2)));
     
     fixture.detectChanges();
     tick();
@@ -96,7 +98,7 @@ describe('PagamentoListaComponent', () => {
 
   it('deve aplicar filtros corretamente', fakeAsync(() => {
     
-    pagamentoService.getPagamentos.and.returnValue(of([mockPagamentos[0]]));
+    pagamentoService.getPagamentos.and.returnValue(of(pagina([mockPagamentos[0]], null, 1)));
     
     fixture.detectChanges();
     
@@ -107,7 +109,7 @@ describe('PagamentoListaComponent', () => {
     discardPeriodicTasks();
     
     expect(pagamentoService.getPagamentos).toHaveBeenCalledWith(
-      jasmine.objectContaining({ cpfCnpj: '12345678909' })
+      jasmine.objectContaining({ cpfCnpj: '12345678909' }), 10, null, true
     );
     
     component.filtroForm.get('busca')?.setValue('123456');
@@ -117,7 +119,7 @@ describe('PagamentoListaComponent', () => {
     discardPeriodicTasks();
     
     expect(pagamentoService.getPagamentos).toHaveBeenCalledWith(
-      jasmine.objectContaining({ idPagamento: 123456 })
+      jasmine.objectContaining({ idPagamento: 123456 }), 10, null, true
     );
     
     component.filtroForm.get('status')?.setValue('PENDENTE_PROCESSAMENTO');
@@ -127,7 +129,7 @@ describe('PagamentoListaComponent', () => {
     discardPeriodicTasks();
     
     expect(pagamentoService.getPagamentos).toHaveBeenCalledWith(
-      jasmine.objectContaining({ status: 'PENDENTE_PROCESSAMENTO' })
+      jasmine.objectContaining({ status: 'PENDENTE_PROCESSAMENTO' }), 10, null, true
     );
   }));
 
@@ -144,7 +146,7 @@ describe('PagamentoListaComponent', () => {
 
   it('deve inativar pagamento com sucesso', fakeAsync(() => {
     pagamentoService.inativarPagamento.and.returnValue(of('success'));
-    pagamentoService.getPagamentos.and.returnValue(of(mockPagamentos));
+    pagamentoService.getPagamentos.and.returnValue(of(pagina(mockPagamentos, null, 2)));
     
     fixture.detectChanges(); 
     component.inativarPagamento('1');
@@ -159,7 +161,7 @@ describe('PagamentoListaComponent', () => {
 
   it('deve processar pagamento com sucesso', fakeAsync(() => {
     pagamentoService.processarPagamento.and.returnValue(of('success'));
-    pagamentoService.getPagamentos.and.returnValue(of(mockPagamentos));
+    pagamentoService.getPagamentos.and.returnValue(of(pagina(mockPagamentos, null, 2)));
     
     fixture.detectChanges(); 
     component.processarPagamento(123456, PagamentoStatus.PROCESSADO_SUCESSO);
@@ -175,35 +177,48 @@ describe('PagamentoListaComponent', () => {
     );
   }));
 
-  it('deve aplicar paginação corretamente', fakeAsync(() => {
-    
-    component.currentPage = 1;
-    component.pageSize = 1;
-    component['allFilteredPagamentos'] = [...mockPagamentos];
-    component.totalItems = mockPagamentos.length;
-    
-    component['applyPagination']();
-    tick();
-    
+  it('deve buscar cada página sob demanda pelo nextCursor', () => {
+    pagamentoService.getPagamentos.and.returnValues(
+      of(pagina([mockPagamentos[0]], 'cursor-1', 2)),
+      of(pagina([mockPagamentos[1]]))
+    );
+    component.filtroForm.get('pageSize')?.setValue(1, { emitEvent: false });
+
+    component.loadPagamentos();
+
+    expect(pagamentoService.getPagamentos).toHaveBeenCalledWith(jasmine.any(Object), 1, null, true);
     expect(component.pagamentos.length).toBe(1);
-    expect(component.totalPages).toBe(1);
-    expect(component.totalItems).toBe(2);
     expect(component.pagamentos[0].idPagamento).toBe(123456);
-  }));
+    expect(component.totalPages).toBe(2);
+    expect(component.hasNextPage).toBeTrue();
+
+    component.nextPage();
+
+    expect(pagamentoService.getPagamentos).toHaveBeenCalledWith(jasmine.any(Object), 1, 'cursor-1', false);
+    expect(component.currentPage).toBe(2);
+    expect(component.pagamentos[0].idPagamento).toBe(789012);
+    expect(component.hasNextPage).toBeFalse();
+  });
+
+  it('deve navegar entre páginas já alcançadas', () => {
+    pagamentoService.getPagamentos.and.returnValues(
+      of(pagina([mockPagamentos[0]], 'cursor-1', 2)),
+      of(pagina([mockPagamentos[1]])),
+      of(pagina([mockPagamentos[0]], 'cursor-1', 2))
+    );
+    component.filtroForm.get('pageSize')?.setValue(1, { emitEvent: false });
+    component.loadPagamentos();
+
+    component.goToPage(3);
+    expect(component.currentPage).toBe(1);
 
-  it('deve navegar entre páginas', () => {
-    component['allFilteredPagamentos'] = [...mockPagamentos, ...mockPagamentos]; 
-    component.pageSize = 1;
-    component.totalPages = 4;
-    
     component.goToPage(2);
     expect(component.currentPage).toBe(2);
-    
-    component.nextPage();
-    expect(component.currentPage).toBe(3);
-    
+
     component.prevPage();
-    expect(component.currentPage).toBe(2);
+    expect(component.currentPage).toBe(1);
+    expect(pagamentoService.getPagamentos).toHaveBeenCalledTimes(4);
+    expect(component.pagamentos[0].idPagamento).toBe(123456);
   });
 
   it('deve retornar métodos de pagamento corretamente', () => {
@@ -1,7 +1,7 @@
 import { Component, EventEmitter, OnInit, Output, OnDestroy } from '@angular/core';
 import { CommonModule, NgClass, CurrencyPipe, DecimalPipe } from '@angular/common';
-import { PagamentoService } from '../../services/pagamento.service';
-import { Pagamento } from '../../models/pagamento.model';
+import { PagamentoService, PaginatedResponse } from '../../services/pagamento.service';
+import { PagamentoResumido } from '../../models/pagamento.model';
 import { FormBuilder, FormGroup, ReactiveFormsModule } from '@angular/forms';
 import { PagamentoStatus } from '../../models/pagamento-status.enum';
 import { ToastService } from '../../services/toast.service';
@@ -26,7 +26,7 @@ export class PagamentoListaComponent implements OnInit {
 
   showPagamentoModal = false;
 
-  pagamentos: Pagamento[] = [];
+  pagamentos: PagamentoResumido[] = [];
   filtroForm!: FormGroup;
   PagamentoStatus = PagamentoStatus;
 
@@ -36,7 +36,8 @@ export class PagamentoListaComponent implements OnInit {
   totalPages: number = 0;
   pageSizes: number[] = [10, 20, 50]; 
 
-  private allFilteredPagamentos: Pagamento[] = []; 
+  // cursores[i] abre a página i + 1; a lista só conhece as páginas já alcançadas e a seguinte
+  private cursores: (string | null)[] = [null];
 
   constructor(private fb: FormBuilder, private pagamentoService: PagamentoService, private toastService: ToastService) { }
 
@@ -54,6 +55,7 @@ export class PagamentoListaComponent implements OnInit {
       takeUntil(this.destroy$)
     ).subscribe(() => {
       this.currentPage = 1;
+      this.cursores = [null];
       this.loadPagamentos();
     });
   }
@@ -109,20 +111,26 @@ export class PagamentoListaComponent implements OnInit {
       filtros.status = formValue.status;
     }
 
-    this.pagamentoService.getPagamentos(filtros).subscribe({
-      next: (data: Pagamento[]) => {
+    this.pageSize = Number(formValue.pageSize) || this.pageSize;
+    const pagina = this.currentPage;
+
+    this.pagamentoService.getPagamentos(filtros, this.pageSize, this.cursores[pagina - 1], pagina === 1).subscribe({
+      next: (response: PaginatedResponse) => {
       
-        this.allFilteredPagamentos = data.filter(p => p.ativo)
+        this.pagamentos = response.data
           .map(pagamento => ({
             ...pagamento,
             status: this.mapStatusToEnum(pagamento.status as unknown as string)
           }));
-        
-    
-        this.totalItems = this.allFilteredPagamentos.length;
-        this.totalPages = Math.ceil(this.totalItems / this.pageSize);
-        
-        this.applyPagination();
+
+        this.cursores = this.cursores.slice(0, pagina);
+        if (response.nextCursor) {
+          this.cursores.push(response.nextCursor);
+        }
+        if (response.totalCount != null) {
+          this.totalItems = response.totalCount;
+        }
+        this.totalPages = Math.max(Math.ceil(this.totalItems / this.pageSize), this.cursores.length);
       },
       error: err => {
         this.toastService.show('Erro ao carregar pagamentos', 'error');
@@ -131,13 +139,6 @@ export class PagamentoListaComponent implements OnInit {
     });
   }
 
-  
-  private applyPagination(): void {
-    const startIndex = (this.currentPage - 1) * this.pageSize;
-    const endIndex = startIndex + this.pageSize;
-    this.pagamentos = this.allFilteredPagamentos.slice(startIndex, endIndex);
-  }
-
   openNovoPagamentoModal(): void {
     this.showPagamentoModal = true;
   }
@@ -189,28 +190,32 @@ export class PagamentoListaComponent implements OnInit {
 
   //---- Todos os Métodos necessários para Paginação
   goToPage(page: number): void {
-    if (page >= 1 && page <= this.totalPages) {
+    if (page >= 1 && page <= this.cursores.length) {
       this.currentPage = page;
-      this.applyPagination();
+      this.loadPagamentos();
     }
   }
 
   nextPage(): void {
-    if (this.currentPage < this.totalPages) {
+    if (this.hasNextPage) {
       this.currentPage++;
-      this.applyPagination();
+      this.loadPagamentos();
     }
   }
 
   prevPage(): void {
     if (this.currentPage > 1) {
       this.currentPage--;
-      this.applyPagination();
+      this.loadPagamentos();
     }
   }
 
+  get hasNextPage(): boolean {
+    return this.currentPage < this.cursores.length;
+  }
+
   get pagesArray(): number[] {
-    return Array.from({ length: this.totalPages }, (_, i) => i + 1);
+    return Array.from({ length: this.cursores.length }, (_, i) => i + 1);
   }
   //-- Fim dos Métodos necessários para Paginação: oh coisinha chata!
 
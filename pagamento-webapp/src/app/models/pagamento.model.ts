@@ -12,4 +12,6 @@ export interface Pagamento {
   ativo: boolean;
 }
 
-export interface NovoPagamento extends Omit<Pagamento, 'id' | 'status' | 'ativo'> {}
\ No newline at end of file
+export interface NovoPagamento extends Omit<Pagamento, 'id' | 'status' | 'ativo'> {}
+
+export type PagamentoResumido = Pick<Pagamento, 'id' | 'idPagamento' | 'cpfCnpj' | 'metodoPagamento' | 'valor' | 'status'>;
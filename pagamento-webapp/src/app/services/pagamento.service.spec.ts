@@ -1,7 +1,7 @@
 import { fakeAsync, TestBed, tick } from '@angular/core/testing';
 import { HttpClientTestingModule, HttpTestingController } from '@angular/common/http/testing';
-import { PagamentoService } from './pagamento.service';
-import { Pagamento } from '../models/pagamento.model';
+import { PagamentoService, PaginatedResponse } from './pagamento.service';
+import { Pagamento, PagamentoResumido } from '../models/pagamento.model';
 import { HttpStatusCode } from '@angular/common/http';
 import { throwError } from 'rxjs';
 import { MetodoPagamento } from '../models/pagamento-metodo.enum';
@@ -20,6 +20,18 @@ function createMockPagamento(overrides: Partial<Pagamento> = {}): Pagamento {
   };
 }
 
+function createMockPagamentoResumido(overrides: Partial<PagamentoResumido> = {}): PagamentoResumido {
+  return {
+    id: '1',
+    idPagamento: 123,
+    cpfCnpj: '12345678909',
+    metodoPagamento: MetodoPagamento.PIX,
+    valor: 100,
+    status: PagamentoStatus.PENDENTE_PROCESSAMENTO,
+    ...overrides
+  };
+}
+
 describe('PagamentoService', () => {
   let service: PagamentoService;
   let httpMock: HttpTestingController;
@@ -43,10 +55,9 @@ describe('PagamentoService', () => {
   describe('getPagamentos()', () => {
     it('deve retornar lista de pagamentos com filtros', () => {
       const mockPagamentos = [
-        createMockPagamento({
+        createMockPagamentoResumido({
           id: '1',
-          metodoPagamento: MetodoPagamento.BOLETO,
-          ativo: false
+          metodoPagamento: MetodoPagamento.BOLETO
         })
       ];
 
@@ -56,9 +67,9 @@ describe('PagamentoService', () => {
         status: PagamentoStatus.PENDENTE_PROCESSAMENTO 
       };
 
-      service.getPagamentos(filtro).subscribe(pagamentos => {
-        expect(pagamentos.length).toBe(1);
-        expect(pagamentos).toEqual(mockPagamentos);
+      service.getPagamentos(filtro, 10).subscribe(response => {
+        expect(response.data.length).toBe(1);
+        expect(response.data).toEqual(mockPagamentos);
       });
 
       const req = httpMock.expectOne(
@@ -68,19 +79,35 @@ describe('PagamentoService', () => {
                req.params.get('status') === PagamentoStatus.PENDENTE_PROCESSAMENTO
       );
       expect(req.request.method).toBe('GET');
-      req.flush(mockPagamentos);
+      req.flush({ data: mockPagamentos, totalCount: null, nextCursor: null });
+    });
+
+    it('deve buscar uma única página com o limite, o cursor e o total pedidos', () => {
+      const pagamentos = [createMockPagamentoResumido({ id: '2', idPagamento: 2 })];
+      let resultado: PaginatedResponse | undefined;
+
+      service.getPagamentos({}, 20, 'cursor-1', true).subscribe(response => resultado = response);
+
+      const req = httpMock.expectOne(req => req.url === `${API_URL}/lista`);
+      expect(req.request.params.get('visao')).toBe('RESUMIDA');
+      expect(req.request.params.get('limite')).toBe('20');
+      expect(req.request.params.get('cursor')).toBe('cursor-1');
+      expect(req.request.params.get('incluirTotal')).toBe('true');
+      req.flush({ data: pagamentos, totalCount: 21, nextCursor: 'cursor-2' });
+
+      expect(resultado).toEqual({ data: pagamentos, totalCount: 21, nextCursor: 'cursor-2' });
     });
 
     it('deve lidar com erro na requisição', () => {
       const filtro = {};
-      service.getPagamentos(filtro).subscribe({
+      service.getPagamentos(filtro, 10).subscribe({
         next: () => fail('Deveria ter falhado'),
         error: (error) => {
           expect(error.message).toContain('Erro ao carregar pagamentos');
         }
       });
 
-      const req = httpMock.expectOne(`${API_URL}/lista`);
+      const req = httpMock.expectOne(req => req.url === `${API_URL}/lista`);
       req.error(new ProgressEvent('Erro de rede'), { status: 500 });
     });
   });
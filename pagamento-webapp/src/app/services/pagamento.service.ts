@@ -1,14 +1,15 @@
 import { Injectable } from '@angular/core';
 import { HttpClient, HttpParams, HttpStatusCode } from '@angular/common/http';
 import { catchError, map, Observable, throwError } from 'rxjs';
-import { Pagamento } from '../models/pagamento.model';
+import { Pagamento, PagamentoResumido } from '../models/pagamento.model';
 import { PagamentoStatus } from '../models/pagamento-status.enum';
 import { timeout } from 'rxjs/operators';
 import { environment } from '../../environments/environment';
 
 export interface PaginatedResponse {
-  data: Pagamento[];
-  totalCount: number;
+  data: PagamentoResumido[];
+  totalCount: number | null;
+  nextCursor: string | null;
 }
 
 export interface PagamentoStatusAtualizacao {
@@ -26,8 +27,8 @@ export class PagamentoService {
 
   constructor(private http: HttpClient) { }
 
-  getPagamentos(filtro: any): Observable<Pagamento[]> {
-    let params = new HttpParams();
+  getPagamentos(filtro: any, limite: number, cursor?: string | null, incluirTotal = false): Observable<PaginatedResponse> {
+    let params = new HttpParams().set('visao', 'RESUMIDA').set('limite', limite);
     
     if (filtro.idPagamento && !isNaN(filtro.idPagamento)) {
       params = params.set('idPagamento', filtro.idPagamento);
@@ -41,7 +42,15 @@ export class PagamentoService {
       params = params.set('status', filtro.status);
     }
 
-    return this.http.get<Pagamento[]>(`${this.apiUrl}/lista`, { params }).pipe(
+    if (cursor) {
+      params = params.set('cursor', cursor);
+    }
+
+    if (incluirTotal) {
+      params = params.set('incluirTotal', true);
+    }
+
+    return this.http.get<PaginatedResponse>(`${this.apiUrl}/lista`, { params }).pipe(
       timeout(10000),
       catchError(error => {
         console.error('Erro na requisição de pagamentos:', error);